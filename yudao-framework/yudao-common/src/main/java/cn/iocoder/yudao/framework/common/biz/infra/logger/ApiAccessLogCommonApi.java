@@ -11,6 +11,8 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+
 @FeignClient(name = RpcConstants.INFRA_NAME) // TODO 芋艿：fallbackFactory =
 @Tag(name = "RPC 服务 - API 访问日志")
 public interface ApiAccessLogCommonApi {
@@ -21,6 +23,10 @@ public interface ApiAccessLogCommonApi {
     @Operation(summary = "创建 API 访问日志")
     CommonResult<Boolean> createApiAccessLog(@Valid @RequestBody ApiAccessLogCreateReqDTO createDTO);
 
+    @PostMapping(PREFIX + "/create-list")
+    @Operation(summary = "批量创建 API 访问日志")
+    CommonResult<Boolean> createApiAccessLogList(@Valid @RequestBody List<ApiAccessLogCreateReqDTO> createDTOs);
+
     /**
      * 【异步】创建 API 访问日志
      *
@@ -17,6 +17,12 @@ public class ApiAccessLogCreateReqDTO {
      * 链路追踪编号
      */
     private String traceId;
+    /**
+     * 租户编号
+     *
+     * 批量写入时，日志可能来自不同租户，因此需要每条日志各自携带
+     */
+    private Long tenantId;
     /**
      * 用户编号
      */
@@ -0,0 +1,42 @@
+package cn.iocoder.yudao.framework.common.pojo;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * 游标分页参数，基于有索引的排序键定位（Keyset Pagination），避免深分页时 OFFSET 扫描大量数据
+ *
+ * 1. {@link #cursor} 为 null 时，使用原有的 OFFSET 分页，兼容已有的调用方
+ * 2. {@link #cursor} 不为 null 时，使用游标分页：空字符串表示第一页，后续传入上一页返回的 {@link PageResult#getNextCursor()}
+ */
+@Schema(description = "游标分页参数")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class CursorPageParam extends PageParam {
+
+    /**
+     * 游标 - 第一页
+     */
+    public static final String CURSOR_FIRST = "";
+
+    @Schema(description = "游标，空字符串表示第一页；为空时，使用页码分页", example = "MTAyNA")
+    private String cursor;
+
+    @Schema(description = "游标分页时，是否查询总数，默认不查询", example = "false")
+    private Boolean searchCount;
+
+    /**
+     * 是否使用游标分页
+     *
+     * @return 是否使用
+     */
+    @JsonIgnore
+    public boolean isCursorMode() {
+        return cursor != null;
+    }
+
+}
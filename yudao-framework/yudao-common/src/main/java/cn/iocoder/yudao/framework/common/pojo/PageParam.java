@@ -21,6 +21,12 @@ public class PageParam implements Serializable {
      * 例如说，导出接口，可以设置 {@link #pageSize} 为 -1 不分页，查询所有数据。
      */
     public static final Integer PAGE_SIZE_NONE = -1;
+    /**
+     * 每页条数 - 流式导出
+     *
+     * 例如说，导出接口，可以设置 {@link #pageSize} 为该值，分页查询后流式写入 Excel，避免一次性查询所有数据。
+     */
+    public static final Integer PAGE_SIZE_EXPORT = 1000;
 
     @Schema(description = "页码，从 1 开始", requiredMode = Schema.RequiredMode.REQUIRED,example = "1")
     @NotNull(message = "页码不能为空")
@@ -17,6 +17,9 @@ public final class PageResult<T> implements Serializable {
     @Schema(description = "总量", requiredMode = Schema.RequiredMode.REQUIRED)
     private Long total;
 
+    @Schema(description = "下一页的游标，只有游标分页时返回；为空时，表示没有下一页")
+    private String nextCursor;
+
     public PageResult() {
     }
 
@@ -1,11 +1,14 @@
 package cn.iocoder.yudao.framework.common.util.cache;
 
+import cn.hutool.core.thread.ThreadFactoryBuilder;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 
 import java.time.Duration;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Cache 工具类
@@ -21,6 +24,23 @@ public class CacheUtils {
      */
     private static final Integer CACHE_MAX_SIZE = 10000;
 
+    /**
+     * 异步刷新的线程数
+     */
+    private static final int REFRESH_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    /**
+     * 异步刷新的任务队列长度
+     */
+    private static final int REFRESH_QUEUE_CAPACITY = 1000;
+
+    /**
+     * 异步刷新的线程池，所有本地缓存共享，包括 {@link CaffeineCacheUtils} 构建的缓存
+     *
+     * 1. 线程数、队列长度有上限，避免下游服务变慢时，每个缓存各自创建大量的刷新线程
+     * 2. 队列满时，拒绝新的刷新任务，缓存继续返回旧值，等待下次访问时再次触发刷新
+     */
+    public static final ThreadPoolExecutor REFRESH_EXECUTOR = buildRefreshExecutor();
+
     /**
      * 构建异步刷新的 LoadingCache 对象
      *
@@ -40,7 +60,7 @@ public class CacheUtils {
                 // 只阻塞当前数据加载线程，其他线程返回旧值
                 .refreshAfterWrite(duration)
                 // 通过 asyncReloading 实现全异步加载，包括 refreshAfterWrite 被阻塞的加载线程
-                .build(CacheLoader.asyncReloading(loader, Executors.newCachedThreadPool())); // TODO 芋艿：可能要思考下，未来要不要做成可配置
+                .build(CacheLoader.asyncReloading(loader, REFRESH_EXECUTOR));
     }
 
     /**
@@ -58,4 +78,13 @@ public class CacheUtils {
                 .build(loader);
     }
 
+    private static ThreadPoolExecutor buildRefreshExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(REFRESH_QUEUE_CAPACITY),
+                ThreadFactoryBuilder.create().setNamePrefix("yudao-cache-refresh-").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy()); // 拒绝时，由缓存捕获异常并保留旧值
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
 }
@@ -0,0 +1,130 @@
+package cn.iocoder.yudao.framework.common.util.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * 基于 Caffeine 的本地缓存工具类，用于替代基于 Guava 的 {@link CacheUtils}
+ *
+ * 1. 异步刷新使用共享的 {@link CacheUtils#REFRESH_EXECUTOR} 有界线程池，而不是每个缓存一个无界线程池
+ * 2. 每个缓存有唯一的名字，并开启统计；引入 yudao-spring-boot-starter-monitor 时，会记录到 Micrometer 的 cache.* 指标
+ * 3. 支持自定义最大数量、权重、过期时间，见 {@link #buildCache(String, Caffeine, boolean, CacheLoader)} 方法
+ *
+ * @author 芋道源码
+ */
+public class CaffeineCacheUtils {
+
+    /**
+     * 默认的最大缓存数量
+     */
+    private static final long CACHE_MAX_SIZE = 10000L;
+
+    /**
+     * 已构建的缓存
+     *
+     * key：缓存名
+     */
+    private static final Map<String, Cache<?, ?>> CACHES = new ConcurrentHashMap<>();
+    /**
+     * 缓存构建的监听器，例如说注册 Micrometer 指标
+     */
+    private static final List<BiConsumer<String, Cache<?, ?>>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * 构建异步刷新的 LoadingCache 对象
+     *
+     * 注意：如果你的缓存和 ThreadLocal 有关系，要么自己处理 ThreadLocal 的传递，要么使用 {@link #buildCache(String, Duration, CacheLoader)} 方法
+     *
+     * @param name     缓存名
+     * @param duration 过期时间
+     * @param loader   CacheLoader 对象
+     * @return LoadingCache 对象
+     */
+    public static <K, V> LoadingCache<K, V> buildAsyncReloadingCache(String name, Duration duration, CacheLoader<K, V> loader) {
+        return buildCache(name, Caffeine.newBuilder().maximumSize(CACHE_MAX_SIZE).refreshAfterWrite(duration),
+                true, loader);
+    }
+
+    /**
+     * 构建同步刷新的 LoadingCache 对象
+     *
+     * 刷新在触发刷新的访问线程中执行，只阻塞该线程，其他线程返回旧值
+     *
+     * @param name     缓存名
+     * @param duration 过期时间
+     * @param loader   CacheLoader 对象
+     * @return LoadingCache 对象
+     */
+    public static <K, V> LoadingCache<K, V> buildCache(String name, Duration duration, CacheLoader<K, V> loader) {
+        return buildCache(name, Caffeine.newBuilder().maximumSize(CACHE_MAX_SIZE).refreshAfterWrite(duration),
+                false, loader);
+    }
+
+    /**
+     * 构建自定义的 LoadingCache 对象，用于自定义最大数量、权重、过期时间等场景
+     *
+     * 例如说：Caffeine.newBuilder().maximumWeight(1024 * 1024).weigher(...).expireAfterWrite(Duration.ofMinutes(5))
+     *
+     * @param name    缓存名
+     * @param builder Caffeine 对象，无需设置 executor、recordStats
+     * @param async   是否异步刷新
+     * @param loader  CacheLoader 对象
+     * @return LoadingCache 对象
+     */
+    public static <K, V> LoadingCache<K, V> buildCache(String name, Caffeine<Object, Object> builder,
+                                                       boolean async, CacheLoader<K, V> loader) {
+        LoadingCache<K, V> cache = builder
+                .executor(async ? CacheUtils.REFRESH_EXECUTOR : Runnable::run)
+                .recordStats()
+                .build(loader);
+        register(name, cache);
+        return cache;
+    }
+
+    /**
+     * 构建异步加载的 AsyncLoadingCache 对象，用于加载本身是异步的场景，例如说 WebClient 调用
+     *
+     * 同一个 key 并发访问时，共享同一个加载中的 CompletableFuture，只会加载一次
+     *
+     * @param name    缓存名
+     * @param builder Caffeine 对象，无需设置 executor、recordStats
+     * @param loader  AsyncCacheLoader 对象；CompletableFuture 的结果为 null 时，不缓存
+     * @return AsyncLoadingCache 对象
+     */
+    public static <K, V> AsyncLoadingCache<K, V> buildAsyncCache(String name, Caffeine<Object, Object> builder,
+                                                                 AsyncCacheLoader<K, V> loader) {
+        AsyncLoadingCache<K, V> cache = builder
+                .executor(CacheUtils.REFRESH_EXECUTOR)
+                .recordStats()
+                .buildAsync(loader);
+        register(name, cache.synchronous());
+        return cache;
+    }
+
+    /**
+     * 添加缓存构建的监听器，已构建的缓存也会回调
+     *
+     * @param listener 监听器，参数为缓存名、缓存
+     */
+    public static synchronized void addCacheListener(BiConsumer<String, Cache<?, ?>> listener) {
+        LISTENERS.add(listener);
+        CACHES.forEach(listener);
+    }
+
+    private static synchronized void register(String name, Cache<?, ?> cache) {
+        CACHES.put(name, cache);
+        LISTENERS.forEach(listener -> listener.accept(name, cache));
+    }
+
+}
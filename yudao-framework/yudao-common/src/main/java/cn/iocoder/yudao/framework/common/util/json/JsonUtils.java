@@ -46,6 +46,15 @@ public class JsonUtils {
         JsonUtils.objectMapper = objectMapper;
     }
 
+    /**
+     * 获得 objectMapper 对象，用于流式读写（JsonParser、JsonGenerator）等场景
+     *
+     * @return ObjectMapper 对象
+     */
+    public static ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
     @SneakyThrows
     public static String toJsonString(Object object) {
         return objectMapper.writeValueAsString(object);
@@ -23,6 +23,7 @@ import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
 import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -53,6 +54,12 @@ public class DeptDataPermissionRule implements DataPermissionRule {
      * LoginUser 的 Context 缓存 Key
      */
     protected static final String CONTEXT_KEY = DeptDataPermissionRule.class.getSimpleName();
+    /**
+     * LoginUser 的 Context 缓存 Key，缓存构建好的 {@link Expression}
+     *
+     * 因为 LoginUser 每个请求构建一次，所以缓存的生命周期是请求级别，不会出现权限变更后的脏数据
+     */
+    protected static final String EXPRESSION_CONTEXT_KEY = CONTEXT_KEY + ".expression";
 
     private static final String DEPT_COLUMN_NAME = "dept_id";
     private static final String USER_COLUMN_NAME = "user_id";
@@ -99,6 +106,22 @@ public class DeptDataPermissionRule implements DataPermissionRule {
             return null;
         }
 
+        // 每条 SQL 的每张表都会调用，因此按照 (表名, 别名) 缓存构建好的条件，避免重复构建大量的 LongValue
+        ExpressionCache cache = loginUser.getContext(EXPRESSION_CONTEXT_KEY, ExpressionCache.class);
+        if (cache == null) {
+            cache = new ExpressionCache();
+            loginUser.setContext(EXPRESSION_CONTEXT_KEY, cache);
+        }
+        String cacheKey = tableName + "/" + (tableAlias != null ? tableAlias.getName() : "");
+        if (cache.expressions.containsKey(cacheKey)) {
+            return cache.expressions.get(cacheKey);
+        }
+        Expression expression = buildExpression(loginUser, cache, tableName, tableAlias);
+        cache.expressions.put(cacheKey, expression);
+        return expression;
+    }
+
+    private Expression buildExpression(LoginUser loginUser, ExpressionCache cache, String tableName, Alias tableAlias) {
         // 获得数据权限
         DeptDataPermissionRespDTO deptDataPermission = loginUser.getContext(CONTEXT_KEY, DeptDataPermissionRespDTO.class);
         // 从上下文中拿不到，则调用逻辑进行获取
@@ -125,7 +148,7 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         }
 
         // 情况三，拼接 Dept 和 User 的条件，最后组合
-        Expression deptExpression = buildDeptExpression(tableName,tableAlias, deptDataPermission.getDeptIds());
+        Expression deptExpression = buildDeptExpression(cache, tableName, tableAlias, deptDataPermission.getDeptIds());
         Expression userExpression = buildUserExpression(tableName, tableAlias, deptDataPermission.getSelf(), loginUser.getId());
         if (deptExpression == null && userExpression == null) {
             // TODO 芋艿：获得不到条件的时候，暂时不抛出异常，而是不返回数据
@@ -145,7 +168,7 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         return new ParenthesedExpressionList(new OrExpression(deptExpression, userExpression));
     }
 
-    private Expression buildDeptExpression(String tableName, Alias tableAlias, Set<Long> deptIds) {
+    private Expression buildDeptExpression(ExpressionCache cache, String tableName, Alias tableAlias, Set<Long> deptIds) {
         // 如果不存在配置，则无需作为条件
         String columnName = deptColumns.get(tableName);
         if (StrUtil.isEmpty(columnName)) {
@@ -155,10 +178,12 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         if (CollUtil.isEmpty(deptIds)) {
             return null;
         }
-        // 拼接条件
-        return new InExpression(MyBatisUtils.buildColumn(tableName, tableAlias, columnName),
-                // Parenthesis 的目的，是提供 (1,2,3) 的 () 左右括号
-                new ParenthesedExpressionList(new ExpressionList<LongValue>(CollectionUtils.convertList(deptIds, LongValue::new))));
+        // 拼接条件。IN 的值列表只构建一次，所有表共用（只读，不会被修改）
+        if (cache.deptValues == null) {
+            // Parenthesis 的目的，是提供 (1,2,3) 的 () 左右括号
+            cache.deptValues = new ParenthesedExpressionList(new ExpressionList<LongValue>(CollectionUtils.convertList(deptIds, LongValue::new)));
+        }
+        return new InExpression(MyBatisUtils.buildColumn(tableName, tableAlias, columnName), cache.deptValues);
     }
 
     private Expression buildUserExpression(String tableName, Alias tableAlias, Boolean self, Long userId) {
@@ -174,6 +199,26 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         return new EqualsTo(MyBatisUtils.buildColumn(tableName, tableAlias, columnName), new LongValue(userId));
     }
 
+    /**
+     * 请求级别的 {@link Expression} 缓存，存储在 LoginUser 的上下文中
+     *
+     * 注意，不直接使用 Map 存储的原因：LoginUser#getContext 基于 hutool 转换，Map、Collection 类型会被复制一份
+     */
+    private static class ExpressionCache {
+
+        /**
+         * 构建好的条件，可能为 null
+         *
+         * KEY：表名/别名
+         */
+        private final Map<String, Expression> expressions = Collections.synchronizedMap(new HashMap<>());
+        /**
+         * 部门编号的 IN 值列表
+         */
+        private volatile ParenthesedExpressionList<?> deptValues;
+
+    }
+
     // ==================== 添加配置 ====================
 
     public void addDeptColumn(Class<? extends BaseDO> entityClass) {
@@ -0,0 +1,160 @@
+package cn.iocoder.yudao.framework.datapermission.core.rule.dept;
+
+import cn.iocoder.yudao.framework.common.biz.system.permission.PermissionCommonApi;
+import cn.iocoder.yudao.framework.common.biz.system.permission.dto.DeptDataPermissionRespDTO;
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link DeptDataPermissionRule} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class DeptDataPermissionRuleTest {
+
+    private static final String[] TABLE_NAMES = {"t_order", "t_order_item", "t_customer"};
+
+    private final PermissionCommonApi permissionApi = mock(PermissionCommonApi.class);
+
+    private DeptDataPermissionRule rule;
+
+    @BeforeEach
+    public void setUp() {
+        rule = new DeptDataPermissionRule(permissionApi);
+        for (String tableName : TABLE_NAMES) {
+            rule.addDeptColumn(tableName, "dept_id");
+            rule.addUserColumn(tableName, "user_id");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testGetExpression_deptAndSelf() {
+        // mock 方法
+        when(permissionApi.getDeptDataPermission(eq(1L))).thenReturn(success(
+                new DeptDataPermissionRespDTO().setAll(false).setSelf(true).setDeptIds(buildDeptIds(2))));
+        // 准备参数
+        setLoginUser(buildLoginUser());
+
+        // 调用
+        Expression expression = rule.getExpression("t_order", new Alias("o"));
+        // 断言
+        assertEquals("(o.dept_id IN (1, 2) OR o.user_id = 1)", expression.toString());
+    }
+
+    @Test
+    public void testGetExpression_all() {
+        // mock 方法
+        when(permissionApi.getDeptDataPermission(eq(1L))).thenReturn(success(
+                new DeptDataPermissionRespDTO().setAll(true).setSelf(false).setDeptIds(Collections.emptySet())));
+        // 准备参数
+        setLoginUser(buildLoginUser());
+
+        // 调用，并断言
+        assertNull(rule.getExpression("t_order", null));
+    }
+
+    @Test
+    public void testGetExpression_cache() {
+        // mock 方法
+        when(permissionApi.getDeptDataPermission(eq(1L))).thenReturn(success(
+                new DeptDataPermissionRespDTO().setAll(false).setSelf(false).setDeptIds(buildDeptIds(3))));
+        // 准备参数
+        setLoginUser(buildLoginUser());
+
+        // 调用
+        Expression first = rule.getExpression("t_order", new Alias("o"));
+        Expression second = rule.getExpression("t_order", new Alias("o"));
+        Expression other = rule.getExpression("t_order_item", new Alias("i"));
+        // 断言：同一个请求内，相同的表、别名直接复用；权限只获取一次
+        assertSame(first, second);
+        assertEquals("i.dept_id IN (1, 2, 3)", other.toString());
+        verify(permissionApi, times(1)).getDeptDataPermission(anyLong());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testGetExpression_benchmark(TestReporter reporter) {
+        for (int size : new int[]{10, 1_000, 10_000}) {
+            DeptDataPermissionRespDTO permission = new DeptDataPermissionRespDTO()
+                    .setAll(false).setSelf(true).setDeptIds(buildDeptIds(size));
+            int statements = Math.max(100_000 / size, 10);
+            // 有缓存：同一个请求内的多条 SQL，共用 LoginUser 上的缓存
+            LoginUser cachedUser = buildLoginUser(permission);
+            long cached = measure(statements, () -> cachedUser);
+            // 无缓存：每条 SQL 都重新构建条件（数据权限已在上下文中，不包含获取权限的耗时）
+            long uncached = measure(statements, () -> buildLoginUser(permission));
+            reporter.publishEntry(size + " 个部门，有缓存（us/SQL）", String.format("%.2f", cached / 1e3 / statements));
+            reporter.publishEntry(size + " 个部门，无缓存（us/SQL）", String.format("%.2f", uncached / 1e3 / statements));
+        }
+    }
+
+    /**
+     * 测量改写 statements 条 SQL 的耗时，每条 SQL 关联 {@link #TABLE_NAMES} 三张表，取 5 轮的最小值，单位：纳秒
+     */
+    private long measure(int statements, Supplier<LoginUser> loginUserSupplier) {
+        long best = Long.MAX_VALUE;
+        long blackhole = 0;
+        for (int round = 0; round < 6; round++) { // 第一轮用于预热
+            long begin = System.nanoTime();
+            for (int i = 0; i < statements; i++) {
+                setLoginUser(loginUserSupplier.get());
+                for (String tableName : TABLE_NAMES) {
+                    blackhole += rule.getExpression(tableName, null).hashCode();
+                }
+            }
+            if (round > 0) {
+                best = Math.min(best, System.nanoTime() - begin);
+            }
+        }
+        assertNotEquals(Long.MIN_VALUE, blackhole);
+        return best;
+    }
+
+    private static Set<Long> buildDeptIds(int size) {
+        Set<Long> deptIds = new HashSet<>();
+        for (long i = 1; i <= size; i++) {
+            deptIds.add(i);
+        }
+        return deptIds;
+    }
+
+    private static LoginUser buildLoginUser() {
+        return new LoginUser().setId(1L).setUserType(UserTypeEnum.ADMIN.getValue());
+    }
+
+    private static LoginUser buildLoginUser(DeptDataPermissionRespDTO permission) {
+        LoginUser loginUser = buildLoginUser();
+        loginUser.setContext(DeptDataPermissionRule.CONTEXT_KEY, permission);
+        return loginUser;
+    }
+
+    private static void setLoginUser(LoginUser loginUser) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(loginUser, null, Collections.emptyList()));
+    }
+
+}
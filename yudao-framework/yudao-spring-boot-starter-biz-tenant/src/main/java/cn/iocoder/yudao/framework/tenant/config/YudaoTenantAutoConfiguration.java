@@ -81,9 +81,14 @@ public class YudaoTenantAutoConfiguration {
     // ========== DB ==========
 
     @Bean
-    public TenantLineInnerInterceptor tenantLineInnerInterceptor(TenantProperties properties,
+    public TenantDatabaseInterceptor tenantDatabaseInterceptor(TenantProperties properties) {
+        return new TenantDatabaseInterceptor(properties);
+    }
+
+    @Bean
+    public TenantLineInnerInterceptor tenantLineInnerInterceptor(TenantDatabaseInterceptor tenantDatabaseInterceptor,
                                                                  MybatisPlusInterceptor interceptor) {
-        TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(new TenantDatabaseInterceptor(properties));
+        TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(tenantDatabaseInterceptor);
         // 添加到 interceptor 中
         // 需要加在首个，主要是为了在分页插件前面。这个是 MyBatis Plus 的规定
         MyBatisUtils.addInterceptor(interceptor, inner, 0);
@@ -9,32 +9,70 @@ import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
 import com.baomidou.mybatisplus.extension.toolkit.SqlParserUtils;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.LongValue;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 基于 MyBatis Plus 多租户的功能，实现 DB 层面的多租户的功能
  *
+ * {@link #ignoreTable(String)} 会在每条 SQL 的每张表上调用，因此：
+ * 1. 所有 Mapper 注册完成后（{@link #afterSingletonsInstantiated()}），从 {@link TableInfoHelper} 一次性构建不可变的 {@link #tables} 索引，
+ *    包含小写、大写两种写法，大多数 SQL 直接命中，无需任何转换
+ * 2. 索引未命中的原始表名（例如说，带 ` 包裹符号、大小写混写、不属于 yudao 项目的表），计算一次后缓存到 {@link #rawTables}，
+ *    使用 {@link ConcurrentHashMap}，读取无锁，也不存在 HashMap 并发扩容的问题
+ *
  * @author 芋道源码
  */
-public class TenantDatabaseInterceptor implements TenantLineHandler {
+public class TenantDatabaseInterceptor implements TenantLineHandler, SmartInitializingSingleton {
 
     /**
-     * 忽略的表
+     * 配置的忽略表
      *
-     * KEY：表名
-     * VALUE：是否忽略
+     * KEY：表名的小写、大写
+     * VALUE：是否忽略，固定为 true
      */
     private final Map<String, Boolean> ignoreTables = new HashMap<>();
 
+    /**
+     * 表的索引，启动完成后构建，不可变
+     *
+     * KEY：表名的小写、大写
+     * VALUE：是否忽略
+     */
+    private volatile Map<String, Boolean> tables;
+
+    /**
+     * 未命中 {@link #tables} 的原始表名
+     *
+     * KEY：SQL 中的原始表名
+     * VALUE：是否忽略
+     */
+    private final Map<String, Boolean> rawTables = new ConcurrentHashMap<>();
+
     public TenantDatabaseInterceptor(TenantProperties properties) {
         // 不同 DB 下，大小写的习惯不同，所以需要都添加进去
         properties.getIgnoreTables().forEach(table -> {
-            addIgnoreTable(table, true);
+            addIgnoreTable(ignoreTables, table, true);
         });
         // 在 OracleKeyGenerator 中，生成主键时，会查询这个表，查询这个表后，会自动拼接 TENANT_ID 导致报错
-        addIgnoreTable("DUAL", true);
+        addIgnoreTable(ignoreTables, "DUAL", true);
+        tables = Map.copyOf(ignoreTables);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // 此时，所有 Mapper 已经注册，TableInfoHelper 包含所有表
+        Map<String, Boolean> tables = new HashMap<>();
+        TableInfoHelper.getTableInfos().forEach(tableInfo ->
+                addIgnoreTable(tables, tableInfo.getTableName(), computeIgnoreTable(tableInfo)));
+        // 配置的忽略表优先
+        tables.putAll(ignoreTables);
+        this.tables = Map.copyOf(tables);
+        // 启动期间缓存的原始表名，可能是按照不完整的索引计算的，需要清空
+        rawTables.clear();
     }
 
     @Override
@@ -48,29 +86,45 @@ public class TenantDatabaseInterceptor implements TenantLineHandler {
         if (TenantContextHolder.isIgnore()) {
             return true;
         }
-        // 情况二，忽略多租户的表
-        tableName = SqlParserUtils.removeWrapperSymbol(tableName);
-        Boolean ignore = ignoreTables.get(tableName.toLowerCase());
+        // 情况二，忽略多租户的表。优先使用原始表名命中索引，无需任何转换
+        Boolean ignore = tables.get(tableName);
+        if (ignore != null) {
+            return ignore;
+        }
+        ignore = rawTables.get(tableName);
+        if (ignore != null) {
+            return ignore;
+        }
+        return resolveIgnoreTable(tableName);
+    }
+
+    private boolean resolveIgnoreTable(String rawTableName) {
+        // 按照去除包裹符号、小写后的表名查找索引；找不到时，再计算
+        String tableName = SqlParserUtils.removeWrapperSymbol(rawTableName);
+        Boolean ignore = tables.get(tableName.toLowerCase());
         if (ignore == null) {
             ignore = computeIgnoreTable(tableName);
-            synchronized (ignoreTables) {
-                addIgnoreTable(tableName, ignore);
-            }
         }
+        // 按照原始表名缓存，后续直接命中
+        rawTables.putIfAbsent(rawTableName, ignore);
         return ignore;
     }
 
-    private void addIgnoreTable(String tableName, boolean ignore) {
-        ignoreTables.put(tableName.toLowerCase(), ignore);
-        ignoreTables.put(tableName.toUpperCase(), ignore);
+    private static void addIgnoreTable(Map<String, Boolean> tables, String tableName, boolean ignore) {
+        tables.put(tableName.toLowerCase(), ignore);
+        tables.put(tableName.toUpperCase(), ignore);
     }
 
-    private boolean computeIgnoreTable(String tableName) {
+    private static boolean computeIgnoreTable(String tableName) {
         // 找不到的表，说明不是 yudao 项目里的，不进行拦截（忽略租户）
         TableInfo tableInfo = TableInfoHelper.getTableInfo(tableName);
         if (tableInfo == null) {
             return true;
         }
+        return computeIgnoreTable(tableInfo);
+    }
+
+    private static boolean computeIgnoreTable(TableInfo tableInfo) {
         // 如果继承了 TenantBaseDO 基类，显然不忽略租户
         if (TenantBaseDO.class.isAssignableFrom(tableInfo.getEntityType())) {
             return false;
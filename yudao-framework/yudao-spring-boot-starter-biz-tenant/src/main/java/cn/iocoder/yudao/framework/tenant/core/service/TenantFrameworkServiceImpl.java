@@ -2,15 +2,14 @@ package cn.iocoder.yudao.framework.tenant.core.service;
 
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.biz.system.tenant.TenantCommonApi;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 
 import java.time.Duration;
 import java.util.List;
 
-import static cn.iocoder.yudao.framework.common.util.cache.CacheUtils.buildAsyncReloadingCache;
+import static cn.iocoder.yudao.framework.common.util.cache.CaffeineCacheUtils.buildAsyncReloadingCache;
 
 /**
  * Tenant 框架 Service 实现类
@@ -26,7 +25,7 @@ public class TenantFrameworkServiceImpl implements TenantFrameworkService {
      * 针对 {@link #getTenantIds()} 的缓存
      */
     private final LoadingCache<Object, List<Long>> getTenantIdsCache = buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
+            "tenant.ids", Duration.ofMinutes(1L), // 过期时间 1 分钟
             new CacheLoader<Object, List<Long>>() {
 
                 @Override
@@ -40,7 +39,7 @@ public class TenantFrameworkServiceImpl implements TenantFrameworkService {
      * 针对 {@link #validTenant(Long)} 的缓存
      */
     private final LoadingCache<Long, CommonResult<Boolean>> validTenantCache = buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
+            "tenant.valid", Duration.ofMinutes(1L), // 过期时间 1 分钟
             new CacheLoader<Long, CommonResult<Boolean>>() {
 
                 @Override
@@ -51,13 +50,11 @@ public class TenantFrameworkServiceImpl implements TenantFrameworkService {
             });
 
     @Override
-    @SneakyThrows
     public List<Long> getTenantIds() {
         return getTenantIdsCache.get(Boolean.TRUE);
     }
 
     @Override
-    @SneakyThrows
     public void validTenant(Long id) {
         validTenantCache.get(id).checkError();
     }
@@ -0,0 +1,213 @@
+package cn.iocoder.yudao.framework.tenant.core.db;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
+import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
+import com.baomidou.mybatisplus.extension.toolkit.SqlParserUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TenantDatabaseInterceptor} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TenantDatabaseInterceptorTest {
+
+    private static final String SQL = "SELECT u.id, u.name, c.value FROM test_tenant_user u"
+            + " LEFT JOIN test_tenant_config c ON u.id = c.user_id"
+            + " LEFT JOIN test_tenant_log l ON u.id = l.user_id WHERE u.id = ?";
+
+    private TenantDatabaseInterceptor interceptor;
+
+    @BeforeAll
+    public static void initTableInfos() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        assistant.setCurrentNamespace(TenantDatabaseInterceptorTest.class.getName());
+        TableInfoHelper.initTableInfo(assistant, TestTenantUserDO.class);
+        TableInfoHelper.initTableInfo(assistant, TestTenantConfigDO.class);
+        TableInfoHelper.initTableInfo(assistant, TestTenantLogDO.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        TenantProperties properties = new TenantProperties();
+        properties.setIgnoreTables(Collections.singleton("test_tenant_log"));
+        interceptor = new TenantDatabaseInterceptor(properties);
+        interceptor.afterSingletonsInstantiated();
+        TenantContextHolder.setTenantId(1L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testIgnoreTable() {
+        // 调用，并断言：继承 TenantBaseDO 的表，不忽略
+        assertFalse(interceptor.ignoreTable("test_tenant_user"));
+        assertFalse(interceptor.ignoreTable("TEST_TENANT_USER"));
+        // 调用，并断言：添加 @TenantIgnore 注解的表，忽略
+        assertTrue(interceptor.ignoreTable("test_tenant_config"));
+        // 调用，并断言：配置的忽略表优先
+        assertTrue(interceptor.ignoreTable("test_tenant_log"));
+        // 调用，并断言：不属于项目的表，忽略
+        assertTrue(interceptor.ignoreTable("test_unknown"));
+    }
+
+    @Test
+    public void testIgnoreTable_rawTableName() {
+        // 调用，并断言：带包裹符号、大小写混写的表名，按照去除包裹符号、小写后的表名判断
+        assertFalse(interceptor.ignoreTable("`test_tenant_user`"));
+        assertFalse(interceptor.ignoreTable("Test_Tenant_User"));
+        assertTrue(interceptor.ignoreTable("`test_tenant_config`"));
+    }
+
+    @Test
+    public void testIgnoreTable_globalIgnore() {
+        // 准备参数
+        TenantContextHolder.setIgnore(true);
+
+        // 调用，并断言
+        assertTrue(interceptor.ignoreTable("test_tenant_user"));
+    }
+
+    @Test
+    public void testParserSingle() {
+        // 准备参数
+        TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(interceptor);
+
+        // 调用
+        String sql = inner.parserSingle(SQL, null);
+        // 断言：只有 test_tenant_user 拼接租户条件
+        assertTrue(sql.contains("u.tenant_id = 1"));
+        assertFalse(sql.contains("c.tenant_id"));
+        assertFalse(sql.contains("l.tenant_id"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testParserSingle_benchmark(TestReporter reporter) {
+        TenantLineInnerInterceptor cached = new TenantLineInnerInterceptor(interceptor);
+        TenantLineInnerInterceptor uncached = new TenantLineInnerInterceptor(new UncachedTenantLineHandler());
+        assertEquals(cached.parserSingle(SQL, null), uncached.parserSingle(SQL, null));
+
+        int count = 20_000;
+        reporter.publishEntry("SQL 改写，有缓存（us/SQL）", String.format("%.2f", measure(count,
+                () -> cached.parserSingle(SQL, null).length()) / 1e3 / count));
+        reporter.publishEntry("SQL 改写，无缓存（us/SQL）", String.format("%.2f", measure(count,
+                () -> uncached.parserSingle(SQL, null).length()) / 1e3 / count));
+        // 单独测量 ignoreTable，排除 SQL 解析的耗时
+        count = 1_000_000;
+        TenantLineHandler handler = new UncachedTenantLineHandler();
+        reporter.publishEntry("ignoreTable，有缓存（ns/次）", String.format("%.2f", (double) measure(count,
+                () -> interceptor.ignoreTable("test_tenant_user") ? 1 : 0) / count));
+        reporter.publishEntry("ignoreTable，无缓存（ns/次）", String.format("%.2f", (double) measure(count,
+                () -> handler.ignoreTable("test_tenant_user") ? 1 : 0) / count));
+    }
+
+    /**
+     * 测量执行 count 次的耗时，取 5 轮的最小值，单位：纳秒
+     */
+    private static long measure(int count, IntTask task) {
+        long best = Long.MAX_VALUE;
+        long blackhole = 0;
+        for (int round = 0; round < 6; round++) { // 第一轮用于预热
+            long begin = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                blackhole += task.run();
+            }
+            if (round > 0) {
+                best = Math.min(best, System.nanoTime() - begin);
+            }
+        }
+        assertNotEquals(Long.MIN_VALUE, blackhole);
+        return best;
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+
+        int run();
+
+    }
+
+    /**
+     * 不使用缓存的实现，每次都从 {@link TableInfoHelper} 查找，作为基准
+     */
+    private static class UncachedTenantLineHandler implements TenantLineHandler {
+
+        @Override
+        public Expression getTenantId() {
+            return new LongValue(TenantContextHolder.getRequiredTenantId());
+        }
+
+        @Override
+        public boolean ignoreTable(String tableName) {
+            if (TenantContextHolder.isIgnore() || "test_tenant_log".equalsIgnoreCase(tableName)) {
+                return true;
+            }
+            TableInfo tableInfo = TableInfoHelper.getTableInfo(SqlParserUtils.removeWrapperSymbol(tableName).toLowerCase());
+            if (tableInfo == null) {
+                return true;
+            }
+            return !TenantBaseDO.class.isAssignableFrom(tableInfo.getEntityType())
+                    && tableInfo.getEntityType().isAnnotationPresent(TenantIgnore.class);
+        }
+
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    @TableName("test_tenant_user")
+    public static class TestTenantUserDO extends TenantBaseDO {
+
+        private Long id;
+        private String name;
+
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    @TableName("test_tenant_config")
+    @TenantIgnore
+    public static class TestTenantConfigDO extends BaseDO {
+
+        private Long id;
+        private Long userId;
+        private String value;
+
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    @TableName("test_tenant_log")
+    public static class TestTenantLogDO extends TenantBaseDO {
+
+        private Long id;
+        private Long userId;
+
+    }
+
+}
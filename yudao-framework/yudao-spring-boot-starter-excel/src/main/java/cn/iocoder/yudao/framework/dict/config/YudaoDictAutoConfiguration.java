@@ -2,10 +2,13 @@ package cn.iocoder.yudao.framework.dict.config;
 
 import cn.iocoder.yudao.framework.common.biz.system.dict.DictDataCommonApi;
 import cn.iocoder.yudao.framework.dict.core.DictFrameworkUtils;
+import cn.iocoder.yudao.framework.dict.core.redis.DictDataRefreshConsumer;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 
-@AutoConfiguration
+@AutoConfiguration(beforeName = "cn.iocoder.yudao.framework.mq.redis.config.YudaoRedisMQConsumerAutoConfiguration") // 保证 DictDataRefreshConsumer 先创建
 public class YudaoDictAutoConfiguration {
 
     @Bean
@@ -15,4 +18,18 @@ public class YudaoDictAutoConfiguration {
         return new DictFrameworkUtils();
     }
 
+    /**
+     * 引入 MQ 组件时，订阅字典数据的变更，及时清理本地缓存，无需等待缓存过期
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate")
+    public static class DictDataRefreshConfiguration {
+
+        @Bean
+        public DictDataRefreshConsumer dictDataRefreshConsumer() {
+            return new DictDataRefreshConsumer();
+        }
+
+    }
+
 }
@@ -1,17 +1,14 @@
 package cn.iocoder.yudao.framework.dict.core;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.biz.system.dict.DictDataCommonApi;
-import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
 import cn.iocoder.yudao.framework.common.biz.system.dict.dto.DictDataRespDTO;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import lombok.SneakyThrows;
+import cn.iocoder.yudao.framework.common.util.cache.CaffeineCacheUtils;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 
@@ -27,14 +24,16 @@ public class DictFrameworkUtils {
 
     /**
      * 针对 dictType 的字段数据缓存
+     *
+     * 缓存的是不可变的 {@link DictDataCache}，value、label 的互相转换基于哈希表，而不是遍历列表
      */
-    private static final LoadingCache<String, List<DictDataRespDTO>> GET_DICT_DATA_CACHE = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
-            new CacheLoader<String, List<DictDataRespDTO>>() {
+    private static final LoadingCache<String, DictDataCache> GET_DICT_DATA_CACHE = CaffeineCacheUtils.buildAsyncReloadingCache(
+            "dict.data", Duration.ofMinutes(1L), // 过期时间 1 分钟
+            new CacheLoader<String, DictDataCache>() {
 
                 @Override
-                public List<DictDataRespDTO> load(String dictType) {
-                    return dictDataApi.getDictDataList(dictType).getCheckedData();
+                public DictDataCache load(String dictType) {
+                    return new DictDataCache(dictDataApi.getDictDataList(dictType).getCheckedData());
                 }
 
             });
@@ -48,7 +47,15 @@ public class DictFrameworkUtils {
         GET_DICT_DATA_CACHE.invalidateAll();
     }
 
-    @SneakyThrows
+    /**
+     * 清理指定字典类型的缓存，用于字典数据变更时
+     *
+     * @param dictType 字典类型
+     */
+    public static void clearCache(String dictType) {
+        GET_DICT_DATA_CACHE.invalidate(dictType);
+    }
+
     public static String parseDictDataLabel(String dictType, Integer value) {
         if (value == null) {
             return null;
@@ -56,29 +63,82 @@ public class DictFrameworkUtils {
         return parseDictDataLabel(dictType, String.valueOf(value));
     }
 
-    @SneakyThrows
     public static String parseDictDataLabel(String dictType, String value) {
-        List<DictDataRespDTO> dictDatas = GET_DICT_DATA_CACHE.get(dictType);
-        DictDataRespDTO dictData = CollUtil.findOne(dictDatas, data -> Objects.equals(data.getValue(), value));
-        return dictData != null ? dictData.getLabel(): null;
+        return GET_DICT_DATA_CACHE.get(dictType).valueLabels.get(value);
     }
 
-    @SneakyThrows
     public static List<String> getDictDataLabelList(String dictType) {
-        List<DictDataRespDTO> dictDatas = GET_DICT_DATA_CACHE.get(dictType);
-        return convertList(dictDatas, DictDataRespDTO::getLabel);
+        return GET_DICT_DATA_CACHE.get(dictType).labels;
     }
 
-    @SneakyThrows
     public static String parseDictDataValue(String dictType, String label) {
-        List<DictDataRespDTO> dictDatas = GET_DICT_DATA_CACHE.get(dictType);
-        DictDataRespDTO dictData = CollUtil.findOne(dictDatas, data -> Objects.equals(data.getLabel(), label));
-        return dictData!= null ? dictData.getValue(): null;
+        return GET_DICT_DATA_CACHE.get(dictType).labelValues.get(label);
     }
 
-    @SneakyThrows
     public static List<String> getDictDataValueList(String dictType) {
-        List<DictDataRespDTO> dictDatas = GET_DICT_DATA_CACHE.get(dictType);
-        return convertList(dictDatas, DictDataRespDTO::getValue);
+        return GET_DICT_DATA_CACHE.get(dictType).values;
+    }
+
+    /**
+     * 判断字典值是否存在，忽略大小写
+     *
+     * @param dictType 字典类型
+     * @param value    字典值
+     * @return 是否存在
+     */
+    public static boolean containsDictDataValueIgnoreCase(String dictType, String value) {
+        return value != null && GET_DICT_DATA_CACHE.get(dictType).lowerCaseValues.contains(value.toLowerCase());
+    }
+
+    /**
+     * 字典类型的数据缓存，创建后不可变
+     */
+    private static final class DictDataCache {
+
+        /**
+         * 字典值列表，按照字典数据的顺序
+         */
+        private final List<String> values;
+        /**
+         * 字典标签列表，按照字典数据的顺序
+         */
+        private final List<String> labels;
+        /**
+         * 小写的字典值集合，用于忽略大小写的校验
+         */
+        private final Set<String> lowerCaseValues;
+        /**
+         * KEY：字典值
+         * VALUE：字典标签
+         */
+        private final Map<String, String> valueLabels;
+        /**
+         * KEY：字典标签
+         * VALUE：字典值
+         */
+        private final Map<String, String> labelValues;
+
+        private DictDataCache(List<DictDataRespDTO> dictDatas) {
+            Map<String, String> valueLabels = new HashMap<>(dictDatas.size() * 2);
+            Map<String, String> labelValues = new HashMap<>(dictDatas.size() * 2);
+            Set<String> lowerCaseValues = new HashSet<>(dictDatas.size() * 2);
+            // 使用 putIfAbsent 的原因：存在重复时，与原先遍历列表一样，以第一个为准
+            dictDatas.forEach(dictData -> {
+                if (dictData.getValue() != null) {
+                    valueLabels.putIfAbsent(dictData.getValue(), dictData.getLabel());
+                    lowerCaseValues.add(dictData.getValue().toLowerCase());
+                }
+                if (dictData.getLabel() != null) {
+                    labelValues.putIfAbsent(dictData.getLabel(), dictData.getValue());
+                }
+            });
+            this.values = Collections.unmodifiableList(convertList(dictDatas, DictDataRespDTO::getValue));
+            this.labels = Collections.unmodifiableList(convertList(dictDatas, DictDataRespDTO::getLabel));
+            this.lowerCaseValues = Collections.unmodifiableSet(lowerCaseValues);
+            this.valueLabels = Collections.unmodifiableMap(valueLabels);
+            this.labelValues = Collections.unmodifiableMap(labelValues);
+        }
+
     }
+
 }
@@ -0,0 +1,21 @@
+package cn.iocoder.yudao.framework.dict.core.redis;
+
+import cn.iocoder.yudao.framework.dict.core.DictFrameworkUtils;
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link DictDataRefreshMessage} 广播消息的消费者，清理当前节点的字典缓存
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class DictDataRefreshConsumer extends AbstractRedisChannelMessageListener<DictDataRefreshMessage> {
+
+    @Override
+    public void onMessage(DictDataRefreshMessage message) {
+        log.info("[onMessage][字典类型({}) 刷新]", message.getDictType());
+        DictFrameworkUtils.clearCache(message.getDictType());
+    }
+
+}
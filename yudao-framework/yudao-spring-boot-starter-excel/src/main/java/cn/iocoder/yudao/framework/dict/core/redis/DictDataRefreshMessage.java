@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.framework.dict.core.redis;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 字典数据刷新消息，用于清理各节点 DictFrameworkUtils 的本地缓存
+ *
+ * @author 芋道源码
+ */
+@Data
+public class DictDataRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 字典类型
+     */
+    private String dictType;
+
+}
@@ -24,14 +24,14 @@ public class InDictCollectionValidator implements ConstraintValidator<InDict, Co
             return true;
         }
         // 校验全部通过
-        List<String> dbValues = DictFrameworkUtils.getDictDataValueList(dictType);
-        boolean match = list.stream().allMatch(v -> dbValues.stream()
-                .anyMatch(dbValue -> dbValue.equalsIgnoreCase(v.toString())));
+        boolean match = list.stream().allMatch(v -> v != null
+                && DictFrameworkUtils.containsDictDataValueIgnoreCase(dictType, v.toString()));
         if (match) {
             return true;
         }
 
         // 校验不通过，自定义提示语句
+        List<String> dbValues = DictFrameworkUtils.getDictDataValueList(dictType);
         context.disableDefaultConstraintViolation(); // 禁用默认的 message 的值
         context.buildConstraintViolationWithTemplate(
                 context.getDefaultConstraintMessageTemplate().replaceAll("\\{value}", dbValues.toString())
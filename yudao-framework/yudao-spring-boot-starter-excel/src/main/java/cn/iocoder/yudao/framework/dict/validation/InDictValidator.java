@@ -1,6 +1,5 @@
 package cn.iocoder.yudao.framework.dict.validation;
 
-import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.dict.core.DictFrameworkUtils;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -23,13 +22,12 @@ public class InDictValidator implements ConstraintValidator<InDict, Object> {
             return true;
         }
         // 校验通过
-        final List<String> values = DictFrameworkUtils.getDictDataValueList(dictType);
-        boolean match = values.stream().anyMatch(v -> StrUtil.equalsIgnoreCase(v, value.toString()));
-        if (match) {
+        if (DictFrameworkUtils.containsDictDataValueIgnoreCase(dictType, value.toString())) {
             return true;
         }
 
         // 校验不通过，自定义提示语句
+        final List<String> values = DictFrameworkUtils.getDictDataValueList(dictType);
         context.disableDefaultConstraintViolation(); // 禁用默认的 message 的值
         context.buildConstraintViolationWithTemplate(
                 context.getDefaultConstraintMessageTemplate().replaceAll("\\{value}", values.toString())
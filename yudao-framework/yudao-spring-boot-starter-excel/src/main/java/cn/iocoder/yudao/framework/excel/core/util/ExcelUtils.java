@@ -1,16 +1,24 @@
 package cn.iocoder.yudao.framework.excel.core.util;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.idev.excel.FastExcelFactory;
 import cn.idev.excel.converters.longconverter.LongStringConverter;
+import cn.idev.excel.read.listener.PageReadListener;
 import cn.idev.excel.write.style.column.LongestMatchColumnWidthStyleStrategy;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageParam;
+import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.http.HttpUtils;
 import cn.iocoder.yudao.framework.excel.core.handler.ColumnWidthMatchStyleStrategy;
 import cn.iocoder.yudao.framework.excel.core.handler.SelectSheetWriteHandler;
+import cn.iocoder.yudao.framework.excel.core.writer.ExcelStreamWriter;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Excel 工具类
@@ -44,10 +52,86 @@ public class ExcelUtils {
         response.setContentType("application/vnd.ms-excel;charset=UTF-8");
     }
 
+    /**
+     * 将数据游标分页查询，流式地以 Excel 响应给前端，内存占用与总行数无关
+     *
+     * 注意，因为写入过程中响应已经开始输出，所以 header 和 contentType 需要提前设置
+     *
+     * @param response   响应
+     * @param filename   文件名
+     * @param sheetName  Excel sheet 名
+     * @param head       Excel head 头
+     * @param pageLoader 分页加载器，参数为游标（第一页为 {@link CursorPageParam#CURSOR_FIRST}），
+     *                   返回的 {@link PageResult#getNextCursor()} 为空时结束
+     * @param <T>        泛型，保证 head 和 data 类型的一致性
+     * @throws IOException 写入失败的情况
+     */
+    public static <T> void write(HttpServletResponse response, String filename, String sheetName,
+                                 Class<T> head, Function<String, PageResult<T>> pageLoader) throws IOException {
+        try (ExcelStreamWriter<T> writer = openWriter(response, filename, sheetName, head)) {
+            try {
+                String cursor = CursorPageParam.CURSOR_FIRST;
+                while (cursor != null) {
+                    PageResult<T> pageResult = pageLoader.apply(cursor);
+                    if (CollUtil.isNotEmpty(pageResult.getList())) {
+                        writer.write(pageResult.getList());
+                    }
+                    cursor = pageResult.getNextCursor();
+                }
+            } catch (RuntimeException ex) {
+                writer.markFailed();
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * 打开 Excel 流式写入器，响应给前端。适合基于 MyBatis Cursor、自定义游标等方式的导出
+     *
+     * 注意，加载数据失败时，需要调用 {@link ExcelStreamWriter#markFailed()} 标记，避免记录为成功的导出
+     *
+     * @param response  响应
+     * @param filename  文件名
+     * @param sheetName Excel sheet 名
+     * @param head      Excel head 头
+     * @param <T>       泛型，保证 head 和 data 类型的一致性
+     * @return 写入器，使用完需要关闭
+     * @throws IOException 写入失败的情况
+     */
+    public static <T> ExcelStreamWriter<T> openWriter(HttpServletResponse response, String filename, String sheetName,
+                                                      Class<T> head) throws IOException {
+        response.addHeader("Content-Disposition", "attachment;filename=" + HttpUtils.encodeUtf8(filename));
+        response.setContentType("application/vnd.ms-excel;charset=UTF-8");
+        return new ExcelStreamWriter<>(response.getOutputStream(), sheetName, head);
+    }
+
     public static <T> List<T> read(MultipartFile file, Class<T> head) throws IOException {
         return FastExcelFactory.read(file.getInputStream(), head, null)
                 .autoCloseStream(false)  // 不要自动关闭，交给 Servlet 自己处理
                 .doReadAllSync();
     }
 
+    /**
+     * 流式读取 Excel，按照固定大小分批处理，避免整个文件的数据都加载到内存
+     *
+     * @param file      Excel 文件
+     * @param head      Excel head 头
+     * @param batchSize 每批的行数
+     * @param consumer  每批数据的处理器，例如说校验、持久化
+     * @param <T>       泛型
+     * @return 读取的总行数
+     * @throws IOException 读取失败的情况
+     */
+    public static <T> int read(MultipartFile file, Class<T> head, int batchSize,
+                               Consumer<List<T>> consumer) throws IOException {
+        AtomicInteger count = new AtomicInteger();
+        FastExcelFactory.read(file.getInputStream(), head, new PageReadListener<T>(list -> {
+                    count.addAndGet(list.size());
+                    consumer.accept(list);
+                }, batchSize))
+                .autoCloseStream(false)  // 不要自动关闭，交给 Servlet 自己处理
+                .sheet().doRead();
+        return count.get();
+    }
+
 }
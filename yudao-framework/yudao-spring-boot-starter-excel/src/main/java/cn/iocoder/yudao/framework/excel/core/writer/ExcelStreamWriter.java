@@ -0,0 +1,162 @@
+package cn.iocoder.yudao.framework.excel.core.writer;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.idev.excel.ExcelWriter;
+import cn.idev.excel.FastExcelFactory;
+import cn.idev.excel.converters.longconverter.LongStringConverter;
+import cn.idev.excel.write.metadata.WriteSheet;
+import cn.iocoder.yudao.framework.excel.core.handler.ColumnWidthMatchStyleStrategy;
+import cn.iocoder.yudao.framework.excel.core.handler.SelectSheetWriteHandler;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+
+import java.io.Closeable;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Excel 流式写入器，用于大数据量的导出
+ *
+ * 1. 数据分批写入，底层基于 POI 的 SXSSF 将已写入的行刷到临时文件，内存占用与总行数无关
+ * 2. 关闭时，输出导出的行数、速率（行/秒）；引入 Micrometer 时，同时记录到 yudao.excel.export.* 指标
+ * 3. 写入失败、或者调用方通过 {@link #markFailed()} 标记失败时，行数指标带上 result=failure，并且不记录速率，避免失败的导出污染成功的统计
+ *
+ * @param <T> 数据类型
+ * @author 芋道源码
+ */
+@Slf4j
+public class ExcelStreamWriter<T> implements Closeable {
+
+    /**
+     * {@link #write(Iterable)} 时，每批写入的行数
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    private static final boolean MICROMETER_PRESENT = ClassUtils.isPresent(
+            "io.micrometer.core.instrument.Metrics", ExcelStreamWriter.class.getClassLoader());
+
+    private final Class<T> head;
+    private final ExcelWriter excelWriter;
+    private final WriteSheet writeSheet;
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * 已写入的行数
+     */
+    @Getter
+    private long rowCount;
+    /**
+     * 是否导出失败
+     */
+    @Getter
+    private boolean failed;
+
+    public ExcelStreamWriter(OutputStream outputStream, String sheetName, Class<T> head) {
+        this.head = head;
+        this.excelWriter = FastExcelFactory.write(outputStream, head)
+                .autoCloseStream(false) // 不要自动关闭，交给调用方处理
+                .registerWriteHandler(new ColumnWidthMatchStyleStrategy()) // 基于 column 长度，自动适配。最大 255 宽度
+                .registerWriteHandler(new SelectSheetWriteHandler(head)) // 基于固定 sheet 实现下拉框
+                .registerConverter(new LongStringConverter()) // 避免 Long 类型丢失精度
+                .build();
+        this.writeSheet = FastExcelFactory.writerSheet(sheetName).build();
+    }
+
+    /**
+     * 写入一批数据
+     *
+     * @param rows 数据列表
+     * @return 自己
+     */
+    public ExcelStreamWriter<T> write(Collection<T> rows) {
+        if (CollUtil.isEmpty(rows)) {
+            return this;
+        }
+        try {
+            excelWriter.write(rows, writeSheet);
+        } catch (RuntimeException ex) {
+            failed = true;
+            throw ex;
+        }
+        rowCount += rows.size();
+        return this;
+    }
+
+    /**
+     * 逐行写入数据，例如说 MyBatis 的 Cursor，内部按照 {@link #BATCH_SIZE} 分批写入
+     *
+     * @param rows 数据迭代器
+     * @return 自己
+     */
+    public ExcelStreamWriter<T> write(Iterable<T> rows) {
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        for (T row : rows) {
+            batch.add(row);
+            if (batch.size() >= BATCH_SIZE) {
+                write(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        return write(batch);
+    }
+
+    /**
+     * 标记导出失败，例如说加载数据时抛出异常
+     *
+     * 因为 try-with-resources 的 close 无法感知异常，所以需要调用方在失败时标记
+     */
+    public void markFailed() {
+        this.failed = true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            excelWriter.finish();
+        } catch (RuntimeException ex) {
+            failed = true;
+            throw ex;
+        } finally {
+            record();
+        }
+    }
+
+    private void record() {
+        long costTime = Math.max(System.currentTimeMillis() - startTime, 1L);
+        double rowsPerSecond = rowCount * 1000D / costTime;
+        if (failed) {
+            log.warn("[record][导出 Excel({}) 失败，已写入 {} 行，耗时 {} ms]", head.getSimpleName(), rowCount, costTime);
+        } else {
+            log.info("[record][导出 Excel({}) 共 {} 行，耗时 {} ms，速率 {} 行/秒]",
+                    head.getSimpleName(), rowCount, costTime, (long) rowsPerSecond);
+        }
+        if (MICROMETER_PRESENT) {
+            MetricsRecorder.record(head, rowCount, rowsPerSecond, failed);
+        }
+    }
+
+    /**
+     * Micrometer 指标的记录，独立成类，避免未引入 Micrometer 时类加载失败
+     */
+    private static class MetricsRecorder {
+
+        private static void record(Class<?> head, long rowCount, double rowsPerSecond, boolean failed) {
+            String name = head.getSimpleName();
+            Metrics.counter("yudao.excel.export.rows", "name", name, "result", failed ? "failure" : "success")
+                    .increment(rowCount);
+            // 失败的导出，速率没有意义，不记录
+            if (failed) {
+                return;
+            }
+            DistributionSummary.builder("yudao.excel.export.rows.per.second").tag("name", name)
+                    .baseUnit("rows").register(Metrics.globalRegistry).record(rowsPerSecond);
+        }
+
+    }
+
+}
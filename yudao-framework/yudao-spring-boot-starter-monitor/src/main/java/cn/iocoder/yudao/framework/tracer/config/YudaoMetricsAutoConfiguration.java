@@ -1,6 +1,9 @@
 package cn.iocoder.yudao.framework.tracer.config;
 
+import cn.iocoder.yudao.framework.common.util.cache.CaffeineCacheUtils;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
@@ -25,4 +28,19 @@ public class YudaoMetricsAutoConfiguration {
         return registry -> registry.config().commonTags("application", applicationName);
     }
 
+    /**
+     * 本地缓存的指标配置类，记录 {@link CaffeineCacheUtils} 构建的缓存的命中率、加载耗时等
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.github.benmanes.caffeine.cache.Caffeine")
+    public static class CacheMetricsConfiguration {
+
+        @Bean
+        public MeterBinder caffeineCacheMeterBinder() {
+            return registry -> CaffeineCacheUtils.addCacheListener((name, cache) ->
+                    CaffeineCacheMetrics.monitor(registry, cache, name));
+        }
+
+    }
+
 }
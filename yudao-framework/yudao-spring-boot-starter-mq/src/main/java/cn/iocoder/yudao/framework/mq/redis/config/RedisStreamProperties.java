@@ -0,0 +1,65 @@
+package cn.iocoder.yudao.framework.mq.redis.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Redis Stream 配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties("yudao.mq.redis.stream")
+@Data
+@Validated
+public class RedisStreamProperties {
+
+    /**
+     * 默认的消息保留策略，默认保留最近 10000 条消息
+     */
+    @NotNull(message = "默认的消息保留策略不能为空")
+    private Retention retention = new Retention().setMaxLength(10000L);
+
+    /**
+     * 每个 Stream 的消息保留策略，未配置时使用 {@link #retention}
+     *
+     * key：Stream Key
+     */
+    private Map<String, Retention> retentions = new HashMap<>();
+
+    /**
+     * 每发送多少条消息，执行一次裁剪
+     */
+    @NotNull(message = "裁剪间隔不能为空")
+    private Integer trimInterval = 100;
+
+    /**
+     * 消费者分组的消费进度，刷新的间隔
+     */
+    @NotNull(message = "消费进度的刷新间隔不能为空")
+    private Duration lagRefreshInterval = Duration.ofSeconds(10);
+
+    /**
+     * 消息保留策略，maxLength、maxAge 二选一，都配置时以 maxAge 为准
+     */
+    @Data
+    public static class Retention {
+
+        /**
+         * 最大消息数量
+         */
+        private Long maxLength;
+
+        /**
+         * 最大保留时长。需要 Redis 6.2+ 版本，基于 MINID 实现
+         */
+        private Duration maxAge;
+
+    }
+
+}
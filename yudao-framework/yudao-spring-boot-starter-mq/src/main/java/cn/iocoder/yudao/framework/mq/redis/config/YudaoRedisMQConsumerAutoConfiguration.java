@@ -8,7 +8,9 @@ import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.mq.redis.core.job.RedisPendingMessageResendJob;
 import cn.iocoder.yudao.framework.mq.redis.core.job.RedisStreamMessageCleanupJob;
 import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamBatchMessageListener;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamBatchMessageListenerContainer;
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RedissonClient;
@@ -71,7 +73,7 @@ public class YudaoRedisMQConsumerAutoConfiguration {
                                                                      RedisMQTemplate redisTemplate,
                                                                      @Value("${spring.application.name}") String groupName,
                                                                      RedissonClient redissonClient) {
-        return new RedisPendingMessageResendJob(listeners, redisTemplate, groupName, redissonClient);
+        return new RedisPendingMessageResendJob(listeners, redisTemplate, groupName, buildConsumerName(), redissonClient);
     }
 
     /**
@@ -93,14 +95,15 @@ public class YudaoRedisMQConsumerAutoConfiguration {
     @Bean(initMethod = "start", destroyMethod = "stop")
     @ConditionalOnBean(AbstractRedisStreamMessageListener.class) // 只有 AbstractStreamMessageListener 存在的时候，才需要注册 Redis pubsub 监听
     public StreamMessageListenerContainer<String, ObjectRecord<String, String>> redisStreamMessageListenerContainer(
-            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamMessageListener<?>> listeners) {
+            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamMessageListener<?>> listeners,
+            @Value("${yudao.mq.redis.stream.batch-size:10}") Integer batchSize) {
         RedisTemplate<String, ?> redisTemplate = redisMQTemplate.getRedisTemplate();
         checkRedisVersion(redisTemplate);
         // 第一步，创建 StreamMessageListenerContainer 容器
         // 创建 options 配置
         StreamMessageListenerContainer.StreamMessageListenerContainerOptions<String, ObjectRecord<String, String>> containerOptions =
                 StreamMessageListenerContainer.StreamMessageListenerContainerOptions.builder()
-                        .batchSize(10) // 一次性最多拉取多少条消息
+                        .batchSize(batchSize) // 一次性最多拉取多少条消息
                         .targetType(String.class) // 目标类型。统一使用 String，通过自己封装的 AbstractStreamMessageListener 去反序列化
                         .build();
         // 创建 container 对象
@@ -119,6 +122,10 @@ public class YudaoRedisMQConsumerAutoConfiguration {
             }
             // 设置 listener 对应的 redisTemplate
             listener.setRedisMQTemplate(redisMQTemplate);
+            // 批量监听器，由 RedisStreamBatchMessageListenerContainer 负责拉取
+            if (listener instanceof AbstractRedisStreamBatchMessageListener) {
+                return;
+            }
             // 创建 Consumer 对象
             Consumer consumer = Consumer.from(listener.getGroup(), consumerName);
             // 设置 Consumer 消费进度，以最小消费进度为准
@@ -135,6 +142,19 @@ public class YudaoRedisMQConsumerAutoConfiguration {
         return container;
     }
 
+    /**
+     * 创建 Redis Stream 批量消费的容器
+     *
+     * 依赖 redisStreamMessageListenerContainer 的原因是，需要保证消费者分组已经创建
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnBean(AbstractRedisStreamBatchMessageListener.class)
+    public RedisStreamBatchMessageListenerContainer redisStreamBatchMessageListenerContainer(
+            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamBatchMessageListener<?>> listeners,
+            StreamMessageListenerContainer<String, ObjectRecord<String, String>> redisStreamMessageListenerContainer) {
+        return new RedisStreamBatchMessageListenerContainer(redisMQTemplate, listeners, buildConsumerName());
+    }
+
     /**
      * 构建消费者名字，使用本地 IP + 进程编号的方式。
      * 参考自 RocketMQ clientId 的实现
@@ -2,9 +2,11 @@ package cn.iocoder.yudao.framework.mq.redis.config;
 
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageInterceptor;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamTrimmer;
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
@@ -17,14 +19,18 @@ import java.util.List;
  */
 @Slf4j
 @AutoConfiguration(after = YudaoRedisAutoConfiguration.class)
+@EnableConfigurationProperties(RedisStreamProperties.class)
 public class YudaoRedisMQProducerAutoConfiguration {
 
     @Bean
     public RedisMQTemplate redisMQTemplate(StringRedisTemplate redisTemplate,
-                                           List<RedisMessageInterceptor> interceptors) {
+                                           List<RedisMessageInterceptor> interceptors,
+                                           RedisStreamProperties redisStreamProperties) {
         RedisMQTemplate redisMQTemplate = new RedisMQTemplate(redisTemplate);
         // 添加拦截器
         interceptors.forEach(redisMQTemplate::addInterceptor);
+        // 设置 Stream 裁剪器
+        redisMQTemplate.setStreamTrimmer(new RedisStreamTrimmer(redisTemplate, redisStreamProperties));
         return redisMQTemplate;
     }
 
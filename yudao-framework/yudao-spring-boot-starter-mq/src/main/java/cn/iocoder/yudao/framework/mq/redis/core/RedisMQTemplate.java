@@ -5,8 +5,10 @@ import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageIntercep
 import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
 import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
-import lombok.AllArgsConstructor;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamTrimmer;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.data.redis.connection.stream.StreamRecords;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -19,7 +21,7 @@ import java.util.List;
  *
  * @author 芋道源码
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class RedisMQTemplate {
 
     @Getter
@@ -29,6 +31,12 @@ public class RedisMQTemplate {
      */
     @Getter
     private final List<RedisMessageInterceptor> interceptors = new ArrayList<>();
+    /**
+     * Stream 裁剪器，为空时不裁剪
+     */
+    @Getter
+    @Setter
+    private RedisStreamTrimmer streamTrimmer;
 
     /**
      * 发送 Redis 消息，基于 Redis pub/sub 实现
@@ -55,9 +63,14 @@ public class RedisMQTemplate {
         try {
             sendMessageBefore(message);
             // 发送消息
-            return redisTemplate.opsForStream().add(StreamRecords.newRecord()
+            RecordId recordId = redisTemplate.opsForStream().add(StreamRecords.newRecord()
                     .ofObject(JsonUtils.toJsonString(message)) // 设置内容
                     .withStreamKey(message.getStreamKey())); // 设置 stream key
+            // 按需裁剪 Stream，避免无限增长
+            if (streamTrimmer != null) {
+                streamTrimmer.onSend(message.getStreamKey());
+            }
+            return recordId;
         } finally {
             sendMessageAfter(message);
         }
@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.framework.mq.redis.core.job;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
 import lombok.AllArgsConstructor;
@@ -9,15 +10,32 @@ import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.data.domain.Range;
 import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.StreamOperations;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
 
 /**
  * 这个任务用于处理，crash 之后的消费者未消费完的消息
+ *
+ * 基于游标分页扫描 pending 队列（XPENDING），将超时的消息通过 XCLAIM 认领给当前节点的消费者，再交给监听器消费：
+ * 1. 每页最多 {@link #PAGE_SIZE} 条，单次任务最多扫描 {@link #MAX_COUNT_PER_RUN} 条，内存占用有上限
+ * 2. 使用 Redisson 分布式锁，同一时刻只有一个节点扫描，避免多个节点重复 XPENDING；XCLAIM 指定了最小空闲时间，进一步保证同一条消息只被认领一次
+ * 3. 认领不会产生新的消息，避免原先“XADD 重新投递 + XACK”导致 Stream 中的消息重复
+ * 4. 认领的消息通过 {@link AbstractRedisStreamMessageListener#resend(List)} 交给监听器的线程池异步消费，不阻塞定时任务的线程。
+ *    认领前，通过 {@link AbstractRedisStreamMessageListener#getResendCapacity(Duration)} 获得监听器能在超时前消费完的数量，
+ *    只认领这么多，避免认领的消息排队超时后，被下次任务再次认领
+ * 5. 重新消费失败次数达到 {@link #MAX_FAILURE_COUNT} 的消息，转移到死信 Stream（{@link #getDeadLetterStreamKey(String)}），不再重试。
+ *    失败次数由监听器记录（{@link AbstractRedisStreamMessageListener#getResendFailureKey(String)}），
+ *    不使用 XCLAIM 累加的投递次数，认领后没能消费的消息不会被误判
  */
 @Slf4j
 @AllArgsConstructor
@@ -31,11 +49,30 @@ public class RedisPendingMessageResendJob {
      * 1. 超时的消息才会被重新投递
      * 2. 由于定时任务 1 分钟一次，消息超时后不会被立即重投，极端情况下消息 5 分钟过期后，再等 1 分钟才会被扫瞄到
      */
-    private static final int EXPIRE_TIME = 5 * 60;
+    private static final Duration EXPIRE_TIME = Duration.ofMinutes(5);
+
+    /**
+     * 每页扫描的 pending 消息数量
+     */
+    private static final long PAGE_SIZE = 100;
+    /**
+     * 单次任务，每个 Stream 最多扫描的 pending 消息数量。剩余的消息，等待下次任务处理
+     */
+    private static final int MAX_COUNT_PER_RUN = 10000;
+    /**
+     * 最大重新消费失败次数，达到后转移到死信 Stream
+     */
+    private static final long MAX_FAILURE_COUNT = 16;
+
+    /**
+     * 死信 Stream 的 Key 后缀
+     */
+    private static final String DEAD_LETTER_SUFFIX = ":dead-letter";
 
     private final List<AbstractRedisStreamMessageListener<?>> listeners;
     private final RedisMQTemplate redisTemplate;
     private final String groupName;
+    private final String consumerName;
     private final RedissonClient redissonClient;
 
     /**
@@ -45,56 +82,135 @@ public class RedisPendingMessageResendJob {
     public void messageResend() {
         RLock lock = redissonClient.getLock(LOCK_KEY);
         // 尝试加锁
-        if (lock.tryLock()) {
-            try {
-                execute();
-            } catch (Exception ex) {
-                log.error("[messageResend][执行异常]", ex);
-            } finally {
-                lock.unlock();
-            }
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            listeners.forEach(listener -> {
+                try {
+                    execute(listener);
+                } catch (Exception ex) {
+                    log.error("[messageResend][Stream({}) 执行异常]", listener.getStreamKey(), ex);
+                }
+            });
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
-     * 执行清理逻辑
+     * 执行重新投递逻辑
      *
      * @see <a href="https://gitee.com/zhijiantianya/ruoyi-vue-pro/pulls/480/files">讨论</a>
      */
-    private void execute() {
+    private void execute(AbstractRedisStreamMessageListener<?> listener) {
+        String streamKey = listener.getStreamKey();
+        // 上次认领的消息还没消费完，或者监听器消费太慢，本次不认领
+        int capacity = listener.getResendCapacity(EXPIRE_TIME);
+        if (capacity <= 0) {
+            log.info("[execute][Stream({}) 上次认领的消息尚未消费完，跳过本次认领]", streamKey);
+            return;
+        }
         StreamOperations<String, Object, Object> ops = redisTemplate.getRedisTemplate().opsForStream();
-        listeners.forEach(listener -> {
-            PendingMessagesSummary pendingMessagesSummary = Objects.requireNonNull(ops.pending(listener.getStreamKey(), groupName));
-            // 每个消费者的 pending 队列消息数量
-            Map<String, Long> pendingMessagesPerConsumer = pendingMessagesSummary.getPendingMessagesPerConsumer();
-            pendingMessagesPerConsumer.forEach((consumerName, pendingMessageCount) -> {
-                log.info("[processPendingMessage][消费者({}) 消息数量({})]", consumerName, pendingMessageCount);
-                // 每个消费者的 pending消息的详情信息
-                PendingMessages pendingMessages = ops.pending(listener.getStreamKey(), Consumer.from(groupName, consumerName), Range.unbounded(), pendingMessageCount);
-                if (pendingMessages.isEmpty()) {
-                    return;
+        String cursor = null;
+        int scanned = 0;
+        int claimed = 0;
+        while (scanned < MAX_COUNT_PER_RUN && claimed < capacity) {
+            // 1. 从游标开始，分页获取 pending 消息
+            Range<String> range = Range.of(cursor != null ? Range.Bound.inclusive(cursor) : Range.Bound.<String>unbounded(),
+                    Range.Bound.<String>unbounded());
+            PendingMessages page = ops.pending(streamKey, groupName, range, PAGE_SIZE);
+            List<PendingMessage> pendingMessages = new ArrayList<>();
+            for (PendingMessage pendingMessage : page) {
+                // 游标是闭区间，需要排除上一页的最后一条
+                if (!pendingMessage.getIdAsString().equals(cursor)) {
+                    pendingMessages.add(pendingMessage);
                 }
-                pendingMessages.forEach(pendingMessage -> {
-                    // 获取消息上一次传递到 consumer 的时间,
-                    long lastDelivery = pendingMessage.getElapsedTimeSinceLastDelivery().getSeconds();
-                    if (lastDelivery < EXPIRE_TIME){
-                        return;
-                    }
-                    // 获取指定 id 的消息体
-                    List<MapRecord<String, Object, Object>> records = ops.range(listener.getStreamKey(),
-                            Range.of(Range.Bound.inclusive(pendingMessage.getIdAsString()), Range.Bound.inclusive(pendingMessage.getIdAsString())));
-                    if (CollUtil.isEmpty(records)) {
-                        return;
-                    }
-                    // 重新投递消息
-                    redisTemplate.getRedisTemplate().opsForStream().add(StreamRecords.newRecord()
-                            .ofObject(records.get(0).getValue()) // 设置内容
-                            .withStreamKey(listener.getStreamKey()));
-                    // ack 消息消费完成
-                    redisTemplate.getRedisTemplate().opsForStream().acknowledge(groupName, records.get(0));
-                    log.info("[processPendingMessage][消息({})重新投递成功]", records.get(0).getId());
-                });
-            });
+            }
+            if (pendingMessages.isEmpty()) {
+                break;
+            }
+            scanned += pendingMessages.size();
+            cursor = pendingMessages.get(pendingMessages.size() - 1).getIdAsString();
+
+            // 2. 认领超时的消息，并进行处理，不超过监听器的容量
+            List<PendingMessage> expiredMessages = filterList(pendingMessages, pendingMessage ->
+                    pendingMessage.getElapsedTimeSinceLastDelivery().compareTo(EXPIRE_TIME) >= 0);
+            claimed += claimAndConsume(ops, listener, CollUtil.sub(expiredMessages, 0, capacity - claimed));
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        if (claimed > 0) {
+            log.info("[execute][Stream({}) 扫描 pending 消息({}) 条，重新投递({}) 条]", streamKey, scanned, claimed);
+        }
+    }
+
+    private int claimAndConsume(StreamOperations<String, Object, Object> ops,
+                                AbstractRedisStreamMessageListener<?> listener,
+                                List<PendingMessage> expiredMessages) {
+        if (CollUtil.isEmpty(expiredMessages)) {
+            return 0;
+        }
+        String streamKey = listener.getStreamKey();
+        // 1. 认领消息给当前节点的消费者。XCLAIM 会重置空闲时间、增加投递次数，并发时只有一个节点能认领成功
+        RecordId[] recordIds = convertList(expiredMessages, PendingMessage::getId).toArray(new RecordId[0]);
+        List<MapRecord<String, Object, Object>> records = ops.claim(streamKey, groupName, consumerName, EXPIRE_TIME, recordIds);
+        if (CollUtil.isEmpty(records)) {
+            return 0;
+        }
+
+        // 2. 重新消费失败次数过多的消息，转移到死信 Stream
+        List<String> ids = convertList(records, record -> record.getId().getValue());
+        HashOperations<String, String, Object> hashOps = redisTemplate.getRedisTemplate().opsForHash();
+        List<Object> failureCounts = hashOps.multiGet(AbstractRedisStreamMessageListener.getResendFailureKey(streamKey), ids);
+        Set<String> deadLetterIds = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (Convert.toLong(CollUtil.get(failureCounts, i), 0L) >= MAX_FAILURE_COUNT) {
+                deadLetterIds.add(ids.get(i));
+            }
+        }
+        if (CollUtil.isNotEmpty(deadLetterIds)) {
+            moveToDeadLetter(ops, streamKey, filterList(records, record -> deadLetterIds.contains(record.getId().getValue())));
+        }
+
+        // 3. 交给监听器的线程池异步消费，消费成功后由监听器 ACK
+        List<ObjectRecord<String, String>> retryRecords = new ArrayList<>(records.size());
+        records.forEach(record -> {
+            if (!deadLetterIds.contains(record.getId().getValue())) {
+                retryRecords.add(ops.map(record, String.class));
+            }
         });
+        if (CollUtil.isEmpty(retryRecords)) {
+            return 0;
+        }
+        if (!listener.resend(retryRecords)) {
+            // 未提交的消息仍在 pending 队列中，超时后会被再次认领；没有消费，所以不计入失败次数
+            log.warn("[claimAndConsume][Stream({}) 重新消费的线程池已满，{} 条消息等待下次认领]", streamKey, retryRecords.size());
+            return 0;
+        }
+        return retryRecords.size();
+    }
+
+    private void moveToDeadLetter(StreamOperations<String, Object, Object> ops, String streamKey,
+                                  List<MapRecord<String, Object, Object>> records) {
+        String deadLetterStreamKey = getDeadLetterStreamKey(streamKey);
+        records.forEach(record -> ops.add(StreamRecords.newRecord().in(deadLetterStreamKey).ofMap(record.getValue())));
+        ops.acknowledge(streamKey, groupName, convertList(records, MapRecord::getId).toArray(new RecordId[0]));
+        redisTemplate.getRedisTemplate().opsForHash().delete(AbstractRedisStreamMessageListener.getResendFailureKey(streamKey),
+                convertList(records, record -> record.getId().getValue()).toArray());
+        log.warn("[moveToDeadLetter][Stream({}) 消息({}) 达到最大失败次数({})，转移到死信 Stream({})]",
+                streamKey, convertList(records, MapRecord::getId), MAX_FAILURE_COUNT, deadLetterStreamKey);
+    }
+
+    /**
+     * 获得死信 Stream 的 Key
+     *
+     * @param streamKey Stream Key
+     * @return 死信 Stream Key
+     */
+    public static String getDeadLetterStreamKey(String streamKey) {
+        return streamKey + DEAD_LETTER_SUFFIX;
     }
+
 }
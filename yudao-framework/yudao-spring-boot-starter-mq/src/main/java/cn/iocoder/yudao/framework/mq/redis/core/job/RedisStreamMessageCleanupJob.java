@@ -2,11 +2,11 @@ package cn.iocoder.yudao.framework.mq.redis.core.job;
 
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamTrimmer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
-import org.springframework.data.redis.core.StreamOperations;
 import org.springframework.scheduling.annotation.Scheduled;
 
 import java.util.List;
@@ -15,6 +15,8 @@ import java.util.List;
  * Redis Stream 消息清理任务
  * 用于定期清理已消费的消息，防止内存占用过大
  *
+ * 发送消息时，已经通过 {@link RedisStreamTrimmer} 持续裁剪；该任务作为兜底，处理长时间没有发送消息的 Stream
+ *
  * @see <a href="https://www.cnblogs.com/nanxiang/p/16179519.html">记一次 redis stream 数据类型内存不释放问题</a>
  *
  * @author 芋道源码
@@ -25,11 +27,6 @@ public class RedisStreamMessageCleanupJob {
 
     private static final String LOCK_KEY = "redis:stream:message-cleanup:lock";
 
-    /**
-     * 保留的消息数量，默认保留最近 10000 条消息
-     */
-    private static final long MAX_COUNT = 10000;
-
     private final List<AbstractRedisStreamMessageListener<?>> listeners;
     private final RedisMQTemplate redisTemplate;
     private final RedissonClient redissonClient;
@@ -56,11 +53,14 @@ public class RedisStreamMessageCleanupJob {
      * 执行清理逻辑
      */
     private void execute() {
-        StreamOperations<String, Object, Object> ops = redisTemplate.getRedisTemplate().opsForStream();
+        RedisStreamTrimmer streamTrimmer = redisTemplate.getStreamTrimmer();
+        if (streamTrimmer == null) {
+            return;
+        }
         listeners.forEach(listener -> {
             try {
-                // 使用 XTRIM 命令清理消息，只保留最近的 MAX_LEN 条消息
-                Long trimCount = ops.trim(listener.getStreamKey(), MAX_COUNT, true);
+                // 按照保留策略，近似裁剪消息，并且不会裁剪未 ACK 的消息
+                Long trimCount = streamTrimmer.trim(listener.getStreamKey());
                 if (trimCount != null && trimCount > 0) {
                     log.info("[execute][Stream({}) 清理消息数量({})]", listener.getStreamKey(), trimCount);
                 }
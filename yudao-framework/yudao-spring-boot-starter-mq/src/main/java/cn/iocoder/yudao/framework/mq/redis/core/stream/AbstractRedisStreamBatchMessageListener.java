@@ -0,0 +1,222 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
+
+/**
+ * Redis Stream 批量监听器抽象类，用于高吞吐的集群消费
+ *
+ * 相比 {@link AbstractRedisStreamMessageListener} 逐条消费、逐条 ACK：
+ * 1. 一次拉取最多 {@link #getBatchSize()} 条消息，通过 {@link #onMessage(List)} 批量处理
+ * 2. 处理成功的消息，使用一次 XACK 命令批量 ACK；处理失败的消息保留在 pending 队列，由 RedisPendingMessageResendJob 重新投递，同样批量消费
+ * 3. {@link #getConcurrency()} 大于 1 时，拆分成多个子批次，在有界线程池中并行处理
+ *
+ * 注意，headers 相同（例如说，同一个租户）的消息，才会被分到同一个子批次，从而保证 RedisMessageInterceptor 拦截器的语义
+ *
+ * @param <T> 消息类型。一定要填写噢，不然会报错
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public abstract class AbstractRedisStreamBatchMessageListener<T extends AbstractRedisStreamMessage>
+        extends AbstractRedisStreamMessageListener<T> {
+
+    /**
+     * 并行处理的线程池，{@link #getConcurrency()} 大于 1 时才创建
+     */
+    private volatile ExecutorService executor;
+
+    @Override
+    public final void onMessage(T message) {
+        onMessage(Collections.singletonList(message));
+    }
+
+    /**
+     * 批量处理消息
+     *
+     * 如果抛出异常，则整个子批次都不会被 ACK，后续会被重新投递，因此需要保证幂等
+     *
+     * @param messages 消息列表，headers 都相同
+     */
+    public abstract void onMessage(List<T> messages);
+
+    /**
+     * 消费一批消息记录
+     *
+     * @param records 消息记录
+     */
+    public void onRecords(List<ObjectRecord<String, String>> records) {
+        consumeRecords(records);
+    }
+
+    /**
+     * 重新投递的消息，同样批量消费、批量 ACK
+     */
+    @Override
+    protected void consumeResendRecords(List<ObjectRecord<String, String>> records) {
+        List<RecordId> ackIds = consumeRecords(records);
+        Set<RecordId> ackIdSet = new HashSet<>(ackIds);
+        updateResendFailureCounts(ackIds, filterList(convertList(records, ObjectRecord::getId),
+                id -> !ackIdSet.contains(id)));
+    }
+
+    /**
+     * 消费一批消息记录，并 ACK 处理成功的消息
+     *
+     * @param records 消息记录
+     * @return 处理成功，已经 ACK 的消息编号
+     */
+    private List<RecordId> consumeRecords(List<ObjectRecord<String, String>> records) {
+        // 1. 解析消息，并按照 headers 分组
+        Map<Map<String, String>, List<ParsedRecord<T>>> groups = new LinkedHashMap<>();
+        for (ObjectRecord<String, String> record : records) {
+            T message;
+            try {
+                message = parseMessage(record);
+            } catch (Exception ex) {
+                // 解析失败，不进行 ACK，由 RedisPendingMessageResendJob 处理
+                log.error("[onRecords][Stream({}) 消息({}) 解析失败]", getStreamKey(), record.getId(), ex);
+                continue;
+            }
+            if (message == null) {
+                continue;
+            }
+            groups.computeIfAbsent(message.getHeaders(), key -> new ArrayList<>())
+                    .add(new ParsedRecord<>(record.getId(), message));
+        }
+
+        // 2. 拆分成子批次，执行处理
+        List<List<ParsedRecord<T>>> batches = new ArrayList<>();
+        int concurrency = Math.max(1, getConcurrency());
+        groups.values().forEach(group -> batches.addAll(
+                ListUtil.partition(group, (group.size() + concurrency - 1) / concurrency)));
+        List<RecordId> ackIds = new ArrayList<>(records.size());
+        if (concurrency == 1 || batches.size() == 1) {
+            batches.forEach(batch -> ackIds.addAll(consumeBatch(batch)));
+        } else {
+            ExecutorService executor = getExecutor(concurrency);
+            List<CompletableFuture<List<RecordId>>> futures = new ArrayList<>(batches.size());
+            batches.forEach(batch -> futures.add(CompletableFuture.supplyAsync(() -> consumeBatch(batch), executor)));
+            futures.forEach(future -> ackIds.addAll(future.join()));
+        }
+
+        // 3. 批量 ACK，一次 XACK 命令
+        if (CollUtil.isNotEmpty(ackIds)) {
+            getRedisMQTemplate().getRedisTemplate().opsForStream()
+                    .acknowledge(getStreamKey(), getGroup(), ackIds.toArray(new RecordId[0]));
+        }
+        return ackIds;
+    }
+
+    /**
+     * 处理一个子批次
+     *
+     * @param batch 子批次
+     * @return 处理成功，需要 ACK 的消息编号
+     */
+    private List<RecordId> consumeBatch(List<ParsedRecord<T>> batch) {
+        // 子批次的 headers 都相同，因此使用第一条消息执行拦截器即可
+        T first = batch.get(0).getMessage();
+        try {
+            consumeMessageBefore(first);
+            onMessage(convertList(batch, ParsedRecord::getMessage));
+            return convertList(batch, ParsedRecord::getId);
+        } catch (Exception ex) {
+            log.error("[consumeBatch][Stream({}) 批量消费({}) 条消息失败]", getStreamKey(), batch.size(), ex);
+            return Collections.emptyList();
+        } finally {
+            consumeMessageAfter(first);
+        }
+    }
+
+    private ExecutorService getExecutor(int concurrency) {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(concurrency * 2),
+                            ThreadFactoryBuilder.create().setNamePrefix(getStreamKey() + "-consumer-").setDaemon(true).build(),
+                            new ThreadPoolExecutor.CallerRunsPolicy()); // 线程池满时，由拉取线程执行，起到背压的作用
+                }
+            }
+        }
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 获得一次拉取的最大消息数量
+     *
+     * @return 最大消息数量
+     */
+    public int getBatchSize() {
+        return 100;
+    }
+
+    /**
+     * 获得拉取消息时，阻塞等待的最大时长
+     *
+     * @return 最大时长
+     */
+    public Duration getPollTimeout() {
+        return Duration.ofSeconds(2);
+    }
+
+    /**
+     * 获得并行处理的线程数
+     *
+     * @return 线程数，1 表示在拉取线程中串行处理
+     */
+    public int getConcurrency() {
+        return 1;
+    }
+
+    /**
+     * 解析后的消息记录
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class ParsedRecord<T> {
+
+        /**
+         * 消息编号
+         */
+        private final RecordId id;
+        /**
+         * 消息
+         */
+        private final T message;
+
+    }
+
+}
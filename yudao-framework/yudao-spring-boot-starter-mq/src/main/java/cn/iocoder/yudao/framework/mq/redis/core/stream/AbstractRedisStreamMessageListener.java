@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.mq.redis.core.stream;
 
+import cn.hutool.core.thread.ThreadFactoryBuilder;
 import cn.hutool.core.util.TypeUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
@@ -8,12 +9,26 @@ import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.stream.StreamListener;
 
 import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 
 /**
  * Redis Stream 监听器抽象类，用于实现集群消费
@@ -22,8 +37,23 @@ import java.util.List;
  *
  * @author 芋道源码
  */
+@Slf4j
 public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedisStreamMessage>
-        implements StreamListener<String, ObjectRecord<String, String>> {
+        implements StreamListener<String, ObjectRecord<String, String>>, DisposableBean {
+
+    /**
+     * 重新消费的线程池，等待执行的任务数量上限
+     */
+    private static final int RESEND_QUEUE_CAPACITY = 100;
+    /**
+     * 尚未重新消费过时，单次认领的消息数量，用于试探消费耗时
+     */
+    private static final int RESEND_INITIAL_CAPACITY = 100;
+
+    /**
+     * 重新消费失败次数的 Hash Key 后缀
+     */
+    private static final String RESEND_FAILURE_SUFFIX = ":resend-failure";
 
     /**
      * 消息类型
@@ -44,9 +74,23 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
     /**
      * RedisMQTemplate
      */
+    @Getter
     @Setter
     private RedisMQTemplate redisMQTemplate;
 
+    /**
+     * 重新消费的线程池，首次 {@link #resend(List)} 时创建
+     */
+    private volatile ExecutorService resendExecutor;
+    /**
+     * 已提交重新消费、但还没消费完的消息数量
+     */
+    private final AtomicInteger resendingCount = new AtomicInteger();
+    /**
+     * 最近一次重新消费，平均每条消息的耗时，单位：纳秒。0 表示尚未重新消费过
+     */
+    private volatile long resendNanosPerRecord;
+
     @SneakyThrows
     protected AbstractRedisStreamMessageListener() {
         this.messageType = getMessageClass();
@@ -56,7 +100,7 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
     @Override
     public void onMessage(ObjectRecord<String, String> message) {
         // 消费消息
-        T messageObj = JsonUtils.parseObject(message.getValue(), messageType);
+        T messageObj = parseMessage(message);
         try {
             consumeMessageBefore(messageObj);
             // 消费消息
@@ -80,6 +124,133 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
      */
     public abstract void onMessage(T message);
 
+    /**
+     * 获得 RedisPendingMessageResendJob 本次可以认领的消息数量
+     *
+     * 1. 上次认领的消息还没消费完时，返回 0：否则排队超过 expireTime 的消息，会被再次认领，重复消费
+     * 2. 按照最近一次重新消费的耗时，估算 expireTime 的一半内能消费完的数量；尚未重新消费过时，先认领少量消息
+     *
+     * @param expireTime 消息超时时间，超过后会被再次认领
+     * @return 可以认领的消息数量
+     */
+    public int getResendCapacity(Duration expireTime) {
+        if (resendingCount.get() > 0) {
+            return 0;
+        }
+        long nanosPerRecord = resendNanosPerRecord;
+        if (nanosPerRecord <= 0) {
+            return RESEND_INITIAL_CAPACITY;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, expireTime.toNanos() / 2 / nanosPerRecord);
+    }
+
+    /**
+     * 重新消费 RedisPendingMessageResendJob 认领的超时消息
+     *
+     * 提交到监听器自己的单线程池异步执行，避免阻塞定时任务的线程；线程池已满时不提交，
+     * 消息仍然保留在 pending 队列中，等待下次超时后重新认领
+     *
+     * @param records 消息记录
+     * @return 是否提交成功
+     */
+    public boolean resend(List<ObjectRecord<String, String>> records) {
+        resendingCount.addAndGet(records.size());
+        try {
+            getResendExecutor().execute(() -> {
+                long startTime = System.nanoTime();
+                try {
+                    consumeResendRecords(records);
+                } finally {
+                    resendNanosPerRecord = Math.max((System.nanoTime() - startTime) / records.size(), 1L);
+                    resendingCount.addAndGet(-records.size());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            resendingCount.addAndGet(-records.size());
+            return false;
+        }
+    }
+
+    /**
+     * 消费重新投递的消息记录，逐条消费、逐条 ACK
+     *
+     * @param records 消息记录
+     */
+    protected void consumeResendRecords(List<ObjectRecord<String, String>> records) {
+        List<RecordId> succeededIds = new ArrayList<>(records.size());
+        List<RecordId> failedIds = new ArrayList<>();
+        records.forEach(record -> {
+            try {
+                onMessage(record);
+                succeededIds.add(record.getId());
+            } catch (Exception ex) {
+                failedIds.add(record.getId());
+                log.error("[consumeResendRecords][Stream({}) 消息({}) 重新消费失败]", streamKey, record.getId(), ex);
+            }
+        });
+        updateResendFailureCounts(succeededIds, failedIds);
+    }
+
+    /**
+     * 记录重新消费的结果：成功的消息清除失败次数，失败的消息失败次数 +1
+     *
+     * RedisPendingMessageResendJob 基于失败次数，而不是 XCLAIM 累加的投递次数，判断是否转移到死信 Stream，
+     * 从而认领后没能消费（例如说，线程池已满、节点重启）的消息，不会被误判
+     *
+     * @param succeededIds 消费成功的消息编号
+     * @param failedIds    消费失败的消息编号
+     */
+    protected void updateResendFailureCounts(List<RecordId> succeededIds, List<RecordId> failedIds) {
+        HashOperations<String, String, Object> ops = redisMQTemplate.getRedisTemplate().opsForHash();
+        String key = getResendFailureKey(streamKey);
+        if (!succeededIds.isEmpty()) {
+            ops.delete(key, convertList(succeededIds, RecordId::getValue).toArray());
+        }
+        failedIds.forEach(id -> ops.increment(key, id.getValue(), 1));
+    }
+
+    private ExecutorService getResendExecutor() {
+        if (resendExecutor == null) {
+            synchronized (this) {
+                if (resendExecutor == null) {
+                    resendExecutor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(RESEND_QUEUE_CAPACITY),
+                            ThreadFactoryBuilder.create().setNamePrefix(streamKey + "-resend-").setDaemon(true).build());
+                    ((ThreadPoolExecutor) resendExecutor).allowCoreThreadTimeOut(true);
+                }
+            }
+        }
+        return resendExecutor;
+    }
+
+    @Override
+    public void destroy() {
+        if (resendExecutor != null) {
+            resendExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 获得重新消费失败次数的 Hash Key
+     *
+     * @param streamKey Stream Key
+     * @return Hash Key，field 为消息编号，value 为失败次数
+     */
+    public static String getResendFailureKey(String streamKey) {
+        return streamKey + RESEND_FAILURE_SUFFIX;
+    }
+
+    /**
+     * 解析消息记录
+     *
+     * @param record 消息记录
+     * @return 消息
+     */
+    protected T parseMessage(ObjectRecord<String, String> record) {
+        return JsonUtils.parseObject(record.getValue(), messageType);
+    }
+
     /**
      * 通过解析类上的泛型，获得消息类型
      *
@@ -94,14 +265,14 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
         return (Class<T>) type;
     }
 
-    private void consumeMessageBefore(AbstractRedisMessage message) {
+    protected void consumeMessageBefore(AbstractRedisMessage message) {
         assert redisMQTemplate != null;
         List<RedisMessageInterceptor> interceptors = redisMQTemplate.getInterceptors();
         // 正序
         interceptors.forEach(interceptor -> interceptor.consumeMessageBefore(message));
     }
 
-    private void consumeMessageAfter(AbstractRedisMessage message) {
+    protected void consumeMessageAfter(AbstractRedisMessage message) {
         assert redisMQTemplate != null;
         List<RedisMessageInterceptor> interceptors = redisMQTemplate.getInterceptors();
         // 倒序
@@ -0,0 +1,103 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AbstractRedisStreamBatchMessageListener} 的消费容器
+ *
+ * 每个监听器一个拉取线程，循环执行 XREADGROUP COUNT {batchSize} BLOCK {pollTimeout}，并将拉取到的消息整批交给监听器处理
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class RedisStreamBatchMessageListenerContainer {
+
+    /**
+     * 拉取异常时，等待的时长，避免 Redis 不可用时空转
+     */
+    private static final long ERROR_BACKOFF_MILLIS = 1000L;
+
+    private final RedisMQTemplate redisMQTemplate;
+    private final List<AbstractRedisStreamBatchMessageListener<?>> listeners;
+    private final String consumerName;
+
+    private ExecutorService pollExecutor;
+    private volatile boolean running;
+
+    public RedisStreamBatchMessageListenerContainer(RedisMQTemplate redisMQTemplate,
+                                                    List<AbstractRedisStreamBatchMessageListener<?>> listeners,
+                                                    String consumerName) {
+        this.redisMQTemplate = redisMQTemplate;
+        this.listeners = listeners;
+        this.consumerName = consumerName;
+    }
+
+    public synchronized void start() {
+        if (running || CollUtil.isEmpty(listeners)) {
+            return;
+        }
+        running = true;
+        pollExecutor = Executors.newFixedThreadPool(listeners.size(), ThreadFactoryBuilder.create()
+                .setNamePrefix("redis-stream-batch-poll-").setDaemon(true).build());
+        listeners.forEach(listener -> {
+            pollExecutor.execute(() -> poll(listener));
+            log.info("[start][StreamKey({}) 对应的批量监听器({}) 开始拉取，batchSize({}) concurrency({})]",
+                    listener.getStreamKey(), listener.getClass().getName(), listener.getBatchSize(), listener.getConcurrency());
+        });
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        pollExecutor.shutdown();
+        try {
+            long timeoutMillis = listeners.stream().mapToLong(listener -> listener.getPollTimeout().toMillis())
+                    .max().orElse(0L) + ERROR_BACKOFF_MILLIS;
+            if (!pollExecutor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                pollExecutor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void poll(AbstractRedisStreamBatchMessageListener<?> listener) {
+        StreamOperations<String, Object, Object> ops = redisMQTemplate.getRedisTemplate().opsForStream();
+        Consumer consumer = Consumer.from(listener.getGroup(), consumerName);
+        StreamReadOptions readOptions = StreamReadOptions.empty()
+                .count(listener.getBatchSize()).block(listener.getPollTimeout());
+        StreamOffset<String> streamOffset = StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed());
+        while (running) {
+            try {
+                List<ObjectRecord<String, String>> records = ops.read(String.class, consumer, readOptions, streamOffset);
+                if (CollUtil.isNotEmpty(records)) {
+                    listener.onRecords(records);
+                }
+            } catch (Exception ex) {
+                if (!running) {
+                    break;
+                }
+                log.error("[poll][StreamKey({}) 拉取或消费消息异常]", listener.getStreamKey(), ex);
+                ThreadUtil.sleep(ERROR_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+}
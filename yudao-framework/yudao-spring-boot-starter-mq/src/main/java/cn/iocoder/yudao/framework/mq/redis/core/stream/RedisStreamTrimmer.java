@@ -0,0 +1,263 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.comparator.VersionComparator;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.mq.redis.config.RedisStreamProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis Stream 的裁剪器，在发送消息时持续地、近似地裁剪 Stream，避免两次定时清理之间 Stream 无限增长
+ *
+ * 1. 按照数量保留时，使用 XTRIM MAXLEN ~；按照时长保留时，使用 XTRIM MINID ~。近似裁剪只删除整个宏节点，开销很小
+ * 2. 裁剪的下界，不会超过所有消费者分组中“最早的未 ACK 消息”，保证消费积压时，未消费、未 ACK 的消息不会被裁剪：
+ *    按照数量裁剪会越过下界时，只裁剪到下界为止
+ * 3. 每发送 {@link RedisStreamProperties#getTrimInterval()} 条消息才裁剪一次，消费进度按照
+ *    {@link RedisStreamProperties#getLagRefreshInterval()} 缓存，发送消息的额外开销可以忽略
+ * 4. MINID 需要 Redis 6.2+ 版本：低版本时，裁剪到下界改为 MAXLEN 实现，按照时长保留则不生效
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class RedisStreamTrimmer {
+
+    /**
+     * 支持 XTRIM MINID 的最低 Redis 版本
+     */
+    private static final String MIN_ID_VERSION = "6.2.0";
+
+    private final RedisTemplate<String, ?> redisTemplate;
+    private final RedisStreamProperties properties;
+
+    /**
+     * 每个 Stream 的裁剪状态
+     *
+     * key：Stream Key
+     */
+    private final ConcurrentMap<String, StreamState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 是否支持 XTRIM MINID；为 null 时，表示尚未检测
+     */
+    private volatile Boolean minIdSupported;
+
+    public RedisStreamTrimmer(RedisTemplate<String, ?> redisTemplate, RedisStreamProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * 发送消息后调用，达到裁剪间隔时执行裁剪
+     *
+     * @param streamKey Stream Key
+     */
+    public void onSend(String streamKey) {
+        StreamState state = states.computeIfAbsent(streamKey, key -> new StreamState());
+        if (state.sendCount.incrementAndGet() % properties.getTrimInterval() != 0) {
+            return;
+        }
+        try {
+            trim(streamKey);
+        } catch (Exception ex) {
+            // 裁剪失败，不影响消息的发送
+            log.error("[onSend][Stream({}) 裁剪异常]", streamKey, ex);
+        }
+    }
+
+    /**
+     * 裁剪 Stream
+     *
+     * @param streamKey Stream Key
+     * @return 裁剪的消息数量
+     */
+    public Long trim(String streamKey) {
+        RedisStreamProperties.Retention retention = properties.getRetentions()
+                .getOrDefault(streamKey, properties.getRetention());
+        if (retention == null || (retention.getMaxAge() == null && retention.getMaxLength() == null)) {
+            return 0L;
+        }
+        StreamState state = states.computeIfAbsent(streamKey, key -> new StreamState());
+        refreshIfNecessary(streamKey, state);
+
+        // 1. 计算裁剪的参数
+        String floorId = state.floorId;
+        String[] args;
+        if (retention.getMaxAge() != null) {
+            // 1.1 按照时长：不超过最早的未 ACK 消息
+            if (!isMinIdSupported()) {
+                return 0L;
+            }
+            String minId = (System.currentTimeMillis() - retention.getMaxAge().toMillis()) + "-0";
+            if (floorId != null && compareId(floorId, minId) < 0) {
+                minId = floorId;
+            }
+            args = new String[]{streamKey, "MINID", "~", minId};
+        } else if (floorId == null) {
+            // 1.2 按照数量，并且没有消费者分组：直接按照数量裁剪
+            args = new String[]{streamKey, "MAXLEN", "~", String.valueOf(retention.getMaxLength())};
+        } else {
+            // 1.3 按照数量，并且有消费者分组：不超过最早的未 ACK 消息
+            args = buildMaxLengthArgs(streamKey, retention.getMaxLength(), floorId);
+            if (args == null) {
+                return 0L;
+            }
+        }
+
+        // 2. 执行裁剪
+        Object result = redisTemplate.execute((RedisCallback<Object>) connection ->
+                connection.execute("XTRIM", toBytes(args)));
+        Long trimCount = result instanceof Number ? ((Number) result).longValue() : 0L;
+        if (trimCount > 0) {
+            log.debug("[trim][Stream({}) 裁剪消息数量({})]", streamKey, trimCount);
+        }
+        return trimCount;
+    }
+
+    /**
+     * 构建按照数量裁剪的参数，裁剪不超过最早的未 ACK 消息
+     *
+     * 按照 MAXLEN 裁剪时，保留的第一条消息位于 length - maxLength 处：
+     * 1. 如果它不晚于 floorId，说明要裁剪的消息都已经 ACK，直接 MAXLEN ~ maxLength
+     * 2. 否则，只裁剪 floorId 之前的消息，即 MINID ~ floorId；不支持 MINID 时，换算成 MAXLEN ~ (length - 早于 floorId 的消息数量)，
+     *    注意，换算后 XLEN 与 XTRIM 之间新发送的消息，会让裁剪越过 floorId 相同的数量，因此推荐使用 Redis 6.2+ 版本
+     *
+     * 判断时只读取 floorId 之前的最多 length - maxLength + 1 条消息：消费正常时，超出的数量很小；消费积压时，floorId 之前的消息很少
+     *
+     * @return 裁剪的参数；无需裁剪时，返回 null
+     */
+    private String[] buildMaxLengthArgs(String streamKey, long maxLength, String floorId) {
+        StreamOperations<String, Object, Object> ops = redisTemplate.opsForStream();
+        Long length = ops.size(streamKey);
+        if (length == null || length <= maxLength) {
+            return null;
+        }
+        long excess = length - maxLength;
+        int count = (int) Math.min(excess + 1, Integer.MAX_VALUE);
+        List<MapRecord<String, Object, Object>> records = ops.range(streamKey,
+                Range.leftUnbounded(Range.Bound.inclusive(floorId)), Limit.limit().count(count));
+        if (records != null && records.size() > excess) {
+            return new String[]{streamKey, "MAXLEN", "~", String.valueOf(maxLength)};
+        }
+        if (isMinIdSupported()) {
+            return new String[]{streamKey, "MINID", "~", floorId};
+        }
+        long ackedCount = CollUtil.count(records, record -> compareId(record.getId().getValue(), floorId) < 0);
+        if (ackedCount == 0) {
+            return null;
+        }
+        return new String[]{streamKey, "MAXLEN", "~", String.valueOf(length - ackedCount)};
+    }
+
+    /**
+     * 判断 Redis 是否支持 XTRIM MINID，即 6.2+ 版本
+     */
+    private boolean isMinIdSupported() {
+        Boolean supported = minIdSupported;
+        if (supported != null) {
+            return supported;
+        }
+        try {
+            Properties info = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                    connection.serverCommands().info("server"));
+            String version = info != null ? info.getProperty("redis_version") : null;
+            supported = version != null && VersionComparator.INSTANCE.compare(version, MIN_ID_VERSION) >= 0;
+        } catch (Exception ex) {
+            log.warn("[isMinIdSupported][获取 Redis 版本失败，按照不支持 MINID 处理]", ex);
+            supported = false;
+        }
+        if (!supported) {
+            log.warn("[isMinIdSupported][Redis 版本低于 {}，不支持 XTRIM MINID，按照时长保留的消息不会被裁剪]", MIN_ID_VERSION);
+        }
+        minIdSupported = supported;
+        return supported;
+    }
+
+    /**
+     * 刷新最早的未 ACK 消息编号
+     */
+    private void refreshIfNecessary(String streamKey, StreamState state) {
+        long now = System.currentTimeMillis();
+        if (now - state.refreshTime < properties.getLagRefreshInterval().toMillis()) {
+            return;
+        }
+        StreamOperations<String, Object, Object> ops = redisTemplate.opsForStream();
+        String floorId = null;
+        for (StreamInfo.XInfoGroup group : ops.groups(streamKey)) {
+            // 有 pending 消息时，以最早的 pending 消息为准；否则，以最后投递的消息的下一条为准
+            String groupFloorId;
+            if (group.pendingCount() > 0) {
+                PendingMessagesSummary summary = ops.pending(streamKey, group.groupName());
+                groupFloorId = summary.minMessageId();
+            } else {
+                groupFloorId = nextId(group.lastDeliveredId());
+            }
+            if (floorId == null || compareId(groupFloorId, floorId) < 0) {
+                floorId = groupFloorId;
+            }
+        }
+        state.floorId = floorId;
+        state.refreshTime = now;
+    }
+
+    private static String nextId(String id) {
+        long[] parts = parseId(id);
+        return parts[0] + "-" + (parts[1] + 1);
+    }
+
+    private static int compareId(String id1, String id2) {
+        long[] parts1 = parseId(id1);
+        long[] parts2 = parseId(id2);
+        int result = Long.compare(parts1[0], parts2[0]);
+        return result != 0 ? result : Long.compare(parts1[1], parts2[1]);
+    }
+
+    private static long[] parseId(String id) {
+        String millis = StrUtil.subBefore(id, '-', false);
+        String sequence = StrUtil.subAfter(id, '-', false);
+        return new long[]{Long.parseLong(millis), StrUtil.isEmpty(sequence) ? 0L : Long.parseLong(sequence)};
+    }
+
+    private static byte[][] toBytes(String[] args) {
+        byte[][] result = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            result[i] = args[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    /**
+     * Stream 的裁剪状态
+     */
+    private static class StreamState {
+
+        /**
+         * 发送的消息数量
+         */
+        private final AtomicLong sendCount = new AtomicLong();
+        /**
+         * 最早的未 ACK 消息编号；为 null 时，表示没有消费者分组
+         */
+        private volatile String floorId;
+        /**
+         * 最后刷新的时间
+         */
+        private volatile long refreshTime;
+
+    }
+
+}
@@ -0,0 +1,244 @@
+package cn.iocoder.yudao.framework.mq.redis.core.job;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link RedisPendingMessageResendJob} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class RedisPendingMessageResendJobTest {
+
+    private static final String GROUP = "test-group";
+    private static final String CONSUMER = "test-consumer";
+    private static final String STREAM_KEY = new TestMessage().getStreamKey();
+    private static final String FAILURE_KEY = AbstractRedisStreamMessageListener.getResendFailureKey(STREAM_KEY);
+    private static final Duration EXPIRED = Duration.ofMinutes(6);
+
+    @Mock
+    private RedisMQTemplate redisMQTemplate;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private StreamOperations<String, Object, Object> streamOps;
+    @Mock
+    private HashOperations<String, Object, Object> hashOps;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock lock;
+
+    private TestListener listener;
+    private RedisPendingMessageResendJob job;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().doReturn(redisTemplate).when(redisMQTemplate).getRedisTemplate();
+        lenient().doReturn(streamOps).when(redisTemplate).opsForStream();
+        lenient().doReturn(hashOps).when(redisTemplate).opsForHash();
+        lenient().when(redissonClient.getLock(anyString())).thenReturn(lock);
+        lenient().when(lock.tryLock()).thenReturn(true);
+        // XCLAIM 返回认领的消息；map 转换成 ObjectRecord
+        lenient().when(streamOps.claim(eq(STREAM_KEY), eq(GROUP), eq(CONSUMER), eq(Duration.ofMinutes(5)), any(RecordId[].class)))
+                .thenAnswer(invocation -> convertRecords(getClaimedIds(invocation)));
+        lenient().when(streamOps.map(any(MapRecord.class), eq(String.class))).thenAnswer(invocation -> {
+            MapRecord<String, Object, Object> record = invocation.getArgument(0);
+            return StreamRecords.newRecord().in(STREAM_KEY).withId(record.getId()).ofObject("{}");
+        });
+        // 默认没有失败次数
+        lenient().when(hashOps.multiGet(eq(FAILURE_KEY), anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<>(Collections.nCopies(
+                        ((Collection<?>) invocation.getArgument(1)).size(), null)));
+
+        listener = new TestListener();
+        job = new RedisPendingMessageResendJob(Collections.singletonList(listener), redisMQTemplate,
+                GROUP, CONSUMER, redissonClient);
+    }
+
+    @Test
+    public void testMessageResend_paging() {
+        // mock 数据：第一页满 100 条；第二页从游标（闭区间）开始，包含上一页的最后一条
+        List<PendingMessage> page1 = buildPendingMessages(1, 100);
+        List<PendingMessage> page2 = buildPendingMessages(100, 150);
+        when(streamOps.pending(eq(STREAM_KEY), eq(GROUP), any(Range.class), eq(100L)))
+                .thenReturn(new PendingMessages(GROUP, page1), new PendingMessages(GROUP, page2));
+
+        // 调用
+        job.messageResend();
+        // 断言：第二页从第一页的最后一条开始
+        ArgumentCaptor<Range> rangeCaptor = ArgumentCaptor.forClass(Range.class);
+        verify(streamOps, times(2)).pending(eq(STREAM_KEY), eq(GROUP), rangeCaptor.capture(), eq(100L));
+        assertFalse(rangeCaptor.getAllValues().get(0).getLowerBound().isBounded());
+        assertEquals("100-0", rangeCaptor.getAllValues().get(1).getLowerBound().getValue().orElse(null));
+        // 断言：每条消息只重新消费一次
+        List<String> resentIds = listener.getResentIds();
+        assertEquals(150, resentIds.size());
+        assertEquals(150, new HashSet<>(resentIds).size());
+        verify(streamOps, never()).add(any(MapRecord.class));
+    }
+
+    @Test
+    public void testMessageResend_capacity() {
+        // mock 数据：监听器只能消费 30 条
+        listener.capacity = 30;
+        when(streamOps.pending(eq(STREAM_KEY), eq(GROUP), any(Range.class), eq(100L)))
+                .thenReturn(new PendingMessages(GROUP, buildPendingMessages(1, 100)));
+
+        // 调用
+        job.messageResend();
+        // 断言：只认领 30 条，且不再翻页
+        assertEquals(30, listener.getResentIds().size());
+        verify(streamOps, times(1)).pending(eq(STREAM_KEY), eq(GROUP), any(Range.class), eq(100L));
+    }
+
+    @Test
+    public void testMessageResend_noCapacity() {
+        // mock 数据：上次认领的消息还没消费完
+        listener.capacity = 0;
+
+        // 调用
+        job.messageResend();
+        // 断言：不扫描、不认领
+        verify(streamOps, never()).pending(anyString(), anyString(), any(Range.class), anyLong());
+        verify(streamOps, never()).claim(anyString(), anyString(), anyString(), any(Duration.class), any(RecordId[].class));
+        assertTrue(listener.getResentIds().isEmpty());
+    }
+
+    @Test
+    public void testMessageResend_deadLetter() {
+        // mock 数据：第一条消息重新消费失败 16 次，第二条失败 15 次
+        when(streamOps.pending(eq(STREAM_KEY), eq(GROUP), any(Range.class), eq(100L)))
+                .thenReturn(new PendingMessages(GROUP, buildPendingMessages(1, 2)));
+        when(hashOps.multiGet(eq(FAILURE_KEY), anyCollection())).thenReturn(Arrays.<Object>asList(16, 15));
+
+        // 调用
+        job.messageResend();
+        // 断言：第一条转移到死信 Stream，ACK 并清除失败次数
+        ArgumentCaptor<MapRecord> recordCaptor = ArgumentCaptor.forClass(MapRecord.class);
+        verify(streamOps).add(recordCaptor.capture());
+        assertEquals(RedisPendingMessageResendJob.getDeadLetterStreamKey(STREAM_KEY), recordCaptor.getValue().getStream());
+        verify(streamOps).acknowledge(STREAM_KEY, GROUP, RecordId.of("1-0"));
+        verify(hashOps).delete(FAILURE_KEY, "1-0");
+        // 断言：第二条继续重新消费
+        assertEquals(Collections.singletonList("2-0"), listener.getResentIds());
+    }
+
+    @Test
+    public void testMessageResend_rejected() {
+        // mock 数据：投递次数已经很大，但没有消费失败过；监听器的线程池已满
+        listener.rejected = true;
+        when(streamOps.pending(eq(STREAM_KEY), eq(GROUP), any(Range.class), eq(100L)))
+                .thenReturn(new PendingMessages(GROUP, Collections.singletonList(new PendingMessage(
+                        RecordId.of("1-0"), Consumer.from(GROUP, CONSUMER), EXPIRED, 100L))));
+
+        // 调用
+        job.messageResend();
+        // 断言：尝试提交过，但不转移到死信 Stream，不 ACK，也不计入失败次数
+        assertEquals(Collections.singletonList("1-0"), listener.getResentIds());
+        verify(streamOps, never()).add(any(MapRecord.class));
+        verify(streamOps, never()).acknowledge(anyString(), anyString(), any(RecordId[].class));
+        verify(hashOps, never()).increment(anyString(), any(), anyLong());
+    }
+
+    @Test
+    public void testMessageResend_notExpired() {
+        // mock 数据：消息还没超时
+        when(streamOps.pending(eq(STREAM_KEY), eq(GROUP), any(Range.class), eq(100L)))
+                .thenReturn(new PendingMessages(GROUP, Collections.singletonList(new PendingMessage(
+                        RecordId.of("1-0"), Consumer.from(GROUP, CONSUMER), Duration.ofMinutes(1), 1L))));
+
+        // 调用
+        job.messageResend();
+        // 断言
+        verify(streamOps, never()).claim(anyString(), anyString(), anyString(), any(Duration.class), any(RecordId[].class));
+        assertTrue(listener.getResentIds().isEmpty());
+    }
+
+    /**
+     * 构建 pending 消息，编号为 [from, to]
+     */
+    private static List<PendingMessage> buildPendingMessages(int from, int to) {
+        List<PendingMessage> messages = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            messages.add(new PendingMessage(RecordId.of(i + "-0"), Consumer.from(GROUP, CONSUMER), EXPIRED, 1L));
+        }
+        return messages;
+    }
+
+    private static List<RecordId> getClaimedIds(InvocationOnMock invocation) {
+        List<RecordId> ids = new ArrayList<>();
+        for (Object argument : Arrays.copyOfRange(invocation.getArguments(), 4, invocation.getArguments().length)) {
+            if (argument instanceof RecordId[]) {
+                ids.addAll(Arrays.asList((RecordId[]) argument));
+            } else {
+                ids.add((RecordId) argument);
+            }
+        }
+        return ids;
+    }
+
+    private static List<MapRecord<String, Object, Object>> convertRecords(List<RecordId> ids) {
+        List<MapRecord<String, Object, Object>> records = new ArrayList<>();
+        ids.forEach(id -> records.add(StreamRecords.<String, Object, Object>mapBacked(Collections.<Object, Object>singletonMap("payload", "{}"))
+                .withStreamKey(STREAM_KEY).withId(id)));
+        return records;
+    }
+
+    public static class TestMessage extends AbstractRedisStreamMessage {
+    }
+
+    private static class TestListener extends AbstractRedisStreamMessageListener<TestMessage> {
+
+        private int capacity = 1000;
+        private boolean rejected;
+        private final List<List<ObjectRecord<String, String>>> resent = new ArrayList<>();
+
+        @Override
+        public void onMessage(TestMessage message) {
+        }
+
+        @Override
+        public int getResendCapacity(Duration expireTime) {
+            return capacity;
+        }
+
+        @Override
+        public boolean resend(List<ObjectRecord<String, String>> records) {
+            resent.add(records);
+            return !rejected;
+        }
+
+        private List<String> getResentIds() {
+            List<String> ids = new ArrayList<>();
+            resent.forEach(records -> records.forEach(record -> ids.add(record.getId().getValue())));
+            return ids;
+        }
+
+    }
+
+}
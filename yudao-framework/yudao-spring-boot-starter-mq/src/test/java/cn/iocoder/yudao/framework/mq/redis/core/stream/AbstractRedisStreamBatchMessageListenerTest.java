@@ -0,0 +1,232 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link AbstractRedisStreamBatchMessageListener} 和 {@link RedisStreamBatchMessageListenerContainer} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class AbstractRedisStreamBatchMessageListenerTest {
+
+    private static final String GROUP = "test-group";
+    private static final String CONSUMER = "test-consumer";
+    private static final String STREAM_KEY = new TestMessage().getStreamKey();
+
+    @Mock
+    private RedisMQTemplate redisMQTemplate;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private StreamOperations<String, Object, Object> streamOps;
+
+    private TestListener listener;
+    private RedisStreamBatchMessageListenerContainer container;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().doReturn(redisTemplate).when(redisMQTemplate).getRedisTemplate();
+        lenient().doReturn(streamOps).when(redisTemplate).opsForStream();
+
+        listener = new TestListener();
+        listener.setRedisMQTemplate(redisMQTemplate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (container != null) {
+            container.stop();
+        }
+        listener.destroy();
+    }
+
+    @Test
+    public void testOnRecords_ack() {
+        // 准备参数
+        List<ObjectRecord<String, String>> records = buildRecords(1, 3, "1");
+
+        // 调用
+        listener.onRecords(records);
+        // 断言：整批交给监听器处理
+        assertEquals(1, listener.batches.size());
+        assertEquals(3, listener.batches.get(0).size());
+        // 断言：一次 XACK 命令 ACK 所有消息
+        verify(streamOps, times(1)).acknowledge(STREAM_KEY, GROUP,
+                RecordId.of("1-0"), RecordId.of("2-0"), RecordId.of("3-0"));
+    }
+
+    @Test
+    public void testOnRecords_failed() {
+        // 准备参数
+        listener.failed = true;
+        List<ObjectRecord<String, String>> records = buildRecords(1, 3, "1");
+
+        // 调用
+        listener.onRecords(records);
+        // 断言：处理失败，不 ACK，消息保留在 pending 队列，等待重新投递
+        assertEquals(1, listener.batches.size());
+        verify(streamOps, never()).acknowledge(anyString(), anyString(), any(RecordId[].class));
+    }
+
+    @Test
+    public void testOnRecords_parseFailed() {
+        // 准备参数：第二条消息无法解析
+        List<ObjectRecord<String, String>> records = new ArrayList<>(buildRecords(1, 1, "1"));
+        records.add(StreamRecords.newRecord().in(STREAM_KEY).withId(RecordId.of("2-0")).ofObject("not json"));
+        records.addAll(buildRecords(3, 3, "1"));
+
+        // 调用
+        listener.onRecords(records);
+        // 断言：解析失败的消息不 ACK，其它消息正常处理
+        assertEquals(2, listener.batches.get(0).size());
+        verify(streamOps, times(1)).acknowledge(STREAM_KEY, GROUP, RecordId.of("1-0"), RecordId.of("3-0"));
+    }
+
+    @Test
+    public void testOnRecords_groupByHeaders() {
+        // 准备参数：两个租户的消息交替出现
+        List<ObjectRecord<String, String>> records = new ArrayList<>();
+        records.addAll(buildRecords(1, 1, "1"));
+        records.addAll(buildRecords(2, 2, "2"));
+        records.addAll(buildRecords(3, 3, "1"));
+
+        // 调用
+        listener.onRecords(records);
+        // 断言：按照 headers 拆分成子批次，子批次内的 headers 都相同
+        assertEquals(2, listener.batches.size());
+        listener.batches.forEach(batch -> assertEquals(1,
+                batch.stream().map(message -> message.getHeader("tenant-id")).distinct().count()));
+        // 断言：所有子批次处理成功后，仍然只 ACK 一次
+        verify(streamOps, times(1)).acknowledge(anyString(), anyString(), any(RecordId[].class));
+    }
+
+    @Test
+    public void testOnRecords_concurrency() {
+        // 准备参数
+        listener.concurrency = 2;
+        List<ObjectRecord<String, String>> records = buildRecords(1, 4, "1");
+
+        // 调用
+        listener.onRecords(records);
+        // 断言：拆分成 2 个子批次并行处理，一次 ACK 所有消息
+        assertEquals(2, listener.batches.size());
+        listener.batches.forEach(batch -> assertEquals(2, batch.size()));
+        verify(streamOps, times(1)).acknowledge(STREAM_KEY, GROUP,
+                RecordId.of("1-0"), RecordId.of("2-0"), RecordId.of("3-0"), RecordId.of("4-0"));
+    }
+
+    @Test
+    public void testContainer_poll() throws InterruptedException {
+        // mock 数据：第一次拉取到的消息少于 batchSize，即 BLOCK 超时后返回的部分批次；之后没有新消息
+        listener.batchSize = 50;
+        listener.pollTimeout = Duration.ofMillis(300);
+        when(streamOps.read(eq(String.class), any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset[].class)))
+                .thenReturn((List) buildRecords(1, 2, "1"))
+                .thenAnswer(invocation -> {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                    return Collections.emptyList();
+                });
+        container = new RedisStreamBatchMessageListenerContainer(redisMQTemplate,
+                Collections.singletonList(listener), CONSUMER);
+
+        // 调用
+        container.start();
+        assertTrue(listener.consumed.await(5, TimeUnit.SECONDS));
+        container.stop();
+        // 断言：XREADGROUP 使用监听器的 COUNT、BLOCK，以及消费者分组
+        ArgumentCaptor<Consumer> consumerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        ArgumentCaptor<StreamReadOptions> optionsCaptor = ArgumentCaptor.forClass(StreamReadOptions.class);
+        verify(streamOps, atLeastOnce()).read(eq(String.class), consumerCaptor.capture(), optionsCaptor.capture(),
+                any(StreamOffset[].class));
+        assertEquals(Consumer.from(GROUP, CONSUMER), consumerCaptor.getValue());
+        assertEquals(50L, optionsCaptor.getValue().getCount());
+        assertEquals(300L, optionsCaptor.getValue().getBlock());
+        // 断言：不足 batchSize 的部分批次，同样整批处理、整批 ACK
+        assertEquals(2, listener.batches.get(0).size());
+        verify(streamOps, times(1)).acknowledge(STREAM_KEY, GROUP, RecordId.of("1-0"), RecordId.of("2-0"));
+    }
+
+    /**
+     * 构建消息记录，编号为 [from, to]
+     */
+    private static List<ObjectRecord<String, String>> buildRecords(int from, int to, String tenantId) {
+        List<ObjectRecord<String, String>> records = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            records.add(StreamRecords.newRecord().in(STREAM_KEY).withId(RecordId.of(i + "-0"))
+                    .ofObject("{\"headers\":{\"tenant-id\":\"" + tenantId + "\"}}"));
+        }
+        return records;
+    }
+
+    public static class TestMessage extends AbstractRedisStreamMessage {
+    }
+
+    private static class TestListener extends AbstractRedisStreamBatchMessageListener<TestMessage> {
+
+        private int batchSize = 100;
+        private Duration pollTimeout = Duration.ofSeconds(2);
+        private int concurrency = 1;
+        private boolean failed;
+        private final List<List<TestMessage>> batches = new CopyOnWriteArrayList<>();
+        private final CountDownLatch consumed = new CountDownLatch(1);
+
+        @Override
+        public void onMessage(List<TestMessage> messages) {
+            batches.add(messages);
+            consumed.countDown();
+            if (failed) {
+                throw new IllegalStateException("模拟处理失败");
+            }
+        }
+
+        @Override
+        public String getGroup() {
+            return GROUP;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public Duration getPollTimeout() {
+            return pollTimeout;
+        }
+
+        @Override
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+    }
+
+}
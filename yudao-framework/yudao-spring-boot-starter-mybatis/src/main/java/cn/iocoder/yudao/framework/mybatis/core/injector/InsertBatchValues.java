@@ -0,0 +1,79 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlInjectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * 多行 INSERT 的批量插入：INSERT INTO table (columns) VALUES (...), (...)，一次网络往返插入多条记录
+ *
+ * 1. 参数 list 为实体列表，columns 为需要插入的字段（属性名）集合，由 {@link BaseMapperX#insertBatch(java.util.Collection, int)} 计算
+ *    多行 INSERT 的每一行字段必须一致，因此不能像单条 insert 一样逐个判断是否为 null，而是由调用方按照非 null 的字段分组
+ * 2. 自增主键时，基于 JDBC 的 getGeneratedKeys 回填 id；ASSIGN_ID、ASSIGN_UUID 主键，由 MyBatis Plus 在执行前生成 id；
+ *    其它主键类型不支持，见 {@link cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils#isInsertBatchValuesSupported}
+ *
+ * @author 芋道源码
+ */
+public class InsertBatchValues extends AbstractMethod {
+
+    public static final String METHOD_NAME = "insertBatchValues";
+
+    /**
+     * 实体列表的参数名
+     */
+    public static final String PARAM_LIST = "list";
+    /**
+     * 插入字段集合的参数名
+     */
+    public static final String PARAM_COLUMNS = "columns";
+
+    public InsertBatchValues() {
+        super(METHOD_NAME);
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        StringBuilder columnScript = new StringBuilder();
+        StringBuilder valueScript = new StringBuilder();
+        // 1. 主键：自增时不插入，由数据库生成；否则，总是插入
+        KeyGenerator keyGenerator = NoKeyGenerator.INSTANCE;
+        String keyProperty = null;
+        String keyColumn = null;
+        if (tableInfo.havePK()) {
+            if (tableInfo.getIdType() == IdType.AUTO) {
+                keyGenerator = Jdbc3KeyGenerator.INSTANCE;
+                keyProperty = PARAM_LIST + DOT + tableInfo.getKeyProperty();
+                keyColumn = SqlInjectionUtils.removeEscapeCharacter(tableInfo.getKeyColumn());
+            } else {
+                columnScript.append(tableInfo.getKeyColumn()).append(COMMA);
+                valueScript.append(SqlScriptUtils.safeParam(ENTITY_DOT + tableInfo.getKeyProperty())).append(COMMA);
+            }
+        }
+        // 2. 普通字段：只插入 columns 包含的字段
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            String test = String.format("%s.contains('%s')", PARAM_COLUMNS, field.getProperty());
+            columnScript.append(SqlScriptUtils.convertIf(field.getInsertSqlColumn(), test, false));
+            valueScript.append(SqlScriptUtils.convertIf(field.getInsertSqlProperty(ENTITY_DOT), test, false));
+        }
+
+        // 3. 拼接 SQL
+        String columns = SqlScriptUtils.convertTrim(columnScript.toString(), LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+        String values = SqlScriptUtils.convertForeach(
+                SqlScriptUtils.convertTrim(valueScript.toString(), LEFT_BRACKET, RIGHT_BRACKET, null, COMMA),
+                PARAM_LIST, null, ENTITY, COMMA);
+        String sql = String.format(SqlMethod.INSERT_ONE.getSql(), tableInfo.getTableName(), columns, values);
+        SqlSource sqlSource = super.createSqlSource(configuration, sql, modelClass);
+        return this.addInsertMappedStatement(mapperClass, modelClass, methodName, sqlSource, keyGenerator, keyProperty, keyColumn);
+    }
+
+}
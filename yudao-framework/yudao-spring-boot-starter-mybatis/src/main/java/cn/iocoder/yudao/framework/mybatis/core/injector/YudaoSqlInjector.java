@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector;
+
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.github.yulichang.injector.MPJSqlInjector;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自定义的 SQL 注入器，在 MyBatis Plus Join 的基础上，注入 {@link InsertBatchValues} 等方法
+ *
+ * 注意，需要继承 {@link MPJSqlInjector}，保证连表查询的方法也被注入
+ *
+ * @author 芋道源码
+ */
+public class YudaoSqlInjector extends MPJSqlInjector {
+
+    @Override
+    public List<AbstractMethod> getMethodList(Configuration configuration, Class<?> mapperClass, TableInfo tableInfo) {
+        List<AbstractMethod> methodList = new ArrayList<>(super.getMethodList(configuration, mapperClass, tableInfo));
+        methodList.add(new InsertBatchValues());
+        return methodList;
+    }
+
+}
@@ -1,10 +1,13 @@
 package cn.iocoder.yudao.framework.mybatis.core.mapper;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.pojo.SortablePageParam;
 import cn.iocoder.yudao.framework.common.pojo.SortingField;
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.framework.mybatis.core.injector.InsertBatchValues;
 import cn.iocoder.yudao.framework.mybatis.core.util.JdbcUtils;
 import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import com.baomidou.mybatisplus.annotation.DbType;
@@ -13,7 +16,11 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.service.IService;
 import com.baomidou.mybatisplus.extension.toolkit.Db;
 import com.github.yulichang.base.MPJBaseMapper;
 import com.github.yulichang.interfaces.MPJBaseJoin;
@@ -22,6 +29,8 @@ import org.apache.ibatis.annotations.Param;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 在 MyBatis Plus 的 BaseMapper 的基础上拓展，提供更多的能力
@@ -54,6 +63,52 @@ public interface BaseMapperX<T> extends MPJBaseMapper<T> {
         return new PageResult<>(mpPage.getRecords(), mpPage.getTotal());
     }
 
+    /**
+     * 游标分页（Keyset Pagination）查询
+     *
+     * 相比 {@link #selectPage(PageParam, Wrapper)} 的 OFFSET 分页：
+     * 1. 基于有索引的排序键（一般是主键）定位，例如说 WHERE id < ? ORDER BY id DESC LIMIT ?，深分页的耗时与页码无关
+     * 2. 默认不查询总数，只有 {@link CursorPageParam#getSearchCount()} 为 true 时才查询
+     * 3. 返回的 {@link PageResult#getNextCursor()} 作为下一页的游标，为 null 时表示没有下一页
+     *
+     * 适合数据量大的表（例如说日志表）的分页，以及导出时逐页遍历全部数据
+     *
+     * 注意，queryWrapper 不要设置排序，由该方法基于 keyField 统一排序
+     *
+     * @param pageParam    游标分页参数
+     * @param queryWrapper 查询条件
+     * @param keyField     排序键，需要唯一、有索引
+     * @param desc         是否倒序
+     * @return 分页结果
+     */
+    default PageResult<T> selectPageByCursor(CursorPageParam pageParam, LambdaQueryWrapper<T> queryWrapper,
+                                             SFunction<T, Long> keyField, boolean desc) {
+        // 1. 查询总数，可选
+        Long total = null;
+        if (Boolean.TRUE.equals(pageParam.getSearchCount())) {
+            total = selectCount(queryWrapper);
+        }
+
+        // 2. 基于游标定位，查询一页
+        Long cursorKey = MyBatisUtils.decodeCursor(pageParam.getCursor());
+        if (desc) {
+            queryWrapper.lt(cursorKey != null, keyField, cursorKey).orderByDesc(keyField);
+        } else {
+            queryWrapper.gt(cursorKey != null, keyField, cursorKey).orderByAsc(keyField);
+        }
+        // 使用 Page 而不是 LIMIT 拼接，由分页插件适配不同的 DB；不查询 COUNT
+        IPage<T> mpPage = new Page<>(1, pageParam.getPageSize(), false);
+        selectPage(mpPage, queryWrapper);
+
+        // 3. 计算下一页的游标：不分页、或者不足一页，说明没有下一页
+        List<T> list = mpPage.getRecords();
+        String nextCursor = null;
+        if (!PageParam.PAGE_SIZE_NONE.equals(pageParam.getPageSize()) && list.size() >= pageParam.getPageSize()) {
+            nextCursor = MyBatisUtils.encodeCursor(keyField.apply(CollUtil.getLast(list)));
+        }
+        return new PageResult<>(list, total).setNextCursor(nextCursor);
+    }
+
     default <D> PageResult<D> selectJoinPage(PageParam pageParam, Class<D> clazz, MPJLambdaWrapper<T> lambdaWrapper) {
         // 特殊：不分页，直接查询全部
         if (PageParam.PAGE_SIZE_NONE.equals(pageParam.getPageSize())) {
@@ -171,31 +226,55 @@ public interface BaseMapperX<T> extends MPJBaseMapper<T> {
      * @param entities 实体们
      */
     default Boolean insertBatch(Collection<T> entities) {
-        // 特殊：SQL Server 批量插入后，获取 id 会报错，因此通过循环处理
-        DbType dbType = JdbcUtils.getDbType();
-        if (JdbcUtils.isSQLServer(dbType)) {
-            entities.forEach(this::insert);
-            return CollUtil.isNotEmpty(entities);
-        }
-        return Db.saveBatch(entities);
+        return insertBatch(entities, IService.DEFAULT_BATCH_SIZE);
     }
 
     /**
      * 批量插入，适合大量数据插入
      *
+     * 支持的数据库，使用多行 INSERT（{@link #insertBatchValues(List, Set)}），每 size 条一次网络往返；
+     * 不支持的数据库，使用 Db.saveBatch 的 JDBC batch 逐条 INSERT
+     *
      * @param entities 实体们
-     * @param size     插入数量 Db.saveBatch 默认为 1000
+     * @param size     每批插入的数量，默认为 1000
      */
     default Boolean insertBatch(Collection<T> entities, int size) {
-        // 特殊：SQL Server 批量插入后，获取 id 会报错，因此通过循环处理
+        if (CollUtil.isEmpty(entities)) {
+            return false;
+        }
         DbType dbType = JdbcUtils.getDbType();
-        if (JdbcUtils.isSQLServer(dbType)) {
-            entities.forEach(this::insert);
-            return CollUtil.isNotEmpty(entities);
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(CollUtil.getFirst(entities).getClass());
+        if (!MyBatisUtils.isInsertBatchValuesSupported(dbType, tableInfo)) {
+            // 特殊：SQL Server 批量插入后，获取 id 会报错，因此通过循环处理
+            if (JdbcUtils.isSQLServer(dbType)) {
+                entities.forEach(this::insert);
+                return true;
+            }
+            return Db.saveBatch(entities, size);
         }
-        return Db.saveBatch(entities, size);
+
+        // 多行 INSERT：按照插入的字段分组，避免为 null 的字段显式插入 NULL；再按照数据库驱动的参数数量上限，拆分成多条 SQL
+        Map<Set<String>, List<T>> groups = CollectionUtils.convertMultiMap(entities,
+                entity -> MyBatisUtils.getInsertBatchColumns(tableInfo, entity));
+        groups.forEach((columns, group) -> {
+            int rows = MyBatisUtils.getInsertBatchRows(dbType, columns.size() + 1, size);
+            CollUtil.split(group, rows).forEach(list -> insertBatchValues(list, columns));
+        });
+        return true;
     }
 
+    /**
+     * 多行 INSERT 的批量插入，由 {@link InsertBatchValues} 注入
+     *
+     * 注意，请使用 {@link #insertBatch(Collection, int)}，它会计算插入的字段、按照参数数量上限拆分
+     *
+     * @param entities 实体们
+     * @param columns  需要插入的字段（属性名）集合
+     * @return 插入的数量
+     */
+    int insertBatchValues(@Param(InsertBatchValues.PARAM_LIST) List<T> entities,
+                          @Param(InsertBatchValues.PARAM_COLUMNS) Set<String> columns);
+
     default int updateBatch(T update) {
         return update(update, new QueryWrapper<>());
     }
@@ -1,16 +1,22 @@
 package cn.iocoder.yudao.framework.mybatis.core.util;
 
+import cn.hutool.core.codec.Base64;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.func.Func1;
 import cn.hutool.core.lang.func.LambdaUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.SortingField;
+import cn.iocoder.yudao.framework.common.util.collection.SetUtils;
 import cn.iocoder.yudao.framework.mybatis.core.enums.DbTypeEnum;
+import cn.iocoder.yudao.framework.mybatis.core.injector.InsertBatchValues;
 import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
@@ -21,13 +27,35 @@ import net.sf.jsqlparser.schema.Table;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.invalidParamException;
 
 /**
  * MyBatis 工具类
  */
 public class MyBatisUtils {
 
+    /**
+     * 支持多行 INSERT 的数据库
+     */
+    private static final Set<DbType> INSERT_BATCH_VALUES_DB_TYPES = SetUtils.asSet(DbType.MYSQL, DbType.MARIADB,
+            DbType.POSTGRE_SQL, DbType.KINGBASE_ES, DbType.OPENGAUSS, DbType.H2, DbType.SQL_SERVER, DbType.SQL_SERVER2005);
+    /**
+     * 多行 INSERT 时，单条 SQL 的最大参数数量。以 PostgreSQL JDBC 的 32767 为准，MySQL 的上限为 65535
+     */
+    private static final int INSERT_BATCH_VALUES_MAX_PARAMETERS = 32767;
+    /**
+     * 多行 INSERT 时，SQL Server 单条 SQL 的最大参数数量。SQL Server 的上限为 2100，预留部分给租户等插件
+     */
+    private static final int INSERT_BATCH_VALUES_MAX_PARAMETERS_SQL_SERVER = 2000;
+    /**
+     * 多行 INSERT 时，SQL Server 单条 SQL 的最大行数
+     */
+    private static final int INSERT_BATCH_VALUES_MAX_ROWS_SQL_SERVER = 1000;
+
     private static final String MYSQL_ESCAPE_CHARACTER = "`";
 
     public static <T> Page<T> buildPage(PageParam pageParam) {
@@ -47,6 +75,33 @@ public class MyBatisUtils {
         return page;
     }
 
+    /**
+     * 编码游标分页的游标，对调用方不透明
+     *
+     * @param key 排序键
+     * @return 游标
+     */
+    public static String encodeCursor(Long key) {
+        return Base64.encodeUrlSafe(String.valueOf(key));
+    }
+
+    /**
+     * 解码游标分页的游标
+     *
+     * @param cursor 游标
+     * @return 排序键；游标为空时，返回 null，表示第一页
+     */
+    public static Long decodeCursor(String cursor) {
+        if (StrUtil.isEmpty(cursor)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(Base64.decodeStr(cursor));
+        } catch (Exception ex) {
+            throw invalidParamException("游标({}) 不合法", cursor);
+        }
+    }
+
     public static <T> void addOrder(Wrapper<T> wrapper, Collection<SortingField> sortingFields) {
         if (CollUtil.isEmpty(sortingFields)) {
             return;
@@ -104,6 +159,70 @@ public class MyBatisUtils {
         return new Column(tableName + StringPool.DOT + column);
     }
 
+    /**
+     * 判断是否支持多行 INSERT 的批量插入，即 {@link InsertBatchValues}
+     *
+     * 1. Oracle 等数据库，不支持 INSERT ... VALUES (...), (...) 语法
+     * 2. SQL Server 多行 INSERT 时，getGeneratedKeys 只返回最后一个 id，无法回填自增主键
+     * 3. 多行 INSERT 总是插入主键字段，因此只支持 AUTO（不插入）、ASSIGN_ID / ASSIGN_UUID（执行前生成）；
+     *    INPUT、NONE 时 id 可能为 null，例如说 PostgreSQL 等数据库的 NONE 会被改写为 INPUT，显式插入 NULL 会导致失败，
+     *    使用 @KeySequence 时，MyBatis Plus 也是基于 SelectKey 逐条获取
+     *
+     * @param dbType    DB 类型
+     * @param tableInfo 表信息
+     * @return 是否支持
+     */
+    public static boolean isInsertBatchValuesSupported(DbType dbType, TableInfo tableInfo) {
+        if (tableInfo == null || !INSERT_BATCH_VALUES_DB_TYPES.contains(dbType)) {
+            return false;
+        }
+        if (!tableInfo.havePK()) {
+            return true;
+        }
+        IdType idType = tableInfo.getIdType();
+        if (idType == IdType.AUTO) {
+            return !JdbcUtils.isSQLServer(dbType);
+        }
+        return idType == IdType.ASSIGN_ID || idType == IdType.ASSIGN_UUID;
+    }
+
+    /**
+     * 获得实体多行 INSERT 时，需要插入的字段（属性名）集合
+     *
+     * 多行 INSERT 的每一行字段必须一致，因此调用方需要按照该集合分组插入，避免为 null 的字段显式插入 NULL，覆盖字段的默认值；
+     * 自动填充的字段，填充发生在 SQL 生成之后，因此总是插入
+     *
+     * @param tableInfo 表信息
+     * @param entity    实体
+     * @return 字段（属性名）集合
+     */
+    public static Set<String> getInsertBatchColumns(TableInfo tableInfo, Object entity) {
+        Set<String> columns = new HashSet<>();
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (field.isWithInsertFill() || tableInfo.getPropertyValue(entity, field.getProperty()) != null) {
+                columns.add(field.getProperty());
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 获得多行 INSERT 时，单条 SQL 最多插入的行数，避免超过数据库驱动的参数数量上限
+     *
+     * @param dbType      DB 类型
+     * @param columnCount 每行的字段数量
+     * @param size        期望的行数
+     * @return 行数
+     */
+    public static int getInsertBatchRows(DbType dbType, int columnCount, int size) {
+        int maxParameters = INSERT_BATCH_VALUES_MAX_PARAMETERS;
+        if (JdbcUtils.isSQLServer(dbType)) {
+            maxParameters = INSERT_BATCH_VALUES_MAX_PARAMETERS_SQL_SERVER;
+            size = Math.min(size, INSERT_BATCH_VALUES_MAX_ROWS_SQL_SERVER);
+        }
+        return Math.max(Math.min(size, maxParameters / Math.max(columnCount, 1)), 1);
+    }
+
     /**
      * 跨数据库的 find_in_set 实现
      *
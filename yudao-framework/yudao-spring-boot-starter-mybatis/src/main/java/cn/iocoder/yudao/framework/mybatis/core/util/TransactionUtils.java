@@ -0,0 +1,58 @@
+package cn.iocoder.yudao.framework.mybatis.core.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ *
+ * 注意：基于 Spring 的事务同步实现，只对 @Transactional 生效，对 @DSTransactional 不生效
+ *
+ * @author 芋道源码
+ */
+public class TransactionUtils {
+
+    /**
+     * 事务提交后执行；不在事务中时，立即执行
+     *
+     * 适用于刷新本地缓存、发送消息等，避免事务回滚后已经生效，或其它节点读到未提交的数据
+     *
+     * @param runnable 执行逻辑
+     */
+    public static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+
+        });
+    }
+
+    /**
+     * 事务回滚后执行；不在事务中时，不执行
+     *
+     * @param runnable 执行逻辑
+     */
+    public static void afterRollback(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    runnable.run();
+                }
+            }
+
+        });
+    }
+
+}
@@ -0,0 +1,160 @@
+package cn.iocoder.yudao.framework.mybatis.core.mapper;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import jakarta.annotation.Resource;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.apache.ibatis.annotations.Mapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link BaseMapperX#insertBatch(java.util.Collection)} 的单元测试，基于 H2 的多行 INSERT
+ *
+ * @author 芋道源码
+ */
+public class BaseMapperXInsertBatchTest extends BaseDbUnitTest {
+
+    @Resource
+    private TestAutoMapper autoMapper;
+    @Resource
+    private TestInputMapper inputMapper;
+
+    @Test
+    public void testInsertBatch_autoIdBackfill() {
+        // 准备参数
+        List<TestAutoDO> list = Arrays.asList(new TestAutoDO().setName("a").setStatus(2),
+                new TestAutoDO().setName("b").setStatus(3), new TestAutoDO().setName("c").setStatus(4));
+
+        // 调用
+        assertTrue(autoMapper.insertBatch(list));
+        // 断言：自增 id 回填到每个实体
+        assertEquals(3, list.stream().map(TestAutoDO::getId).filter(Objects::nonNull).distinct().count());
+        list.forEach(entity -> assertEquals(entity.getName(), autoMapper.selectById(entity.getId()).getName()));
+    }
+
+    @Test
+    public void testInsertBatch_columnDefault() {
+        // 准备参数：部分实体的字段为 null
+        TestAutoDO a = new TestAutoDO().setName("a").setStatus(2);
+        TestAutoDO b = new TestAutoDO().setName("b");
+        TestAutoDO c = new TestAutoDO().setName("c").setRemark("remark");
+        List<TestAutoDO> list = Arrays.asList(a, b, c);
+
+        // 调用
+        assertTrue(autoMapper.insertBatch(list));
+        // 断言：为 null 的字段不插入，使用字段的默认值
+        TestAutoDO dbA = autoMapper.selectById(a.getId());
+        assertEquals(2, dbA.getStatus());
+        assertEquals("", dbA.getRemark());
+        TestAutoDO dbB = autoMapper.selectById(b.getId());
+        assertEquals(1, dbB.getStatus());
+        assertEquals("", dbB.getRemark());
+        TestAutoDO dbC = autoMapper.selectById(c.getId());
+        assertEquals(1, dbC.getStatus());
+        assertEquals("remark", dbC.getRemark());
+    }
+
+    @Test
+    public void testInsertBatch_inputIdWithoutValue() {
+        // 准备参数：INPUT 主键，但未设置 id
+        List<TestInputDO> list = Arrays.asList(new TestInputDO().setName("a"), new TestInputDO().setName("b"));
+
+        // 调用：不支持多行 INSERT，走 saveBatch，不插入为 null 的 id
+        assertTrue(inputMapper.insertBatch(list));
+        // 断言
+        List<TestInputDO> dbList = inputMapper.selectList();
+        assertEquals(2, dbList.size());
+        dbList.forEach(entity -> {
+            assertNotNull(entity.getId());
+            assertEquals(1, entity.getStatus());
+        });
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testInsertBatch_benchmark(TestReporter reporter) {
+        // 预热
+        for (int i = 0; i < 5; i++) {
+            autoMapper.insertBatch(buildAutoList(1_000));
+            Db.saveBatch(buildAutoList(1_000));
+        }
+
+        // 注意：H2 内存库没有网络往返，多行 INSERT 在 MySQL 等真实数据库上的收益会更大
+        for (int size : new int[]{100, 1_000, 10_000}) {
+            long insertBatch = measure(size, autoMapper::insertBatch);
+            long saveBatch = measure(size, Db::saveBatch);
+            reporter.publishEntry(size + " 条，多行 INSERT（ms）", String.format("%.2f", insertBatch / 1e6));
+            reporter.publishEntry(size + " 条，Db.saveBatch（ms）", String.format("%.2f", saveBatch / 1e6));
+        }
+    }
+
+    /**
+     * 测量插入 size 条的耗时，取 5 轮的最小值，单位：纳秒
+     */
+    private static long measure(int size, Consumer<List<TestAutoDO>> insert) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            List<TestAutoDO> list = buildAutoList(size);
+            long begin = System.nanoTime();
+            insert.accept(list);
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+        return best;
+    }
+
+    private static List<TestAutoDO> buildAutoList(int size) {
+        List<TestAutoDO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new TestAutoDO().setName("name-" + i).setStatus(i % 3).setRemark("remark-" + i));
+        }
+        return list;
+    }
+
+    @Data
+    @Accessors(chain = true)
+    @TableName("test_insert_batch_auto")
+    public static class TestAutoDO {
+
+        @TableId(type = IdType.AUTO)
+        private Long id;
+        private String name;
+        private Integer status;
+        private String remark;
+
+    }
+
+    @Data
+    @Accessors(chain = true)
+    @TableName("test_insert_batch_input")
+    public static class TestInputDO {
+
+        @TableId(type = IdType.INPUT)
+        private Long id;
+        private String name;
+        private Integer status;
+
+    }
+
+    @Mapper
+    public interface TestAutoMapper extends BaseMapperX<TestAutoDO> {
+    }
+
+    @Mapper
+    public interface TestInputMapper extends BaseMapperX<TestInputDO> {
+    }
+
+}
@@ -0,0 +1,2 @@
+DELETE FROM "test_insert_batch_auto";
+DELETE FROM "test_insert_batch_input";
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS "test_insert_batch_auto" (
+    "id" bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "name" varchar(64) NOT NULL,
+    "status" int NOT NULL DEFAULT 1,
+    "remark" varchar(255) NOT NULL DEFAULT '',
+    PRIMARY KEY ("id")
+) COMMENT '多行 INSERT 测试表（自增主键）';
+
+CREATE TABLE IF NOT EXISTS "test_insert_batch_input" (
+    "id" bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "name" varchar(64) NOT NULL,
+    "status" int NOT NULL DEFAULT 1,
+    PRIMARY KEY ("id")
+) COMMENT '多行 INSERT 测试表（输入主键）';
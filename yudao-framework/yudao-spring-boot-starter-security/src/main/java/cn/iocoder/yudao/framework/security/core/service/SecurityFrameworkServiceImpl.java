@@ -5,16 +5,15 @@ import cn.iocoder.yudao.framework.common.biz.system.permission.PermissionCommonA
 import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.security.core.LoginUser;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.AllArgsConstructor;
-import lombok.SneakyThrows;
 
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
-import static cn.iocoder.yudao.framework.common.util.cache.CacheUtils.buildCache;
+import static cn.iocoder.yudao.framework.common.util.cache.CaffeineCacheUtils.buildCache;
 import static cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils.getLoginUserId;
 import static cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils.skipPermissionCheck;
 
@@ -32,7 +31,7 @@ public class SecurityFrameworkServiceImpl implements SecurityFrameworkService {
      * 针对 {@link #hasAnyRoles(String...)} 的缓存
      */
     private final LoadingCache<KeyValue<Long, List<String>>, Boolean> hasAnyRolesCache = buildCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
+            "security.hasAnyRoles", Duration.ofMinutes(1L), // 过期时间 1 分钟
             new CacheLoader<KeyValue<Long, List<String>>, Boolean>() {
 
                 @Override
@@ -46,7 +45,7 @@ public class SecurityFrameworkServiceImpl implements SecurityFrameworkService {
      * 针对 {@link #hasAnyPermissions(String...)} 的缓存
      */
     private final LoadingCache<KeyValue<Long, List<String>>, Boolean> hasAnyPermissionsCache = buildCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
+            "security.hasAnyPermissions", Duration.ofMinutes(1L), // 过期时间 1 分钟
             new CacheLoader<KeyValue<Long, List<String>>, Boolean>() {
 
                 @Override
@@ -62,7 +61,6 @@ public class SecurityFrameworkServiceImpl implements SecurityFrameworkService {
     }
 
     @Override
-    @SneakyThrows
     public boolean hasAnyPermissions(String... permissions) {
         // 特殊：跨租户访问
         if (skipPermissionCheck()) {
@@ -83,7 +81,6 @@ public class SecurityFrameworkServiceImpl implements SecurityFrameworkService {
     }
 
     @Override
-    @SneakyThrows
     public boolean hasAnyRoles(String... roles) {
         // 特殊：跨租户访问
         if (skipPermissionCheck()) {
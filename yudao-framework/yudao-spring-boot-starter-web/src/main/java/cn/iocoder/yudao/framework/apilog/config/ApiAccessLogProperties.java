@@ -0,0 +1,74 @@
+package cn.iocoder.yudao.framework.apilog.config;
+
+import cn.iocoder.yudao.framework.apilog.core.enums.ApiAccessLogDropPolicyEnum;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * API 访问日志配置属性
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.access-log")
+@Validated
+@Data
+public class ApiAccessLogProperties {
+
+    /**
+     * 是否开启，默认为 true
+     */
+    private boolean enable = true;
+
+    /**
+     * 批量写入的缓冲区
+     */
+    @NotNull(message = "缓冲区配置不能为空")
+    @Valid
+    private Buffer buffer = new Buffer();
+
+    @Data
+    public static class Buffer {
+
+        /**
+         * 是否开启，默认为 true
+         *
+         * 关闭时，每个请求单独异步调用一次 RPC 写入
+         */
+        private boolean enable = true;
+        /**
+         * 缓冲区容量
+         */
+        @NotNull(message = "缓冲区容量不能为空")
+        @Min(value = 1, message = "缓冲区容量必须大于 0")
+        private Integer capacity = 8192;
+        /**
+         * 单次批量写入的最大条数，缓冲区达到该数量时立即写入
+         */
+        @NotNull(message = "批量写入条数不能为空")
+        @Min(value = 1, message = "批量写入条数必须大于 0")
+        private Integer batchSize = 200;
+        /**
+         * 定时写入的间隔
+         */
+        @NotNull(message = "定时写入间隔不能为空")
+        private Duration flushInterval = Duration.ofSeconds(1);
+        /**
+         * 缓冲区满时的丢弃策略
+         */
+        @NotNull(message = "丢弃策略不能为空")
+        private ApiAccessLogDropPolicyEnum dropPolicy = ApiAccessLogDropPolicyEnum.DISCARD_NEWEST;
+        /**
+         * {@link ApiAccessLogDropPolicyEnum#BLOCK} 策略下，最多阻塞的时间
+         */
+        @NotNull(message = "阻塞时间不能为空")
+        private Duration blockTimeout = Duration.ofMillis(10);
+
+    }
+
+}
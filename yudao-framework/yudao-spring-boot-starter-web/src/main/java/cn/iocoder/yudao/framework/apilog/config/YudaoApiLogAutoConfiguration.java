@@ -2,22 +2,42 @@ package cn.iocoder.yudao.framework.apilog.config;
 
 import cn.iocoder.yudao.framework.apilog.core.filter.ApiAccessLogFilter;
 import cn.iocoder.yudao.framework.apilog.core.interceptor.ApiAccessLogInterceptor;
+import cn.iocoder.yudao.framework.apilog.core.sender.ApiAccessLogBatchSender;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiAccessLogCommonApi;
 import cn.iocoder.yudao.framework.common.enums.WebFilterOrderEnum;
 import cn.iocoder.yudao.framework.web.config.WebProperties;
 import cn.iocoder.yudao.framework.web.config.YudaoWebAutoConfiguration;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.servlet.Filter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @AutoConfiguration(after = YudaoWebAutoConfiguration.class)
+@EnableConfigurationProperties(ApiAccessLogProperties.class)
 public class YudaoApiLogAutoConfiguration implements WebMvcConfigurer {
 
+    /**
+     * 创建 ApiAccessLogBatchSender Bean，批量写入 API 访问日志
+     */
+    @Bean
+    @ConditionalOnExpression("${yudao.access-log.enable:true} && ${yudao.access-log.buffer.enable:true}") // 允许使用 yudao.access-log.buffer.enable=false 禁用批量写入
+    public ApiAccessLogBatchSender apiAccessLogBatchSender(ApiAccessLogProperties properties,
+                                                           ApiAccessLogCommonApi apiAccessLogApi) {
+        return new ApiAccessLogBatchSender(properties.getBuffer(), apiAccessLogApi);
+    }
+
     /**
      * 创建 ApiAccessLogFilter Bean，记录 API 请求日志
      */
@@ -25,8 +45,10 @@ public class YudaoApiLogAutoConfiguration implements WebMvcConfigurer {
     @ConditionalOnProperty(prefix = "yudao.access-log", value = "enable", matchIfMissing = true) // 允许使用 yudao.access-log.enable=false 禁用访问日志
     public FilterRegistrationBean<ApiAccessLogFilter> apiAccessLogFilter(WebProperties webProperties,
                                                                          @Value("${spring.application.name}") String applicationName,
-                                                                         ApiAccessLogCommonApi apiAccessLogApi) {
-        ApiAccessLogFilter filter = new ApiAccessLogFilter(webProperties, applicationName, apiAccessLogApi);
+                                                                         ApiAccessLogCommonApi apiAccessLogApi,
+                                                                         ObjectProvider<ApiAccessLogBatchSender> apiAccessLogBatchSender) {
+        ApiAccessLogFilter filter = new ApiAccessLogFilter(webProperties, applicationName, apiAccessLogApi,
+                apiAccessLogBatchSender.getIfAvailable());
         return createFilterBean(filter, WebFilterOrderEnum.API_ACCESS_LOG_FILTER);
     }
 
@@ -41,4 +63,32 @@ public class YudaoApiLogAutoConfiguration implements WebMvcConfigurer {
         registry.addInterceptor(new ApiAccessLogInterceptor());
     }
 
+    /**
+     * API 访问日志的 Metrics 配置，只有引入 Micrometer 时才生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class ApiAccessLogMetricsConfiguration {
+
+        /**
+         * 注意，不能使用 @ConditionalOnBean(ApiAccessLogBatchSender.class)：内部类先于外部类的 @Bean 方法处理，
+         * 判断时 ApiAccessLogBatchSender 尚未注册，导致 Metrics 永远不生效。所以，使用与它相同的条件
+         */
+        @Bean
+        @ConditionalOnExpression("${yudao.access-log.enable:true} && ${yudao.access-log.buffer.enable:true}")
+        public MeterBinder apiAccessLogBatchSenderMeterBinder(ApiAccessLogBatchSender sender) {
+            return registry -> {
+                FunctionCounter.builder("yudao.access-log.enqueued", sender, ApiAccessLogBatchSender::getEnqueuedCount)
+                        .description("写入缓冲区的访问日志数量").register(registry);
+                FunctionCounter.builder("yudao.access-log.flushed", sender, ApiAccessLogBatchSender::getFlushedCount)
+                        .description("成功批量写入的访问日志数量").register(registry);
+                FunctionCounter.builder("yudao.access-log.dropped", sender, ApiAccessLogBatchSender::getDroppedCount)
+                        .description("丢弃的访问日志数量").register(registry);
+                Gauge.builder("yudao.access-log.queue.size", sender, ApiAccessLogBatchSender::getQueueSize)
+                        .description("缓冲区中待写入的访问日志数量").register(registry);
+            };
+        }
+
+    }
+
 }
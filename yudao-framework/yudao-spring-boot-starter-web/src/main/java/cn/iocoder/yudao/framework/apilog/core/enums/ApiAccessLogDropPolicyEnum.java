@@ -0,0 +1,23 @@
+package cn.iocoder.yudao.framework.apilog.core.enums;
+
+/**
+ * API 访问日志缓冲区满时的丢弃策略
+ *
+ * @author 芋道源码
+ */
+public enum ApiAccessLogDropPolicyEnum {
+
+    /**
+     * 丢弃最新的日志，即当前要写入的日志
+     */
+    DISCARD_NEWEST,
+    /**
+     * 丢弃最老的日志，腾出位置写入当前日志
+     */
+    DISCARD_OLDEST,
+    /**
+     * 阻塞请求线程，最多等待 blockTimeout 时间（背压），超时后丢弃当前日志
+     */
+    BLOCK
+
+}
@@ -9,6 +9,8 @@ import cn.hutool.core.util.BooleanUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.apilog.core.annotation.ApiAccessLog;
 import cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum;
+import cn.iocoder.yudao.framework.apilog.core.sender.ApiAccessLogBatchSender;
+import cn.iocoder.yudao.framework.apilog.core.util.JsonSanitizeUtils;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiAccessLogCommonApi;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiAccessLogCreateReqDTO;
 import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants;
@@ -16,10 +18,10 @@ import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.common.util.monitor.TracerUtils;
 import cn.iocoder.yudao.framework.common.util.servlet.ServletUtils;
+import cn.iocoder.yudao.framework.common.util.string.StrUtils;
 import cn.iocoder.yudao.framework.web.config.WebProperties;
 import cn.iocoder.yudao.framework.web.core.filter.ApiRequestFilter;
 import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
-import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.FilterChain;
@@ -33,7 +35,6 @@ import org.springframework.web.method.HandlerMethod;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Iterator;
 import java.util.Map;
 
 import static cn.iocoder.yudao.framework.apilog.core.interceptor.ApiAccessLogInterceptor.ATTRIBUTE_HANDLER_METHOD;
@@ -51,14 +52,29 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
 
     private static final String[] SANITIZE_KEYS = new String[]{"password", "token", "accessToken", "refreshToken"};
 
+    /**
+     * 脱敏后 JSON 的最大长度，与 ApiAccessLogDO 的 REQUEST_PARAMS_MAX_LENGTH 保持一致，超过的部分在流式处理时直接丢弃
+     */
+    private static final int SANITIZE_MAX_LENGTH = 8000;
+
     private final String applicationName;
 
     private final ApiAccessLogCommonApi apiAccessLogApi;
+    /**
+     * 批量发送器。为空时，每个请求单独异步写入
+     */
+    private final ApiAccessLogBatchSender apiAccessLogBatchSender;
 
     public ApiAccessLogFilter(WebProperties webProperties, String applicationName, ApiAccessLogCommonApi apiAccessLogApi) {
+        this(webProperties, applicationName, apiAccessLogApi, null);
+    }
+
+    public ApiAccessLogFilter(WebProperties webProperties, String applicationName, ApiAccessLogCommonApi apiAccessLogApi,
+                              ApiAccessLogBatchSender apiAccessLogBatchSender) {
         super(webProperties);
         this.applicationName = applicationName;
         this.apiAccessLogApi = apiAccessLogApi;
+        this.apiAccessLogBatchSender = apiAccessLogBatchSender;
     }
 
     @Override
@@ -91,7 +107,11 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
             if (!enable) {
                 return;
             }
-            apiAccessLogApi.createApiAccessLogAsync(accessLog);
+            if (apiAccessLogBatchSender != null) {
+                apiAccessLogBatchSender.send(accessLog);
+            } else {
+                apiAccessLogApi.createApiAccessLogAsync(accessLog);
+            }
         } catch (Throwable th) {
             log.error("[createApiAccessLog][url({}) log({}) 发生异常]", request.getRequestURI(), toJsonString(accessLog), th);
         }
@@ -109,8 +129,9 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
             }
         }
 
-        // 处理用户信息
-        accessLog.setUserId(WebFrameworkUtils.getLoginUserId(request))
+        // 处理租户、用户信息
+        accessLog.setTenantId(WebFrameworkUtils.getTenantId(request))
+                .setUserId(WebFrameworkUtils.getLoginUserId(request))
                 .setUserType(WebFrameworkUtils.getLoginUserType(request));
         // 设置访问结果
         CommonResult<?> result = WebFrameworkUtils.getCommonResult(request);
@@ -198,13 +219,11 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
             return null;
         }
         try {
-            JsonNode rootNode = JsonUtils.parseTree(jsonString);
-            sanitizeJson(rootNode, sanitizeKeys);
-            return JsonUtils.toJsonString(rootNode);
+            return JsonSanitizeUtils.sanitize(jsonString, ArrayUtil.addAll(SANITIZE_KEYS, sanitizeKeys), SANITIZE_MAX_LENGTH);
         } catch (Exception e) {
             // 脱敏失败的情况下，直接忽略异常，避免影响用户请求
-            log.error("[sanitizeJson][脱敏({}) 发生异常]", jsonString, e);
-            return jsonString;
+            log.error("[sanitizeJson][脱敏({}) 发生异常]", StrUtils.maxLength(jsonString, SANITIZE_MAX_LENGTH), e);
+            return StrUtils.maxLength(jsonString, SANITIZE_MAX_LENGTH);
         }
     }
 
@@ -212,40 +231,12 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
         if (commonResult == null) {
             return null;
         }
-        String jsonString = toJsonString(commonResult);
         try {
-            JsonNode rootNode = JsonUtils.parseTree(jsonString);
-            sanitizeJson(rootNode.get("data"), sanitizeKeys); // 只处理 data 字段，不处理 code、msg 字段，避免错误被脱敏掉
-            return JsonUtils.toJsonString(rootNode);
+            return JsonSanitizeUtils.sanitize(commonResult, ArrayUtil.addAll(SANITIZE_KEYS, sanitizeKeys), SANITIZE_MAX_LENGTH);
         } catch (Exception e) {
             // 脱敏失败的情况下，直接忽略异常，避免影响用户请求
-            log.error("[sanitizeJson][脱敏({}) 发生异常]", jsonString, e);
-            return jsonString;
-        }
-    }
-
-    private static void sanitizeJson(JsonNode node, String[] sanitizeKeys) {
-        // 情况一：数组，遍历处理
-        if (node.isArray()) {
-            for (JsonNode childNode : node) {
-                sanitizeJson(childNode, sanitizeKeys);
-            }
-            return;
-        }
-        // 情况二：非 Object，只是某个值，直接返回
-        if (!node.isObject()) {
-            return;
-        }
-        //  情况三：Object，遍历处理
-        Iterator<Map.Entry<String, JsonNode>> iterator = node.properties().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, JsonNode> entry = iterator.next();
-            if (ArrayUtil.contains(sanitizeKeys, entry.getKey())
-                    || ArrayUtil.contains(SANITIZE_KEYS, entry.getKey())) {
-                iterator.remove();
-                continue;
-            }
-            sanitizeJson(entry.getValue(), sanitizeKeys);
+            log.error("[sanitizeJson][脱敏({}) 发生异常]", commonResult, e);
+            return null;
         }
     }
 
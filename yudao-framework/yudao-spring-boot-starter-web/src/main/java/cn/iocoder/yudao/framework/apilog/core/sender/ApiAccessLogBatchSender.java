@@ -0,0 +1,166 @@
+package cn.iocoder.yudao.framework.apilog.core.sender;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.iocoder.yudao.framework.apilog.config.ApiAccessLogProperties;
+import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiAccessLogCommonApi;
+import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiAccessLogCreateReqDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API 访问日志的批量发送器
+ *
+ * 请求线程只负责写入有界缓冲区，由后台线程按“数量”或“时间”两个维度触发，
+ * 通过 {@link ApiAccessLogCommonApi#createApiAccessLogList(List)} 批量写入，避免每个请求一次 RPC + 一次 INSERT
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class ApiAccessLogBatchSender implements DisposableBean {
+
+    private final ApiAccessLogProperties.Buffer properties;
+
+    private final ApiAccessLogCommonApi apiAccessLogApi;
+
+    /**
+     * 有界缓冲区
+     */
+    private final BlockingQueue<ApiAccessLogCreateReqDTO> queue;
+
+    /**
+     * 刷新线程：单线程，保证同一时刻只有一个批次在写入
+     */
+    private final ScheduledExecutorService flushExecutor;
+    /**
+     * 是否已经提交了“按数量”触发的刷新任务，避免重复提交
+     */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    // ========== 统计 ==========
+
+    /**
+     * 写入缓冲区的数量
+     */
+    private final LongAdder enqueuedCount = new LongAdder();
+    /**
+     * 成功写入的数量
+     */
+    private final LongAdder flushedCount = new LongAdder();
+    /**
+     * 丢弃的数量，包括缓冲区满、写入失败
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    public ApiAccessLogBatchSender(ApiAccessLogProperties.Buffer properties, ApiAccessLogCommonApi apiAccessLogApi) {
+        this.properties = properties;
+        this.apiAccessLogApi = apiAccessLogApi;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.create()
+                .setNamePrefix("api-access-log-flush-").setDaemon(true).build());
+        long intervalMillis = properties.getFlushInterval().toMillis();
+        this.flushExecutor.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 写入缓冲区
+     *
+     * @param accessLog 访问日志
+     */
+    public void send(ApiAccessLogCreateReqDTO accessLog) {
+        if (!offer(accessLog)) {
+            droppedCount.increment();
+            return;
+        }
+        enqueuedCount.increment();
+        // 达到批量大小，立即触发一次刷新
+        if (queue.size() >= properties.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (Exception ex) {
+                flushScheduled.set(false);
+                log.error("[send][提交刷新任务失败]", ex);
+            }
+        }
+    }
+
+    private boolean offer(ApiAccessLogCreateReqDTO accessLog) {
+        switch (properties.getDropPolicy()) {
+            case DISCARD_OLDEST:
+                while (!queue.offer(accessLog)) {
+                    if (queue.poll() != null) {
+                        droppedCount.increment();
+                    }
+                }
+                return true;
+            case BLOCK:
+                try {
+                    return queue.offer(accessLog, properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case DISCARD_NEWEST:
+            default:
+                return queue.offer(accessLog);
+        }
+    }
+
+    /**
+     * 将缓冲区的日志，按照 batchSize 分批写入
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        List<ApiAccessLogCreateReqDTO> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            try {
+                apiAccessLogApi.createApiAccessLogList(batch).checkError();
+                flushedCount.add(batch.size());
+            } catch (Throwable ex) {
+                droppedCount.add(batch.size());
+                log.error("[flush][批量写入 API 访问日志({} 条) 发生异常]", batch.size(), ex);
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flushExecutor.shutdown();
+        try {
+            if (!flushExecutor.awaitTermination(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS)) {
+                flushExecutor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        // 关闭前，把剩余的日志写入
+        flush();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.sum();
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+}
@@ -0,0 +1,190 @@
+package cn.iocoder.yudao.framework.apilog.core.util;
+
+import cn.hutool.core.util.ArrayUtil;
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JSON 脱敏工具类，基于 Jackson 的 {@link JsonParser}、{@link JsonGenerator} 流式处理
+ *
+ * 相比“解析成 JsonNode 树 → 遍历删除 → 再序列化”的方式，只需要一次遍历，并且输出达到 maxLength 后不再继续累积，
+ * 避免大报文下的重复内存分配
+ *
+ * @author 芋道源码
+ */
+public class JsonSanitizeUtils {
+
+    /**
+     * 截断时，补充的后缀
+     */
+    private static final String TRUNCATED_SUFFIX = "...";
+
+    /**
+     * 脱敏 JSON 字符串，移除 sanitizeKeys 对应的字段（任意层级）
+     *
+     * @param jsonString   JSON 字符串
+     * @param sanitizeKeys 需要移除的字段
+     * @param maxLength    最大长度，超过时截断
+     * @return 脱敏后的 JSON 字符串
+     */
+    public static String sanitize(String jsonString, String[] sanitizeKeys, int maxLength) throws IOException {
+        ObjectMapper objectMapper = JsonUtils.getObjectMapper();
+        BoundedStringWriter writer = new BoundedStringWriter(maxLength);
+        try (JsonParser parser = objectMapper.createParser(jsonString);
+             JsonGenerator generator = objectMapper.createGenerator(writer)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                // 敏感字段：跳过字段名和对应的值（包括嵌套的对象、数组）
+                if (token == JsonToken.FIELD_NAME && ArrayUtil.contains(sanitizeKeys, parser.currentName())) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                    continue;
+                }
+                generator.copyCurrentEvent(parser);
+                // 已经达到最大长度，后续内容无需再处理
+                if (writer.isTruncated()) {
+                    break;
+                }
+            }
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 脱敏 {@link CommonResult} 对象，直接序列化时过滤，无需先转换成字符串再解析
+     *
+     * 注意，只处理 data 字段，不处理 code、msg 字段，避免错误被脱敏掉
+     *
+     * @param commonResult 结果
+     * @param sanitizeKeys 需要移除的字段
+     * @param maxLength    最大长度，超过时截断
+     * @return 脱敏后的 JSON 字符串
+     */
+    public static String sanitize(CommonResult<?> commonResult, String[] sanitizeKeys, int maxLength) throws IOException {
+        ObjectMapper objectMapper = JsonUtils.getObjectMapper();
+        BoundedStringWriter writer = new BoundedStringWriter(maxLength);
+        try (JsonGenerator generator = new FilteringGeneratorDelegate(objectMapper.createGenerator(writer),
+                new CommonResultFilter(new SanitizeFilter(sanitizeKeys)), TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true)) {
+            objectMapper.writeValue(generator, commonResult);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 移除敏感字段的 {@link TokenFilter}，作用于任意层级
+     */
+    private static class SanitizeFilter extends TokenFilter {
+
+        private final String[] sanitizeKeys;
+
+        SanitizeFilter(String[] sanitizeKeys) {
+            this.sanitizeKeys = sanitizeKeys;
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            return ArrayUtil.contains(sanitizeKeys, name) ? null : this;
+        }
+
+        @Override
+        public boolean includeEmptyObject(boolean contentsFiltered) {
+            return true;
+        }
+
+        @Override
+        public boolean includeEmptyArray(boolean contentsFiltered) {
+            return true;
+        }
+
+    }
+
+    /**
+     * {@link CommonResult} 的 {@link TokenFilter}：只对 data 字段使用 {@link SanitizeFilter}，其它字段原样输出
+     */
+    private static class CommonResultFilter extends TokenFilter {
+
+        private final TokenFilter dataFilter;
+
+        CommonResultFilter(TokenFilter dataFilter) {
+            this.dataFilter = dataFilter;
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            return "data".equals(name) ? dataFilter : TokenFilter.INCLUDE_ALL;
+        }
+
+        @Override
+        public boolean includeEmptyObject(boolean contentsFiltered) {
+            return true;
+        }
+
+    }
+
+    /**
+     * 有最大长度的 {@link Writer}，超过后丢弃后续内容，并在末尾补充 {@link #TRUNCATED_SUFFIX}
+     */
+    private static class BoundedStringWriter extends Writer {
+
+        private final StringBuilder buffer;
+        private final int limit;
+        private boolean truncated;
+
+        BoundedStringWriter(int maxLength) {
+            this.limit = Math.max(0, maxLength - TRUNCATED_SUFFIX.length());
+            this.buffer = new StringBuilder(Math.min(limit, 256));
+        }
+
+        @Override
+        public void write(char[] chars, int off, int len) {
+            int remaining = limit - buffer.length();
+            if (len > remaining) {
+                truncated = true;
+                len = remaining;
+            }
+            if (len > 0) {
+                buffer.append(chars, off, len);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            int remaining = limit - buffer.length();
+            if (len > remaining) {
+                truncated = true;
+                len = remaining;
+            }
+            if (len > 0) {
+                buffer.append(str, off, off + len);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public String toString() {
+            return truncated ? buffer + TRUNCATED_SUFFIX : buffer.toString();
+        }
+
+    }
+
+}
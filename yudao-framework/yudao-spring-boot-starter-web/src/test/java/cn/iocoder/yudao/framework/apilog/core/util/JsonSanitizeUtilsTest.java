@@ -0,0 +1,151 @@
+package cn.iocoder.yudao.framework.apilog.core.util;
+
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.hutool.core.util.ArrayUtil;
+import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link JsonSanitizeUtils} 的单元测试
+ */
+public class JsonSanitizeUtilsTest {
+
+    private static final String[] SANITIZE_KEYS = new String[]{"password", "token"};
+
+    @Test
+    public void testSanitize_string() throws Exception {
+        // 准备参数
+        String json = "{\"username\":\"yudao\",\"password\":{\"a\":1},\"items\":[{\"token\":\"t\",\"id\":1},[]],\"empty\":{}}";
+
+        // 调用
+        String result = JsonSanitizeUtils.sanitize(json, SANITIZE_KEYS, 8000);
+        // 断言
+        assertEquals("{\"username\":\"yudao\",\"items\":[{\"id\":1},[]],\"empty\":{}}", result);
+    }
+
+    @Test
+    public void testSanitize_stringTruncated() throws Exception {
+        // 准备参数
+        String json = "{\"content\":\"" + "x".repeat(100_000) + "\"}";
+
+        // 调用
+        String result = JsonSanitizeUtils.sanitize(json, SANITIZE_KEYS, 100);
+        // 断言
+        assertEquals(100, result.length());
+        assertTrue(result.endsWith("..."));
+    }
+
+    @Test
+    public void testSanitize_commonResult() throws Exception {
+        // 准备参数
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", 1);
+        data.put("token", "secret");
+        data.put("children", List.of(Map.of("password", "123456"), Map.of()));
+        CommonResult<Map<String, Object>> commonResult = CommonResult.success(data);
+
+        // 调用
+        String result = JsonSanitizeUtils.sanitize(commonResult, SANITIZE_KEYS, 8000);
+        // 断言
+        JsonNode node = JsonUtils.parseTree(result);
+        assertEquals(0, node.get("code").asInt());
+        assertEquals(1, node.get("data").get("id").asInt());
+        assertNull(node.get("data").get("token"));
+        assertEquals(2, node.get("data").get("children").size());
+        assertNull(node.get("data").get("children").get(0).get("password"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testSanitize_benchmark(TestReporter reporter) throws Exception {
+        for (int items : new int[]{10, 1_000, 20_000}) {
+            String json = buildJson(items);
+            int count = Math.max(2_000_000 / json.length(), 5);
+            long streaming = measure(count, () -> JsonSanitizeUtils.sanitize(json, SANITIZE_KEYS, 8000).length());
+            long tree = measure(count, () -> sanitizeByTree(json, SANITIZE_KEYS, 8000).length());
+            String size = json.length() / 1024 + " KB";
+            reporter.publishEntry(size + "，流式处理（us/次）", String.format("%.2f", streaming / 1e3 / count));
+            reporter.publishEntry(size + "，JsonNode 树（us/次）", String.format("%.2f", tree / 1e3 / count));
+        }
+    }
+
+    private static String buildJson(int items) {
+        StringBuilder json = new StringBuilder("{\"username\":\"yudao\",\"password\":\"123456\",\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i)
+                    .append("\",\"token\":\"secret-").append(i).append("\",\"tags\":[\"a\",\"b\"]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * 测量执行 count 次的耗时，取 5 轮的最小值，单位：纳秒
+     */
+    private static long measure(int count, SanitizeTask task) throws Exception {
+        long best = Long.MAX_VALUE;
+        long blackhole = 0;
+        for (int round = 0; round < 6; round++) { // 第一轮用于预热
+            long begin = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                blackhole += task.run();
+            }
+            if (round > 0) {
+                best = Math.min(best, System.nanoTime() - begin);
+            }
+        }
+        assertTrue(blackhole > 0);
+        return best;
+    }
+
+    @FunctionalInterface
+    private interface SanitizeTask {
+
+        int run() throws Exception;
+
+    }
+
+    /**
+     * 基于 JsonNode 树的脱敏，即“解析 → 遍历删除 → 再序列化 → 截断”，作为基准
+     */
+    private static String sanitizeByTree(String json, String[] sanitizeKeys, int maxLength) {
+        JsonNode rootNode = JsonUtils.parseTree(json);
+        sanitizeTree(rootNode, sanitizeKeys);
+        return StrUtil.maxLength(JsonUtils.toJsonString(rootNode), maxLength - 3);
+    }
+
+    private static void sanitizeTree(JsonNode node, String[] sanitizeKeys) {
+        if (node.isArray()) {
+            for (JsonNode childNode : node) {
+                sanitizeTree(childNode, sanitizeKeys);
+            }
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> iterator = node.properties().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, JsonNode> entry = iterator.next();
+            if (ArrayUtil.contains(sanitizeKeys, entry.getKey())) {
+                iterator.remove();
+                continue;
+            }
+            sanitizeTree(entry.getValue(), sanitizeKeys);
+        }
+    }
+
+}
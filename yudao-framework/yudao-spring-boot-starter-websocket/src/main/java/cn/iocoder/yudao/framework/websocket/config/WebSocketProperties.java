@@ -3,9 +3,12 @@ package cn.iocoder.yudao.framework.websocket.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 
 /**
  * WebSocket 配置项
@@ -31,4 +34,48 @@ public class WebSocketProperties {
     @NotNull(message = "WebSocket 的消息发送者不能为空")
     private String senderType = "local";
 
+    /**
+     * 消息发送的配置
+     */
+    @Valid
+    private Send send = new Send();
+
+    @Data
+    public static class Send {
+
+        /**
+         * 单个 Session 发送的时间上限，超过时关闭连接
+         */
+        @NotNull(message = "发送的时间上限不能为空")
+        private Duration timeLimit = Duration.ofSeconds(5);
+
+        /**
+         * 单个 Session 发送缓冲区的上限，单位：bytes
+         */
+        @NotNull(message = "发送缓冲区的上限不能为空")
+        private Integer bufferSizeLimit = 1024 * 100;
+
+        /**
+         * 发送缓冲区溢出时的策略
+         *
+         * TERMINATE：关闭连接；DROP：丢弃消息
+         */
+        @NotNull(message = "发送缓冲区溢出的策略不能为空")
+        private ConcurrentWebSocketSessionDecorator.OverflowStrategy overflowStrategy
+                = ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE;
+
+        /**
+         * 发送线程数
+         */
+        @NotNull(message = "发送线程数不能为空")
+        private Integer threads = Runtime.getRuntime().availableProcessors() * 2;
+
+        /**
+         * 发送任务队列的容量，即等待发送的 Session 数量，超过时丢弃这些 Session 待发送的消息
+         */
+        @NotNull(message = "发送任务队列的容量不能为空")
+        private Integer queueCapacity = 100000;
+
+    }
+
 }
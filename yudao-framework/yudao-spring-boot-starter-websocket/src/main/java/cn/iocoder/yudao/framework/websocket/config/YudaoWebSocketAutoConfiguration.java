@@ -6,6 +6,7 @@ import cn.iocoder.yudao.framework.websocket.core.handler.JsonWebSocketMessageHan
 import cn.iocoder.yudao.framework.websocket.core.listener.WebSocketMessageListener;
 import cn.iocoder.yudao.framework.websocket.core.security.LoginUserHandshakeInterceptor;
 import cn.iocoder.yudao.framework.websocket.core.security.WebSocketAuthorizeRequestsCustomizer;
+import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.sender.kafka.KafkaWebSocketMessageConsumer;
 import cn.iocoder.yudao.framework.websocket.core.sender.kafka.KafkaWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.sender.local.LocalWebSocketMessageSender;
@@ -18,11 +19,15 @@ import cn.iocoder.yudao.framework.websocket.core.sender.rocketmq.RocketMQWebSock
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionHandlerDecorator;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManagerImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -65,23 +70,66 @@ public class YudaoWebSocketAutoConfiguration {
 
     @Bean
     public WebSocketHandler webSocketHandler(WebSocketSessionManager sessionManager,
-                                             List<? extends WebSocketMessageListener<?>> messageListeners) {
+                                             List<? extends WebSocketMessageListener<?>> messageListeners,
+                                             WebSocketProperties webSocketProperties) {
         // 1. 创建 JsonWebSocketMessageHandler 对象，处理消息
         JsonWebSocketMessageHandler messageHandler = new JsonWebSocketMessageHandler(messageListeners);
         // 2. 创建 WebSocketSessionHandlerDecorator 对象，处理连接
-        return new WebSocketSessionHandlerDecorator(messageHandler, sessionManager);
+        return new WebSocketSessionHandlerDecorator(messageHandler, sessionManager, webSocketProperties.getSend());
     }
 
     @Bean
-    public WebSocketSessionManager webSocketSessionManager() {
+    public WebSocketSessionManagerImpl webSocketSessionManager() {
         return new WebSocketSessionManagerImpl();
     }
 
+    @Bean
+    public WebSocketMessageDispatcher webSocketMessageDispatcher(WebSocketProperties webSocketProperties) {
+        return new WebSocketMessageDispatcher(webSocketProperties.getSend());
+    }
+
     @Bean
     public WebSocketAuthorizeRequestsCustomizer webSocketAuthorizeRequestsCustomizer(WebSocketProperties webSocketProperties) {
         return new WebSocketAuthorizeRequestsCustomizer(webSocketProperties);
     }
 
+    /**
+     * WebSocket 的 Metrics 配置，只有引入 Micrometer 时才生效
+     *
+     * 注意，不能使用 @ConditionalOnBean 判断外部类的 Bean：内部类先于外部类的 @Bean 方法处理，判断时 Bean 尚未注册
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class WebSocketMetricsConfiguration {
+
+        @Bean
+        public MeterBinder webSocketSessionManagerMeterBinder(WebSocketSessionManagerImpl sessionManager) {
+            return registry -> {
+                Gauge.builder("yudao.websocket.sessions.total", sessionManager, WebSocketSessionManagerImpl::getSessionCount)
+                        .description("WebSocket 的 Session 总数").register(registry);
+                // 按照 (用户类型, 租户编号) 分组统计，新分组出现时注册
+                sessionManager.setTenantGroupListener((userType, tenantId) ->
+                        Gauge.builder("yudao.websocket.sessions", sessionManager, manager -> manager.getSessionCount(userType, tenantId))
+                                .tag("user_type", String.valueOf(userType))
+                                .tag("tenant_id", String.valueOf(tenantId))
+                                .description("WebSocket 的 Session 数量").register(registry));
+            };
+        }
+
+        @Bean
+        public MeterBinder webSocketMessageDispatcherMeterBinder(WebSocketMessageDispatcher messageDispatcher) {
+            return registry -> {
+                Gauge.builder("yudao.websocket.send.queued.bytes", messageDispatcher, WebSocketMessageDispatcher::getQueuedBytes)
+                        .description("等待发送的消息字节数").baseUnit("bytes").register(registry);
+                FunctionCounter.builder("yudao.websocket.send.sent", messageDispatcher, WebSocketMessageDispatcher::getSentCount)
+                        .description("发送的消息数量").register(registry);
+                FunctionCounter.builder("yudao.websocket.send.dropped", messageDispatcher, WebSocketMessageDispatcher::getDroppedCount)
+                        .description("丢弃的消息数量").register(registry);
+            };
+        }
+
+    }
+
     // ==================== Sender 相关 ====================
 
     @Configuration
@@ -89,8 +137,9 @@ public class YudaoWebSocketAutoConfiguration {
     public class LocalWebSocketMessageSenderConfiguration {
 
         @Bean
-        public LocalWebSocketMessageSender localWebSocketMessageSender(WebSocketSessionManager sessionManager) {
-            return new LocalWebSocketMessageSender(sessionManager);
+        public LocalWebSocketMessageSender localWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                                                       WebSocketMessageDispatcher messageDispatcher) {
+            return new LocalWebSocketMessageSender(sessionManager, messageDispatcher);
         }
 
     }
@@ -101,8 +150,9 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RedisWebSocketMessageSender redisWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                                                       WebSocketMessageDispatcher messageDispatcher,
                                                                        RedisMQTemplate redisMQTemplate) {
-            return new RedisWebSocketMessageSender(sessionManager, redisMQTemplate);
+            return new RedisWebSocketMessageSender(sessionManager, messageDispatcher, redisMQTemplate);
         }
 
         @Bean
@@ -119,9 +169,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RocketMQWebSocketMessageSender rocketMQWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, RocketMQTemplate rocketMQTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher messageDispatcher,
+                RocketMQTemplate rocketMQTemplate,
                 @Value("${yudao.websocket.sender-rocketmq.topic}") String topic) {
-            return new RocketMQWebSocketMessageSender(sessionManager, rocketMQTemplate, topic);
+            return new RocketMQWebSocketMessageSender(sessionManager, messageDispatcher, rocketMQTemplate, topic);
         }
 
         @Bean
@@ -138,9 +189,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RabbitMQWebSocketMessageSender rabbitMQWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, RabbitTemplate rabbitTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher messageDispatcher,
+                RabbitTemplate rabbitTemplate,
                 TopicExchange websocketTopicExchange) {
-            return new RabbitMQWebSocketMessageSender(sessionManager, rabbitTemplate, websocketTopicExchange);
+            return new RabbitMQWebSocketMessageSender(sessionManager, messageDispatcher, rabbitTemplate, websocketTopicExchange);
         }
 
         @Bean
@@ -167,9 +219,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public KafkaWebSocketMessageSender kafkaWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, KafkaTemplate<Object, Object> kafkaTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher messageDispatcher,
+                KafkaTemplate<Object, Object> kafkaTemplate,
                 @Value("${yudao.websocket.sender-kafka.topic}") String topic) {
-            return new KafkaWebSocketMessageSender(sessionManager, kafkaTemplate, topic);
+            return new KafkaWebSocketMessageSender(sessionManager, messageDispatcher, kafkaTemplate, topic);
         }
 
         @Bean
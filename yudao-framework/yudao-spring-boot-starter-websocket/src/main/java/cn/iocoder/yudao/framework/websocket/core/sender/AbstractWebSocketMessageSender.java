@@ -10,10 +10,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 /**
  * WebSocketMessageSender 实现类
@@ -26,6 +24,8 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
 
     private final WebSocketSessionManager sessionManager;
 
+    private final WebSocketMessageDispatcher messageDispatcher;
+
     @Override
     public void send(Integer userType, Long userId, String messageType, String messageContent) {
         send(null, userType, userId, messageType, messageContent);
@@ -52,16 +52,16 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
      */
     public void send(String sessionId, Integer userType, Long userId, String messageType, String messageContent) {
         // 1. 获得 Session 列表
-        List<WebSocketSession> sessions = Collections.emptyList();
+        Collection<WebSocketSession> sessions = Collections.emptyList();
         if (StrUtil.isNotEmpty(sessionId)) {
             WebSocketSession session = sessionManager.getSession(sessionId);
             if (session != null) {
                 sessions = Collections.singletonList(session);
             }
         } else if (userType != null && userId != null) {
-            sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType, userId);
+            sessions = sessionManager.getSessionList(userType, userId);
         } else if (userType != null) {
-            sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType);
+            sessions = sessionManager.getSessionList(userType);
         }
         if (CollUtil.isEmpty(sessions)) {
             if (log.isDebugEnabled()) {
@@ -83,24 +83,11 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
     public void doSend(Collection<WebSocketSession> sessions, String messageType, String messageContent) {
         JsonWebSocketMessage message = new JsonWebSocketMessage().setType(messageType).setContent(messageContent);
         String payload = JsonUtils.toJsonString(message); // 关键，使用 JSON 序列化
-        sessions.forEach(session -> {
-            // 1. 各种校验，保证 Session 可以被发送
-            if (session == null) {
-                log.error("[doSend][session 为空, message({})]", message);
-                return;
-            }
-            if (!session.isOpen()) {
-                log.error("[doSend][session({}) 已关闭, message({})]", session.getId(), message);
-                return;
-            }
-            // 2. 执行发送
-            try {
-                session.sendMessage(new TextMessage(payload));
-                log.info("[doSend][session({}) 发送消息成功，message({})]", session.getId(), message);
-            } catch (IOException ex) {
-                log.error("[doSend][session({}) 发送消息失败，message({})]", session.getId(), message, ex);
-            }
-        });
+        // 只编码一次，所有 Session 共享同一个 TextMessage，由 messageDispatcher 并行发送
+        messageDispatcher.dispatch(sessions, new TextMessage(payload));
+        if (log.isDebugEnabled()) {
+            log.debug("[doSend][sessions({}) 发送消息，message({})]", sessions.size(), message);
+        }
     }
 
 }
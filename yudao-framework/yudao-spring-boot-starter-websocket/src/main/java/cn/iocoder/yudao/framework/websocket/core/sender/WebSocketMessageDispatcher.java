@@ -0,0 +1,234 @@
+package cn.iocoder.yudao.framework.websocket.core.sender;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.iocoder.yudao.framework.websocket.config.WebSocketProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WebSocket 消息的分发器，将消息并行、非阻塞地发送给多个 {@link WebSocketSession}
+ *
+ * 1. 每个 Session 的发送，作为独立的任务提交到专属的线程池，避免一个慢客户端拖慢整个广播
+ * 2. 每个 Session 拥有自己的待发送队列 {@link SessionSendQueue}，同一时刻最多只有一个任务在消费，
+ *    保证发给同一个 Session 的消息，按照 dispatch 的顺序送达
+ * 3. 每个 Session 已经被 {@link ConcurrentWebSocketSessionDecorator} 装饰，拥有有界的发送缓冲区；
+ *    缓冲区（含待发送队列）已满的 Session 视为慢消费者，根据 {@link ConcurrentWebSocketSessionDecorator.OverflowStrategy} 丢弃消息或关闭连接
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class WebSocketMessageDispatcher implements DisposableBean {
+
+    /**
+     * {@link SessionSendQueue} 在 Session 属性中的 key，随 Session 一起释放
+     */
+    private static final String SEND_QUEUE_ATTRIBUTE = WebSocketMessageDispatcher.class.getName() + ".SEND_QUEUE";
+
+    private final WebSocketProperties.Send properties;
+
+    private final ThreadPoolExecutor executor;
+
+    // ========== 统计 ==========
+
+    /**
+     * 已提交、但未完成发送的字节数
+     */
+    private final AtomicLong queuedBytes = new AtomicLong();
+    /**
+     * 发送的消息数量
+     */
+    private final LongAdder sentCount = new LongAdder();
+    /**
+     * 丢弃的消息数量，包括慢消费者、线程池已满、发送失败
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    public WebSocketMessageDispatcher(WebSocketProperties.Send properties) {
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                ThreadFactoryBuilder.create().setNamePrefix("websocket-send-").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 发送消息给多个 Session
+     *
+     * @param sessions Session 列表
+     * @param message  消息，多个 Session 共享同一个对象，只编码一次
+     */
+    public void dispatch(Collection<WebSocketSession> sessions, TextMessage message) {
+        for (WebSocketSession session : sessions) {
+            // 1. 各种校验，保证 Session 可以被发送
+            if (session == null) {
+                continue;
+            }
+            if (!session.isOpen()) {
+                log.debug("[dispatch][session({}) 已关闭]", session.getId());
+                continue;
+            }
+            SessionSendQueue sendQueue = getSendQueue(session);
+            if (isSlowConsumer(session, sendQueue, message)) {
+                handleSlowConsumer(session);
+                continue;
+            }
+
+            // 2. 加入 Session 的待发送队列，并确保有一个任务在消费
+            sendQueue.offer(message);
+            queuedBytes.addAndGet(message.getPayloadLength());
+            schedule(session, sendQueue);
+        }
+    }
+
+    private static SessionSendQueue getSendQueue(WebSocketSession session) {
+        return (SessionSendQueue) session.getAttributes()
+                .computeIfAbsent(SEND_QUEUE_ATTRIBUTE, key -> new SessionSendQueue());
+    }
+
+    /**
+     * 提交 Session 的消费任务；已经有任务在消费时，由该任务继续发送新加入的消息
+     */
+    private void schedule(WebSocketSession session, SessionSendQueue sendQueue) {
+        if (!sendQueue.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(session, sendQueue));
+        } catch (RejectedExecutionException ex) {
+            sendQueue.draining.set(false);
+            int count = discard(sendQueue);
+            log.warn("[schedule][session({}) 发送线程池已满，丢弃 {} 条消息]", session.getId(), count);
+        }
+    }
+
+    private void drain(WebSocketSession session, SessionSendQueue sendQueue) {
+        do {
+            TextMessage message;
+            while ((message = sendQueue.poll()) != null) {
+                try {
+                    doSend(session, message);
+                } finally {
+                    queuedBytes.addAndGet(-message.getPayloadLength());
+                }
+            }
+            sendQueue.draining.set(false);
+            // 释放后再检查一次，避免 dispatch 在 set(false) 之前入队、却因 draining 为 true 未提交任务，导致消息滞留
+        } while (!sendQueue.messages.isEmpty() && sendQueue.draining.compareAndSet(false, true));
+    }
+
+    private int discard(SessionSendQueue sendQueue) {
+        int count = 0;
+        TextMessage message;
+        while ((message = sendQueue.poll()) != null) {
+            queuedBytes.addAndGet(-message.getPayloadLength());
+            droppedCount.increment();
+            count++;
+        }
+        return count;
+    }
+
+    private void doSend(WebSocketSession session, TextMessage message) {
+        if (!session.isOpen()) {
+            droppedCount.increment();
+            log.debug("[doSend][session({}) 已关闭]", session.getId());
+            return;
+        }
+        try {
+            session.sendMessage(message);
+            sentCount.increment();
+        } catch (IOException | RuntimeException ex) {
+            // 发送超时、缓冲区溢出时，ConcurrentWebSocketSessionDecorator 会抛出 SessionLimitExceededException 并关闭连接
+            droppedCount.increment();
+            log.error("[doSend][session({}) 发送消息失败]", session.getId(), ex);
+        }
+    }
+
+    /**
+     * 判断是否为慢消费者：发送缓冲区加上待发送队列，无法再容纳该消息
+     */
+    private static boolean isSlowConsumer(WebSocketSession session, SessionSendQueue sendQueue, TextMessage message) {
+        if (!(session instanceof ConcurrentWebSocketSessionDecorator decorator)) {
+            return false;
+        }
+        return decorator.getBufferSize() + sendQueue.pendingBytes.get() + message.getPayloadLength()
+                > decorator.getBufferSizeLimit();
+    }
+
+    private void handleSlowConsumer(WebSocketSession session) {
+        droppedCount.increment();
+        if (properties.getOverflowStrategy() != ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE) {
+            log.debug("[handleSlowConsumer][session({}) 发送缓冲区已满，丢弃消息]", session.getId());
+            return;
+        }
+        log.warn("[handleSlowConsumer][session({}) 发送缓冲区已满，关闭连接]", session.getId());
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ex) {
+            log.error("[handleSlowConsumer][session({}) 关闭连接失败]", session.getId(), ex);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 单个 Session 的待发送队列
+     */
+    private static class SessionSendQueue {
+
+        private final Queue<TextMessage> messages = new ConcurrentLinkedQueue<>();
+        /**
+         * 待发送的字节数
+         */
+        private final AtomicLong pendingBytes = new AtomicLong();
+        /**
+         * 是否已经有任务在消费
+         */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        void offer(TextMessage message) {
+            pendingBytes.addAndGet(message.getPayloadLength());
+            messages.offer(message);
+        }
+
+        TextMessage poll() {
+            TextMessage message = messages.poll();
+            if (message != null) {
+                pendingBytes.addAndGet(-message.getPayloadLength());
+            }
+            return message;
+        }
+
+    }
+
+}
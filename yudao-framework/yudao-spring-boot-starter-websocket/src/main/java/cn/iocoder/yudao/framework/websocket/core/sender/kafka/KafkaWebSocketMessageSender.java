@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.framework.websocket.core.sender.kafka;
 
 import cn.iocoder.yudao.framework.websocket.core.sender.AbstractWebSocketMessageSender;
+import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
 import lombok.extern.slf4j.Slf4j;
@@ -21,9 +22,10 @@ public class KafkaWebSocketMessageSender extends AbstractWebSocketMessageSender
     private final String topic;
 
     public KafkaWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                       WebSocketMessageDispatcher messageDispatcher,
                                        KafkaTemplate<Object, Object> kafkaTemplate,
                                        String topic) {
-        super(sessionManager);
+        super(sessionManager, messageDispatcher);
         this.kafkaTemplate = kafkaTemplate;
         this.topic = topic;
     }
@@ -2,6 +2,7 @@ package cn.iocoder.yudao.framework.websocket.core.sender.redis;
 
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.websocket.core.sender.AbstractWebSocketMessageSender;
+import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
 import lombok.extern.slf4j.Slf4j;
@@ -17,8 +18,9 @@ public class RedisWebSocketMessageSender extends AbstractWebSocketMessageSender
     private final RedisMQTemplate redisMQTemplate;
 
     public RedisWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                       WebSocketMessageDispatcher messageDispatcher,
                                        RedisMQTemplate redisMQTemplate) {
-        super(sessionManager);
+        super(sessionManager, messageDispatcher);
         this.redisMQTemplate = redisMQTemplate;
     }
 
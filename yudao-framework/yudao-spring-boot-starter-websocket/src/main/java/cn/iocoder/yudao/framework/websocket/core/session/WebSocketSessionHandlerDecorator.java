@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.websocket.core.session;
 
+import cn.iocoder.yudao.framework.websocket.config.WebSocketProperties;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.WebSocketSession;
@@ -16,27 +17,28 @@ import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
  */
 public class WebSocketSessionHandlerDecorator extends WebSocketHandlerDecorator {
 
-    /**
-     * 发送时间的限制，单位：毫秒
-     */
-    private static final Integer SEND_TIME_LIMIT = 1000 * 5;
-    /**
-     * 发送消息缓冲上线，单位：bytes
-     */
-    private static final Integer BUFFER_SIZE_LIMIT = 1024 * 100;
-
     private final WebSocketSessionManager sessionManager;
 
+    private final WebSocketProperties.Send sendProperties;
+
     public WebSocketSessionHandlerDecorator(WebSocketHandler delegate,
                                             WebSocketSessionManager sessionManager) {
+        this(delegate, sessionManager, new WebSocketProperties.Send());
+    }
+
+    public WebSocketSessionHandlerDecorator(WebSocketHandler delegate,
+                                            WebSocketSessionManager sessionManager,
+                                            WebSocketProperties.Send sendProperties) {
         super(delegate);
         this.sessionManager = sessionManager;
+        this.sendProperties = sendProperties;
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
         // 实现 session 支持并发，可参考 https://blog.csdn.net/abu935009066/article/details/131218149
-        session = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT, BUFFER_SIZE_LIMIT);
+        session = new ConcurrentWebSocketSessionDecorator(session, (int) sendProperties.getTimeLimit().toMillis(),
+                sendProperties.getBufferSizeLimit(), sendProperties.getOverflowStrategy());
         // 添加到 WebSocketSessionManager 中
         sessionManager.addSession(session);
     }
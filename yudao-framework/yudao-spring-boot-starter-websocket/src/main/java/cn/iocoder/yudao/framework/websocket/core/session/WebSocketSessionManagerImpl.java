@@ -1,26 +1,35 @@
 package cn.iocoder.yudao.framework.websocket.core.session;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.security.core.LoginUser;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.ArrayList;
+import java.util.AbstractCollection;
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 /**
- * 默认的 {@link WebSocketSessionManager} 实现类
+ * 默认的 {@link WebSocketSession} 管理器实现类
+ *
+ * 按照 (用户类型, 租户编号)、(用户类型, 用户编号) 两个维度建立索引：
+ * 1. 每个维度的 Session 集合，使用 {@link ConcurrentHashMap#newKeySet()} 存储，添加、移除都是 O(1)，无需整体复制
+ * 2. 获取 Session 列表时，直接返回集合的只读视图，广播时不再额外创建列表
  *
  * @author 芋道源码
  */
 public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
 
+    /**
+     * 无租户时，使用的租户编号。因为 {@link ConcurrentHashMap} 不允许 null 作为 key
+     */
+    public static final Long TENANT_ID_NONE = -1L;
+
     /**
      * id 与 WebSocketSession 映射
      *
@@ -34,53 +43,55 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
      * key1：用户类型
      * key2：用户编号
      */
-    private final ConcurrentMap<Integer, ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>>> userSessions
+    private final ConcurrentMap<Integer, ConcurrentMap<Long, Set<WebSocketSession>>> userSessions
+            = new ConcurrentHashMap<>();
+
+    /**
+     * tenant 与 WebSocketSession 映射，用于按照用户类型广播
+     *
+     * key1：用户类型
+     * key2：租户编号
+     */
+    private final ConcurrentMap<Integer, ConcurrentMap<Long, Set<WebSocketSession>>> tenantSessions
             = new ConcurrentHashMap<>();
 
+    /**
+     * 新的 (用户类型, 租户编号) 分组出现时的回调，例如说，注册对应的 Metrics
+     */
+    private volatile BiConsumer<Integer, Long> tenantGroupListener;
+
     @Override
     public void addSession(WebSocketSession session) {
         // 添加到 idSessions 中
         idSessions.put(session.getId(), session);
-        // 添加到 userSessions 中
+        // 添加到 userSessions、tenantSessions 中
         LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
         if (user == null) {
             return;
         }
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(user.getUserType());
-        if (userSessionsMap == null) {
-            userSessionsMap = new ConcurrentHashMap<>();
-            if (userSessions.putIfAbsent(user.getUserType(), userSessionsMap) != null) {
-                userSessionsMap = userSessions.get(user.getUserType());
+        addToGroup(userSessions, user.getUserType(), user.getId(), session);
+        if (addToGroup(tenantSessions, user.getUserType(), getTenantId(user), session)) {
+            BiConsumer<Integer, Long> listener = tenantGroupListener;
+            if (listener != null) {
+                listener.accept(user.getUserType(), getTenantId(user));
             }
         }
-        CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(user.getId());
-        if (sessions == null) {
-            sessions = new CopyOnWriteArrayList<>();
-            if (userSessionsMap.putIfAbsent(user.getId(), sessions) != null) {
-                sessions = userSessionsMap.get(user.getId());
-            }
-        }
-        sessions.add(session);
     }
 
     @Override
     public void removeSession(WebSocketSession session) {
-        // 移除从 idSessions 中
-        idSessions.remove(session.getId());
-        // 移除从 idSessions 中
-        LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
-        if (user == null) {
+        // 移除从 idSessions 中。注意，需要使用 idSessions 中的 Session 对象，因为添加时的 Session 可能被装饰过
+        WebSocketSession existsSession = idSessions.remove(session.getId());
+        if (existsSession == null) {
             return;
         }
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(user.getUserType());
-        if (userSessionsMap == null) {
+        // 移除从 userSessions、tenantSessions 中
+        LoginUser user = WebSocketFrameworkUtils.getLoginUser(existsSession);
+        if (user == null) {
             return;
         }
-        CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(user.getId());
-        sessions.removeIf(session0 -> session0.getId().equals(session.getId()));
-        if (CollUtil.isEmpty(sessions)) {
-            userSessionsMap.remove(user.getId(), sessions);
-        }
+        removeFromGroup(userSessions, user.getUserType(), user.getId(), existsSession);
+        removeFromGroup(tenantSessions, user.getUserType(), getTenantId(user), existsSession);
     }
 
     @Override
@@ -90,36 +101,137 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
 
     @Override
     public Collection<WebSocketSession> getSessionList(Integer userType) {
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(userType);
-        if (CollUtil.isEmpty(userSessionsMap)) {
-            return new ArrayList<>();
+        ConcurrentMap<Long, Set<WebSocketSession>> tenantSessionsMap = tenantSessions.get(userType);
+        if (tenantSessionsMap == null) {
+            return Collections.emptyList();
         }
-        LinkedList<WebSocketSession> result = new LinkedList<>(); // 避免扩容
+        // 特殊：如果有租户，则只返回该租户的 Session，避免广播到别的租户
         Long contextTenantId = TenantContextHolder.getTenantId();
-        for (List<WebSocketSession> sessions : userSessionsMap.values()) {
-            if (CollUtil.isEmpty(sessions)) {
-                continue;
-            }
-            // 特殊：如果租户不匹配，则直接排除
-            if (contextTenantId != null) {
-                Long userTenantId = WebSocketFrameworkUtils.getTenantId(sessions.get(0));
-                if (!contextTenantId.equals(userTenantId)) {
-                    continue;
-                }
-            }
-            result.addAll(sessions);
+        if (contextTenantId != null) {
+            Set<WebSocketSession> sessions = tenantSessionsMap.get(contextTenantId);
+            return sessions != null ? Collections.unmodifiableSet(sessions) : Collections.emptyList();
         }
-        return result;
+        return new SessionGroupsView(tenantSessionsMap.values());
     }
 
     @Override
     public Collection<WebSocketSession> getSessionList(Integer userType, Long userId) {
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(userType);
-        if (CollUtil.isEmpty(userSessionsMap)) {
-            return new ArrayList<>();
+        ConcurrentMap<Long, Set<WebSocketSession>> userSessionsMap = userSessions.get(userType);
+        if (userSessionsMap == null) {
+            return Collections.emptyList();
         }
-        CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(userId);
-        return CollUtil.isNotEmpty(sessions) ? new ArrayList<>(sessions) : new ArrayList<>();
+        Set<WebSocketSession> sessions = userSessionsMap.get(userId);
+        return sessions != null ? Collections.unmodifiableSet(sessions) : Collections.emptyList();
+    }
+
+    /**
+     * 获得指定用户类型、租户的 Session 数量
+     *
+     * @param userType 用户类型
+     * @param tenantId 租户编号，无租户时为 {@link #TENANT_ID_NONE}
+     * @return Session 数量
+     */
+    public int getSessionCount(Integer userType, Long tenantId) {
+        ConcurrentMap<Long, Set<WebSocketSession>> tenantSessionsMap = tenantSessions.get(userType);
+        if (tenantSessionsMap == null) {
+            return 0;
+        }
+        Set<WebSocketSession> sessions = tenantSessionsMap.get(tenantId);
+        return sessions != null ? sessions.size() : 0;
+    }
+
+    /**
+     * 获得 Session 总数，包括未登录的
+     *
+     * @return Session 数量
+     */
+    public int getSessionCount() {
+        return idSessions.size();
+    }
+
+    /**
+     * 设置新的 (用户类型, 租户编号) 分组出现时的回调，并对已经存在的分组回调一次
+     *
+     * @param listener 回调
+     */
+    public void setTenantGroupListener(BiConsumer<Integer, Long> listener) {
+        this.tenantGroupListener = listener;
+        tenantSessions.forEach((userType, tenantSessionsMap) ->
+                tenantSessionsMap.keySet().forEach(tenantId -> listener.accept(userType, tenantId)));
+    }
+
+    /**
+     * 添加 Session 到分组中
+     *
+     * @return 是否新创建了分组
+     */
+    private static boolean addToGroup(ConcurrentMap<Integer, ConcurrentMap<Long, Set<WebSocketSession>>> groups,
+                                      Integer key1, Long key2, WebSocketSession session) {
+        boolean[] created = new boolean[1];
+        // 使用 compute 保证“创建集合 + 添加”与 removeFromGroup 的“移除 + 删除空集合”互斥，避免 Session 添加到已被删除的集合
+        groups.computeIfAbsent(key1, key -> new ConcurrentHashMap<>())
+                .compute(key2, (key, sessions) -> {
+                    if (sessions == null) {
+                        sessions = ConcurrentHashMap.newKeySet();
+                        created[0] = true;
+                    }
+                    sessions.add(session);
+                    return sessions;
+                });
+        return created[0];
+    }
+
+    private static void removeFromGroup(ConcurrentMap<Integer, ConcurrentMap<Long, Set<WebSocketSession>>> groups,
+                                        Integer key1, Long key2, WebSocketSession session) {
+        ConcurrentMap<Long, Set<WebSocketSession>> group = groups.get(key1);
+        if (group == null) {
+            return;
+        }
+        group.computeIfPresent(key2, (key, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private static Long getTenantId(LoginUser user) {
+        return user.getTenantId() != null ? user.getTenantId() : TENANT_ID_NONE;
+    }
+
+    /**
+     * 多个 Session 集合的只读视图，遍历时直接迭代底层集合，不进行复制
+     */
+    private static class SessionGroupsView extends AbstractCollection<WebSocketSession> {
+
+        private final Collection<Set<WebSocketSession>> groups;
+
+        SessionGroupsView(Collection<Set<WebSocketSession>> groups) {
+            this.groups = groups;
+        }
+
+        @Override
+        public Iterator<WebSocketSession> iterator() {
+            return groups.stream().flatMap(Set::stream).iterator();
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Set<WebSocketSession> sessions : groups) {
+                size += sessions.size();
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            for (Set<WebSocketSession> sessions : groups) {
+                if (!sessions.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
     }
 
 }
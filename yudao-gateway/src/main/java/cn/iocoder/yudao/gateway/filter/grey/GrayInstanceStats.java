@@ -0,0 +1,118 @@
+package cn.iocoder.yudao.gateway.filter.grey;
+
+import io.micrometer.core.instrument.Meter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务实例的负载统计，用于 {@link GrayLoadBalancer} 的选择
+ *
+ * 1. 进行中的请求数：请求开始时 +1，请求结束（包括取消）时 -1，最小为 0
+ * 2. 响应耗时的 Peak EWMA：耗时变大时立即生效，变小时按照 {@link #DECAY_NANOS} 指数衰减；
+ *    长时间没有请求时，读取时也会衰减，避免一次慢请求后，实例长期分不到流量
+ * 3. 还没有耗时样本、但有进行中的请求时，返回 {@link #PENALTY_SCORE}：
+ *    新实例的首批请求还没返回前，无法判断快慢，避免所有请求都涌向分数为 0 的新实例
+ *
+ * @author 芋道源码
+ */
+public class GrayInstanceStats {
+
+    /**
+     * EWMA 的衰减时间常数
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    /**
+     * 请求失败时，计入的最小耗时
+     */
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * 没有耗时样本、但有进行中的请求时的分数，足够大，又不会在比较时溢出
+     */
+    static final double PENALTY_SCORE = Long.MAX_VALUE >> 16;
+
+    /**
+     * 进行中的请求数
+     */
+    private final AtomicInteger inflight = new AtomicInteger();
+    /**
+     * 响应耗时的 EWMA，单位：纳秒
+     */
+    private volatile double ewmaNanos;
+    /**
+     * 最后一次更新 {@link #ewmaNanos} 的时间，单位：纳秒
+     */
+    private volatile long lastUpdateNanos;
+    /**
+     * 是否已经有耗时样本
+     */
+    private volatile boolean sampled;
+
+    /**
+     * 注册的 Micrometer 指标，实例下线时移除
+     */
+    @Getter
+    @Setter
+    private List<Meter> meters;
+
+    /**
+     * 请求开始
+     */
+    public void onStart() {
+        inflight.incrementAndGet();
+    }
+
+    /**
+     * 请求结束
+     *
+     * @param latencyNanos 耗时，单位：纳秒
+     * @param success      是否成功
+     */
+    public synchronized void onComplete(long latencyNanos, boolean success) {
+        inflight.updateAndGet(value -> Math.max(value - 1, 0));
+        long sample = success ? latencyNanos : Math.max(latencyNanos, FAILURE_PENALTY_NANOS);
+        long now = System.nanoTime();
+        // Peak EWMA：耗时变大时立即生效，尽快避开 GC 停顿等变慢的实例
+        if (!sampled || sample > ewmaNanos) {
+            ewmaNanos = sample;
+        } else {
+            double weight = decay(now);
+            ewmaNanos = ewmaNanos * weight + sample * (1 - weight);
+        }
+        lastUpdateNanos = now;
+        sampled = true;
+    }
+
+    /**
+     * 获得负载分数，越小越优先
+     *
+     * @return 分数
+     */
+    public double getScore() {
+        int inflight = this.inflight.get();
+        if (!sampled && inflight > 0) {
+            return PENALTY_SCORE;
+        }
+        return (getDecayedEwmaNanos(System.nanoTime()) + 1) * (inflight + 1);
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public double getLatencyMillis() {
+        return getDecayedEwmaNanos(System.nanoTime()) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private double getDecayedEwmaNanos(long now) {
+        return sampled ? ewmaNanos * decay(now) : 0;
+    }
+
+    private double decay(long now) {
+        return Math.exp(-Math.max(now - lastUpdateNanos, 0) / DECAY_NANOS);
+    }
+
+}
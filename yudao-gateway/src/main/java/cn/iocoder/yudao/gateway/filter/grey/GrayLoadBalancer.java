@@ -1,11 +1,12 @@
 package cn.iocoder.yudao.gateway.filter.grey;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.NumberUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.gateway.util.EnvUtils;
-import com.alibaba.cloud.nacos.balancer.NacosBalancer;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.client.ServiceInstance;
@@ -16,25 +17,38 @@ import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
 import org.springframework.http.HttpHeaders;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 
 /**
  * 灰度 {@link GrayLoadBalancer} 实现类
  *
- * 根据请求的 header[version] 匹配，筛选满足 metadata[version] 相等的服务实例列表，然后随机 + 权重进行选择一个
+ * 根据请求的 header[version] 匹配，筛选满足 metadata[version] 相等的服务实例列表，然后基于负载选择一个
  * 1. 假如请求的 header[version] 为空，则不进行筛选，所有服务实例都进行选择
  * 2. 如果 metadata[version] 都不相等，则不进行筛选，所有服务实例都进行选择
  *
- * 注意，考虑到实现的简易，它的权重是使用 Nacos 的 nacos.weight，所以随机 + 权重也是基于 {@link NacosBalancer} 筛选。
- * 也就是说，如果你不使用 Nacos 作为注册中心，需要微调一下筛选的实现逻辑
+ * 选择实例时，使用 Power of Two Choices：随机选择两个实例，选择负载分数（{@link GrayInstanceStats#getScore()} / 权重）较小的一个。
+ * 负载分数综合了响应耗时的 EWMA、进行中的请求数，GC 停顿等变慢的实例会自动减少流量。
+ * 权重使用 Nacos 的 metadata[nacos.weight]，如果你不使用 Nacos 作为注册中心，权重默认为 1
+ *
+ * 注意，每个 serviceId 一个 {@link GrayLoadBalancer} 对象，由 {@link GrayReactiveLoadBalancerClientFilter} 缓存，
+ * 服务实例列表变化时，预先计算好每个 version、tag 组合对应的实例列表，避免每个请求都进行筛选
  *
  * @author 芋道源码
  */
-@RequiredArgsConstructor
 @Slf4j
 public class GrayLoadBalancer implements ReactorServiceInstanceLoadBalancer {
 
     private static final String VERSION = "version";
+    private static final String NACOS_WEIGHT = "nacos.weight";
+
+    /**
+     * 请求的 tag 不匹配任何服务实例时，使用的 tag 标识
+     */
+    private static final String TAG_UNMATCHED = "\u0000";
 
     /**
      * 用于获取 serviceId 对应的服务实例的列表
@@ -42,11 +56,26 @@ public class GrayLoadBalancer implements ReactorServiceInstanceLoadBalancer {
     private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
     /**
      * 需要获取的服务实例名
-     *
-     * 暂时用于打印 logger 日志
      */
     private final String serviceId;
 
+    /**
+     * 服务实例列表的快照
+     */
+    private volatile InstanceSnapshot snapshot;
+    /**
+     * 服务实例的负载统计
+     *
+     * key：{@link #getInstanceKey(ServiceInstance)}
+     */
+    private final Map<String, GrayInstanceStats> instanceStats = new ConcurrentHashMap<>();
+
+    public GrayLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                            String serviceId) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+    }
+
     @Override
     public Mono<Response<ServiceInstance>> choose(Request request) {
         // 获得 HttpHeaders 属性，实现从 header 中获取 version
@@ -56,6 +85,21 @@ public class GrayLoadBalancer implements ReactorServiceInstanceLoadBalancer {
         return supplier.get(request).next().map(list -> getInstanceResponse(list, headers));
     }
 
+    /**
+     * 请求开始，记录到实例的负载统计
+     *
+     * 请求结束时，需要调用返回的统计对象的 {@link GrayInstanceStats#onComplete(long, boolean)} 方法。
+     * 不能按照实例重新查找：请求期间，统计对象可能被淘汰后重建，导致进行中的请求数对不上
+     *
+     * @param instance 服务实例
+     * @return 实例的负载统计
+     */
+    public GrayInstanceStats onStartRequest(ServiceInstance instance) {
+        GrayInstanceStats stats = instanceStats.computeIfAbsent(getInstanceKey(instance), this::createInstanceStats);
+        stats.onStart();
+        return stats;
+    }
+
     private Response<ServiceInstance> getInstanceResponse(List<ServiceInstance> instances, HttpHeaders headers) {
         // 如果服务实例为空，则直接返回
         if (CollUtil.isEmpty(instances)) {
@@ -63,55 +107,188 @@ public class GrayLoadBalancer implements ReactorServiceInstanceLoadBalancer {
             return new EmptyResponse();
         }
 
-        // 筛选满足 version 条件的实例列表
-        String version = headers.getFirst(VERSION);
-        List<ServiceInstance> chooseInstances;
-        if (StrUtil.isEmpty(version)) {
-            chooseInstances = instances;
-        } else {
-            chooseInstances = CollectionUtils.filterList(instances, instance -> version.equals(instance.getMetadata().get("version")));
-            if (CollUtil.isEmpty(chooseInstances)) {
-                log.warn("[getInstanceResponse][serviceId({}) 没有满足版本({})的服务实例列表，直接使用所有服务实例列表]", serviceId, version);
-                chooseInstances = instances;
+        // 获得满足 version、tag 条件的实例列表
+        List<ServiceInstance> chooseInstances = getSnapshot(instances).getInstances(
+                headers.getFirst(VERSION), EnvUtils.getTag(headers));
+
+        // Power of Two Choices + 负载分数，选择实例
+        return new DefaultResponse(chooseInstance(chooseInstances));
+    }
+
+    private ServiceInstance chooseInstance(List<ServiceInstance> instances) {
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance instance1 = instances.get(first);
+        ServiceInstance instance2 = instances.get(second);
+        return getScore(instance1) <= getScore(instance2) ? instance1 : instance2;
+    }
+
+    private double getScore(ServiceInstance instance) {
+        GrayInstanceStats stats = instanceStats.get(getInstanceKey(instance));
+        double score = stats != null ? stats.getScore() : 1D;
+        return score / getWeight(instance);
+    }
+
+    private InstanceSnapshot getSnapshot(List<ServiceInstance> instances) {
+        InstanceSnapshot snapshot = this.snapshot;
+        // ServiceInstanceListSupplier 有缓存，实例列表未变化时，返回的是同一个 List 对象
+        if (snapshot != null && snapshot.source == instances) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = this.snapshot;
+            if (snapshot != null && snapshot.source == instances) {
+                return snapshot;
             }
+            snapshot = new InstanceSnapshot(instances);
+            this.snapshot = snapshot;
+            // 移除已经下线的实例的负载统计
+            Set<String> instanceKeys = convertSet(instances, GrayLoadBalancer::getInstanceKey);
+            instanceStats.keySet().removeIf(key -> {
+                if (instanceKeys.contains(key)) {
+                    return false;
+                }
+                removeInstanceStats(instanceStats.get(key));
+                return true;
+            });
+            return snapshot;
         }
+    }
 
-        // 基于 tag 过滤实例列表
-        chooseInstances = filterTagServiceInstances(chooseInstances, headers);
+    private GrayInstanceStats createInstanceStats(String instanceKey) {
+        GrayInstanceStats stats = new GrayInstanceStats();
+        stats.setMeters(Arrays.asList(
+                Gauge.builder("yudao.gateway.loadbalancer.latency", stats, GrayInstanceStats::getLatencyMillis)
+                        .description("服务实例的响应耗时 EWMA").baseUnit("milliseconds")
+                        .tag("service", serviceId).tag("instance", instanceKey)
+                        .register(Metrics.globalRegistry),
+                Gauge.builder("yudao.gateway.loadbalancer.inflight", stats, GrayInstanceStats::getInflight)
+                        .description("服务实例进行中的请求数")
+                        .tag("service", serviceId).tag("instance", instanceKey)
+                        .register(Metrics.globalRegistry)));
+        return stats;
+    }
 
-        // 随机 + 权重获取实例列表 TODO 芋艿：目前直接使用 Nacos 提供的方法，如果替换注册中心，需要重新失败该方法
-        return new DefaultResponse(NacosBalancer.getHostByRandomWeight3(chooseInstances));
+    private static void removeInstanceStats(GrayInstanceStats stats) {
+        if (stats != null && stats.getMeters() != null) {
+            stats.getMeters().forEach(Metrics.globalRegistry::remove);
+        }
+    }
+
+    private static String getInstanceKey(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static double getWeight(ServiceInstance instance) {
+        String weight = instance.getMetadata().get(NACOS_WEIGHT);
+        return NumberUtil.isNumber(weight) ? Math.max(Double.parseDouble(weight), 0.0001D) : 1D;
     }
 
     /**
-     * 基于 tag 请求头，过滤匹配 tag 的服务实例列表
-     *
-     * copy from EnvLoadBalancerClient
-     *
-     * @param instances 服务实例列表
-     * @param headers 请求头
-     * @return 服务实例列表
+     * 服务实例列表的快照，预先计算好每个 version、tag 组合对应的实例列表
      */
-    private List<ServiceInstance> filterTagServiceInstances(List<ServiceInstance> instances, HttpHeaders headers) {
-        // 情况一，没有 tag 时，过滤掉有 tag 的节点。目的：避免 test 环境，打到本地有 tag 的实例
-        String tag = EnvUtils.getTag(headers);
-        if (StrUtil.isEmpty(tag)) {
-            List<ServiceInstance> chooseInstances = CollectionUtils.filterList(instances, instance -> StrUtil.isEmpty(EnvUtils.getTag(instance)));
-            // 【重要】补充说明：如果希望在 chooseInstances 为空时，不允许打到有 tag 的实例，可以取消注释下面的代码
+    private class InstanceSnapshot {
+
+        /**
+         * 原始的服务实例列表
+         */
+        private final List<ServiceInstance> source;
+        /**
+         * 服务实例的 version 集合
+         */
+        private final Set<String> versions;
+        /**
+         * 服务实例的 tag 集合
+         */
+        private final Set<String> tags;
+        /**
+         * version、tag 组合对应的实例列表
+         *
+         * key：{@link #buildKey(String, String)}
+         */
+        private final Map<String, List<ServiceInstance>> instancesMap = new HashMap<>();
+
+        private InstanceSnapshot(List<ServiceInstance> source) {
+            this.source = source;
+            this.versions = convertSet(source, instance -> instance.getMetadata().get(VERSION),
+                    instance -> StrUtil.isNotEmpty(instance.getMetadata().get(VERSION)));
+            this.tags = convertSet(source, EnvUtils::getTag, instance -> StrUtil.isNotEmpty(EnvUtils.getTag(instance)));
+            // 预先计算每个 version、tag 组合：version 为空表示不筛选，tag 为空表示筛选没有 tag 的实例
+            List<String> versionKeys = new ArrayList<>(versions);
+            versionKeys.add(null);
+            List<String> tagKeys = new ArrayList<>(tags);
+            tagKeys.add(null);
+            tagKeys.add(TAG_UNMATCHED);
+            for (String version : versionKeys) {
+                List<ServiceInstance> versionInstances = version == null ? source
+                        : CollectionUtils.filterList(source, instance -> version.equals(instance.getMetadata().get(VERSION)));
+                for (String tag : tagKeys) {
+                    instancesMap.put(buildKey(version, tag), filterTagServiceInstances(versionInstances, tag));
+                }
+            }
+        }
+
+        private List<ServiceInstance> getInstances(String version, String tag) {
+            // 筛选满足 version 条件的实例列表
+            if (StrUtil.isEmpty(version)) {
+                version = null;
+            } else if (!versions.contains(version)) {
+                log.warn("[getInstances][serviceId({}) 没有满足版本({})的服务实例列表，直接使用所有服务实例列表]", serviceId, version);
+                version = null;
+            }
+            // 基于 tag 过滤实例列表
+            if (StrUtil.isEmpty(tag)) {
+                tag = null;
+            } else if (!tags.contains(tag)) {
+                log.warn("[getInstances][serviceId({}) 没有满足 tag({}) 的服务实例列表，直接使用所有服务实例列表]", serviceId, tag);
+                tag = TAG_UNMATCHED;
+            }
+            return instancesMap.get(buildKey(version, tag));
+        }
+
+        /**
+         * 基于 tag，过滤匹配 tag 的服务实例列表
+         *
+         * copy from EnvLoadBalancerClient
+         *
+         * @param instances 服务实例列表
+         * @param tag       tag；null 表示请求没有 tag；{@link #TAG_UNMATCHED} 表示请求的 tag 不匹配任何实例
+         * @return 服务实例列表
+         */
+        private List<ServiceInstance> filterTagServiceInstances(List<ServiceInstance> instances, String tag) {
+            // 情况一，没有 tag 时，过滤掉有 tag 的节点。目的：避免 test 环境，打到本地有 tag 的实例
+            if (tag == null) {
+                List<ServiceInstance> chooseInstances = CollectionUtils.filterList(instances, instance -> StrUtil.isEmpty(EnvUtils.getTag(instance)));
+                // 【重要】补充说明：如果希望在 chooseInstances 为空时，不允许打到有 tag 的实例，可以取消注释下面的代码
+                if (CollUtil.isEmpty(chooseInstances)) {
+                    log.warn("[filterTagServiceInstances][serviceId({}) 没有不带 tag 的服务实例列表，直接使用所有服务实例列表]", serviceId);
+                    chooseInstances = instances;
+                }
+                return chooseInstances;
+            }
+
+            // 情况二，有 tag 时，使用 tag 匹配服务实例
+            List<ServiceInstance> chooseInstances = CollectionUtils.filterList(instances, instance -> tag.equals(EnvUtils.getTag(instance)));
             if (CollUtil.isEmpty(chooseInstances)) {
-                log.warn("[filterTagServiceInstances][serviceId({}) 没有不带 tag 的服务实例列表，直接使用所有服务实例列表]", serviceId);
+                if (!TAG_UNMATCHED.equals(tag)) {
+                    log.warn("[filterTagServiceInstances][serviceId({}) 没有满足 tag({}) 的服务实例列表，直接使用所有服务实例列表]", serviceId, tag);
+                }
                 chooseInstances = instances;
             }
             return chooseInstances;
         }
 
-        // 情况二，有 tag 时，使用 tag 匹配服务实例
-        List<ServiceInstance> chooseInstances = CollectionUtils.filterList(instances, instance -> tag.equals(EnvUtils.getTag(instance)));
-        if (CollUtil.isEmpty(chooseInstances)) {
-            log.warn("[filterTagServiceInstances][serviceId({}) 没有满足 tag({}) 的服务实例列表，直接使用所有服务实例列表]", serviceId, tag);
-            chooseInstances = instances;
+        private String buildKey(String version, String tag) {
+            return StrUtil.nullToEmpty(version) + "|" + StrUtil.nullToDefault(tag, "");
         }
-        return chooseInstances;
+
     }
 
 }
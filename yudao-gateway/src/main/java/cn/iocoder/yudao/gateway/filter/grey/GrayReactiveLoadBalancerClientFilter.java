@@ -16,10 +16,12 @@ import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import java.net.URI;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
 
@@ -33,6 +35,9 @@ import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*
  * 1. https://www.jianshu.com/p/6db15bc0be8f
  * 2. https://cloud.tencent.com/developer/article/1620795
  *
+ * 另外，请求开始时，调用 {@link GrayLoadBalancer#onStartRequest(ServiceInstance)} 方法；请求结束时，
+ * 回调其返回的 {@link GrayInstanceStats#onComplete(long, boolean)} 方法，记录实例的负载统计
+ *
  * @author 芋道源码
  */
 @Component
@@ -45,6 +50,22 @@ public class GrayReactiveLoadBalancerClientFilter implements GlobalFilter, Order
 
     private final GatewayLoadBalancerProperties properties;
 
+    /**
+     * 请求开始时间的 exchange 属性，单位：纳秒
+     */
+    private static final String GRAY_LOADBALANCER_START_ATTR = GrayReactiveLoadBalancerClientFilter.class.getName() + ".start";
+    /**
+     * 请求开始时的实例负载统计的 exchange 属性
+     */
+    private static final String GRAY_LOADBALANCER_STATS_ATTR = GrayReactiveLoadBalancerClientFilter.class.getName() + ".stats";
+
+    /**
+     * GrayLoadBalancer 缓存，保证同一个 serviceId 的负载统计是共享的
+     *
+     * key：serviceId
+     */
+    private final Map<String, GrayLoadBalancer> loadBalancers = new ConcurrentHashMap<>();
+
     @Override
     public int getOrder() {
         // https://github.com/YunaiV/yudao-cloud/pull/213
@@ -73,7 +94,8 @@ public class GrayReactiveLoadBalancerClientFilter implements GlobalFilter, Order
                         RequestDataContext.class, ResponseData.class, ServiceInstance.class);
         DefaultRequest<RequestDataContext> lbRequest = new DefaultRequest<>(
                 new RequestDataContext(new RequestData(exchange.getRequest()), getHint(serviceId)));
-        return choose(lbRequest, serviceId, supportedLifecycleProcessors).doOnNext(response -> {
+        GrayLoadBalancer loadBalancer = getLoadBalancer(serviceId);
+        return choose(loadBalancer, lbRequest, supportedLifecycleProcessors).doOnNext(response -> {
 
                     if (!response.hasServer()) {
                         supportedLifecycleProcessors.forEach(lifecycle -> lifecycle
@@ -103,6 +125,9 @@ public class GrayReactiveLoadBalancerClientFilter implements GlobalFilter, Order
                     exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
                     exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, response);
                     supportedLifecycleProcessors.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, response));
+                    // 新增 by 芋道源码：记录进行中的请求数
+                    exchange.getAttributes().put(GRAY_LOADBALANCER_STATS_ATTR, loadBalancer.onStartRequest(retrievedInstance));
+                    exchange.getAttributes().put(GRAY_LOADBALANCER_START_ATTR, System.nanoTime());
                 }).then(chain.filter(exchange))
                 .doOnError(throwable -> supportedLifecycleProcessors.forEach(lifecycle -> lifecycle
                         .onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
@@ -112,18 +137,35 @@ public class GrayReactiveLoadBalancerClientFilter implements GlobalFilter, Order
                         .onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
                                 CompletionContext.Status.SUCCESS, lbRequest,
                                 exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR),
-                                new ResponseData(exchange.getResponse(), new RequestData(exchange.getRequest()))))));
+                                new ResponseData(exchange.getResponse(), new RequestData(exchange.getRequest()))))))
+                // 新增 by 芋道源码：记录响应耗时，包括取消的情况
+                .doFinally(signal -> onCompleteRequest(exchange, signal));
+    }
+
+    private void onCompleteRequest(ServerWebExchange exchange, SignalType signal) {
+        Long start = exchange.getAttribute(GRAY_LOADBALANCER_START_ATTR);
+        GrayInstanceStats stats = exchange.getAttribute(GRAY_LOADBALANCER_STATS_ATTR);
+        if (start == null || stats == null) {
+            return;
+        }
+        boolean success = signal == SignalType.ON_COMPLETE
+                && (exchange.getResponse().getStatusCode() == null || !exchange.getResponse().getStatusCode().is5xxServerError());
+        // 使用请求开始时的统计对象，即使期间被淘汰重建，也不会让新对象的进行中请求数变成负数
+        stats.onComplete(System.nanoTime() - start, success);
     }
 
     protected URI reconstructURI(ServiceInstance serviceInstance, URI original) {
         return LoadBalancerUriTools.reconstructURI(serviceInstance, original);
     }
 
-    private Mono<Response<ServiceInstance>> choose(Request<RequestDataContext> lbRequest, String serviceId,
+    private GrayLoadBalancer getLoadBalancer(String serviceId) {
+        // 修改 by 芋道源码：使用缓存的 GrayLoadBalancer 对象
+        return loadBalancers.computeIfAbsent(serviceId, id -> new GrayLoadBalancer(
+                clientFactory.getLazyProvider(id, ServiceInstanceListSupplier.class), id));
+    }
+
+    private Mono<Response<ServiceInstance>> choose(GrayLoadBalancer loadBalancer, Request<RequestDataContext> lbRequest,
                                                    Set<LoadBalancerLifecycle> supportedLifecycleProcessors) {
-        // 修改 by 芋道源码：直接创建 GrayLoadBalancer 对象
-        GrayLoadBalancer loadBalancer = new GrayLoadBalancer(
-                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId);
         supportedLifecycleProcessors.forEach(lifecycle -> lifecycle.onStart(lbRequest));
         return loadBalancer.choose(lbRequest);
     }
@@ -17,6 +17,10 @@ public class AccessLog {
      * 链路追踪编号
      */
     private String traceId;
+    /**
+     * 租户编号
+     */
+    private Long tenantId;
     /**
      * 用户编号
      */
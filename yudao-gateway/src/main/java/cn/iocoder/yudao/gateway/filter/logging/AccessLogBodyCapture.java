@@ -0,0 +1,72 @@
+package cn.iocoder.yudao.gateway.filter.logging;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 请求体、响应体的有界采集
+ *
+ * 在 {@link DataBuffer} 流经网关时，只读取前 maxLength 个字节，不修改读取位置、不复制整个 DataBuffer，
+ * 原 DataBuffer 仍然原样转发，避免为了记录日志把整个 body 聚合到内存中
+ *
+ * @author 芋道源码
+ */
+public class AccessLogBodyCapture {
+
+    /**
+     * 截断时，追加的后缀
+     */
+    private static final String TRUNCATED_SUFFIX = "...(truncated)";
+
+    private final int maxLength;
+
+    private byte[] content;
+    private int length;
+    private boolean truncated;
+
+    public AccessLogBodyCapture(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * 采集 DataBuffer 的内容，超过 maxLength 的部分忽略
+     *
+     * @param buffer DataBuffer 对象
+     */
+    public synchronized void append(DataBuffer buffer) {
+        int readable = buffer.readableByteCount();
+        int count = Math.min(readable, maxLength - length);
+        if (count < readable) {
+            truncated = true;
+        }
+        if (count <= 0) {
+            return;
+        }
+        // 按需扩容，最多 maxLength 个字节
+        if (content == null || content.length < length + count) {
+            int capacity = Math.min(maxLength, Math.max(length + count, content == null ? 256 : content.length * 2));
+            content = content == null ? new byte[capacity] : Arrays.copyOf(content, capacity);
+        }
+        int position = buffer.readPosition();
+        for (int i = 0; i < count; i++) {
+            content[length + i] = buffer.getByte(position + i);
+        }
+        length += count;
+    }
+
+    /**
+     * 获得采集的内容
+     *
+     * @return 内容；没有采集到时，返回 null
+     */
+    public synchronized String getContent() {
+        if (length == 0) {
+            return truncated ? TRUNCATED_SUFFIX : null;
+        }
+        String result = new String(content, 0, length, StandardCharsets.UTF_8);
+        return truncated ? result + TRUNCATED_SUFFIX : result;
+    }
+
+}
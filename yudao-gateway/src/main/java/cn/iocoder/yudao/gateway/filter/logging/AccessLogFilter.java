@@ -1,9 +1,6 @@
 package cn.iocoder.yudao.gateway.filter.logging;
 
 import cn.hutool.core.date.LocalDateTimeUtil;
-import cn.hutool.core.map.MapUtil;
-import cn.hutool.json.JSONUtil;
-import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.gateway.util.SecurityFrameworkUtils;
 import cn.iocoder.yudao.gateway.util.WebFrameworkUtils;
 import com.alibaba.nacos.common.utils.StringUtils;
@@ -11,45 +8,33 @@ import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.cloud.gateway.filter.factory.rewrite.CachedBodyOutputMessage;
-import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyRequestBodyGatewayFilterFactory;
-import org.springframework.cloud.gateway.support.BodyInserterContext;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
-import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ReactiveHttpOutputMessage;
-import org.springframework.http.codec.CodecConfigurer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.BodyInserter;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import jakarta.annotation.Resource;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
-
-import static cn.hutool.core.date.DatePattern.NORM_DATETIME_MS_FORMATTER;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 网关的访问日志过滤器
  *
  * 从功能上，它类似 yudao-spring-boot-starter-web 的 ApiAccessLogFilter 过滤器
  *
+ * 1. 请求体、响应体在流经网关时，通过 {@link AccessLogBodyCapture} 只采集前 N 个字节，DataBuffer 原样转发，不进行聚合与复制
+ * 2. 日志通过 {@link AccessLogSink} 异步批量输出，支持按路由配置采样率，见 {@link AccessLogProperties}
+ *
  * TODO 芋艿：如果网关执行异常，不会记录访问日志，后续研究下 https://github.com/Silvmike/webflux-demo/blob/master/tests/src/test/java/ru/hardcoders/demo/webflux/web_handler/filters/logging
  *
  * @author 芋道源码
@@ -59,46 +44,25 @@ import static cn.hutool.core.date.DatePattern.NORM_DATETIME_MS_FORMATTER;
 public class AccessLogFilter implements GlobalFilter, Ordered {
 
     @Resource
-    private CodecConfigurer codecConfigurer;
+    private AccessLogProperties properties;
+
+    @Resource
+    private AccessLogSink accessLogSink;
 
     /**
-     * 打印日志
+     * 输出日志
      *
      * @param gatewayLog 网关日志
+     * @param requestBody 请求体的采集
+     * @param responseBody 响应体的采集
      */
-    private void writeAccessLog(AccessLog gatewayLog) {
-        // 方式一：打印 Logger 后，通过 ELK 进行收集
-        // log.info("[writeAccessLog][日志内容：{}]", JsonUtils.toJsonString(gatewayLog));
-
-        // 方式二：调用远程服务，记录到数据库中
-        // TODO 芋艿：暂未实现
-
-        // 方式三：打印到控制台，方便排查错误
-        try {
-            Map<String, Object> values = MapUtil.newHashMap(15, true); // 手工拼接，保证排序；15 保证不用扩容
-            values.put("userId", gatewayLog.getUserId());
-            values.put("userType", gatewayLog.getUserType());
-            values.put("routeId", gatewayLog.getRoute() != null ? gatewayLog.getRoute().getId() : null);
-            values.put("schema", gatewayLog.getSchema());
-            values.put("requestUrl", gatewayLog.getRequestUrl());
-            values.put("queryParams", gatewayLog.getQueryParams().toSingleValueMap());
-            values.put("requestBody", JsonUtils.isJson(gatewayLog.getRequestBody()) ? // 保证 body 的展示好看
-                    JSONUtil.parse(gatewayLog.getRequestBody()) : gatewayLog.getRequestBody());
-            values.put("requestHeaders", JsonUtils.toJsonString(gatewayLog.getRequestHeaders().toSingleValueMap()));
-            values.put("userIp", gatewayLog.getUserIp());
-            values.put("responseBody", JsonUtils.isJson(gatewayLog.getResponseBody()) ? // 保证 body 的展示好看
-                    JSONUtil.parse(gatewayLog.getResponseBody()) : gatewayLog.getResponseBody());
-            values.put("responseHeaders", gatewayLog.getResponseHeaders() != null ?
-                    JsonUtils.toJsonString(gatewayLog.getResponseHeaders().toSingleValueMap()) : null);
-            values.put("httpStatus", gatewayLog.getHttpStatus());
-            values.put("startTime", LocalDateTimeUtil.format(gatewayLog.getStartTime(), NORM_DATETIME_MS_FORMATTER));
-            values.put("endTime", LocalDateTimeUtil.format(gatewayLog.getEndTime(), NORM_DATETIME_MS_FORMATTER));
-            values.put("duration", gatewayLog.getDuration() != null ? gatewayLog.getDuration() + " ms" : null);
-            log.info("[writeAccessLog][网关日志：{}]", JsonUtils.toJsonPrettyString(values));
-        } catch (Exception e) {
-            // 兜底处理，参见 https://gitee.com/zhijiantianya/yudao-cloud/issues/IC9A70
-            log.error("[writeAccessLog][打印网关日志时，发生异常]", e);
+    private void writeAccessLog(AccessLog gatewayLog, AccessLogBodyCapture requestBody, AccessLogBodyCapture responseBody) {
+        if (requestBody != null) {
+            gatewayLog.setRequestBody(requestBody.getContent());
         }
+        gatewayLog.setResponseBody(responseBody.getContent());
+        // 放入队列，由 AccessLogSink 异步输出
+        accessLogSink.offer(gatewayLog);
     }
 
     @Override
@@ -108,11 +72,17 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // 未开启或者未被采样，则不记录
+        Route route = WebFrameworkUtils.getGatewayRoute(exchange);
+        if (!isSampled(route)) {
+            return chain.filter(exchange);
+        }
+
         // 将 Request 中可以直接获取到的参数，设置到网关日志
         ServerHttpRequest request = exchange.getRequest();
         // TODO traceId
         AccessLog gatewayLog = new AccessLog();
-        gatewayLog.setRoute(WebFrameworkUtils.getGatewayRoute(exchange));
+        gatewayLog.setRoute(route);
         gatewayLog.setSchema(request.getURI().getScheme());
         gatewayLog.setRequestMethod(request.getMethod().name());
         gatewayLog.setRequestUrl(request.getURI().getRawPath());
@@ -120,71 +90,66 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
         gatewayLog.setRequestHeaders(request.getHeaders());
         gatewayLog.setStartTime(LocalDateTime.now());
         gatewayLog.setUserIp(WebFrameworkUtils.getClientIP(exchange));
+        gatewayLog.setTenantId(WebFrameworkUtils.getTenantId(exchange));
 
-        // 继续 filter 过滤
+        // 包装 Request，用于记录 Request Body。只适合 JSON 和 Form 提交的请求
+        ServerWebExchange.Builder builder = exchange.mutate();
+        AccessLogBodyCapture requestBody = null;
         MediaType mediaType = request.getHeaders().getContentType();
         if (MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(mediaType)
-                || MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) { // 适合 JSON 和 Form 提交的请求
-            return filterWithRequestBody(exchange, chain, gatewayLog);
+                || MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) {
+            requestBody = new AccessLogBodyCapture(properties.getMaxBodyLength());
+            builder.request(recordRequestLog(request, requestBody));
         }
-        return filterWithoutRequestBody(exchange, chain, gatewayLog);
+        // 包装 Response，用于记录 Response Body
+        AccessLogBodyCapture responseBody = new AccessLogBodyCapture(properties.getMaxBodyLength());
+        builder.response(recordResponseLog(exchange, gatewayLog, responseBody));
+        // 继续 filter 过滤
+        AccessLogBodyCapture finalRequestBody = requestBody;
+        return chain.filter(builder.build())
+                .then(Mono.fromRunnable(() -> writeAccessLog(gatewayLog, finalRequestBody, responseBody))); // 输出日志
     }
 
-    private Mono<Void> filterWithoutRequestBody(ServerWebExchange exchange, GatewayFilterChain chain, AccessLog accessLog) {
-        // 包装 Response，用于记录 Response Body
-        ServerHttpResponseDecorator decoratedResponse = recordResponseLog(exchange, accessLog);
-        return chain.filter(exchange.mutate().response(decoratedResponse).build())
-                .then(Mono.fromRunnable(() -> writeAccessLog(accessLog))); // 打印日志
+    private boolean isSampled(Route route) {
+        if (!properties.isEnable()) {
+            return false;
+        }
+        Double sampleRate = route != null ? properties.getRouteSampleRates().get(route.getId()) : null;
+        if (sampleRate == null) {
+            sampleRate = properties.getSampleRate();
+        }
+        return sampleRate >= 1D || ThreadLocalRandom.current().nextDouble() < sampleRate;
     }
 
     /**
-     * 参考 {@link ModifyRequestBodyGatewayFilterFactory} 实现
+     * 记录请求日志
      *
-     * 差别主要在于使用 modifiedBody 来读取 Request Body 数据
+     * 在 Request Body 被转发读取时，采集前 N 个字节，无需提前读取、缓存整个 Request Body
      */
-    private Mono<Void> filterWithRequestBody(ServerWebExchange exchange, GatewayFilterChain chain, AccessLog gatewayLog) {
-        // 设置 Request Body 读取时，设置到网关日志
-        // 此处 codecConfigurer.getReaders() 的目的，是解决 spring.codec.max-in-memory-size 不生效
-        ServerRequest serverRequest = ServerRequest.create(exchange, codecConfigurer.getReaders());
-        Mono<String> modifiedBody = serverRequest.bodyToMono(String.class).flatMap(body -> {
-            gatewayLog.setRequestBody(body);
-            return Mono.just(body);
-        });
+    private ServerHttpRequestDecorator recordRequestLog(ServerHttpRequest request, AccessLogBodyCapture requestBody) {
+        return new ServerHttpRequestDecorator(request) {
 
-        // 创建 BodyInserter 对象
-        BodyInserter<Mono<String>, ReactiveHttpOutputMessage> bodyInserter = BodyInserters.fromPublisher(modifiedBody, String.class);
-        // 创建 CachedBodyOutputMessage 对象
-        HttpHeaders headers = new HttpHeaders();
-        headers.putAll(exchange.getRequest().getHeaders());
-        // the new content type will be computed by bodyInserter
-        // and then set in the request decorator
-        headers.remove(HttpHeaders.CONTENT_LENGTH); // 移除
-        CachedBodyOutputMessage outputMessage = new CachedBodyOutputMessage(exchange, headers);
-        // 通过 BodyInserter 将 Request Body 写入到 CachedBodyOutputMessage 中
-        return bodyInserter.insert(outputMessage, new BodyInserterContext()).then(Mono.defer(() -> {
-            // 包装 Request，用于缓存 Request Body
-            ServerHttpRequest decoratedRequest = requestDecorate(exchange, headers, outputMessage);
-            // 包装 Response，用于记录 Response Body
-            ServerHttpResponseDecorator decoratedResponse = recordResponseLog(exchange, gatewayLog);
-            // 记录普通的
-            return chain.filter(exchange.mutate().request(decoratedRequest).response(decoratedResponse).build())
-                    .then(Mono.fromRunnable(() -> writeAccessLog(gatewayLog))); // 打印日志
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return super.getBody().doOnNext(requestBody::append);
+            }
 
-        }));
+        };
     }
 
     /**
      * 记录响应日志
-     * 通过 DataBufferFactory 解决响应体分段传输问题。
+     *
+     * 在 Response Body 分段写出时，采集前 N 个字节，DataBuffer 原样写出
      */
-    private ServerHttpResponseDecorator recordResponseLog(ServerWebExchange exchange, AccessLog gatewayLog) {
+    private ServerHttpResponseDecorator recordResponseLog(ServerWebExchange exchange, AccessLog gatewayLog,
+                                                          AccessLogBodyCapture responseBody) {
         ServerHttpResponse response = exchange.getResponse();
         return new ServerHttpResponseDecorator(response) {
 
             @Override
             public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
                 if (body instanceof Flux) {
-                    DataBufferFactory bufferFactory = response.bufferFactory();
                     // 计算执行时间
                     gatewayLog.setEndTime(LocalDateTime.now());
                     gatewayLog.setDuration((int) (LocalDateTimeUtil.between(gatewayLog.getStartTime(),
@@ -195,20 +160,11 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
                     gatewayLog.setResponseHeaders(response.getHeaders());
                     gatewayLog.setHttpStatus((HttpStatus) response.getStatusCode());
 
-                    // 获取响应类型，如果是 json 就打印
+                    // 获取响应类型，如果是 json 就记录
                     String originalResponseContentType = exchange.getAttribute(ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR);
                     if (StringUtils.isNotBlank(originalResponseContentType)
                             && originalResponseContentType.contains("application/json")) {
-                        Flux<? extends DataBuffer> fluxBody = Flux.from(body);
-                        return super.writeWith(fluxBody.buffer().map(dataBuffers -> {
-                            // 设置 response body 到网关日志
-                            byte[] content = readContent(dataBuffers);
-                            String responseResult = new String(content, StandardCharsets.UTF_8);
-                            gatewayLog.setResponseBody(responseResult);
-
-                            // 响应
-                            return bufferFactory.wrap(content);
-                        }));
+                        return super.writeWith(Flux.from(body).doOnNext(responseBody::append));
                     }
                 }
                 // if body is not a flux. never got there.
@@ -217,52 +173,4 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
         };
     }
 
-    // ========== 参考 ModifyRequestBodyGatewayFilterFactory 中的方法 ==========
-
-    /**
-     * 请求装饰器，支持重新计算 headers、body 缓存
-     *
-     * @param exchange 请求
-     * @param headers 请求头
-     * @param outputMessage body 缓存
-     * @return 请求装饰器
-     */
-    private ServerHttpRequestDecorator requestDecorate(ServerWebExchange exchange, HttpHeaders headers, CachedBodyOutputMessage outputMessage) {
-        return new ServerHttpRequestDecorator(exchange.getRequest()) {
-
-            @Override
-            public HttpHeaders getHeaders() {
-                long contentLength = headers.getContentLength();
-                HttpHeaders httpHeaders = new HttpHeaders();
-                httpHeaders.putAll(super.getHeaders());
-                if (contentLength > 0) {
-                    httpHeaders.setContentLength(contentLength);
-                } else {
-                    // TODO: this causes a 'HTTP/1.1 411 Length Required' // on
-                    // httpbin.org
-                    httpHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
-                }
-                return httpHeaders;
-            }
-
-            @Override
-            public Flux<DataBuffer> getBody() {
-                return outputMessage.getBody();
-            }
-        };
-    }
-
-    // ========== 参考 ModifyResponseBodyGatewayFilterFactory 中的方法 ==========
-
-    private byte[] readContent(List<? extends DataBuffer> dataBuffers) {
-        // 合并多个流集合，解决返回体分段传输
-        DataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
-        DataBuffer join = dataBufferFactory.join(dataBuffers);
-        byte[] content = new byte[join.readableByteCount()];
-        join.read(content);
-        // 释放掉内存
-        DataBufferUtils.release(join);
-        return content;
-    }
-
 }
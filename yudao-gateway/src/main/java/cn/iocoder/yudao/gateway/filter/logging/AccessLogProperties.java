@@ -0,0 +1,85 @@
+package cn.iocoder.yudao.gateway.filter.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 网关访问日志的配置属性
+ *
+ * @author 芋道源码
+ */
+@Component
+@ConfigurationProperties(prefix = "yudao.gateway.access-log")
+@Validated
+@Data
+public class AccessLogProperties {
+
+    /**
+     * 是否开启，默认为 true
+     */
+    private boolean enable = true;
+    /**
+     * 日志的输出方式，默认为 {@link SinkType#LOGGER}
+     */
+    @NotNull(message = "输出方式不能为空")
+    private SinkType sink = SinkType.LOGGER;
+
+    /**
+     * 默认的采样率，范围为 [0, 1]，默认为 1 全部记录
+     */
+    @DecimalMin("0")
+    @DecimalMax("1")
+    private double sampleRate = 1D;
+    /**
+     * 每个路由的采样率，优先于 {@link #sampleRate}
+     *
+     * key：路由编号，例如说 system-admin-api
+     */
+    private Map<String, Double> routeSampleRates = Collections.emptyMap();
+
+    /**
+     * 请求体、响应体最多记录的字节数，超过的部分截断
+     */
+    @Min(0)
+    private int maxBodyLength = 4096;
+
+    /**
+     * 待输出日志的队列容量，队列满时丢弃
+     */
+    @Min(1)
+    private int queueCapacity = 10000;
+    /**
+     * 每批输出的日志数量
+     */
+    @Min(1)
+    private int batchSize = 200;
+    /**
+     * 输出的间隔
+     */
+    @NotNull(message = "输出间隔不能为空")
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    public enum SinkType {
+
+        /**
+         * 打印 Logger，可通过 logback 配置输出到滚动的本地文件，再由 ELK 等进行收集
+         */
+        LOGGER,
+        /**
+         * 批量调用 infra-server 的 ApiAccessLogCommonApi，记录到数据库中
+         */
+        REMOTE
+
+    }
+
+}
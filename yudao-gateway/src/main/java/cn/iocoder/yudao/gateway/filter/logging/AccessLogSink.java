@@ -0,0 +1,229 @@
+package cn.iocoder.yudao.gateway.filter.logging;
+
+import cn.hutool.core.date.LocalDateTimeUtil;
+import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONUtil;
+import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiAccessLogCommonApi;
+import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiAccessLogCreateReqDTO;
+import cn.iocoder.yudao.framework.common.enums.RpcConstants;
+import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants;
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cn.hutool.core.date.DatePattern.NORM_DATETIME_MS_FORMATTER;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * 网关访问日志的异步输出
+ *
+ * 1. 请求线程只把 {@link AccessLog} 放入无锁队列，JSON 序列化、远程调用都在独立的线程中批量执行，不阻塞 Netty 线程
+ * 2. 队列有界，满时直接丢弃，并记录到 yudao.gateway.access-log.dropped 指标，避免日志拖垮网关
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class AccessLogSink {
+
+    private static final String URL_CREATE_LIST = "http://" + RpcConstants.INFRA_NAME + ApiAccessLogCommonApi.PREFIX + "/create-list";
+
+    /**
+     * 远程调用的超时时间
+     */
+    private static final Duration REMOTE_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final TypeReference<CommonResult<Boolean>> RESULT_TYPE_REFERENCE
+            = new TypeReference<CommonResult<Boolean>>() {};
+
+    private final AccessLogProperties properties;
+
+    private final WebClient webClient;
+
+    /**
+     * 待输出的日志队列
+     *
+     * 因为 {@link ConcurrentLinkedQueue#size()} 需要遍历，所以使用 {@link #queueSize} 计数，实现有界
+     */
+    private final Queue<AccessLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    /**
+     * 队列满时，丢弃的日志数量
+     */
+    private final Counter queueFullCounter;
+    /**
+     * 输出失败时，丢弃的日志数量
+     */
+    private final Counter sendFailedCounter;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            ThreadFactoryBuilder.create().setNamePrefix("yudao-gateway-access-log-").setDaemon(true).build());
+
+    public AccessLogSink(AccessLogProperties properties, ReactorLoadBalancerExchangeFilterFunction lbFunction) {
+        this.properties = properties;
+        this.webClient = WebClient.builder().filter(lbFunction).build();
+        this.queueFullCounter = Counter.builder("yudao.gateway.access-log.dropped").tag("reason", "queue_full")
+                .description("网关访问日志的丢弃数量").register(Metrics.globalRegistry);
+        this.sendFailedCounter = Counter.builder("yudao.gateway.access-log.dropped").tag("reason", "send_failed")
+                .description("网关访问日志的丢弃数量").register(Metrics.globalRegistry);
+        Gauge.builder("yudao.gateway.access-log.queue", queueSize, AtomicInteger::get)
+                .description("网关访问日志的待输出数量").register(Metrics.globalRegistry);
+        long interval = properties.getFlushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 添加访问日志，队列满时丢弃
+     *
+     * @param accessLog 访问日志
+     * @return 是否添加成功
+     */
+    public boolean offer(AccessLog accessLog) {
+        if (queueSize.incrementAndGet() > properties.getQueueCapacity()) {
+            queueSize.decrementAndGet();
+            queueFullCounter.increment();
+            return false;
+        }
+        queue.offer(accessLog);
+        return true;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+        // 关闭前，输出剩余的日志
+        flush();
+    }
+
+    private synchronized void flush() {
+        try {
+            List<AccessLog> batch;
+            while (!(batch = poll(properties.getBatchSize())).isEmpty()) {
+                write(batch);
+            }
+        } catch (Throwable ex) {
+            // 兜底处理，避免异常导致定时任务终止
+            log.error("[flush][输出网关日志时，发生异常]", ex);
+        }
+    }
+
+    private List<AccessLog> poll(int size) {
+        List<AccessLog> batch = new ArrayList<>(Math.min(size, queueSize.get()));
+        AccessLog accessLog;
+        while (batch.size() < size && (accessLog = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            batch.add(accessLog);
+        }
+        return batch;
+    }
+
+    private void write(List<AccessLog> batch) {
+        if (properties.getSink() == AccessLogProperties.SinkType.REMOTE) {
+            writeRemote(batch);
+            return;
+        }
+        batch.forEach(this::writeLogger);
+    }
+
+    // ========== 方式一：打印 Logger ==========
+
+    private void writeLogger(AccessLog gatewayLog) {
+        try {
+            Map<String, Object> values = MapUtil.newHashMap(15, true); // 手工拼接，保证排序；15 保证不用扩容
+            values.put("userId", gatewayLog.getUserId());
+            values.put("userType", gatewayLog.getUserType());
+            values.put("routeId", gatewayLog.getRoute() != null ? gatewayLog.getRoute().getId() : null);
+            values.put("schema", gatewayLog.getSchema());
+            values.put("requestUrl", gatewayLog.getRequestUrl());
+            values.put("queryParams", gatewayLog.getQueryParams().toSingleValueMap());
+            values.put("requestBody", JsonUtils.isJson(gatewayLog.getRequestBody()) ? // 保证 body 的展示好看
+                    JSONUtil.parse(gatewayLog.getRequestBody()) : gatewayLog.getRequestBody());
+            values.put("requestHeaders", JsonUtils.toJsonString(gatewayLog.getRequestHeaders().toSingleValueMap()));
+            values.put("userIp", gatewayLog.getUserIp());
+            values.put("responseBody", JsonUtils.isJson(gatewayLog.getResponseBody()) ? // 保证 body 的展示好看
+                    JSONUtil.parse(gatewayLog.getResponseBody()) : gatewayLog.getResponseBody());
+            values.put("responseHeaders", gatewayLog.getResponseHeaders() != null ?
+                    JsonUtils.toJsonString(gatewayLog.getResponseHeaders().toSingleValueMap()) : null);
+            values.put("httpStatus", gatewayLog.getHttpStatus());
+            values.put("startTime", LocalDateTimeUtil.format(gatewayLog.getStartTime(), NORM_DATETIME_MS_FORMATTER));
+            values.put("endTime", LocalDateTimeUtil.format(gatewayLog.getEndTime(), NORM_DATETIME_MS_FORMATTER));
+            values.put("duration", gatewayLog.getDuration() != null ? gatewayLog.getDuration() + " ms" : null);
+            log.info("[writeLogger][网关日志：{}]", JsonUtils.toJsonString(values));
+        } catch (Exception e) {
+            // 兜底处理，参见 https://gitee.com/zhijiantianya/yudao-cloud/issues/IC9A70
+            log.error("[writeLogger][打印网关日志时，发生异常]", e);
+        }
+    }
+
+    // ========== 方式二：调用远程服务，记录到数据库中 ==========
+
+    private void writeRemote(List<AccessLog> batch) {
+        try {
+            String body = webClient.post().uri(URL_CREATE_LIST)
+                    .bodyValue(convertList(batch, this::buildApiAccessLog))
+                    .retrieve().bodyToMono(String.class)
+                    .block(REMOTE_TIMEOUT);
+            CommonResult<Boolean> result = JsonUtils.parseObject(body, RESULT_TYPE_REFERENCE);
+            if (result == null || result.isError()) {
+                log.error("[writeRemote][批量记录网关日志({}) 失败，结果({})]", batch.size(), body);
+                sendFailedCounter.increment(batch.size());
+            }
+        } catch (Exception ex) {
+            log.error("[writeRemote][批量记录网关日志({}) 发生异常]", batch.size(), ex);
+            sendFailedCounter.increment(batch.size());
+        }
+    }
+
+    private ApiAccessLogCreateReqDTO buildApiAccessLog(AccessLog gatewayLog) {
+        ApiAccessLogCreateReqDTO accessLog = new ApiAccessLogCreateReqDTO();
+        accessLog.setTraceId(gatewayLog.getTraceId());
+        accessLog.setTenantId(gatewayLog.getTenantId());
+        accessLog.setUserId(gatewayLog.getUserId());
+        accessLog.setUserType(gatewayLog.getUserType());
+        accessLog.setApplicationName(gatewayLog.getRoute() != null ? gatewayLog.getRoute().getUri().getHost() : "gateway-server");
+        accessLog.setRequestMethod(gatewayLog.getRequestMethod());
+        accessLog.setRequestUrl(gatewayLog.getRequestUrl());
+        Map<String, Object> requestParams = MapUtil.newHashMap(2, true);
+        requestParams.put("query", gatewayLog.getQueryParams().toSingleValueMap());
+        requestParams.put("body", gatewayLog.getRequestBody());
+        accessLog.setRequestParams(JsonUtils.toJsonString(requestParams));
+        accessLog.setResponseBody(gatewayLog.getResponseBody());
+        accessLog.setUserIp(gatewayLog.getUserIp());
+        accessLog.setUserAgent(StrUtil.nullToEmpty(gatewayLog.getRequestHeaders().getFirst(HttpHeaders.USER_AGENT)));
+        accessLog.setBeginTime(gatewayLog.getStartTime());
+        accessLog.setEndTime(gatewayLog.getEndTime());
+        accessLog.setDuration(gatewayLog.getDuration());
+        // 网关不解析响应体，只根据 HTTP 状态码判断结果
+        if (gatewayLog.getHttpStatus() == null || gatewayLog.getHttpStatus().is2xxSuccessful()) {
+            accessLog.setResultCode(GlobalErrorCodeConstants.SUCCESS.getCode());
+        } else {
+            accessLog.setResultCode(gatewayLog.getHttpStatus().value());
+            accessLog.setResultMsg(gatewayLog.getHttpStatus().getReasonPhrase());
+        }
+        return accessLog;
+    }
+
+}
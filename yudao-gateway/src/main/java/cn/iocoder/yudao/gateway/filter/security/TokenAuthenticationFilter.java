@@ -3,6 +3,7 @@ package cn.iocoder.yudao.gateway.filter.security;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.util.cache.CaffeineCacheUtils;
 import cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.gateway.util.SecurityFrameworkUtils;
@@ -10,8 +11,9 @@ import cn.iocoder.yudao.gateway.util.WebFrameworkUtils;
 import cn.iocoder.yudao.framework.common.biz.system.oauth2.OAuth2TokenCommonApi;
 import cn.iocoder.yudao.framework.common.biz.system.oauth2.dto.OAuth2AccessTokenCheckRespDTO;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -23,10 +25,8 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.function.Function;
-
-import static cn.iocoder.yudao.framework.common.util.cache.CacheUtils.buildAsyncReloadingCache;
 
 /**
  * Token 过滤器，验证 token 的有效性
@@ -53,6 +53,15 @@ public class TokenAuthenticationFilter implements GlobalFilter, Ordered {
      */
     private static final LoginUser LOGIN_USER_EMPTY = new LoginUser();
 
+    /**
+     * 登录用户的缓存时长
+     */
+    private static final Duration LOGIN_USER_CACHE_TTL = Duration.ofMinutes(1);
+    /**
+     * 无效令牌（{@link #LOGIN_USER_EMPTY}）的缓存时长，避免无效令牌反复请求 system-server
+     */
+    private static final Duration LOGIN_USER_EMPTY_CACHE_TTL = Duration.ofSeconds(5);
+
     private final WebClient webClient;
 
     /**
@@ -61,16 +70,10 @@ public class TokenAuthenticationFilter implements GlobalFilter, Ordered {
      * key1：多租户的编号
      * key2：访问令牌
      */
-    private final LoadingCache<KeyValue<Long, String>, LoginUser> loginUserCache = buildAsyncReloadingCache(Duration.ofMinutes(1),
-            new CacheLoader<KeyValue<Long, String>, LoginUser>() {
-
-                @Override
-                public LoginUser load(KeyValue<Long, String> token) {
-                    String body = checkAccessToken(token.getKey(), token.getValue()).block();
-                    return buildUser(body);
-                }
-
-            });
+    private final AsyncLoadingCache<KeyValue<Long, String>, LoginUser> loginUserCache = CaffeineCacheUtils.buildAsyncCache(
+            "gateway.loginUser", Caffeine.newBuilder().maximumSize(10000).expireAfter(new LoginUserExpiry()),
+            // 异步加载，不阻塞 Netty 线程；同一个 key 并发访问时，只会请求一次远程服务
+            (key, executor) -> checkAccessToken(key.getKey(), key.getValue()).mapNotNull(this::buildUser).toFuture());
 
     public TokenAuthenticationFilter(ReactorLoadBalancerExchangeFilterFunction lbFunction) {
         // Q：为什么不使用 OAuth2TokenApi 进行调用？
@@ -111,24 +114,11 @@ public class TokenAuthenticationFilter implements GlobalFilter, Ordered {
     }
 
     private Mono<LoginUser> getLoginUser(ServerWebExchange exchange, String token) {
-        // 从缓存中，获取 LoginUser
+        // 从缓存中，获取 LoginUser；缓存不存在时，请求远程服务。结果为 null 时，不进行缓存，返回 Mono.empty()
         Long tenantId = WebFrameworkUtils.getTenantId(exchange);
         KeyValue<Long, String> cacheKey = new KeyValue<Long, String>().setKey(tenantId).setValue(token);
-        LoginUser localUser = loginUserCache.getIfPresent(cacheKey);
-        if (localUser != null) {
-            return Mono.just(localUser);
-        }
-
-        // 缓存不存在，则请求远程服务
-        return checkAccessToken(tenantId, token).flatMap((Function<String, Mono<LoginUser>>) body -> {
-            LoginUser remoteUser = buildUser(body);
-            if (remoteUser != null) {
-                // 非空，则进行缓存
-                loginUserCache.put(cacheKey, remoteUser);
-                return Mono.just(remoteUser);
-            }
-            return Mono.empty();
-        });
+        // suppressCancel 为 true：请求取消时，不取消共享的 CompletableFuture，避免影响同一个 key 的其它请求
+        return Mono.fromFuture(() -> loginUserCache.get(cacheKey), true);
     }
 
     private Mono<String> checkAccessToken(Long tenantId, String token) {
@@ -165,4 +155,37 @@ public class TokenAuthenticationFilter implements GlobalFilter, Ordered {
         return -100; // 和 Spring Security Filter 的顺序对齐
     }
 
+    /**
+     * 登录用户的缓存过期策略
+     *
+     * 1. 无效令牌，缓存 {@link #LOGIN_USER_EMPTY_CACHE_TTL}
+     * 2. 有效令牌，缓存 {@link #LOGIN_USER_CACHE_TTL}，并且不超过令牌的过期时间
+     */
+    private static class LoginUserExpiry implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            LoginUser user = (LoginUser) value;
+            if (user == LOGIN_USER_EMPTY || user.getExpiresTime() == null) {
+                return LOGIN_USER_EMPTY_CACHE_TTL.toNanos();
+            }
+            Duration ttl = Duration.between(LocalDateTime.now(), user.getExpiresTime());
+            if (ttl.isNegative()) {
+                return 0L;
+            }
+            return Math.min(ttl.toNanos(), LOGIN_USER_CACHE_TTL.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
 }
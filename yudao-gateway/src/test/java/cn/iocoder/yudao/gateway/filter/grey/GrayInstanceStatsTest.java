@@ -0,0 +1,82 @@
+package cn.iocoder.yudao.gateway.filter.grey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link GrayInstanceStats} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class GrayInstanceStatsTest {
+
+    @Test
+    public void testGetScore_noSample() {
+        // 准备参数
+        GrayInstanceStats stats = new GrayInstanceStats();
+
+        // 调用，并断言：没有请求的新实例，优先选择
+        assertEquals(1D, stats.getScore());
+    }
+
+    @Test
+    public void testGetScore_noSampleWithInflight() {
+        // 准备参数：新实例的首个请求还没返回
+        GrayInstanceStats stats = new GrayInstanceStats();
+        stats.onStart();
+        // 准备参数：已有样本的慢实例，且有多个进行中的请求
+        GrayInstanceStats slow = new GrayInstanceStats();
+        slow.onStart();
+        slow.onComplete(TimeUnit.SECONDS.toNanos(5), true);
+        for (int i = 0; i < 100; i++) {
+            slow.onStart();
+        }
+
+        // 调用，并断言：返回惩罚分数，不再继续涌向新实例
+        assertEquals(GrayInstanceStats.PENALTY_SCORE, stats.getScore());
+        assertTrue(stats.getScore() > slow.getScore());
+    }
+
+    @Test
+    public void testGetScore_sampled() {
+        // 准备参数
+        GrayInstanceStats stats = new GrayInstanceStats();
+        stats.onStart();
+        stats.onComplete(TimeUnit.MILLISECONDS.toNanos(10), true);
+        stats.onStart();
+
+        // 调用
+        double score = stats.getScore();
+        // 断言：有样本后，按照 EWMA * (进行中的请求数 + 1) 计算
+        assertTrue(score < GrayInstanceStats.PENALTY_SCORE);
+        assertTrue(score > TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(score <= (TimeUnit.MILLISECONDS.toNanos(10) + 1) * 2);
+    }
+
+    @Test
+    public void testGetScore_failure() {
+        // 准备参数：请求失败，按照最小 1 秒计入
+        GrayInstanceStats stats = new GrayInstanceStats();
+        stats.onStart();
+        stats.onComplete(TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        // 调用，并断言
+        assertEquals(0, stats.getInflight());
+        assertTrue(stats.getLatencyMillis() > 900);
+    }
+
+    @Test
+    public void testOnComplete_inflightNotNegative() {
+        // 准备参数
+        GrayInstanceStats stats = new GrayInstanceStats();
+
+        // 调用：没有 onStart 的 onComplete，例如取消后又完成
+        stats.onComplete(TimeUnit.MILLISECONDS.toNanos(1), true);
+        // 断言
+        assertEquals(0, stats.getInflight());
+    }
+
+}
@@ -3,11 +3,13 @@ package cn.iocoder.yudao.module.infra.api.logger;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiAccessLogCommonApi;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiAccessLogCreateReqDTO;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
 import cn.iocoder.yudao.module.infra.service.logger.ApiAccessLogService;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.annotation.Resource;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 
@@ -24,4 +26,11 @@ public class ApiAccessLogApiImpl implements ApiAccessLogCommonApi {
         return success(true);
     }
 
+    @Override
+    @TenantIgnore // 批量日志可能来自不同租户，且由后台线程发起，租户编号由每条日志各自携带
+    public CommonResult<Boolean> createApiAccessLogList(List<ApiAccessLogCreateReqDTO> createDTOs) {
+        apiAccessLogService.createApiAccessLogList(createDTOs);
+        return success(true);
+    }
+
 }
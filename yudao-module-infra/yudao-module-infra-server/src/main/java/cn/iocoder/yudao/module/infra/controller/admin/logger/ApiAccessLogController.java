@@ -22,7 +22,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
-import java.util.List;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
@@ -50,11 +49,11 @@ public class ApiAccessLogController {
     @ApiAccessLog(operateType = EXPORT)
     public void exportApiAccessLogExcel(@Valid ApiAccessLogPageReqVO exportReqVO,
                                         HttpServletResponse response) throws IOException {
-        exportReqVO.setPageSize(PageParam.PAGE_SIZE_NONE);
-        List<ApiAccessLogDO> list = apiAccessLogService.getApiAccessLogPage(exportReqVO).getList();
-        // 导出 Excel
-        ExcelUtils.write(response, "API 访问日志.xls", "数据", ApiAccessLogRespVO.class,
-                BeanUtils.toBean(list, ApiAccessLogRespVO.class));
+        exportReqVO.setPageSize(PageParam.PAGE_SIZE_EXPORT);
+        ExcelUtils.write(response, "API 访问日志.xls", "数据", ApiAccessLogRespVO.class, cursor -> {
+            exportReqVO.setCursor(cursor);
+            return BeanUtils.toBean(apiAccessLogService.getApiAccessLogPage(exportReqVO), ApiAccessLogRespVO.class);
+        });
     }
 
 }
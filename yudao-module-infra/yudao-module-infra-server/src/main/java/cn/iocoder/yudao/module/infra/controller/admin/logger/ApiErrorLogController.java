@@ -22,7 +22,6 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.util.List;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
@@ -64,11 +63,11 @@ public class ApiErrorLogController {
     @ApiAccessLog(operateType = EXPORT)
     public void exportApiErrorLogExcel(@Valid ApiErrorLogPageReqVO exportReqVO,
               HttpServletResponse response) throws IOException {
-        exportReqVO.setPageSize(PageParam.PAGE_SIZE_NONE);
-        List<ApiErrorLogDO> list = apiErrorLogService.getApiErrorLogPage(exportReqVO).getList();
-        // 导出 Excel
-        ExcelUtils.write(response, "API 错误日志.xls", "数据", ApiErrorLogRespVO.class,
-                BeanUtils.toBean(list, ApiErrorLogRespVO.class));
+        exportReqVO.setPageSize(PageParam.PAGE_SIZE_EXPORT);
+        ExcelUtils.write(response, "API 错误日志.xls", "数据", ApiErrorLogRespVO.class, cursor -> {
+            exportReqVO.setCursor(cursor);
+            return BeanUtils.toBean(apiErrorLogService.getApiErrorLogPage(exportReqVO), ApiErrorLogRespVO.class);
+        });
     }
 
 }
@@ -1,6 +1,6 @@
 package cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apierrorlog;
 
-import cn.iocoder.yudao.framework.common.pojo.PageParam;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageParam;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -11,7 +11,7 @@ import static cn.iocoder.yudao.framework.common.util.date.DateUtils.FORMAT_YEAR_
 
 @Schema(description = "管理后台 - API 错误日志分页 Request VO")
 @Data
-public class ApiErrorLogPageReqVO extends PageParam {
+public class ApiErrorLogPageReqVO extends CursorPageParam {
 
     @Schema(description = "用户编号", example = "666")
     private Long userId;
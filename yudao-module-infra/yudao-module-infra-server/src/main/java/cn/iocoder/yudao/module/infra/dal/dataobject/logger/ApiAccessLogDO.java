@@ -47,6 +47,12 @@ public class ApiAccessLogDO extends BaseDO {
      * 一般来说，通过链路追踪编号，可以将访问日志，错误日志，链路追踪日志，logger 打印日志等，结合在一起，从而进行排错。
      */
     private String traceId;
+    /**
+     * 租户编号
+     *
+     * 批量写入时忽略租户上下文，因此由日志显式设置；单条写入时，由多租户插件自动设置
+     */
+    private Long tenantId;
     /**
      * 用户编号
      */
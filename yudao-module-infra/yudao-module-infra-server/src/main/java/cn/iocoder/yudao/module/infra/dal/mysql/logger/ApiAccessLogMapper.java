@@ -20,16 +20,18 @@ import java.time.LocalDateTime;
 public interface ApiAccessLogMapper extends BaseMapperX<ApiAccessLogDO> {
 
     default PageResult<ApiAccessLogDO> selectPage(ApiAccessLogPageReqVO reqVO) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<ApiAccessLogDO>()
+        LambdaQueryWrapperX<ApiAccessLogDO> query = new LambdaQueryWrapperX<ApiAccessLogDO>()
                 .eqIfPresent(ApiAccessLogDO::getUserId, reqVO.getUserId())
                 .eqIfPresent(ApiAccessLogDO::getUserType, reqVO.getUserType())
                 .eqIfPresent(ApiAccessLogDO::getApplicationName, reqVO.getApplicationName())
                 .likeIfPresent(ApiAccessLogDO::getRequestUrl, reqVO.getRequestUrl())
                 .betweenIfPresent(ApiAccessLogDO::getBeginTime, reqVO.getBeginTime())
                 .geIfPresent(ApiAccessLogDO::getDuration, reqVO.getDuration())
-                .eqIfPresent(ApiAccessLogDO::getResultCode, reqVO.getResultCode())
-                .orderByDesc(ApiAccessLogDO::getId)
-        );
+                .eqIfPresent(ApiAccessLogDO::getResultCode, reqVO.getResultCode());
+        if (reqVO.isCursorMode()) {
+            return selectPageByCursor(reqVO, query, ApiAccessLogDO::getId, true);
+        }
+        return selectPage(reqVO, query.orderByDesc(ApiAccessLogDO::getId));
     }
 
     /**
@@ -20,15 +20,17 @@ import java.time.LocalDateTime;
 public interface ApiErrorLogMapper extends BaseMapperX<ApiErrorLogDO> {
 
     default PageResult<ApiErrorLogDO> selectPage(ApiErrorLogPageReqVO reqVO) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<ApiErrorLogDO>()
+        LambdaQueryWrapperX<ApiErrorLogDO> query = new LambdaQueryWrapperX<ApiErrorLogDO>()
                 .eqIfPresent(ApiErrorLogDO::getUserId, reqVO.getUserId())
                 .eqIfPresent(ApiErrorLogDO::getUserType, reqVO.getUserType())
                 .eqIfPresent(ApiErrorLogDO::getApplicationName, reqVO.getApplicationName())
                 .likeIfPresent(ApiErrorLogDO::getRequestUrl, reqVO.getRequestUrl())
                 .betweenIfPresent(ApiErrorLogDO::getExceptionTime, reqVO.getExceptionTime())
-                .eqIfPresent(ApiErrorLogDO::getProcessStatus, reqVO.getProcessStatus())
-                .orderByDesc(ApiErrorLogDO::getId)
-        );
+                .eqIfPresent(ApiErrorLogDO::getProcessStatus, reqVO.getProcessStatus());
+        if (reqVO.isCursorMode()) {
+            return selectPageByCursor(reqVO, query, ApiErrorLogDO::getId, true);
+        }
+        return selectPage(reqVO, query.orderByDesc(ApiErrorLogDO::getId));
     }
 
     /**
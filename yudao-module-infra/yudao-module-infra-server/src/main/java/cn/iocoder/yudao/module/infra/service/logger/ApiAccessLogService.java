@@ -5,6 +5,8 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apiaccesslog.ApiAccessLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
 
+import java.util.List;
+
 /**
  * API 访问日志 Service 接口
  *
@@ -19,6 +21,13 @@ public interface ApiAccessLogService {
      */
     void createApiAccessLog(ApiAccessLogCreateReqDTO createReqDTO);
 
+    /**
+     * 批量创建 API 访问日志
+     *
+     * @param createReqDTOs API 访问日志数组
+     */
+    void createApiAccessLogList(List<ApiAccessLogCreateReqDTO> createReqDTOs);
+
     /**
      * 获得 API 访问日志分页
      *
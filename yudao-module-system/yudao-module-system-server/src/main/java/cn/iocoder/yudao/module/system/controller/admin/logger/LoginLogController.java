@@ -22,7 +22,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
-import java.util.List;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
@@ -49,11 +48,11 @@ public class LoginLogController {
     @PreAuthorize("@ss.hasPermission('system:login-log:export')")
     @ApiAccessLog(operateType = EXPORT)
     public void exportLoginLog(HttpServletResponse response, @Valid LoginLogPageReqVO exportReqVO) throws IOException {
-        exportReqVO.setPageSize(PageParam.PAGE_SIZE_NONE);
-        List<LoginLogDO> list = loginLogService.getLoginLogPage(exportReqVO).getList();
-        // 输出
-        ExcelUtils.write(response, "登录日志.xls", "数据列表", LoginLogRespVO.class,
-                BeanUtils.toBean(list, LoginLogRespVO.class));
+        exportReqVO.setPageSize(PageParam.PAGE_SIZE_EXPORT);
+        ExcelUtils.write(response, "登录日志.xls", "数据列表", LoginLogRespVO.class, cursor -> {
+            exportReqVO.setCursor(cursor);
+            return BeanUtils.toBean(loginLogService.getLoginLogPage(exportReqVO), LoginLogRespVO.class);
+        });
     }
 
 }
@@ -24,7 +24,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
-import java.util.List;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
@@ -52,10 +51,14 @@ public class OperateLogController {
     @PreAuthorize("@ss.hasPermission('system:operate-log:export')")
     @ApiAccessLog(operateType = EXPORT)
     public void exportOperateLog(HttpServletResponse response, @Valid OperateLogPageReqVO exportReqVO) throws IOException {
-        exportReqVO.setPageSize(PageParam.PAGE_SIZE_NONE);
-        List<OperateLogDO> list = operateLogService.getOperateLogPage(exportReqVO).getList();
-        ExcelUtils.write(response, "操作日志.xls", "数据列表", OperateLogRespVO.class,
-                TranslateUtils.translate(BeanUtils.toBean(list, OperateLogRespVO.class)));
+        exportReqVO.setPageSize(PageParam.PAGE_SIZE_EXPORT);
+        ExcelUtils.write(response, "操作日志.xls", "数据列表", OperateLogRespVO.class, cursor -> {
+            exportReqVO.setCursor(cursor);
+            PageResult<OperateLogRespVO> pageResult = BeanUtils.toBean(
+                    operateLogService.getOperateLogPage(exportReqVO), OperateLogRespVO.class);
+            TranslateUtils.translate(pageResult.getList());
+            return pageResult;
+        });
     }
 
 }
@@ -27,13 +27,17 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.USER_IMPORT_LIST_IS_EMPTY;
 
 @Tag(name = "管理后台 - 用户")
 @RestController
@@ -41,6 +45,11 @@ import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.
 @Validated
 public class UserController {
 
+    /**
+     * 导入用户时，每批处理的行数
+     */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
     @Resource
     private AdminUserService userService;
     @Resource
@@ -142,13 +151,15 @@ public class UserController {
     @ApiAccessLog(operateType = EXPORT)
     public void exportUserList(@Validated UserPageReqVO exportReqVO,
                                HttpServletResponse response) throws IOException {
-        exportReqVO.setPageSize(PageParam.PAGE_SIZE_NONE);
-        List<AdminUserDO> list = userService.getUserPage(exportReqVO).getList();
-        // 输出 Excel
-        Map<Long, DeptDO> deptMap = deptService.getDeptMap(
-                convertList(list, AdminUserDO::getDeptId));
-        ExcelUtils.write(response, "用户数据.xls", "数据", UserRespVO.class,
-                UserConvert.INSTANCE.convertList(list, deptMap));
+        exportReqVO.setPageSize(PageParam.PAGE_SIZE_EXPORT);
+        ExcelUtils.write(response, "用户数据.xls", "数据", UserRespVO.class, cursor -> {
+            exportReqVO.setCursor(cursor);
+            PageResult<AdminUserDO> pageResult = userService.getUserPage(exportReqVO);
+            Map<Long, DeptDO> deptMap = deptService.getDeptMap(
+                    convertList(pageResult.getList(), AdminUserDO::getDeptId));
+            return new PageResult<>(UserConvert.INSTANCE.convertList(pageResult.getList(), deptMap), pageResult.getTotal())
+                    .setNextCursor(pageResult.getNextCursor());
+        });
     }
 
     @GetMapping("/get-import-template")
@@ -174,8 +185,15 @@ public class UserController {
     @PreAuthorize("@ss.hasPermission('system:user:import')")
     public CommonResult<UserImportRespVO> importExcel(@RequestParam("file") MultipartFile file,
                                                       @RequestParam(value = "updateSupport", required = false, defaultValue = "false") Boolean updateSupport) throws Exception {
-        List<UserImportExcelVO> list = ExcelUtils.read(file, UserImportExcelVO.class);
-        return success(userService.importUserList(list, updateSupport));
+        // 流式读取，分批校验、导入，避免整个文件都加载到内存
+        UserImportRespVO respVO = UserImportRespVO.builder().createUsernames(new ArrayList<>())
+                .updateUsernames(new ArrayList<>()).failureUsernames(new LinkedHashMap<>()).build();
+        int count = ExcelUtils.read(file, UserImportExcelVO.class, IMPORT_BATCH_SIZE,
+                importUsers -> userService.importUserList(importUsers, updateSupport, respVO));
+        if (count == 0) {
+            throw exception(USER_IMPORT_LIST_IS_EMPTY);
+        }
+        return success(respVO);
     }
 
 }
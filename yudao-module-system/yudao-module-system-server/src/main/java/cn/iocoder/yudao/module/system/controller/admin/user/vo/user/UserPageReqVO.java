@@ -1,6 +1,6 @@
 package cn.iocoder.yudao.module.system.controller.admin.user.vo.user;
 
-import cn.iocoder.yudao.framework.common.pojo.PageParam;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageParam;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,7 +17,7 @@ import static cn.iocoder.yudao.framework.common.util.date.DateUtils.FORMAT_YEAR_
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-public class UserPageReqVO extends PageParam {
+public class UserPageReqVO extends CursorPageParam {
 
     @Schema(description = "用户账号，模糊匹配", example = "yudao")
     private String username;
@@ -21,6 +21,9 @@ public interface LoginLogMapper extends BaseMapperX<LoginLogDO> {
         } else if (Boolean.FALSE.equals(reqVO.getStatus())) {
             query.gt(LoginLogDO::getResult, LoginResultEnum.SUCCESS.getResult());
         }
+        if (reqVO.isCursorMode()) {
+            return selectPageByCursor(reqVO, query, LoginLogDO::getId, true);
+        }
         query.orderByDesc(LoginLogDO::getId); // 降序
         return selectPage(reqVO, query);
     }
@@ -12,14 +12,17 @@ import org.apache.ibatis.annotations.Mapper;
 public interface OperateLogMapper extends BaseMapperX<OperateLogDO> {
 
     default PageResult<OperateLogDO> selectPage(OperateLogPageReqVO pageReqDTO) {
-        return selectPage(pageReqDTO, new LambdaQueryWrapperX<OperateLogDO>()
+        LambdaQueryWrapperX<OperateLogDO> query = new LambdaQueryWrapperX<OperateLogDO>()
                 .eqIfPresent(OperateLogDO::getUserId, pageReqDTO.getUserId())
                 .eqIfPresent(OperateLogDO::getBizId, pageReqDTO.getBizId())
                 .likeIfPresent(OperateLogDO::getType, pageReqDTO.getType())
                 .likeIfPresent(OperateLogDO::getSubType, pageReqDTO.getSubType())
                 .likeIfPresent(OperateLogDO::getAction, pageReqDTO.getAction())
-                .betweenIfPresent(OperateLogDO::getCreateTime, pageReqDTO.getCreateTime())
-                .orderByDesc(OperateLogDO::getId));
+                .betweenIfPresent(OperateLogDO::getCreateTime, pageReqDTO.getCreateTime());
+        if (pageReqDTO.isCursorMode()) {
+            return selectPageByCursor(pageReqDTO, query, OperateLogDO::getId, true);
+        }
+        return selectPage(pageReqDTO, query.orderByDesc(OperateLogDO::getId));
     }
 
     default PageResult<OperateLogDO> selectPage(OperateLogPageReqDTO pageReqDTO) {
@@ -4,10 +4,17 @@ import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.module.system.dal.dataobject.oauth2.OAuth2AccessTokenDO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Resource;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Repository;
 
-import jakarta.annotation.Resource;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
@@ -19,17 +26,52 @@ import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.OAUTH2_
 /**
  * {@link OAuth2AccessTokenDO} 的 RedisDAO
  *
+ * 在 Redis 之前，额外增加一层本地缓存（近端缓存），避免每次校验访问令牌都需要 Redis GET + JSON 解析：
+ * 1. 本地缓存的过期时间，不超过访问令牌的过期时间，并且不超过 {@link #LOCAL_CACHE_MAX_TTL}
+ * 2. 访问令牌被删除时，通过 Redis Pub/Sub 广播，让所有节点清理本地缓存，见 OAuth2AccessTokenInvalidateConsumer
+ *
  * @author 芋道源码
  */
 @Repository
-public class OAuth2AccessTokenRedisDAO {
+public class OAuth2AccessTokenRedisDAO implements MeterBinder {
+
+    /**
+     * 本地缓存的最大数量
+     */
+    private static final int LOCAL_CACHE_MAX_SIZE = 10000;
+    /**
+     * 本地缓存的最大存活时间。兜底广播消息丢失的情况，保证最终一致
+     */
+    private static final Duration LOCAL_CACHE_MAX_TTL = Duration.ofMinutes(1);
 
     @Resource
     private StringRedisTemplate stringRedisTemplate;
 
+    /**
+     * 访问令牌的本地缓存
+     *
+     * KEY：访问令牌
+     * VALUE：{@link OAuth2AccessTokenDO}
+     */
+    private final Cache<String, OAuth2AccessTokenDO> localCache = Caffeine.newBuilder()
+            .maximumSize(LOCAL_CACHE_MAX_SIZE)
+            .expireAfter(new AccessTokenExpiry())
+            .recordStats()
+            .build();
+
     public OAuth2AccessTokenDO get(String accessToken) {
+        // 优先从本地缓存中获取
+        OAuth2AccessTokenDO accessTokenDO = localCache.getIfPresent(accessToken);
+        if (accessTokenDO != null) {
+            return accessTokenDO;
+        }
+        // 获取不到，从 Redis 中获取，并写入本地缓存
         String redisKey = formatKey(accessToken);
-        return JsonUtils.parseObject(stringRedisTemplate.opsForValue().get(redisKey), OAuth2AccessTokenDO.class);
+        accessTokenDO = JsonUtils.parseObject(stringRedisTemplate.opsForValue().get(redisKey), OAuth2AccessTokenDO.class);
+        if (accessTokenDO != null) {
+            localCache.put(accessToken, accessTokenDO);
+        }
+        return accessTokenDO;
     }
 
     public void set(OAuth2AccessTokenDO accessTokenDO) {
@@ -39,21 +81,62 @@ public class OAuth2AccessTokenRedisDAO {
         long time = LocalDateTimeUtil.between(LocalDateTime.now(), accessTokenDO.getExpiresTime(), ChronoUnit.SECONDS);
         if (time > 0) {
             stringRedisTemplate.opsForValue().set(redisKey, JsonUtils.toJsonString(accessTokenDO), time, TimeUnit.SECONDS);
+            localCache.put(accessTokenDO.getAccessToken(), accessTokenDO);
         }
     }
 
     public void delete(String accessToken) {
         String redisKey = formatKey(accessToken);
         stringRedisTemplate.delete(redisKey);
+        localCache.invalidate(accessToken);
     }
 
     public void deleteList(Collection<String> accessTokens) {
         List<String> redisKeys = CollectionUtils.convertList(accessTokens, OAuth2AccessTokenRedisDAO::formatKey);
         stringRedisTemplate.delete(redisKeys);
+        localCache.invalidateAll(accessTokens);
+    }
+
+    /**
+     * 仅清理本地缓存，用于接收其它节点的失效广播
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    public void invalidateLocalCache(Collection<String> accessTokens) {
+        localCache.invalidateAll(accessTokens);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // 暴露 cache.gets{result=hit/miss}、cache.evictions、cache.size 等指标
+        CaffeineCacheMetrics.monitor(registry, localCache, "oauth2_access_token");
     }
 
     private static String formatKey(String accessToken) {
         return String.format(OAUTH2_ACCESS_TOKEN, accessToken);
     }
 
+    /**
+     * 本地缓存的过期策略：取访问令牌剩余有效期、{@link #LOCAL_CACHE_MAX_TTL} 两者的较小值
+     */
+    private static class AccessTokenExpiry implements Expiry<String, OAuth2AccessTokenDO> {
+
+        @Override
+        public long expireAfterCreate(String key, OAuth2AccessTokenDO value, long currentTime) {
+            long remaining = LocalDateTimeUtil.between(LocalDateTime.now(), value.getExpiresTime(), ChronoUnit.NANOS);
+            return Math.max(0, Math.min(remaining, LOCAL_CACHE_MAX_TTL.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, OAuth2AccessTokenDO value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, OAuth2AccessTokenDO value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
 }
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.system.mq.consumer.oauth2;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.dal.redis.oauth2.OAuth2AccessTokenRedisDAO;
+import cn.iocoder.yudao.module.system.mq.message.oauth2.OAuth2AccessTokenInvalidateMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 针对 {@link OAuth2AccessTokenInvalidateMessage} 的消费者，清理当前节点的访问令牌本地缓存
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class OAuth2AccessTokenInvalidateConsumer extends AbstractRedisChannelMessageListener<OAuth2AccessTokenInvalidateMessage> {
+
+    @Resource
+    private OAuth2AccessTokenRedisDAO oauth2AccessTokenRedisDAO;
+
+    @Override
+    public void onMessage(OAuth2AccessTokenInvalidateMessage message) {
+        log.debug("[onMessage][清理访问令牌本地缓存({})]", message.getAccessTokens());
+        oauth2AccessTokenRedisDAO.invalidateLocalCache(message.getAccessTokens());
+    }
+
+}
@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.system.mq.consumer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.permission.MenuRefreshMessage;
+import cn.iocoder.yudao.module.system.service.permission.PermissionService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 针对 {@link MenuRefreshMessage} 的消费者，更新当前节点的权限索引
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class MenuRefreshConsumer extends AbstractRedisChannelMessageListener<MenuRefreshMessage> {
+
+    @Resource
+    private PermissionService permissionService;
+
+    @Override
+    public void onMessage(MenuRefreshMessage message) {
+        log.info("[onMessage][菜单({}) 刷新]", message.getMenuId());
+        permissionService.refreshMenuIndex(message.getMenuId(), message.getPermission(),
+                Boolean.TRUE.equals(message.getDeleted()));
+    }
+
+}
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.system.mq.consumer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.permission.RoleMenuRefreshMessage;
+import cn.iocoder.yudao.module.system.service.permission.PermissionService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 针对 {@link RoleMenuRefreshMessage} 的消费者，更新当前节点的权限索引
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class RoleMenuRefreshConsumer extends AbstractRedisChannelMessageListener<RoleMenuRefreshMessage> {
+
+    @Resource
+    private PermissionService permissionService;
+
+    @Override
+    public void onMessage(RoleMenuRefreshMessage message) {
+        log.info("[onMessage][角色({}) 菜单授权刷新]", message.getRoleId());
+        permissionService.refreshRoleMenuIndex(message.getRoleId(), message.getMenuIds());
+    }
+
+}
@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.mq.message.dept;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 部门刷新消息，用于更新各节点的部门树索引
+ *
+ * @author 芋道源码
+ */
+@Data
+public class DeptRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 部门编号
+     */
+    private Long id;
+    /**
+     * 父部门编号
+     */
+    private Long parentId;
+    /**
+     * 是否被删除
+     */
+    private Boolean deleted;
+
+}
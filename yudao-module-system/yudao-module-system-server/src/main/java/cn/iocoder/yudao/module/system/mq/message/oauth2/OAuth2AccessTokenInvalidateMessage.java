@@ -0,0 +1,21 @@
+package cn.iocoder.yudao.module.system.mq.message.oauth2;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+import java.util.Collection;
+
+/**
+ * 访问令牌失效的广播消息，用于清理各节点的本地缓存
+ *
+ * @author 芋道源码
+ */
+@Data
+public class OAuth2AccessTokenInvalidateMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 访问令牌数组
+     */
+    private Collection<String> accessTokens;
+
+}
@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.mq.message.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 菜单刷新消息，用于更新各节点的权限索引
+ *
+ * @author 芋道源码
+ */
+@Data
+public class MenuRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 菜单编号
+     */
+    private Long menuId;
+    /**
+     * 权限标识
+     */
+    private String permission;
+    /**
+     * 是否被删除
+     */
+    private Boolean deleted;
+
+}
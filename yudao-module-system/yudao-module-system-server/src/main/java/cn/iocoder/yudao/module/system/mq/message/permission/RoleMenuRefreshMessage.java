@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.mq.message.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * 角色的菜单授权刷新消息，用于更新各节点的权限索引
+ *
+ * @author 芋道源码
+ */
+@Data
+public class RoleMenuRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 角色编号
+     */
+    private Long roleId;
+    /**
+     * 角色拥有的菜单编号集合
+     *
+     * 为空时，表示角色没有菜单，例如说角色被删除
+     */
+    private Set<Long> menuIds;
+
+}
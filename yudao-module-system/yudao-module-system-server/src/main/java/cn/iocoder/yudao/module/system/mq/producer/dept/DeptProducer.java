@@ -0,0 +1,33 @@
+package cn.iocoder.yudao.module.system.mq.producer.dept;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.dept.DeptRefreshMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dept 部门相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class DeptProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link DeptRefreshMessage} 消息
+     *
+     * @param id       部门编号
+     * @param parentId 父部门编号
+     * @param deleted  是否被删除
+     */
+    public void sendDeptRefreshMessage(Long id, Long parentId, Boolean deleted) {
+        DeptRefreshMessage message = new DeptRefreshMessage().setId(id).setParentId(parentId).setDeleted(deleted);
+        redisMQTemplate.send(message);
+    }
+
+}
@@ -0,0 +1,35 @@
+package cn.iocoder.yudao.module.system.mq.producer.dict;
+
+import cn.iocoder.yudao.framework.dict.core.redis.DictDataRefreshMessage;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * DictData 字典数据相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class DictDataProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link DictDataRefreshMessage} 消息
+     *
+     * @param dictTypes 字典类型集合
+     */
+    public void sendDictDataRefreshMessage(Collection<String> dictTypes) {
+        dictTypes.forEach(dictType -> {
+            DictDataRefreshMessage message = new DictDataRefreshMessage().setDictType(dictType);
+            redisMQTemplate.send(message);
+        });
+    }
+
+}
@@ -0,0 +1,38 @@
+package cn.iocoder.yudao.module.system.mq.producer.oauth2;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.oauth2.OAuth2AccessTokenInvalidateMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * OAuth2 访问令牌相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class OAuth2AccessTokenProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link OAuth2AccessTokenInvalidateMessage} 消息
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    public void sendAccessTokenInvalidateMessage(Collection<String> accessTokens) {
+        if (CollUtil.isEmpty(accessTokens)) {
+            return;
+        }
+        OAuth2AccessTokenInvalidateMessage message = new OAuth2AccessTokenInvalidateMessage()
+                .setAccessTokens(accessTokens);
+        redisMQTemplate.send(message);
+    }
+
+}
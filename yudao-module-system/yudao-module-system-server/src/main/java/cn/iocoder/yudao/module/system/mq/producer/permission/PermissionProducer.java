@@ -0,0 +1,48 @@
+package cn.iocoder.yudao.module.system.mq.producer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.permission.MenuRefreshMessage;
+import cn.iocoder.yudao.module.system.mq.message.permission.RoleMenuRefreshMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Permission 权限相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class PermissionProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link RoleMenuRefreshMessage} 消息
+     *
+     * @param roleId  角色编号
+     * @param menuIds 角色拥有的菜单编号集合
+     */
+    public void sendRoleMenuRefreshMessage(Long roleId, Set<Long> menuIds) {
+        RoleMenuRefreshMessage message = new RoleMenuRefreshMessage().setRoleId(roleId).setMenuIds(menuIds);
+        redisMQTemplate.send(message);
+    }
+
+    /**
+     * 发送 {@link MenuRefreshMessage} 消息
+     *
+     * @param menuId     菜单编号
+     * @param permission 权限标识
+     * @param deleted    是否被删除
+     */
+    public void sendMenuRefreshMessage(Long menuId, String permission, Boolean deleted) {
+        MenuRefreshMessage message = new MenuRefreshMessage().setMenuId(menuId)
+                .setPermission(permission).setDeleted(deleted);
+        redisMQTemplate.send(message);
+    }
+
+}
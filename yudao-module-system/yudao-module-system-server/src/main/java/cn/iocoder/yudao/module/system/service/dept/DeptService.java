@@ -105,6 +105,15 @@ public interface DeptService {
      */
     Set<Long> getChildDeptIdListFromCache(Long id);
 
+    /**
+     * 刷新当前节点的部门树索引
+     *
+     * @param id       部门编号
+     * @param parentId 父部门编号
+     * @param deleted  是否被删除
+     */
+    void refreshDeptIndex(Long id, Long parentId, boolean deleted);
+
     /**
      * 校验部门们是否有效。如下情况，视为无效：
      * 1. 部门编号不存在
@@ -4,16 +4,15 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
-import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
+import cn.iocoder.yudao.framework.datapermission.core.util.DataPermissionUtils;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.system.controller.admin.dept.vo.dept.DeptListReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.dept.vo.dept.DeptSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
 import cn.iocoder.yudao.module.system.dal.mysql.dept.DeptMapper;
-import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
+import cn.iocoder.yudao.module.system.mq.producer.dept.DeptProducer;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
@@ -21,7 +20,9 @@ import jakarta.annotation.Resource;
 import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
+import static cn.iocoder.yudao.framework.mybatis.core.util.TransactionUtils.afterCommit;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 
 /**
@@ -37,9 +38,15 @@ public class DeptServiceImpl implements DeptService {
     @Resource
     private DeptMapper deptMapper;
 
+    @Resource
+    private DeptProducer deptProducer;
+
+    /**
+     * 部门树的本地索引，首次使用时加载
+     */
+    private volatile DeptTreeIndex deptTreeIndex;
+
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
     public Long createDept(DeptSaveReqVO createReqVO) {
         if (createReqVO.getParentId() == null) {
             createReqVO.setParentId(DeptDO.PARENT_ID_ROOT);
@@ -52,12 +59,15 @@ public class DeptServiceImpl implements DeptService {
         // 插入部门
         DeptDO dept = BeanUtils.toBean(createReqVO, DeptDO.class);
         deptMapper.insert(dept);
+        // 事务提交后，刷新本地及其它节点的部门树索引
+        afterCommit(() -> {
+            refreshDeptIndex(dept.getId(), dept.getParentId(), false);
+            deptProducer.sendDeptRefreshMessage(dept.getId(), dept.getParentId(), false);
+        });
         return dept.getId();
     }
 
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
     public void updateDept(DeptSaveReqVO updateReqVO) {
         if (updateReqVO.getParentId() == null) {
             updateReqVO.setParentId(DeptDO.PARENT_ID_ROOT);
@@ -72,11 +82,14 @@ public class DeptServiceImpl implements DeptService {
         // 更新部门
         DeptDO updateObj = BeanUtils.toBean(updateReqVO, DeptDO.class);
         deptMapper.updateById(updateObj);
+        // 事务提交后，刷新本地及其它节点的部门树索引
+        afterCommit(() -> {
+            refreshDeptIndex(updateObj.getId(), updateObj.getParentId(), false);
+            deptProducer.sendDeptRefreshMessage(updateObj.getId(), updateObj.getParentId(), false);
+        });
     }
 
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
     public void deleteDept(Long id) {
         // 校验是否存在
         validateDeptExists(id);
@@ -86,6 +99,11 @@ public class DeptServiceImpl implements DeptService {
         }
         // 删除部门
         deptMapper.deleteById(id);
+        // 事务提交后，刷新本地及其它节点的部门树索引
+        afterCommit(() -> {
+            refreshDeptIndex(id, null, true);
+            deptProducer.sendDeptRefreshMessage(id, null, true);
+        });
     }
 
     @VisibleForTesting
@@ -113,24 +131,13 @@ public class DeptServiceImpl implements DeptService {
         if (parentDept == null) {
             throw exception(DEPT_PARENT_NOT_EXITS);
         }
-        // 3. 递归校验父部门，如果父部门是自己的子部门，则报错，避免形成环路
+        // 3. 校验父部门，如果父部门是自己的子部门，则报错，避免形成环路
         if (id == null) { // id 为空，说明新增，不需要考虑环路
             return;
         }
-        for (int i = 0; i < Short.MAX_VALUE; i++) {
-            // 3.1 校验环路
-            parentId = parentDept.getParentId();
-            if (Objects.equals(id, parentId)) {
-                throw exception(DEPT_PARENT_IS_CHILD);
-            }
-            // 3.2 继续递归下一级父部门
-            if (parentId == null || DeptDO.PARENT_ID_ROOT.equals(parentId)) {
-                break;
-            }
-            parentDept = deptMapper.selectById(parentId);
-            if (parentDept == null) {
-                break;
-            }
+        // 基于部门树索引，沿着父部门向上查找，无需逐级查询 DB
+        if (getDeptTreeIndex().isAncestor(parentId, id)) {
+            throw exception(DEPT_PARENT_IS_CHILD);
         }
     }
 
@@ -171,21 +178,15 @@ public class DeptServiceImpl implements DeptService {
 
     @Override
     public List<DeptDO> getChildDeptList(Collection<Long> ids) {
-        List<DeptDO> children = new LinkedList<>();
-        // 遍历每一层
-        Collection<Long> parentIds = ids;
-        for (int i = 0; i < Short.MAX_VALUE; i++) { // 使用 Short.MAX_VALUE 避免 bug 场景下，存在死循环
-            // 查询当前层，所有的子部门
-            List<DeptDO> depts = deptMapper.selectListByParentId(parentIds);
-            // 1. 如果没有子部门，则结束遍历
-            if (CollUtil.isEmpty(depts)) {
-                break;
-            }
-            // 2. 如果有子部门，继续遍历
-            children.addAll(depts);
-            parentIds = convertSet(depts, DeptDO::getId);
+        // 基于部门树索引获得所有子部门编号，只需一次 DB 查询
+        DeptTreeIndex index = getDeptTreeIndex();
+        Set<Long> childIds = index.getChildDeptIds(ids);
+        if (CollUtil.isEmpty(childIds)) {
+            return Collections.emptyList();
         }
-        return children;
+        // 查询结果受数据权限过滤：与逐层查询保持一致，没有权限的部门，不再遍历它的子部门
+        Map<Long, DeptDO> deptMap = convertMap(deptMapper.selectByIds(childIds), DeptDO::getId);
+        return convertList(index.getChildDeptIds(ids, deptMap::containsKey), deptMap::get);
     }
 
     @Override
@@ -194,11 +195,50 @@ public class DeptServiceImpl implements DeptService {
     }
 
     @Override
-    @DataPermission(enable = false) // 禁用数据权限，避免建立不正确的缓存
-    @Cacheable(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST, key = "#id")
     public Set<Long> getChildDeptIdListFromCache(Long id) {
-        List<DeptDO> children = getChildDeptList(id);
-        return convertSet(children, DeptDO::getId);
+        // 直接从部门树索引中获取，无需访问 Redis、DB
+        return getDeptTreeIndex().getChildDeptIds(Collections.singleton(id));
+    }
+
+    /**
+     * 获得部门树的本地索引，不存在时从 DB 加载
+     *
+     * @return 部门树索引
+     */
+    private DeptTreeIndex getDeptTreeIndex() {
+        DeptTreeIndex index = deptTreeIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (deptTreeIndex == null) {
+                // 部门是多租户的，部门编号全局唯一，因此忽略租户、数据权限加载全部
+                List<DeptDO> depts = TenantUtils.executeIgnore(() ->
+                        DataPermissionUtils.executeIgnore(() -> deptMapper.selectList()));
+                deptTreeIndex = new DeptTreeIndex(depts);
+                log.info("[getDeptTreeIndex][部门树索引加载完成，部门数量为 {}]", depts.size());
+            }
+            return deptTreeIndex;
+        }
+    }
+
+    @Override
+    public void refreshDeptIndex(Long id, Long parentId, boolean deleted) {
+        DeptTreeIndex index = deptTreeIndex;
+        if (index == null) {
+            // 未加载时，无需刷新，后续加载时会从 DB 读取最新数据；正在加载时，等待加载完成后再刷新，避免刷新丢失
+            synchronized (this) {
+                index = deptTreeIndex;
+            }
+            if (index == null) {
+                return;
+            }
+        }
+        if (deleted) {
+            index.removeDept(id);
+        } else {
+            index.putDept(id, parentId);
+        }
     }
 
     @Override
@@ -0,0 +1,142 @@
+package cn.iocoder.yudao.module.system.service.dept;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 部门树的本地内存索引，用于子部门、父部门的查询，无需访问 DB
+ *
+ * 1. 维护“部门 → 父部门”、“父部门 → 子部门们”两个映射，子树查询的复杂度为 O(子树大小)，父部门查询为 O(层级深度)
+ * 2. 部门编号全局唯一，不同租户的部门不会互相关联，因此所有租户共用一个索引
+ * 3. 读取时无需加锁；写入时加锁，保证串行修改
+ *
+ * @author 芋道源码
+ */
+public class DeptTreeIndex {
+
+    /**
+     * 部门的父部门编号
+     *
+     * KEY：部门编号
+     * VALUE：父部门编号
+     */
+    private final Map<Long, Long> parentIds = new ConcurrentHashMap<>();
+    /**
+     * 部门的子部门编号集合
+     *
+     * KEY：父部门编号
+     * VALUE：子部门编号集合
+     */
+    private final Map<Long, Set<Long>> childIds = new ConcurrentHashMap<>();
+
+    public DeptTreeIndex(List<DeptDO> depts) {
+        depts.forEach(dept -> putDept(dept.getId(), dept.getParentId()));
+    }
+
+    /**
+     * 获得指定部门们的所有子部门编号，不包括自身
+     *
+     * @param ids 部门编号数组
+     * @return 子部门编号集合
+     */
+    public Set<Long> getChildDeptIds(Collection<Long> ids) {
+        return getChildDeptIds(ids, id -> true);
+    }
+
+    /**
+     * 获得指定部门们的子部门编号，不包括自身；不满足条件的部门，不返回，也不再遍历它的子部门
+     *
+     * @param ids    部门编号数组
+     * @param filter 部门编号的过滤条件，例如说是否有数据权限
+     * @return 子部门编号集合，按照层级顺序
+     */
+    public Set<Long> getChildDeptIds(Collection<Long> ids, Predicate<Long> filter) {
+        Set<Long> result = new LinkedHashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        ids.forEach(id -> {
+            if (id != null) {
+                queue.add(id);
+            }
+        });
+        // 广度优先遍历，已经访问过的部门不再遍历，避免脏数据形成环路时死循环
+        while (!queue.isEmpty()) {
+            Set<Long> children = childIds.get(queue.poll());
+            if (children == null) {
+                continue;
+            }
+            children.forEach(childId -> {
+                if (filter.test(childId) && result.add(childId)) {
+                    queue.add(childId);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 判断 ancestorId 是否为 id 的祖先部门
+     *
+     * @param id         部门编号
+     * @param ancestorId 祖先部门编号
+     * @return 是否为祖先部门
+     */
+    public boolean isAncestor(Long id, Long ancestorId) {
+        Set<Long> visited = new HashSet<>();
+        Long parentId = parentIds.get(id);
+        while (parentId != null && !DeptDO.PARENT_ID_ROOT.equals(parentId) && visited.add(parentId)) {
+            if (parentId.equals(ancestorId)) {
+                return true;
+            }
+            parentId = parentIds.get(parentId);
+        }
+        return false;
+    }
+
+    /**
+     * 设置部门的父部门，用于部门的新增、修改
+     *
+     * @param id       部门编号
+     * @param parentId 父部门编号
+     */
+    public synchronized void putDept(Long id, Long parentId) {
+        if (parentId == null) {
+            parentId = DeptDO.PARENT_ID_ROOT;
+        }
+        Long oldParentId = parentIds.put(id, parentId);
+        if (Objects.equals(oldParentId, parentId)) {
+            return;
+        }
+        if (oldParentId != null) {
+            removeChild(oldParentId, id);
+        }
+        childIds.computeIfAbsent(parentId, key -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    /**
+     * 移除部门，用于部门的删除
+     *
+     * @param id 部门编号
+     */
+    public synchronized void removeDept(Long id) {
+        Long parentId = parentIds.remove(id);
+        if (parentId != null) {
+            removeChild(parentId, id);
+        }
+    }
+
+    private void removeChild(Long parentId, Long id) {
+        Set<Long> children = childIds.get(parentId);
+        if (children == null) {
+            return;
+        }
+        children.remove(id);
+        if (CollUtil.isEmpty(children)) {
+            childIds.remove(parentId);
+        }
+    }
+
+}
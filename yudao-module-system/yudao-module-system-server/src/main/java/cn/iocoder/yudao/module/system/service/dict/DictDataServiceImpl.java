@@ -10,17 +10,21 @@ import cn.iocoder.yudao.module.system.controller.admin.dict.vo.data.DictDataSave
 import cn.iocoder.yudao.module.system.dal.dataobject.dict.DictDataDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dict.DictTypeDO;
 import cn.iocoder.yudao.module.system.dal.mysql.dict.DictDataMapper;
+import cn.iocoder.yudao.module.system.mq.producer.dict.DictDataProducer;
 import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 
 /**
@@ -45,6 +49,9 @@ public class DictDataServiceImpl implements DictDataService {
     @Resource
     private DictDataMapper dictDataMapper;
 
+    @Resource
+    private DictDataProducer dictDataProducer;
+
     @Override
     public List<DictDataDO> getDictDataList(Integer status, String dictType) {
         List<DictDataDO> list = dictDataMapper.selectListByStatusAndDictType(status, dictType);
@@ -72,13 +79,15 @@ public class DictDataServiceImpl implements DictDataService {
         // 插入字典类型
         DictDataDO dictData = BeanUtils.toBean(createReqVO, DictDataDO.class);
         dictDataMapper.insert(dictData);
+        // 通知各节点，清理字典缓存
+        dictDataProducer.sendDictDataRefreshMessage(Collections.singleton(dictData.getDictType()));
         return dictData.getId();
     }
 
     @Override
     public void updateDictData(DictDataSaveReqVO updateReqVO) {
         // 校验自己存在
-        validateDictDataExists(updateReqVO.getId());
+        DictDataDO dictData = validateDictDataExists(updateReqVO.getId());
         // 校验字典类型有效
         validateDictTypeExists(updateReqVO.getDictType());
         // 校验字典数据的值的唯一性
@@ -87,20 +96,29 @@ public class DictDataServiceImpl implements DictDataService {
         // 更新字典类型
         DictDataDO updateObj = BeanUtils.toBean(updateReqVO, DictDataDO.class);
         dictDataMapper.updateById(updateObj);
+        // 通知各节点，清理字典缓存。字典类型可能被修改，新老都需要清理
+        Set<String> dictTypes = CollUtil.newHashSet(updateReqVO.getDictType());
+        CollectionUtils.addIfNotNull(dictTypes, dictData != null ? dictData.getDictType() : null);
+        dictDataProducer.sendDictDataRefreshMessage(dictTypes);
     }
 
     @Override
     public void deleteDictData(Long id) {
         // 校验是否存在
-        validateDictDataExists(id);
+        DictDataDO dictData = validateDictDataExists(id);
 
         // 删除字典数据
         dictDataMapper.deleteById(id);
+        // 通知各节点，清理字典缓存
+        dictDataProducer.sendDictDataRefreshMessage(Collections.singleton(dictData.getDictType()));
     }
 
     @Override
     public void deleteDictDataList(List<Long> ids) {
+        List<DictDataDO> dictDataList = dictDataMapper.selectByIds(ids);
         dictDataMapper.deleteByIds(ids);
+        // 通知各节点，清理字典缓存
+        dictDataProducer.sendDictDataRefreshMessage(convertSet(dictDataList, DictDataDO::getDictType));
     }
 
     @Override
@@ -124,14 +142,15 @@ public class DictDataServiceImpl implements DictDataService {
     }
 
     @VisibleForTesting
-    public void validateDictDataExists(Long id) {
+    public DictDataDO validateDictDataExists(Long id) {
         if (id == null) {
-            return;
+            return null;
         }
         DictDataDO dictData = dictDataMapper.selectById(id);
         if (dictData == null) {
             throw exception(DICT_DATA_NOT_EXISTS);
         }
+        return dictData;
     }
 
     @VisibleForTesting
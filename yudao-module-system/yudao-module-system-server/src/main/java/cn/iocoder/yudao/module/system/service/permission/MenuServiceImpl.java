@@ -11,6 +11,7 @@ import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.MenuMapper;
 import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
 import cn.iocoder.yudao.module.system.enums.permission.MenuTypeEnum;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.tenant.TenantService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
@@ -44,6 +45,8 @@ public class MenuServiceImpl implements MenuService {
     @Resource
     private PermissionService permissionService;
     @Resource
+    private PermissionProducer permissionProducer;
+    @Resource
     @Lazy // 延迟，避免循环依赖报错
     private TenantService tenantService;
 
@@ -61,6 +64,9 @@ public class MenuServiceImpl implements MenuService {
         MenuDO menu = BeanUtils.toBean(createReqVO, MenuDO.class);
         initMenuProperty(menu);
         menuMapper.insert(menu);
+        // 刷新本地及其它节点的权限索引
+        permissionService.refreshMenuIndex(menu.getId(), menu.getPermission(), false);
+        permissionProducer.sendMenuRefreshMessage(menu.getId(), menu.getPermission(), false);
         // 返回
         return menu.getId();
     }
@@ -83,6 +89,9 @@ public class MenuServiceImpl implements MenuService {
         MenuDO updateObj = BeanUtils.toBean(updateReqVO, MenuDO.class);
         initMenuProperty(updateObj);
         menuMapper.updateById(updateObj);
+        // 刷新本地及其它节点的权限索引
+        permissionService.refreshMenuIndex(updateObj.getId(), updateObj.getPermission(), false);
+        permissionProducer.sendMenuRefreshMessage(updateObj.getId(), updateObj.getPermission(), false);
     }
 
     @Override
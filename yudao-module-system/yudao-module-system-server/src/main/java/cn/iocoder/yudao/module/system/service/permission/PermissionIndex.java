@@ -0,0 +1,163 @@
+package cn.iocoder.yudao.module.system.service.permission;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleMenuDO;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限的本地内存索引，用于 {@link PermissionService#hasAnyPermissions(Long, String...)} 的权限校验
+ *
+ * 1. 将菜单编号映射成连续的下标，基于 {@link BitSet} 构建“角色 → 菜单”、“权限标识 → 菜单”两类位图
+ * 2. 权限校验时，只需要判断两个位图是否有交集，无需访问 Redis、DB
+ * 3. 已经发布的 {@link BitSet} 不会被修改（写时复制），因此读取时无需加锁；写入时加锁，保证串行修改
+ *
+ * @author 芋道源码
+ */
+public class PermissionIndex {
+
+    /**
+     * 菜单编号与位图下标的映射。下标只分配、不回收，菜单删除时清理对应的位即可
+     *
+     * KEY：菜单编号
+     * VALUE：位图下标
+     */
+    private final Map<Long, Integer> menuIndexes = new ConcurrentHashMap<>();
+    /**
+     * 菜单的权限标识
+     *
+     * KEY：菜单编号
+     * VALUE：权限标识
+     */
+    private final Map<Long, String> menuPermissions = new ConcurrentHashMap<>();
+    /**
+     * 角色拥有的菜单位图
+     *
+     * KEY：角色编号
+     */
+    private final Map<Long, BitSet> roleMenus = new ConcurrentHashMap<>();
+    /**
+     * 权限标识对应的菜单位图
+     *
+     * KEY：权限标识
+     */
+    private final Map<String, BitSet> permissionMenus = new ConcurrentHashMap<>();
+
+    public PermissionIndex(List<MenuDO> menus, List<RoleMenuDO> roleMenuList) {
+        menus.forEach(menu -> putMenu(menu.getId(), menu.getPermission()));
+        // 按照角色分组构建，避免每条记录都复制一次位图
+        Map<Long, BitSet> roleMenuMap = new HashMap<>();
+        roleMenuList.forEach(roleMenu -> roleMenuMap.computeIfAbsent(roleMenu.getRoleId(), key -> new BitSet())
+                .set(getMenuIndex(roleMenu.getMenuId())));
+        roleMenus.putAll(roleMenuMap);
+    }
+
+    /**
+     * 判断角色们是否拥有指定权限标识，任一角色拥有即可
+     *
+     * @param roleIds    角色编号数组
+     * @param permission 权限标识
+     * @return 是否拥有
+     */
+    public boolean hasAnyPermission(Collection<Long> roleIds, String permission) {
+        // 采用严格模式，如果权限找不到对应的 Menu 的话，也认为没有权限
+        BitSet permissionMenuSet = permissionMenus.get(permission);
+        if (permissionMenuSet == null || permissionMenuSet.isEmpty()) {
+            return false;
+        }
+        for (Long roleId : roleIds) {
+            BitSet roleMenuSet = roleMenus.get(roleId);
+            if (roleMenuSet != null && roleMenuSet.intersects(permissionMenuSet)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 设置角色拥有的菜单，整体替换
+     *
+     * @param roleId  角色编号
+     * @param menuIds 菜单编号集合。为空时，表示角色没有菜单（例如说，被删除）
+     */
+    public synchronized void putRoleMenus(Long roleId, Collection<Long> menuIds) {
+        if (CollUtil.isEmpty(menuIds)) {
+            roleMenus.remove(roleId);
+            return;
+        }
+        BitSet roleMenuSet = new BitSet();
+        menuIds.forEach(menuId -> roleMenuSet.set(getMenuIndex(menuId)));
+        roleMenus.put(roleId, roleMenuSet);
+    }
+
+    /**
+     * 设置菜单的权限标识，用于菜单的新增、修改
+     *
+     * @param menuId     菜单编号
+     * @param permission 权限标识
+     */
+    public synchronized void putMenu(Long menuId, String permission) {
+        String oldPermission = menuPermissions.get(menuId);
+        if (Objects.equals(oldPermission, permission)) {
+            return;
+        }
+        int index = getMenuIndex(menuId);
+        // 从老的权限标识中移除
+        if (oldPermission != null) {
+            updatePermissionMenus(oldPermission, index, false);
+            menuPermissions.remove(menuId);
+        }
+        // 添加到新的权限标识中
+        if (StrUtil.isNotEmpty(permission)) {
+            updatePermissionMenus(permission, index, true);
+            menuPermissions.put(menuId, permission);
+        }
+    }
+
+    /**
+     * 移除菜单，同时清理所有角色对该菜单的授权
+     *
+     * @param menuId 菜单编号
+     */
+    public synchronized void removeMenu(Long menuId) {
+        Integer index = menuIndexes.get(menuId);
+        if (index == null) {
+            return;
+        }
+        String permission = menuPermissions.remove(menuId);
+        if (permission != null) {
+            updatePermissionMenus(permission, index, false);
+        }
+        roleMenus.forEach((roleId, roleMenuSet) -> {
+            if (roleMenuSet.get(index)) {
+                BitSet newRoleMenuSet = (BitSet) roleMenuSet.clone();
+                newRoleMenuSet.clear(index);
+                roleMenus.put(roleId, newRoleMenuSet);
+            }
+        });
+    }
+
+    private void updatePermissionMenus(String permission, int index, boolean add) {
+        BitSet oldSet = permissionMenus.get(permission);
+        BitSet newSet = oldSet != null ? (BitSet) oldSet.clone() : new BitSet();
+        newSet.set(index, add);
+        if (newSet.isEmpty()) {
+            permissionMenus.remove(permission);
+        } else {
+            permissionMenus.put(permission, newSet);
+        }
+    }
+
+    private int getMenuIndex(Long menuId) {
+        return menuIndexes.computeIfAbsent(menuId, key -> menuIndexes.size());
+    }
+
+}
@@ -57,6 +57,23 @@ public interface PermissionService {
      */
     void processMenuDeleted(Long menuId);
 
+    /**
+     * 刷新本地权限索引中，角色拥有的菜单
+     *
+     * @param roleId  角色编号
+     * @param menuIds 角色拥有的菜单编号集合，为空时表示没有菜单
+     */
+    void refreshRoleMenuIndex(Long roleId, Collection<Long> menuIds);
+
+    /**
+     * 刷新本地权限索引中，菜单的权限标识
+     *
+     * @param menuId     菜单编号
+     * @param permission 权限标识
+     * @param deleted    是否被删除
+     */
+    void refreshMenuIndex(Long menuId, String permission, boolean deleted);
+
     /**
      * 获得角色拥有的菜单编号集合
      *
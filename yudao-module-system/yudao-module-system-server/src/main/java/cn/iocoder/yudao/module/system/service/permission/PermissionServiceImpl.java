@@ -7,6 +7,7 @@ import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.framework.common.biz.system.permission.dto.DeptDataPermissionRespDTO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleDO;
@@ -16,6 +17,7 @@ import cn.iocoder.yudao.module.system.dal.mysql.permission.RoleMenuMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.UserRoleMapper;
 import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
 import cn.iocoder.yudao.module.system.enums.permission.DataScopeEnum;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.dept.DeptService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import com.baomidou.dynamic.datasource.annotation.DSTransactional;
@@ -31,10 +33,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.Resource;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.framework.common.util.json.JsonUtils.toJsonString;
+import static cn.iocoder.yudao.framework.mybatis.core.util.TransactionUtils.afterCommit;
 
 /**
  * 权限 Service 实现类
@@ -59,6 +63,14 @@ public class PermissionServiceImpl implements PermissionService {
     @Resource
     private AdminUserService userService;
 
+    @Resource
+    private PermissionProducer permissionProducer;
+
+    /**
+     * 权限的本地索引，首次使用时加载
+     */
+    private volatile PermissionIndex permissionIndex;
+
     @Override
     public boolean hasAnyPermissions(Long userId, String... permissions) {
         // 如果为空，说明已经有权限
@@ -91,23 +103,66 @@ public class PermissionServiceImpl implements PermissionService {
      * @return 是否拥有
      */
     private boolean hasAnyPermission(List<RoleDO> roles, String permission) {
-        List<Long> menuIds = menuService.getMenuIdListByPermissionFromCache(permission);
-        // 采用严格模式，如果权限找不到对应的 Menu 的话，也认为没有权限
-        if (CollUtil.isEmpty(menuIds)) {
-            return false;
+        // 基于本地权限索引判断，无需访问 Redis
+        return getPermissionIndex().hasAnyPermission(convertSet(roles, RoleDO::getId), permission);
+    }
+
+    /**
+     * 获得权限的本地索引，不存在时从 DB 加载
+     *
+     * @return 权限索引
+     */
+    private PermissionIndex getPermissionIndex() {
+        PermissionIndex index = permissionIndex;
+        if (index != null) {
+            return index;
         }
+        synchronized (this) {
+            if (permissionIndex == null) {
+                // 角色菜单是多租户的，角色编号全局唯一，因此忽略租户加载全部
+                List<RoleMenuDO> roleMenus = TenantUtils.executeIgnore(() -> roleMenuMapper.selectList());
+                permissionIndex = new PermissionIndex(menuService.getMenuList(), roleMenus);
+                log.info("[getPermissionIndex][权限索引加载完成，角色菜单数量为 {}]", roleMenus.size());
+            }
+            return permissionIndex;
+        }
+    }
 
-        // 判断是否有权限
-        Set<Long> roleIds = convertSet(roles, RoleDO::getId);
-        for (Long menuId : menuIds) {
-            // 获得拥有该菜单的角色编号集合
-            Set<Long> menuRoleIds = getSelf().getMenuRoleIdListByMenuIdFromCache(menuId);
-            // 如果有交集，说明有权限
-            if (CollUtil.containsAny(menuRoleIds, roleIds)) {
-                return true;
+    @Override
+    public void refreshRoleMenuIndex(Long roleId, Collection<Long> menuIds) {
+        refreshPermissionIndex(index -> index.putRoleMenus(roleId, menuIds));
+    }
+
+    @Override
+    public void refreshMenuIndex(Long menuId, String permission, boolean deleted) {
+        refreshPermissionIndex(index -> {
+            if (deleted) {
+                index.removeMenu(menuId);
+            } else {
+                index.putMenu(menuId, permission);
+            }
+        });
+    }
+
+    /**
+     * 刷新权限的本地索引
+     *
+     * 未加载时，无需刷新，后续加载时会从 DB 读取最新数据；正在加载时，加载读取的可能是变更前的数据，
+     * 因此等待加载完成后再刷新，避免刷新丢失
+     *
+     * @param refresher 刷新逻辑
+     */
+    private void refreshPermissionIndex(Consumer<PermissionIndex> refresher) {
+        PermissionIndex index = permissionIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = permissionIndex;
+            }
+            if (index == null) {
+                return;
             }
         }
-        return false;
+        refresher.accept(index);
     }
 
     @Override
@@ -131,7 +186,7 @@ public class PermissionServiceImpl implements PermissionService {
     // ========== 角色-菜单的相关方法  ==========
 
     @Override
-    @DSTransactional // 多数据源，使用 @DSTransactional 保证本地事务，以及数据源的切换
+    @Transactional(rollbackFor = Exception.class) // 使用 Spring 事务，保证事务提交后再刷新权限索引
     @Caching(evict = {
             @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST,
             allEntries = true),
@@ -157,6 +212,11 @@ public class PermissionServiceImpl implements PermissionService {
         if (CollUtil.isNotEmpty(deleteMenuIds)) {
             roleMenuMapper.deleteListByRoleIdAndMenuIds(roleId, deleteMenuIds);
         }
+        // 事务提交后，刷新本地及其它节点的权限索引
+        afterCommit(() -> {
+            refreshRoleMenuIndex(roleId, menuIdList);
+            permissionProducer.sendRoleMenuRefreshMessage(roleId, menuIdList);
+        });
     }
 
     @Override
@@ -172,12 +232,22 @@ public class PermissionServiceImpl implements PermissionService {
         userRoleMapper.deleteListByRoleId(roleId);
         // 标记删除 RoleMenu
         roleMenuMapper.deleteListByRoleId(roleId);
+        // 事务提交后，刷新本地及其它节点的权限索引
+        afterCommit(() -> {
+            refreshRoleMenuIndex(roleId, Collections.emptySet());
+            permissionProducer.sendRoleMenuRefreshMessage(roleId, Collections.emptySet());
+        });
     }
 
     @Override
     @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST, key = "#menuId")
     public void processMenuDeleted(Long menuId) {
         roleMenuMapper.deleteListByMenuId(menuId);
+        // 事务提交后，刷新本地及其它节点的权限索引
+        afterCommit(() -> {
+            refreshMenuIndex(menuId, null, true);
+            permissionProducer.sendMenuRefreshMessage(menuId, null, true);
+        });
     }
 
     @Override
@@ -197,6 +197,15 @@ public interface AdminUserService {
      */
     UserImportRespVO importUserList(List<UserImportExcelVO> importUsers, boolean isUpdateSupport);
 
+    /**
+     * 导入一批用户，用于流式导入的分批处理，每批一个事务
+     *
+     * @param importUsers     导入用户列表
+     * @param isUpdateSupport 是否支持更新
+     * @param respVO          导入结果，本批的结果累加到其中
+     */
+    void importUserList(List<UserImportExcelVO> importUsers, boolean isUpdateSupport, UserImportRespVO respVO);
+
     /**
      * 获得指定状态的用户们
      *
@@ -0,0 +1,143 @@
+package cn.iocoder.yudao.module.system.service.dept;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link DeptTreeIndex} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class DeptTreeIndexTest {
+
+    /**
+     * 部门树：
+     * 1
+     * ├── 2
+     * │   ├── 4
+     * │   └── 5
+     * │       └── 7
+     * └── 3
+     *     └── 6
+     */
+    private static final List<DeptDO> DEPTS = Arrays.asList(buildDept(1L, DeptDO.PARENT_ID_ROOT),
+            buildDept(2L, 1L), buildDept(3L, 1L), buildDept(4L, 2L), buildDept(5L, 2L),
+            buildDept(6L, 3L), buildDept(7L, 5L));
+
+    @Test
+    public void testGetChildDeptIds() {
+        // 准备参数
+        DeptTreeIndex index = new DeptTreeIndex(DEPTS);
+
+        // 调用，并断言：按照层级顺序返回，不包括自身
+        assertEquals(Arrays.asList(2L, 3L, 4L, 5L, 6L, 7L), sorted(index.getChildDeptIds(Collections.singleton(1L))));
+        assertEquals(new HashSet<>(Arrays.asList(4L, 5L, 7L)), index.getChildDeptIds(Collections.singleton(2L)));
+        assertEquals(new HashSet<>(Arrays.asList(6L, 7L)), index.getChildDeptIds(Arrays.asList(3L, 5L, null)));
+        assertTrue(index.getChildDeptIds(Collections.singleton(7L)).isEmpty());
+        assertTrue(index.getChildDeptIds(Collections.singleton(100L)).isEmpty());
+    }
+
+    @Test
+    public void testGetChildDeptIds_levelOrder() {
+        // 准备参数
+        DeptTreeIndex index = new DeptTreeIndex(DEPTS);
+
+        // 调用
+        List<Long> childIds = new ArrayList<>(index.getChildDeptIds(Collections.singleton(1L)));
+        // 断言：上一层的部门，都在下一层的部门之前
+        assertEquals(new HashSet<>(Arrays.asList(2L, 3L)), new HashSet<>(childIds.subList(0, 2)));
+        assertEquals(new HashSet<>(Arrays.asList(4L, 5L, 6L)), new HashSet<>(childIds.subList(2, 5)));
+        assertEquals(Long.valueOf(7L), childIds.get(5));
+    }
+
+    @Test
+    public void testGetChildDeptIds_filter() {
+        // 准备参数：没有部门 2 的数据权限
+        DeptTreeIndex index = new DeptTreeIndex(DEPTS);
+        Set<Long> visibleIds = new HashSet<>(Arrays.asList(3L, 4L, 5L, 6L, 7L));
+
+        // 调用
+        Set<Long> childIds = index.getChildDeptIds(Collections.singleton(1L), visibleIds::contains);
+        // 断言：部门 2 被过滤后，不再遍历它的子部门
+        assertEquals(new HashSet<>(Arrays.asList(3L, 6L)), childIds);
+    }
+
+    @Test
+    public void testIsAncestor() {
+        // 准备参数
+        DeptTreeIndex index = new DeptTreeIndex(DEPTS);
+
+        // 调用，并断言
+        assertTrue(index.isAncestor(7L, 1L));
+        assertTrue(index.isAncestor(7L, 5L));
+        assertFalse(index.isAncestor(7L, 3L));
+        assertFalse(index.isAncestor(1L, 7L));
+        assertFalse(index.isAncestor(7L, 7L));
+    }
+
+    @Test
+    public void testIsAncestor_cycle() {
+        // 准备参数：脏数据形成环路
+        DeptTreeIndex index = new DeptTreeIndex(Arrays.asList(buildDept(1L, 2L), buildDept(2L, 1L)));
+
+        // 调用，并断言：不会死循环
+        assertFalse(index.isAncestor(1L, 3L));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), index.getChildDeptIds(Collections.singleton(1L)));
+    }
+
+    @Test
+    public void testPutDept_move() {
+        // 准备参数
+        DeptTreeIndex index = new DeptTreeIndex(DEPTS);
+
+        // 调用：部门 5 从部门 2 移动到部门 3 下
+        index.putDept(5L, 3L);
+        // 断言
+        assertEquals(Collections.singleton(4L), index.getChildDeptIds(Collections.singleton(2L)));
+        assertEquals(new HashSet<>(Arrays.asList(5L, 6L, 7L)), index.getChildDeptIds(Collections.singleton(3L)));
+        assertTrue(index.isAncestor(7L, 3L));
+        assertFalse(index.isAncestor(7L, 2L));
+    }
+
+    @Test
+    public void testPutDept_nullParent() {
+        // 准备参数
+        DeptTreeIndex index = new DeptTreeIndex(DEPTS);
+
+        // 调用：父部门为空时，作为根部门
+        index.putDept(8L, null);
+        // 断言
+        assertTrue(index.getChildDeptIds(Collections.singleton(DeptDO.PARENT_ID_ROOT)).contains(8L));
+    }
+
+    @Test
+    public void testRemoveDept() {
+        // 准备参数
+        DeptTreeIndex index = new DeptTreeIndex(DEPTS);
+
+        // 调用
+        index.removeDept(7L);
+        index.removeDept(100L); // 不存在的部门，忽略
+        // 断言
+        assertTrue(index.getChildDeptIds(Collections.singleton(5L)).isEmpty());
+        assertFalse(index.isAncestor(7L, 5L));
+    }
+
+    private static List<Long> sorted(Set<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        Collections.sort(list);
+        return list;
+    }
+
+    private static DeptDO buildDept(Long id, Long parentId) {
+        DeptDO dept = new DeptDO();
+        dept.setId(id);
+        dept.setParentId(parentId);
+        return dept;
+    }
+
+}
@@ -0,0 +1,159 @@
+package cn.iocoder.yudao.module.system.service.permission;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleMenuDO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link PermissionIndex} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class PermissionIndexTest {
+
+    @Test
+    public void testHasAnyPermission() {
+        // 准备参数：角色 1 拥有菜单 10，角色 2 拥有菜单 20
+        PermissionIndex index = new PermissionIndex(
+                Arrays.asList(buildMenu(10L, "system:user:query"), buildMenu(20L, "system:role:query")),
+                Arrays.asList(buildRoleMenu(1L, 10L), buildRoleMenu(2L, 20L)));
+
+        // 调用，并断言
+        assertTrue(index.hasAnyPermission(Collections.singleton(1L), "system:user:query"));
+        assertFalse(index.hasAnyPermission(Collections.singleton(1L), "system:role:query"));
+        assertTrue(index.hasAnyPermission(Arrays.asList(1L, 2L), "system:role:query"));
+        // 权限标识找不到对应的菜单时，认为没有权限
+        assertFalse(index.hasAnyPermission(Collections.singleton(1L), "system:dept:query"));
+    }
+
+    @Test
+    public void testPutRoleMenus() {
+        // 准备参数
+        PermissionIndex index = new PermissionIndex(
+                Arrays.asList(buildMenu(10L, "system:user:query"), buildMenu(20L, "system:role:query")),
+                Collections.singletonList(buildRoleMenu(1L, 10L)));
+
+        // 调用：整体替换角色的菜单
+        index.putRoleMenus(1L, Collections.singleton(20L));
+        // 断言
+        assertFalse(index.hasAnyPermission(Collections.singleton(1L), "system:user:query"));
+        assertTrue(index.hasAnyPermission(Collections.singleton(1L), "system:role:query"));
+
+        // 调用：角色删除
+        index.putRoleMenus(1L, Collections.emptySet());
+        // 断言
+        assertFalse(index.hasAnyPermission(Collections.singleton(1L), "system:role:query"));
+    }
+
+    @Test
+    public void testPutMenu_removeMenu() {
+        // 准备参数
+        PermissionIndex index = new PermissionIndex(
+                Collections.singletonList(buildMenu(10L, "system:user:query")),
+                Collections.singletonList(buildRoleMenu(1L, 10L)));
+
+        // 调用：修改菜单的权限标识
+        index.putMenu(10L, "system:user:update");
+        // 断言
+        assertFalse(index.hasAnyPermission(Collections.singleton(1L), "system:user:query"));
+        assertTrue(index.hasAnyPermission(Collections.singleton(1L), "system:user:update"));
+
+        // 调用：删除菜单
+        index.removeMenu(10L);
+        // 断言
+        assertFalse(index.hasAnyPermission(Collections.singleton(1L), "system:user:update"));
+        // 再次新增同一权限标识的菜单，不会继承被删除菜单的授权
+        index.putMenu(11L, "system:user:update");
+        assertFalse(index.hasAnyPermission(Collections.singleton(1L), "system:user:update"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testHasAnyPermission_latency(TestReporter reporter) {
+        // 准备参数：10000 个菜单，1000 个角色，每个角色拥有 1000 个菜单
+        int menuCount = 10_000;
+        int roleCount = 1_000;
+        Random random = new Random(0);
+        List<MenuDO> menus = new ArrayList<>(menuCount);
+        for (long menuId = 0; menuId < menuCount; menuId++) {
+            menus.add(buildMenu(menuId, "system:menu:" + menuId));
+        }
+        List<RoleMenuDO> roleMenus = new ArrayList<>();
+        Map<Long, Set<Long>> roleMenuMap = new HashMap<>();
+        for (long roleId = 0; roleId < roleCount; roleId++) {
+            Set<Long> menuIds = roleMenuMap.computeIfAbsent(roleId, key -> new HashSet<>());
+            while (menuIds.size() < 1_000) {
+                long menuId = random.nextInt(menuCount);
+                if (menuIds.add(menuId)) {
+                    roleMenus.add(buildRoleMenu(roleId, menuId));
+                }
+            }
+        }
+        // 对照：原实现先查询权限标识对应的菜单，再查询菜单对应的角色，最后判断是否有交集（此处去掉了 Redis 的访问）
+        Map<String, Set<Long>> permissionMenuMap = new HashMap<>();
+        menus.forEach(menu -> permissionMenuMap.computeIfAbsent(menu.getPermission(), key -> new HashSet<>()).add(menu.getId()));
+        Map<Long, Set<Long>> menuRoleMap = new HashMap<>();
+        roleMenus.forEach(roleMenu -> menuRoleMap.computeIfAbsent(roleMenu.getMenuId(), key -> new HashSet<>()).add(roleMenu.getRoleId()));
+
+        long buildStartTime = System.nanoTime();
+        PermissionIndex index = new PermissionIndex(menus, roleMenus);
+        long buildElapsed = System.nanoTime() - buildStartTime;
+
+        // 调用：每个用户 3 个角色
+        int iterations = 1_000_000;
+        List<List<Long>> userRoleIds = new ArrayList<>();
+        List<String> permissions = new ArrayList<>();
+        for (int i = 0; i < 1024; i++) {
+            userRoleIds.add(Arrays.asList((long) random.nextInt(roleCount), (long) random.nextInt(roleCount),
+                    (long) random.nextInt(roleCount)));
+            permissions.add("system:menu:" + random.nextInt(menuCount));
+        }
+        int indexHits = 0;
+        long indexStartTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (index.hasAnyPermission(userRoleIds.get(i & 1023), permissions.get(i & 1023))) {
+                indexHits++;
+            }
+        }
+        long indexElapsed = System.nanoTime() - indexStartTime;
+        int mapHits = 0;
+        long mapStartTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            List<Long> roleIds = userRoleIds.get(i & 1023);
+            for (Long menuId : permissionMenuMap.getOrDefault(permissions.get(i & 1023), Collections.emptySet())) {
+                if (!Collections.disjoint(roleIds, menuRoleMap.getOrDefault(menuId, Collections.emptySet()))) {
+                    mapHits++;
+                    break;
+                }
+            }
+        }
+        long mapElapsed = System.nanoTime() - mapStartTime;
+
+        // 断言：两种实现的结果一致
+        assertEquals(mapHits, indexHits);
+        reporter.publishEntry("构建耗时（ms）", String.valueOf(buildElapsed / 1_000_000));
+        reporter.publishEntry("位图平均耗时（ns）", String.valueOf(indexElapsed / iterations));
+        reporter.publishEntry("集合平均耗时（ns）", String.valueOf(mapElapsed / iterations));
+    }
+
+    private static MenuDO buildMenu(Long id, String permission) {
+        MenuDO menu = new MenuDO();
+        menu.setId(id);
+        menu.setPermission(permission);
+        return menu;
+    }
+
+    private static RoleMenuDO buildRoleMenu(Long roleId, Long menuId) {
+        RoleMenuDO roleMenu = new RoleMenuDO();
+        roleMenu.setRoleId(roleId);
+        roleMenu.setMenuId(menuId);
+        return roleMenu;
+    }
+
+}
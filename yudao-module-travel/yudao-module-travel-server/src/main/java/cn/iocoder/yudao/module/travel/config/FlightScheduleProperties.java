@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 航班计划配置属性
+ *
+ * @author 芋道源码
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "flight-schedule")
+public class FlightScheduleProperties {
+
+    /**
+     * 启动时加载的航班计划文件，格式参见 FlightScheduleParser
+     */
+    private String location = "classpath:flight/flight-schedule.txt";
+
+    /**
+     * 销售窗口的天数，只展开 [今天, 今天 + horizonDays) 范围内的航班
+     */
+    private int horizonDays = 365;
+
+}
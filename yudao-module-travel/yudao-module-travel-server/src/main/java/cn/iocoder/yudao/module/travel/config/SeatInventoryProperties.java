@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.travel.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 座位库存配置属性
+ *
+ * @author 芋道源码
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "seat-inventory")
+public class SeatInventoryProperties {
+
+    /**
+     * 占座的有效期，过期后自动归还座位
+     */
+    private Duration holdTtl = Duration.ofMinutes(30);
+
+    /**
+     * 检查占座过期的间隔
+     */
+    private Duration expireInterval = Duration.ofSeconds(1);
+
+    /**
+     * 已售座位数写入数据库的间隔
+     */
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+}
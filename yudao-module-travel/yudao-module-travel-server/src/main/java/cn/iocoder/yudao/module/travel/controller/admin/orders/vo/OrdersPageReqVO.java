@@ -3,7 +3,7 @@ package cn.iocoder.yudao.module.travel.controller.admin.orders.vo;
 import lombok.*;
 import java.util.*;
 import io.swagger.v3.oas.annotations.media.Schema;
-import cn.iocoder.yudao.framework.common.pojo.PageParam;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageParam;
 import java.math.BigDecimal;
 import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDateTime;
@@ -12,7 +12,7 @@ import static cn.iocoder.yudao.framework.common.util.date.DateUtils.FORMAT_YEAR_
 
 @Schema(description = "管理后台 - 订单分页 Request VO")
 @Data
-public class OrdersPageReqVO extends PageParam {
+public class OrdersPageReqVO extends CursorPageParam {
 
     @Schema(description = "订单号")
     private String orderNo;
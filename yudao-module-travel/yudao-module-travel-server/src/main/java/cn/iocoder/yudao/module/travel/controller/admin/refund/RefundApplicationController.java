@@ -111,6 +111,14 @@ public class RefundApplicationController {
         return success(feeInfo);
     }
 
+    @PostMapping("/calculate-fee-batch")
+    @Operation(summary = "批量计算订单的退票费用")
+    @PreAuthorize("@ss.hasPermission('studio:refund:calculate')")
+    public CommonResult<List<RefundFeeRespVO>> calculateRefundFeeBatch(@Valid @RequestBody RefundFeeBatchCalculateReqVO calculateReqVO) {
+        List<RefundFeeRespVO> feeInfos = refundApplicationService.calculateRefundFeeBatch(calculateReqVO);
+        return success(feeInfos);
+    }
+
     @GetMapping("/export-excel")
     @Operation(summary = "导出退票记录")
     @PreAuthorize("@ss.hasPermission('studio:refund:export')")
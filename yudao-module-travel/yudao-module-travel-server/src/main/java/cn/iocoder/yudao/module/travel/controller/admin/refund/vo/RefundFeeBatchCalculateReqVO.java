@@ -0,0 +1,24 @@
+package cn.iocoder.yudao.module.travel.controller.admin.refund.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+@Schema(description = "管理后台 - 退票费用批量计算 Request VO")
+@Data
+public class RefundFeeBatchCalculateReqVO {
+
+    @Schema(description = "订单ID", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "订单ID不能为空")
+    private Long orderId;
+
+    @Schema(description = "退票类型", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "退票类型不能为空")
+    private Integer refundType;
+
+    @Schema(description = "航段ID列表，为空时计算订单所有可退票的航段")
+    private List<Long> segmentIds;
+
+}
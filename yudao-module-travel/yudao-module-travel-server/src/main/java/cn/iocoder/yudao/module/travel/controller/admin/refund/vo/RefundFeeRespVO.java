@@ -10,6 +10,12 @@ import java.util.List;
 @Data
 public class RefundFeeRespVO {
 
+    @Schema(description = "航段ID")
+    private Long segmentId;
+
+    @Schema(description = "乘客ID")
+    private Long passengerId;
+
     @Schema(description = "原票价")
     private BigDecimal originalTicketPrice;
 
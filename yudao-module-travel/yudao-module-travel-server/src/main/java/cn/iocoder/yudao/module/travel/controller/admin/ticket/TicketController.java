@@ -4,6 +4,7 @@ import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.module.travel.controller.admin.ticket.vo.*;
 import cn.iocoder.yudao.module.travel.service.ticket.TicketService;
 import cn.iocoder.yudao.module.travel.service.base.BaseDataService;
+import cn.iocoder.yudao.module.travel.service.flight.FlightScheduleService;
 import cn.iocoder.yudao.module.travel.service.flight.FlightService;
 import cn.iocoder.yudao.module.travel.service.fee.FeeCalculateService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +15,7 @@ import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -34,6 +36,9 @@ public class TicketController {
     @Resource
     private FlightService flightService;
 
+    @Resource
+    private FlightScheduleService flightScheduleService;
+
     @Resource
     private FeeCalculateService feeCalculateService;
 
@@ -45,6 +50,14 @@ public class TicketController {
         return success(result);
     }
 
+    @PostMapping("/issue-batch")
+    @Operation(summary = "批量执行订单出票")
+    @PreAuthorize("@ss.hasPermission('studio:ticket:issue')")
+    public CommonResult<List<TicketIssueRespVO>> issueTicketBatch(@Valid @RequestBody TicketBatchIssueReqVO reqVO) {
+        List<TicketIssueRespVO> result = ticketService.issueTicketBatch(reqVO);
+        return success(result);
+    }
+
     @GetMapping("/airports")
     @Operation(summary = "获取机场列表")
     @PreAuthorize("@ss.hasPermission('studio:ticket:query')")
@@ -72,6 +85,14 @@ public class TicketController {
         return success(result);
     }
 
+    @PostMapping("/flight-schedule/import")
+    @Operation(summary = "导入航班计划", description = "全量替换当前的航班计划，已售座位数会保留")
+    @Parameter(name = "file", description = "航班计划文件", required = true)
+    @PreAuthorize("@ss.hasPermission('studio:ticket:import-schedule')")
+    public CommonResult<Integer> importFlightSchedules(@RequestParam("file") MultipartFile file) throws Exception {
+        return success(flightScheduleService.importSchedules(file.getInputStream()));
+    }
+
     @PostMapping("/calculate-fees")
     @Operation(summary = "计算费用")
     @PreAuthorize("@ss.hasPermission('studio:ticket:calculate')")
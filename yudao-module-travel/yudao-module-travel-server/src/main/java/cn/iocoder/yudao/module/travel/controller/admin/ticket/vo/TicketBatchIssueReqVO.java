@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.module.travel.controller.admin.ticket.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.*;
+
+@Schema(description = "管理后台 - 批量出票请求 VO")
+@Data
+public class TicketBatchIssueReqVO {
+
+    @Schema(description = "订单出票请求列表，用于团队、企业差旅的批量出票", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "订单出票请求不能为空")
+    @Size(max = 100, message = "单次最多出票 100 个订单")
+    @Valid
+    private List<TicketIssueReqVO> orders;
+
+}
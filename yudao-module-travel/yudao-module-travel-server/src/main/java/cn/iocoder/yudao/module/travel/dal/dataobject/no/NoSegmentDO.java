@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.travel.dal.dataobject.no;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 序号号段 DO
+ *
+ * 记录每种序号已租用的最大序号（高水位）。每个号段写入后才会分配，所以高水位不小于任何已分配的序号，
+ * 用于 Redis 中的号段 key 丢失时重新初始化
+ *
+ * @author 芋道源码
+ */
+@TableName("studio_no_segment")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class NoSegmentDO extends BaseDO {
+
+    /**
+     * 序号类型，例如说 ticket、order
+     */
+    @TableId(type = IdType.INPUT)
+    private String type;
+
+    /**
+     * 已租用的最大序号
+     */
+    private Long maxValue;
+
+}
@@ -0,0 +1,40 @@
+package cn.iocoder.yudao.module.travel.dal.dataobject.seat;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+/**
+ * 座位库存 DO
+ *
+ * 只记录已售座位数，由 SeatInventoryEngine 定期异步写入；剩余座位数 = 航班计划的座位数 - 已售座位数
+ *
+ * @author 芋道源码
+ */
+@TableName("studio_seat_inventory")
+@KeySequence("studio_seat_inventory_seq")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class SeatInventoryDO extends BaseDO {
+
+    @TableId
+    private Long id;
+
+    /** 航班号 */
+    private String flightNo;
+
+    /** 出发日期 */
+    private LocalDate departureDate;
+
+    /** 舱位等级 */
+    private String cabinClass;
+
+    /** 已售座位数 */
+    private Integer soldSeats;
+
+}
@@ -7,6 +7,8 @@ import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.module.travel.dal.dataobject.flightsegments.FlightSegmentsDO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import cn.iocoder.yudao.module.travel.controller.admin.flightsegments.vo.*;
 
 /**
@@ -36,4 +38,17 @@ public interface FlightSegmentsMapper extends BaseMapperX<FlightSegmentsDO> {
                 .orderByDesc(FlightSegmentsDO::getId));
     }
 
+    /**
+     * 查询区间内已使用的电子票号，包括已删除的航段
+     *
+     * @param min    最小电子票号（包含）
+     * @param max    最大电子票号（包含）
+     * @param length 电子票号长度，定长时字符串的大小即数值的大小
+     * @return 电子票号列表
+     */
+    @Select("SELECT ticket_no FROM studio_flight_segments"
+            + " WHERE ticket_no BETWEEN #{min} AND #{max} AND LENGTH(ticket_no) = #{length}")
+    List<String> selectTicketNoListBetween(@Param("min") String min, @Param("max") String max,
+                                           @Param("length") int length);
+
 }
\ No newline at end of file
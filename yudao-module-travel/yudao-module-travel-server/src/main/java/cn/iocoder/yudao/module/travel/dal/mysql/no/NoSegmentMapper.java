@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.travel.dal.mysql.no;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.module.travel.dal.dataobject.no.NoSegmentDO;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 序号号段 Mapper
+ *
+ * @author 芋道源码
+ */
+@Mapper
+public interface NoSegmentMapper extends BaseMapperX<NoSegmentDO> {
+
+    /**
+     * 推进已租用的最大序号，记录不存在时插入
+     *
+     * 只增不减：多个节点并发写入、或者先租用的号段后写入时，保留较大的值
+     */
+    @Insert("INSERT INTO studio_no_segment (type, max_value, create_time, update_time) "
+            + "VALUES (#{type}, #{maxValue}, NOW(), NOW()) "
+            + "ON DUPLICATE KEY UPDATE max_value = GREATEST(max_value, #{maxValue}), update_time = NOW()")
+    int upsertMaxValue(@Param("type") String type, @Param("maxValue") long maxValue);
+
+}
@@ -30,4 +30,26 @@ public interface OrderFeesMapper extends BaseMapperX<OrderFeesDO> {
                 .orderByDesc(OrderFeesDO::getId));
     }
 
-}
\ No newline at end of file
+    /**
+     * 获得乘客的第一条指定类型的费用
+     */
+    default OrderFeesDO selectFirstByOrderIdAndPassengerIdAndFeeType(Long orderId, Long passengerId, String feeType) {
+        return selectOne(new LambdaQueryWrapperX<OrderFeesDO>()
+                .eq(OrderFeesDO::getOrderId, orderId)
+                .eq(OrderFeesDO::getPassengerId, passengerId)
+                .eq(OrderFeesDO::getFeeType, feeType)
+                .orderByAsc(OrderFeesDO::getId)
+                .last("LIMIT 1"));
+    }
+
+    /**
+     * 获得订单的指定类型的费用列表
+     */
+    default List<OrderFeesDO> selectListByOrderIdAndFeeType(Long orderId, String feeType) {
+        return selectList(new LambdaQueryWrapperX<OrderFeesDO>()
+                .eq(OrderFeesDO::getOrderId, orderId)
+                .eq(OrderFeesDO::getFeeType, feeType)
+                .orderByAsc(OrderFeesDO::getId));
+    }
+
+}
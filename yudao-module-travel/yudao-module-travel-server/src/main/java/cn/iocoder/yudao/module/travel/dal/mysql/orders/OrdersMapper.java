@@ -7,6 +7,8 @@ import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.module.travel.dal.dataobject.orders.OrdersDO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import cn.iocoder.yudao.module.travel.controller.admin.orders.vo.*;
 
 /**
@@ -18,7 +20,7 @@ import cn.iocoder.yudao.module.travel.controller.admin.orders.vo.*;
 public interface OrdersMapper extends BaseMapperX<OrdersDO> {
 
     default PageResult<OrdersDO> selectPage(OrdersPageReqVO reqVO) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<OrdersDO>()
+        LambdaQueryWrapperX<OrdersDO> query = new LambdaQueryWrapperX<OrdersDO>()
                 .likeIfPresent(OrdersDO::getOrderNo, reqVO.getOrderNo())
 //                .eqIfPresent(OrdersDO::getUserId, reqVO.getUserId())
                 .eqIfPresent(OrdersDO::getOrderStatus, reqVO.getOrderStatus())
@@ -26,8 +28,11 @@ public interface OrdersMapper extends BaseMapperX<OrdersDO> {
                 .eqIfPresent(OrdersDO::getBookingType, reqVO.getBookingType())
                 .likeIfPresent(OrdersDO::getContactName, reqVO.getContactName())
                 .likeIfPresent(OrdersDO::getContactPhone, reqVO.getContactPhone())
-                .betweenIfPresent(OrdersDO::getCreateTime, reqVO.getCreateTime())
-                .orderByDesc(OrdersDO::getId));
+                .betweenIfPresent(OrdersDO::getCreateTime, reqVO.getCreateTime());
+        if (reqVO.isCursorMode()) {
+            return selectPageByCursor(reqVO, query, OrdersDO::getId, true);
+        }
+        return selectPage(reqVO, query.orderByDesc(OrdersDO::getId));
     }
 
     /**
@@ -37,4 +42,19 @@ public interface OrdersMapper extends BaseMapperX<OrdersDO> {
         return selectOne(OrdersDO::getOrderNo, orderNo);
     }
 
+    /**
+     * 查询订单号中已使用的最大序号，包括已删除的订单
+     *
+     * 订单号为 前缀 + 日期 + 定长序号，只比较末尾的序号部分
+     *
+     * @param prefix         订单号前缀
+     * @param length         订单号长度，用于排除其它格式的历史订单号
+     * @param sequenceLength 序号长度
+     * @return 最大序号；不存在时，返回 null
+     */
+    @Select("SELECT MAX(RIGHT(order_no, #{sequenceLength})) FROM studio_orders"
+            + " WHERE order_no LIKE CONCAT(#{prefix}, '%') AND LENGTH(order_no) = #{length}")
+    String selectMaxOrderNoSequence(@Param("prefix") String prefix, @Param("length") int length,
+                                    @Param("sequenceLength") int sequenceLength);
+
 }
\ No newline at end of file
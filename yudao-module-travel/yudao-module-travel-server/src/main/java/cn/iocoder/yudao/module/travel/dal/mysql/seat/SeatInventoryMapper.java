@@ -0,0 +1,42 @@
+package cn.iocoder.yudao.module.travel.dal.mysql.seat;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.module.travel.dal.dataobject.seat.SeatInventoryDO;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 座位库存 Mapper
+ *
+ * @author 芋道源码
+ */
+@Mapper
+public interface SeatInventoryMapper extends BaseMapperX<SeatInventoryDO> {
+
+    default List<SeatInventoryDO> selectListByDepartureDateGe(LocalDate departureDate) {
+        return selectList(new LambdaQueryWrapperX<SeatInventoryDO>()
+                .ge(SeatInventoryDO::getDepartureDate, departureDate));
+    }
+
+    default SeatInventoryDO selectByFlight(String flightNo, LocalDate departureDate, String cabinClass) {
+        return selectOne(SeatInventoryDO::getFlightNo, flightNo, SeatInventoryDO::getDepartureDate, departureDate,
+                SeatInventoryDO::getCabinClass, cabinClass);
+    }
+
+    /**
+     * 累加已售座位数，记录不存在时插入
+     *
+     * 使用一条语句完成，不需要先查询再更新，也不会与其它节点的写入冲突
+     */
+    @Insert("INSERT INTO studio_seat_inventory (flight_no, departure_date, cabin_class, sold_seats, create_time, update_time) "
+            + "VALUES (#{flightNo}, #{departureDate}, #{cabinClass}, GREATEST(#{delta}, 0), NOW(), NOW()) "
+            + "ON DUPLICATE KEY UPDATE sold_seats = GREATEST(sold_seats + #{delta}, 0), update_time = NOW()")
+    int upsertSoldSeats(@Param("flightNo") String flightNo, @Param("departureDate") LocalDate departureDate,
+                        @Param("cabinClass") String cabinClass, @Param("delta") int delta);
+
+}
@@ -0,0 +1,35 @@
+package cn.iocoder.yudao.module.travel.dal.redis;
+
+/**
+ * Travel Redis Key 枚举类
+ *
+ * @author 芋道源码
+ */
+public interface RedisKeyConstants {
+
+    /**
+     * 序号号段的已分配上限，用于生成电子票号、订单号
+     *
+     * KEY 格式：travel_no_segment:{type}
+     * VALUE 数据类型：String 已分配的最大序号，通过 INCRBY 租用号段；不存在时，基于 DB 记录的高水位，并留出安全间隔初始化
+     */
+    String NO_SEGMENT = "travel_no_segment:%s";
+
+    /**
+     * 航班舱位的已占用座位数（已售 + 占座），集群中所有节点共享，用于防止超卖
+     *
+     * KEY 格式：travel_seat_occupied:{flightNo}:{departureDate}:{cabinClass}
+     * VALUE 数据类型：String 已占用座位数，通过 Lua 脚本检查上限后增加；不存在时，基于 DB 记录的已售座位数初始化
+     * 过期时间：航班出发日期的次日结束
+     */
+    String SEAT_OCCUPIED = "travel_seat_occupied:%s:%s:%s";
+
+    /**
+     * 最近一次导入的航班计划文件，集群中所有节点从这里加载
+     *
+     * KEY 格式：travel_flight_schedule
+     * VALUE 数据类型：String 航班计划文件的内容，格式参见 FlightScheduleParser
+     */
+    String FLIGHT_SCHEDULE = "travel_flight_schedule";
+
+}
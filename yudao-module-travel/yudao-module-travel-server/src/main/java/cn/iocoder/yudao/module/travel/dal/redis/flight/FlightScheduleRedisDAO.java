@@ -0,0 +1,40 @@
+package cn.iocoder.yudao.module.travel.dal.redis.flight;
+
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import static cn.iocoder.yudao.module.travel.dal.redis.RedisKeyConstants.FLIGHT_SCHEDULE;
+
+/**
+ * 航班计划文件的 RedisDAO
+ *
+ * 导入的航班计划文件保存在 Redis 中，集群中每个节点都从这里加载，保证各节点的航班计划一致
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class FlightScheduleRedisDAO {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 获得最近一次导入的航班计划文件
+     *
+     * @return 文件内容；未导入过时，返回 null
+     */
+    public String get() {
+        return stringRedisTemplate.opsForValue().get(FLIGHT_SCHEDULE);
+    }
+
+    /**
+     * 保存导入的航班计划文件
+     *
+     * @param content 文件内容
+     */
+    public void set(String content) {
+        stringRedisTemplate.opsForValue().set(FLIGHT_SCHEDULE, content);
+    }
+
+}
@@ -0,0 +1,58 @@
+package cn.iocoder.yudao.module.travel.dal.redis.no;
+
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.LongSupplier;
+
+import static cn.iocoder.yudao.module.travel.dal.redis.RedisKeyConstants.NO_SEGMENT;
+
+/**
+ * 序号号段的 RedisDAO
+ *
+ * 1. 基于 INCRBY 的原子性，集群中每个节点租用的号段互不重叠
+ * 2. key 不存在时（首次租用、Redis 数据丢失），先基于 DB 记录的高水位 SETNX 初始化，避免从 0 开始分配出重复的序号。
+ *    初始化时额外跳过 {@link #RESEED_GAP_SEGMENTS} 个号段：其它节点可能已经从丢失前的 Redis 租到号段，
+ *    但还没写入 DB 的高水位，跳过这部分序号，保证与它们的号段不重叠
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class NoSegmentRedisDAO {
+
+    /**
+     * 重新初始化时跳过的号段数，需要大于集群中同时租用号段的节点数
+     */
+    private static final int RESEED_GAP_SEGMENTS = 100;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 租用一个号段
+     *
+     * @param type        序号类型
+     * @param step        号段大小
+     * @param initializer key 不存在时，获取已使用的最大序号，例如说从 DB 查询高水位
+     * @return 号段的最大序号，号段为 (返回值 - step, 返回值]
+     */
+    public long lease(String type, int step, LongSupplier initializer) {
+        String key = formatKey(type);
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+            // 多个节点同时初始化时，SETNX 保证只有一个生效
+            long seed = initializer.getAsLong() + (long) step * RESEED_GAP_SEGMENTS;
+            stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(seed));
+        }
+        Long max = stringRedisTemplate.opsForValue().increment(key, step);
+        if (max == null) {
+            throw new IllegalStateException("租用号段失败：" + type);
+        }
+        return max;
+    }
+
+    private static String formatKey(String type) {
+        return String.format(NO_SEGMENT, type);
+    }
+
+}
@@ -0,0 +1,114 @@
+package cn.iocoder.yudao.module.travel.dal.redis.seat;
+
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.function.IntSupplier;
+
+import static cn.iocoder.yudao.module.travel.dal.redis.RedisKeyConstants.SEAT_OCCUPIED;
+
+/**
+ * 已占用座位数的 RedisDAO
+ *
+ * 1. 通过 Lua 脚本，在 Redis 中原子地完成「检查上限 + 增加」，集群中所有节点共享同一个计数，不会超卖
+ * 2. key 不存在时（首次扣减、Redis 数据丢失），基于 DB 记录的已售座位数初始化；
+ *    此时未写入 DB 的已售座位数、未过期的占座会丢失，由定期写入 DB 的间隔、占座的有效期决定影响范围
+ * 3. key 在航班出发的次日过期，避免历史航班的 key 堆积
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class SeatInventoryRedisDAO {
+
+    /**
+     * 原子增加已占用座位数
+     *
+     * KEYS[1]：key
+     * ARGV[1]：增加的座位数；ARGV[2]：座位数上限；ARGV[3]：key 不存在时的初始值，-1 表示未提供；ARGV[4]：过期时间戳（秒）
+     * 返回：1 成功；0 超过上限；-1 key 不存在，需要提供初始值
+     */
+    private static final RedisScript<Long> INCREASE_SCRIPT = new DefaultRedisScript<>(
+            "local occupied = redis.call('GET', KEYS[1])\n"
+                    + "if not occupied then\n"
+                    + "  if tonumber(ARGV[3]) < 0 then return -1 end\n"
+                    + "  occupied = ARGV[3]\n"
+                    + "  redis.call('SET', KEYS[1], occupied)\n"
+                    + "  redis.call('EXPIREAT', KEYS[1], ARGV[4])\n"
+                    + "end\n"
+                    + "if tonumber(occupied) + tonumber(ARGV[1]) > tonumber(ARGV[2]) then return 0 end\n"
+                    + "redis.call('INCRBY', KEYS[1], ARGV[1])\n"
+                    + "return 1", Long.class);
+
+    /**
+     * 减少已占用座位数，最小减到 0；key 不存在时不处理
+     *
+     * KEYS[1]：key
+     * ARGV[1]：减少的座位数
+     */
+    private static final RedisScript<Long> DECREASE_SCRIPT = new DefaultRedisScript<>(
+            "local occupied = redis.call('GET', KEYS[1])\n"
+                    + "if not occupied then return 0 end\n"
+                    + "return redis.call('DECRBY', KEYS[1], math.min(tonumber(occupied), tonumber(ARGV[1])))", Long.class);
+
+    private static final int INCREASE_SUCCESS = 1;
+    private static final int INCREASE_UNINITIALIZED = -1;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 增加已占用座位数
+     *
+     * @param flightNo      航班号
+     * @param departureDate 出发日期
+     * @param cabinClass    舱位等级
+     * @param count         座位数量
+     * @param seats         座位数上限
+     * @param initializer   key 不存在时，获取已售座位数，例如说从 DB 查询
+     * @return 是否成功；超过上限时，返回 false
+     */
+    public boolean tryIncrease(String flightNo, LocalDate departureDate, String cabinClass, int count, int seats,
+                               IntSupplier initializer) {
+        String key = formatKey(flightNo, departureDate, cabinClass);
+        long result = increase(key, departureDate, count, seats, -1);
+        if (result == INCREASE_UNINITIALIZED) {
+            // 多个节点同时初始化时，脚本中再次判断 key 是否存在，保证只有一个生效
+            result = increase(key, departureDate, count, seats, Math.max(initializer.getAsInt(), 0));
+        }
+        return result == INCREASE_SUCCESS;
+    }
+
+    /**
+     * 减少已占用座位数
+     *
+     * @param flightNo      航班号
+     * @param departureDate 出发日期
+     * @param cabinClass    舱位等级
+     * @param count         座位数量
+     */
+    public void decrease(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        stringRedisTemplate.execute(DECREASE_SCRIPT, Collections.singletonList(
+                formatKey(flightNo, departureDate, cabinClass)), String.valueOf(count));
+    }
+
+    private long increase(String key, LocalDate departureDate, int count, int seats, int initial) {
+        long expireAt = departureDate.plusDays(2).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+        Long result = stringRedisTemplate.execute(INCREASE_SCRIPT, Collections.singletonList(key),
+                String.valueOf(count), String.valueOf(seats), String.valueOf(initial), String.valueOf(expireAt));
+        if (result == null) {
+            throw new IllegalStateException("增加已占用座位数失败：" + key);
+        }
+        return result;
+    }
+
+    private static String formatKey(String flightNo, LocalDate departureDate, String cabinClass) {
+        return String.format(SEAT_OCCUPIED, flightNo, departureDate, cabinClass);
+    }
+
+}
@@ -29,6 +29,8 @@ public interface ErrorCodeConstants {
     // ========== 出票模块 1-003-005-000 ==========
     ErrorCode TICKET_ISSUE_ERROR = new ErrorCode(1_003_005_000, "出票失败");
     ErrorCode TICKET_ALREADY_ISSUED = new ErrorCode(1_003_005_001, "票已出，无法重复出票");
+    ErrorCode TICKET_ORDER_DUPLICATE = new ErrorCode(1_003_005_002, "批量出票中，订单({})重复");
+    ErrorCode TICKET_PASSENGER_DUPLICATE = new ErrorCode(1_003_005_003, "批量出票中，乘客({})重复");
 
     // ========== 退票模块 1-003-006-000 ==========
     ErrorCode REFUND_APPLICATION_NOT_EXISTS = new ErrorCode(1_003_006_000, "退票申请不存在");
@@ -45,4 +47,12 @@ public interface ErrorCodeConstants {
     ErrorCode REFUND_PASSENGER_NOT_EXISTS = new ErrorCode(1_003_006_011, "乘客不存在");
     ErrorCode REFUND_APPLICATION_ALREADY_EXISTS = new ErrorCode(1_003_006_012, "该乘客已有未完成的退票申请");
 
+    // ========== 航班计划模块 1-003-007-000 ==========
+    ErrorCode FLIGHT_SCHEDULE_IMPORT_FAILED = new ErrorCode(1_003_007_000, "航班计划导入失败：{}");
+
+    // ========== 座位库存模块 1-003-008-000 ==========
+    ErrorCode SEAT_INVENTORY_NOT_ENOUGH = new ErrorCode(1_003_008_000, "航班 {} 的 {} 舱位剩余座位不足");
+    ErrorCode SEAT_INVENTORY_FLIGHT_NOT_EXISTS = new ErrorCode(1_003_008_001, "航班 {} 在 {} 没有 {} 舱位");
+    ErrorCode SEAT_INVENTORY_NOT_LOADED = new ErrorCode(1_003_008_002, "航班计划未加载，暂时无法售出座位");
+
 }
\ No newline at end of file
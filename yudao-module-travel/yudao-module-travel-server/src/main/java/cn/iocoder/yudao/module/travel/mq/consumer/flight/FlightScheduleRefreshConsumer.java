@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.travel.mq.consumer.flight;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.travel.mq.message.flight.FlightScheduleRefreshMessage;
+import cn.iocoder.yudao.module.travel.service.flight.FlightScheduleService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 针对 {@link FlightScheduleRefreshMessage} 的消费者，重新加载当前节点的航班计划
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class FlightScheduleRefreshConsumer extends AbstractRedisChannelMessageListener<FlightScheduleRefreshMessage> {
+
+    @Resource
+    private FlightScheduleService flightScheduleService;
+
+    @Override
+    public void onMessage(FlightScheduleRefreshMessage message) {
+        log.info("[onMessage][航班计划({}) 刷新]", message.getVersion());
+        flightScheduleService.reloadSchedules();
+    }
+
+}
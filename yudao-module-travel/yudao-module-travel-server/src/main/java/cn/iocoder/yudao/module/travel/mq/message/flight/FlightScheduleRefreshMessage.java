@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.module.travel.mq.message.flight;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 航班计划刷新消息，用于各节点重新加载导入的航班计划
+ *
+ * @author 芋道源码
+ */
+@Data
+public class FlightScheduleRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 航班计划文件的版本，即内容的 MD5
+     */
+    private String version;
+
+}
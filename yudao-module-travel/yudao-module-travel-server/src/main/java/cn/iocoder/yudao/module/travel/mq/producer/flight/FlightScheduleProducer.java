@@ -0,0 +1,31 @@
+package cn.iocoder.yudao.module.travel.mq.producer.flight;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.travel.mq.message.flight.FlightScheduleRefreshMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * FlightSchedule 航班计划相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class FlightScheduleProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link FlightScheduleRefreshMessage} 消息
+     *
+     * @param version 航班计划文件的版本
+     */
+    public void sendFlightScheduleRefreshMessage(String version) {
+        FlightScheduleRefreshMessage message = new FlightScheduleRefreshMessage().setVersion(version);
+        redisMQTemplate.send(message);
+    }
+
+}
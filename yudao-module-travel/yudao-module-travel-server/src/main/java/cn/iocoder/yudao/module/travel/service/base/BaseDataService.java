@@ -24,4 +24,20 @@ public interface BaseDataService {
      */
     List<AirlineInfoVO> getAirlines();
 
+    /**
+     * 获得机场信息
+     *
+     * @param code 机场三字码
+     * @return 机场信息；不存在时，返回 null
+     */
+    AirportInfoVO getAirport(String code);
+
+    /**
+     * 获得航空公司信息
+     *
+     * @param code 航司二字码
+     * @return 航空公司信息；不存在时，返回 null
+     */
+    AirlineInfoVO getAirline(String code);
+
 }
\ No newline at end of file
@@ -4,82 +4,99 @@ import cn.iocoder.yudao.module.travel.controller.admin.ticket.vo.*;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 
 /**
  * 基础数据 Service 实现类
  *
+ * 机场、航空公司是静态数据，启动时构建一次，并按代码建立索引，避免每次调用重新创建
+ *
  * @author 芋道源码
  */
 @Service
 @Validated
 public class BaseDataServiceImpl implements BaseDataService {
 
+    // 实际项目中应该从数据库或外部API获取，这里提供一些常用机场的模拟数据
+    private static final List<AirportInfoVO> AIRPORTS = Collections.unmodifiableList(Arrays.asList(
+            // 国内机场
+            buildAirport("PVG", "上海浦东国际机场", "上海", "CN", "Asia/Shanghai"),
+            buildAirport("PEK", "北京首都国际机场", "北京", "CN", "Asia/Shanghai"),
+            buildAirport("CAN", "广州白云国际机场", "广州", "CN", "Asia/Shanghai"),
+            buildAirport("SZX", "深圳宝安国际机场", "深圳", "CN", "Asia/Shanghai"),
+            buildAirport("CTU", "成都天府国际机场", "成都", "CN", "Asia/Shanghai"),
+            buildAirport("XIY", "西安咸阳国际机场", "西安", "CN", "Asia/Shanghai"),
+            buildAirport("KMG", "昆明长水国际机场", "昆明", "CN", "Asia/Shanghai"),
+            buildAirport("URC", "乌鲁木齐地窝堡国际机场", "乌鲁木齐", "CN", "Asia/Shanghai"),
+            // 国际机场
+            buildAirport("LAX", "洛杉矶国际机场", "洛杉矶", "US", "America/Los_Angeles"),
+            buildAirport("JFK", "约翰·肯尼迪国际机场", "纽约", "US", "America/New_York"),
+            buildAirport("LHR", "伦敦希思罗机场", "伦敦", "GB", "Europe/London"),
+            buildAirport("CDG", "巴黎戴高乐机场", "巴黎", "FR", "Europe/Paris"),
+            buildAirport("NRT", "东京成田国际机场", "东京", "JP", "Asia/Tokyo"),
+            buildAirport("ICN", "首尔仁川国际机场", "首尔", "KR", "Asia/Seoul"),
+            buildAirport("SIN", "新加坡樟宜机场", "新加坡", "SG", "Asia/Singapore"),
+            buildAirport("BKK", "曼谷素万那普国际机场", "曼谷", "TH", "Asia/Bangkok")
+    ));
+
+    // 实际项目中应该从数据库或外部API获取，这里提供一些常用航空公司的模拟数据
+    private static final List<AirlineInfoVO> AIRLINES = Collections.unmodifiableList(Arrays.asList(
+            // 中国航空公司
+            buildAirline("MU", "中国东方航空", "China Eastern Airlines", "CN"),
+            buildAirline("CA", "中国国际航空", "Air China", "CN"),
+            buildAirline("CZ", "中国南方航空", "China Southern Airlines", "CN"),
+            buildAirline("FM", "上海航空", "Shanghai Airlines", "CN"),
+            buildAirline("HO", "吉祥航空", "Juneyao Airlines", "CN"),
+            buildAirline("9C", "春秋航空", "Spring Airlines", "CN"),
+            buildAirline("3U", "四川航空", "Sichuan Airlines", "CN"),
+            buildAirline("MF", "厦门航空", "Xiamen Airlines", "CN"),
+            buildAirline("8L", "祥鹏航空", "Lucky Air", "CN"),
+            buildAirline("KN", "联合航空", "United Eagle Airlines", "CN"),
+            // 国际航空公司
+            buildAirline("UA", "美国联合航空", "United Airlines", "US"),
+            buildAirline("AA", "美国航空", "American Airlines", "US"),
+            buildAirline("DL", "达美航空", "Delta Air Lines", "US"),
+            buildAirline("BA", "英国航空", "British Airways", "GB"),
+            buildAirline("AF", "法国航空", "Air France", "FR"),
+            buildAirline("LH", "汉莎航空", "Lufthansa", "DE"),
+            buildAirline("JL", "日本航空", "Japan Airlines", "JP"),
+            buildAirline("NH", "全日空", "All Nippon Airways", "JP"),
+            buildAirline("KE", "大韩航空", "Korean Air", "KR"),
+            buildAirline("OZ", "韩亚航空", "Asiana Airlines", "KR"),
+            buildAirline("SQ", "新加坡航空", "Singapore Airlines", "SG"),
+            buildAirline("TG", "泰国国际航空", "Thai Airways", "TH")
+    ));
+
+    private static final Map<String, AirportInfoVO> AIRPORT_MAP = convertMap(AIRPORTS, AirportInfoVO::getCode);
+
+    private static final Map<String, AirlineInfoVO> AIRLINE_MAP = convertMap(AIRLINES, AirlineInfoVO::getCode);
+
     @Override
     public List<AirportInfoVO> getAirports() {
-        // 实际项目中应该从数据库或外部API获取
-        // 这里提供一些常用机场的模拟数据
-        List<AirportInfoVO> airports = new ArrayList<>();
-        
-        airports.add(buildAirport("PVG", "上海浦东国际机场", "上海", "CN", "Asia/Shanghai"));
-        airports.add(buildAirport("PEK", "北京首都国际机场", "北京", "CN", "Asia/Shanghai"));
-        airports.add(buildAirport("CAN", "广州白云国际机场", "广州", "CN", "Asia/Shanghai"));
-        airports.add(buildAirport("SZX", "深圳宝安国际机场", "深圳", "CN", "Asia/Shanghai"));
-        airports.add(buildAirport("CTU", "成都天府国际机场", "成都", "CN", "Asia/Shanghai"));
-        airports.add(buildAirport("XIY", "西安咸阳国际机场", "西安", "CN", "Asia/Shanghai"));
-        airports.add(buildAirport("KMG", "昆明长水国际机场", "昆明", "CN", "Asia/Shanghai"));
-        airports.add(buildAirport("URC", "乌鲁木齐地窝堡国际机场", "乌鲁木齐", "CN", "Asia/Shanghai"));
-        
-        // 国际机场
-        airports.add(buildAirport("LAX", "洛杉矶国际机场", "洛杉矶", "US", "America/Los_Angeles"));
-        airports.add(buildAirport("JFK", "约翰·肯尼迪国际机场", "纽约", "US", "America/New_York"));
-        airports.add(buildAirport("LHR", "伦敦希思罗机场", "伦敦", "GB", "Europe/London"));
-        airports.add(buildAirport("CDG", "巴黎戴高乐机场", "巴黎", "FR", "Europe/Paris"));
-        airports.add(buildAirport("NRT", "东京成田国际机场", "东京", "JP", "Asia/Tokyo"));
-        airports.add(buildAirport("ICN", "首尔仁川国际机场", "首尔", "KR", "Asia/Seoul"));
-        airports.add(buildAirport("SIN", "新加坡樟宜机场", "新加坡", "SG", "Asia/Singapore"));
-        airports.add(buildAirport("BKK", "曼谷素万那普国际机场", "曼谷", "TH", "Asia/Bangkok"));
-        
-        return airports;
+        return AIRPORTS;
     }
 
     @Override
     public List<AirlineInfoVO> getAirlines() {
-        // 实际项目中应该从数据库或外部API获取
-        // 这里提供一些常用航空公司的模拟数据
-        List<AirlineInfoVO> airlines = new ArrayList<>();
-        
-        // 中国航空公司
-        airlines.add(buildAirline("MU", "中国东方航空", "China Eastern Airlines", "CN"));
-        airlines.add(buildAirline("CA", "中国国际航空", "Air China", "CN"));
-        airlines.add(buildAirline("CZ", "中国南方航空", "China Southern Airlines", "CN"));
-        airlines.add(buildAirline("FM", "上海航空", "Shanghai Airlines", "CN"));
-        airlines.add(buildAirline("HO", "吉祥航空", "Juneyao Airlines", "CN"));
-        airlines.add(buildAirline("9C", "春秋航空", "Spring Airlines", "CN"));
-        airlines.add(buildAirline("3U", "四川航空", "Sichuan Airlines", "CN"));
-        airlines.add(buildAirline("MF", "厦门航空", "Xiamen Airlines", "CN"));
-        airlines.add(buildAirline("8L", "祥鹏航空", "Lucky Air", "CN"));
-        airlines.add(buildAirline("KN", "联合航空", "United Eagle Airlines", "CN"));
-        
-        // 国际航空公司
-        airlines.add(buildAirline("UA", "美国联合航空", "United Airlines", "US"));
-        airlines.add(buildAirline("AA", "美国航空", "American Airlines", "US"));
-        airlines.add(buildAirline("DL", "达美航空", "Delta Air Lines", "US"));
-        airlines.add(buildAirline("BA", "英国航空", "British Airways", "GB"));
-        airlines.add(buildAirline("AF", "法国航空", "Air France", "FR"));
-        airlines.add(buildAirline("LH", "汉莎航空", "Lufthansa", "DE"));
-        airlines.add(buildAirline("JL", "日本航空", "Japan Airlines", "JP"));
-        airlines.add(buildAirline("NH", "全日空", "All Nippon Airways", "JP"));
-        airlines.add(buildAirline("KE", "大韩航空", "Korean Air", "KR"));
-        airlines.add(buildAirline("OZ", "韩亚航空", "Asiana Airlines", "KR"));
-        airlines.add(buildAirline("SQ", "新加坡航空", "Singapore Airlines", "SG"));
-        airlines.add(buildAirline("TG", "泰国国际航空", "Thai Airways", "TH"));
-        
-        return airlines;
+        return AIRLINES;
+    }
+
+    @Override
+    public AirportInfoVO getAirport(String code) {
+        return code != null ? AIRPORT_MAP.get(code.toUpperCase()) : null;
+    }
+
+    @Override
+    public AirlineInfoVO getAirline(String code) {
+        return code != null ? AIRLINE_MAP.get(code.toUpperCase()) : null;
     }
 
-    private AirportInfoVO buildAirport(String code, String name, String city, String country, String timezone) {
+    private static AirportInfoVO buildAirport(String code, String name, String city, String country, String timezone) {
         AirportInfoVO airport = new AirportInfoVO();
         airport.setCode(code);
         airport.setName(name);
@@ -89,7 +106,7 @@ public class BaseDataServiceImpl implements BaseDataService {
         return airport;
     }
 
-    private AirlineInfoVO buildAirline(String code, String name, String fullName, String country) {
+    private static AirlineInfoVO buildAirline(String code, String name, String fullName, String country) {
         AirlineInfoVO airline = new AirlineInfoVO();
         airline.setCode(code);
         airline.setName(name);
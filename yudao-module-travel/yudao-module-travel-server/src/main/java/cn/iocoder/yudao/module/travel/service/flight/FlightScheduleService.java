@@ -0,0 +1,109 @@
+package cn.iocoder.yudao.module.travel.service.flight;
+
+import cn.iocoder.yudao.module.travel.controller.admin.rebooking.vo.FlightSearchRespVO;
+import cn.iocoder.yudao.module.travel.controller.admin.ticket.vo.FlightValidationRespVO;
+import cn.iocoder.yudao.module.travel.service.flight.schedule.FlightScheduleIndex;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 航班计划 Service 接口
+ *
+ * 航班计划从文件加载到内存索引中，支持按航线、按航班号查询，以及剩余座位数的原子扣减
+ *
+ * @author 芋道源码
+ */
+public interface FlightScheduleService {
+
+    /**
+     * 搜索航线在指定日期的可售航班
+     *
+     * @param departureAirportCode 出发机场三字码
+     * @param arrivalAirportCode 到达机场三字码
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级；为空时，返回所有舱位
+     * @return 航班列表，按起飞时间排序，每个舱位一条；不包含已售罄的舱位
+     */
+    List<FlightSearchRespVO> searchFlights(String departureAirportCode, String arrivalAirportCode,
+                                           LocalDate departureDate, String cabinClass);
+
+    /**
+     * 获得航班号在指定日期的航班信息
+     *
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @return 航班信息；不存在时，返回 null
+     */
+    FlightValidationRespVO.FlightInfo getFlight(String flightNo, LocalDate departureDate);
+
+    /**
+     * 获得航班某个舱位的剩余座位数
+     *
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级
+     * @return 剩余座位数；航班或舱位不存在时，返回 0
+     */
+    int getAvailableSeats(String flightNo, LocalDate departureDate, String cabinClass);
+
+    /**
+     * 原子扣减航班某个舱位的剩余座位数，不足时不扣减
+     *
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级
+     * @param count 扣减数量
+     * @return 是否扣减成功
+     */
+    boolean decreaseAvailableSeats(String flightNo, LocalDate departureDate, String cabinClass, int count);
+
+    /**
+     * 原子归还航班某个舱位的剩余座位数
+     *
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级
+     * @param count 归还数量
+     */
+    void increaseAvailableSeats(String flightNo, LocalDate departureDate, String cabinClass, int count);
+
+    /**
+     * 获得当前的航班计划索引
+     *
+     * 重新导入后会替换为新的索引，因此调用方不要长期持有
+     *
+     * @return 航班计划索引
+     */
+    FlightScheduleIndex getFlightScheduleIndex();
+
+    /**
+     * 获得座位锁
+     *
+     * 直接在 {@link #getFlightScheduleIndex()} 上扣减、归还座位时，需要持有该锁，
+     * 避免 {@link #importSchedules(InputStream)} 替换索引期间，在旧索引上的扣减、归还丢失
+     *
+     * @return 座位锁，即读写锁中的读锁
+     */
+    Lock getSeatLock();
+
+    /**
+     * 导入航班计划文件，全量替换当前的航班计划
+     *
+     * 已售座位数会保留到新的航班计划中；文件保存到 Redis 后，广播通知其它节点重新加载
+     *
+     * @param inputStream 文件内容，格式参见 FlightScheduleParser
+     * @return 导入的航班计划数量
+     */
+    int importSchedules(InputStream inputStream);
+
+    /**
+     * 从 Redis 重新加载最近一次导入的航班计划，用于其它节点导入后的刷新
+     *
+     * 与当前节点已加载的版本相同时，不重复加载
+     */
+    void reloadSchedules();
+
+}
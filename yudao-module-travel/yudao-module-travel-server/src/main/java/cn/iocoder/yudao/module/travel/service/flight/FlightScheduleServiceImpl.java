@@ -0,0 +1,288 @@
+package cn.iocoder.yudao.module.travel.service.flight;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.travel.config.FlightScheduleProperties;
+import cn.iocoder.yudao.module.travel.controller.admin.rebooking.vo.FlightSearchRespVO;
+import cn.iocoder.yudao.module.travel.controller.admin.ticket.vo.AirlineInfoVO;
+import cn.iocoder.yudao.module.travel.controller.admin.ticket.vo.AirportInfoVO;
+import cn.iocoder.yudao.module.travel.controller.admin.ticket.vo.FlightValidationRespVO;
+import cn.iocoder.yudao.module.travel.dal.redis.flight.FlightScheduleRedisDAO;
+import cn.iocoder.yudao.module.travel.mq.producer.flight.FlightScheduleProducer;
+import cn.iocoder.yudao.module.travel.service.base.BaseDataService;
+import cn.iocoder.yudao.module.travel.service.flight.schedule.FlightSchedule;
+import cn.iocoder.yudao.module.travel.service.flight.schedule.FlightScheduleIndex;
+import cn.iocoder.yudao.module.travel.service.flight.schedule.FlightScheduleParser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.travel.enums.ErrorCodeConstants.FLIGHT_SCHEDULE_IMPORT_FAILED;
+
+/**
+ * 航班计划 Service 实现类
+ *
+ * 航班计划全量加载到 {@link FlightScheduleIndex} 内存索引中，查询不访问数据库：
+ * 1. 启动时优先加载 Redis 中最近一次导入的航班计划，不存在时从 {@link FlightScheduleProperties#getLocation()} 加载，
+ *    之后可以通过 {@link #importSchedules(InputStream)} 全量替换
+ * 2. 索引只展开销售窗口内的航班，窗口随重新导入、重启向后滚动
+ * 3. 扣减、归还座位持有 {@link #seatLock} 的读锁，替换索引持有写锁：
+ *    新索引从旧索引复制已售座位数，如果替换期间仍在旧索引上扣减，这部分座位会在新索引中丢失，导致超卖
+ * 4. 导入的文件保存到 {@link FlightScheduleRedisDAO}，并通过 {@link FlightScheduleProducer} 广播，
+ *    其它节点收到后从 Redis 重新加载，保证集群中各节点的航班计划一致
+ *
+ * @author 芋道源码
+ */
+@Service
+@Validated
+@Slf4j
+public class FlightScheduleServiceImpl implements FlightScheduleService {
+
+    @Resource
+    private FlightScheduleProperties flightScheduleProperties;
+
+    @Resource
+    private ResourceLoader resourceLoader;
+
+    @Resource
+    private BaseDataService baseDataService;
+
+    @Resource
+    private FlightScheduleRedisDAO flightScheduleRedisDAO;
+
+    @Resource
+    private FlightScheduleProducer flightScheduleProducer;
+
+    private volatile FlightScheduleIndex index = FlightScheduleIndex.EMPTY;
+
+    /**
+     * 当前加载的航班计划文件的版本，即内容的 MD5
+     */
+    private String version;
+
+    /**
+     * 座位锁：扣减、归还座位时持有读锁，相互之间仍然基于 CAS 并发；替换索引时持有写锁
+     */
+    private final ReadWriteLock seatLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void initLocalCache() {
+        // 优先加载 Redis 中最近一次导入的航班计划
+        String content = null;
+        try {
+            content = flightScheduleRedisDAO.get();
+        } catch (Exception ex) {
+            log.error("[initLocalCache][读取 Redis 中的航班计划失败]", ex);
+        }
+        if (content != null) {
+            int count = loadSchedules(content);
+            log.info("[initLocalCache][缓存 Redis 中的航班计划，数量为:{}，航班数量为:{}]", count, index.size());
+            return;
+        }
+        org.springframework.core.io.Resource resource = resourceLoader.getResource(flightScheduleProperties.getLocation());
+        if (!resource.exists()) {
+            log.warn("[initLocalCache][航班计划文件({}) 不存在，跳过加载]", flightScheduleProperties.getLocation());
+            return;
+        }
+        try (InputStream inputStream = resource.getInputStream()) {
+            int count = loadSchedules(StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8));
+            log.info("[initLocalCache][缓存航班计划，数量为:{}，航班数量为:{}]", count, index.size());
+        } catch (IOException ex) {
+            log.error("[initLocalCache][加载航班计划文件({}) 失败]", flightScheduleProperties.getLocation(), ex);
+        }
+    }
+
+    @Override
+    public List<FlightSearchRespVO> searchFlights(String departureAirportCode, String arrivalAirportCode,
+                                                  LocalDate departureDate, String cabinClass) {
+        if (departureDate == null) {
+            return Collections.emptyList();
+        }
+        FlightScheduleIndex index = this.index;
+        int[] instances = index.search(departureAirportCode, arrivalAirportCode, departureDate);
+        if (instances.length == 0) {
+            return Collections.emptyList();
+        }
+        // 同一航线的出发、到达机场相同，只需要查询一次
+        FlightSchedule first = index.getSchedule(instances[0]);
+        String departureAirportName = getAirportName(first.getDepartureAirportCode());
+        String arrivalAirportName = getAirportName(first.getArrivalAirportCode());
+        List<FlightSearchRespVO> results = new ArrayList<>(instances.length);
+        for (int instance : instances) {
+            FlightSchedule schedule = index.getSchedule(instance);
+            for (FlightSchedule.Cabin cabin : schedule.getCabins()) {
+                if (StrUtil.isNotEmpty(cabinClass) && !cabin.getCabinClass().equalsIgnoreCase(cabinClass)) {
+                    continue;
+                }
+                int availableSeats = index.getAvailableSeats(instance, cabin.getCabinClass());
+                if (availableSeats <= 0) {
+                    continue;
+                }
+                FlightSearchRespVO flight = new FlightSearchRespVO();
+                flight.setFlightNo(schedule.getFlightNo());
+                flight.setAirlineCode(schedule.getAirlineCode());
+                flight.setAirlineName(getAirlineName(schedule.getAirlineCode()));
+                flight.setDepartureAirportCode(schedule.getDepartureAirportCode());
+                flight.setDepartureAirportName(departureAirportName);
+                flight.setArrivalAirportCode(schedule.getArrivalAirportCode());
+                flight.setArrivalAirportName(arrivalAirportName);
+                flight.setDepartureTime(departureDate.atTime(schedule.getDepartureTime()));
+                flight.setArrivalTime(departureDate.plusDays(schedule.getArrivalDayOffset()).atTime(schedule.getArrivalTime()));
+                flight.setCabinClass(cabin.getCabinClass());
+                flight.setPrice(cabin.getPrice());
+                flight.setAvailableSeats(availableSeats);
+                results.add(flight);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public FlightValidationRespVO.FlightInfo getFlight(String flightNo, LocalDate departureDate) {
+        FlightScheduleIndex index = this.index;
+        int instance = index.find(flightNo, departureDate);
+        if (instance == FlightScheduleIndex.NOT_FOUND) {
+            return null;
+        }
+        FlightSchedule schedule = index.getSchedule(instance);
+        FlightValidationRespVO.FlightInfo flightInfo = new FlightValidationRespVO.FlightInfo();
+        flightInfo.setAirlineCode(schedule.getAirlineCode());
+        flightInfo.setFlightNo(schedule.getFlightNo());
+        flightInfo.setDepartureAirport(schedule.getDepartureAirportCode());
+        flightInfo.setArrivalAirport(schedule.getArrivalAirportCode());
+        flightInfo.setDepartureTime(departureDate.atTime(schedule.getDepartureTime()));
+        flightInfo.setArrivalTime(departureDate.plusDays(schedule.getArrivalDayOffset()).atTime(schedule.getArrivalTime()));
+        flightInfo.setAircraft(schedule.getAircraft());
+        flightInfo.setAvailableSeats(index.getAvailableSeats(instance));
+        flightInfo.setStatus("NORMAL");
+        return flightInfo;
+    }
+
+    @Override
+    public int getAvailableSeats(String flightNo, LocalDate departureDate, String cabinClass) {
+        FlightScheduleIndex index = this.index;
+        int instance = index.find(flightNo, departureDate);
+        return instance != FlightScheduleIndex.NOT_FOUND ? index.getAvailableSeats(instance, cabinClass) : 0;
+    }
+
+    @Override
+    public boolean decreaseAvailableSeats(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        seatLock.readLock().lock();
+        try {
+            FlightScheduleIndex index = this.index;
+            int instance = index.find(flightNo, departureDate);
+            return instance != FlightScheduleIndex.NOT_FOUND && index.tryDecreaseAvailableSeats(instance, cabinClass, count);
+        } finally {
+            seatLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void increaseAvailableSeats(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        seatLock.readLock().lock();
+        try {
+            FlightScheduleIndex index = this.index;
+            int instance = index.find(flightNo, departureDate);
+            if (instance != FlightScheduleIndex.NOT_FOUND) {
+                index.increaseAvailableSeats(instance, cabinClass, count);
+            }
+        } finally {
+            seatLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public FlightScheduleIndex getFlightScheduleIndex() {
+        return index;
+    }
+
+    @Override
+    public Lock getSeatLock() {
+        return seatLock.readLock();
+    }
+
+    @Override
+    public synchronized int importSchedules(InputStream inputStream) {
+        String content;
+        try {
+            content = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw exception(FLIGHT_SCHEDULE_IMPORT_FAILED, ex.getMessage());
+        }
+        // 先在本节点加载，校验通过后再保存、广播，避免错误的文件影响其它节点
+        int count = loadSchedules(content);
+        flightScheduleRedisDAO.set(content);
+        flightScheduleProducer.sendFlightScheduleRefreshMessage(version);
+        return count;
+    }
+
+    @Override
+    public synchronized void reloadSchedules() {
+        String content = flightScheduleRedisDAO.get();
+        if (content == null) {
+            return;
+        }
+        // 导入的节点自己也会收到广播，版本相同时跳过
+        if (Objects.equals(version, DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)))) {
+            return;
+        }
+        int count = loadSchedules(content);
+        log.info("[reloadSchedules][重新加载航班计划，数量为:{}，航班数量为:{}]", count, index.size());
+    }
+
+    /**
+     * 解析航班计划文件，替换当前的航班计划
+     *
+     * @param content 文件内容
+     * @return 航班计划数量
+     */
+    private int loadSchedules(String content) {
+        List<FlightSchedule> schedules;
+        try {
+            schedules = FlightScheduleParser.parse(new StringReader(content));
+        } catch (IOException | IllegalArgumentException ex) {
+            throw exception(FLIGHT_SCHEDULE_IMPORT_FAILED, ex.getMessage());
+        }
+        LocalDate today = LocalDate.now();
+        // 复制已售座位数到替换完成期间，禁止扣减、归还座位
+        seatLock.writeLock().lock();
+        try {
+            index = FlightScheduleIndex.build(schedules, today, today.plusDays(flightScheduleProperties.getHorizonDays()), index);
+        } catch (IllegalArgumentException ex) {
+            throw exception(FLIGHT_SCHEDULE_IMPORT_FAILED, ex.getMessage());
+        } finally {
+            seatLock.writeLock().unlock();
+        }
+        version = DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+        return schedules.size();
+    }
+
+    private String getAirportName(String code) {
+        AirportInfoVO airport = baseDataService.getAirport(code);
+        return airport != null ? airport.getName() : code;
+    }
+
+    private String getAirlineName(String code) {
+        AirlineInfoVO airline = baseDataService.getAirline(code);
+        return airline != null ? airline.getName() : code;
+    }
+
+}
@@ -0,0 +1,118 @@
+package cn.iocoder.yudao.module.travel.service.flight.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * 航班计划，即一个航班号在生效期内按班期重复执行的模板
+ *
+ * @author 芋道源码
+ */
+@Data
+public class FlightSchedule {
+
+    /**
+     * 航司二字码，例如说 MU
+     */
+    private String airlineCode;
+    /**
+     * 航班号，例如说 MU583
+     */
+    private String flightNo;
+    /**
+     * 出发机场三字码
+     */
+    private String departureAirportCode;
+    /**
+     * 到达机场三字码
+     */
+    private String arrivalAirportCode;
+    /**
+     * 起飞时间（当地）
+     */
+    private LocalTime departureTime;
+    /**
+     * 到达时间（当地）
+     */
+    private LocalTime arrivalTime;
+    /**
+     * 到达相对起飞的跨天数，例如说 +1 表示次日到达
+     */
+    private int arrivalDayOffset;
+    /**
+     * 机型
+     */
+    private String aircraft;
+    /**
+     * 班期，bit 0 ~ 6 分别表示周一 ~ 周日
+     */
+    private int daysOfWeek;
+    /**
+     * 生效日期（含）
+     */
+    private LocalDate startDate;
+    /**
+     * 失效日期（含）
+     */
+    private LocalDate endDate;
+    /**
+     * 舱位列表
+     */
+    private List<Cabin> cabins;
+
+    /**
+     * 判断指定日期是否执行
+     *
+     * @param date 日期
+     * @return 是否执行
+     */
+    public boolean isOperating(LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate)
+                && (daysOfWeek & (1 << (date.getDayOfWeek().getValue() - 1))) != 0;
+    }
+
+    /**
+     * 获得舱位在 {@link #cabins} 中的下标
+     *
+     * @param cabinClass 舱位等级，忽略大小写
+     * @return 下标；不存在时，返回 -1
+     */
+    public int indexOfCabin(String cabinClass) {
+        for (int i = 0; i < cabins.size(); i++) {
+            if (cabins.get(i).getCabinClass().equalsIgnoreCase(cabinClass)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 舱位
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cabin {
+
+        /**
+         * 舱位等级，例如说 ECONOMY、BUSINESS、FIRST
+         */
+        private String cabinClass;
+        /**
+         * 座位数
+         */
+        private int seats;
+        /**
+         * 票价
+         */
+        private BigDecimal price;
+
+    }
+
+}
@@ -0,0 +1,389 @@
+package cn.iocoder.yudao.module.travel.service.flight.schedule;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 航班计划的内存索引
+ *
+ * 1. 把航班计划在销售窗口内展开为航班实例（航班号 + 日期），实例使用 int 编号，属性按列存储在基本类型数组中
+ * 2. 机场三字码、航班号使用 base-37 编码为 long，与日期的 epochDay 拼接为 key，保存在 {@link LongIntHashMap} 中：
+ *    (出发机场, 到达机场, 日期) 对应一段按起飞时间排序的实例编号，(航班号, 日期) 对应一个实例编号
+ * 3. 各舱位的剩余座位数保存在 {@link AtomicIntegerArray} 中，通过 CAS 原子扣减，不会超卖
+ *
+ * 构建完成后，除剩余座位数外均不可变，可以无锁并发读取
+ *
+ * @author 芋道源码
+ */
+public class FlightScheduleIndex {
+
+    /**
+     * 航班号的最大长度，保证编码后不超过 42 位
+     */
+    public static final int MAX_FLIGHT_NO_LENGTH = 8;
+
+    /**
+     * 航班实例不存在时，返回的编号
+     */
+    public static final int NOT_FOUND = LongIntHashMap.MISSING;
+
+    public static final FlightScheduleIndex EMPTY = build(Collections.emptyList(),
+            LocalDate.now(), LocalDate.now(), null);
+
+    private static final int[] EMPTY_INSTANCES = new int[0];
+    /**
+     * epochDay 占用的位数，可以表示到 4840 年
+     */
+    private static final int DAY_BITS = 20;
+    private static final int AIRPORT_BITS = 16;
+    private static final int CODE_RADIX = 37;
+
+    private final FlightSchedule[] schedules;
+
+    /**
+     * 航班实例对应的航班计划下标
+     */
+    private final int[] instanceSchedules;
+    /**
+     * 航班实例的日期，使用 epochDay 表示
+     */
+    private final int[] instanceDays;
+    /**
+     * 航班实例的舱位在 {@link #availableSeats} 中的起始下标，长度为实例数 + 1
+     */
+    private final int[] seatOffsets;
+    /**
+     * 各航班实例、各舱位的剩余座位数
+     */
+    private final AtomicIntegerArray availableSeats;
+
+    /**
+     * (出发机场, 到达机场, 日期) 到航线分组的映射
+     */
+    private final LongIntHashMap routeIndex;
+    /**
+     * 航线分组在 {@link #routeInstances} 中的起始下标，长度为分组数 + 1
+     */
+    private final int[] routeOffsets;
+    /**
+     * 按航线分组、组内按起飞时间排序的航班实例编号
+     */
+    private final int[] routeInstances;
+    /**
+     * (航班号, 日期) 到航班实例编号的映射
+     */
+    private final LongIntHashMap flightNoIndex;
+
+    private FlightScheduleIndex(FlightSchedule[] schedules, int[] instanceSchedules, int[] instanceDays,
+                                int[] seatOffsets, AtomicIntegerArray availableSeats,
+                                LongIntHashMap routeIndex, int[] routeOffsets, int[] routeInstances,
+                                LongIntHashMap flightNoIndex) {
+        this.schedules = schedules;
+        this.instanceSchedules = instanceSchedules;
+        this.instanceDays = instanceDays;
+        this.seatOffsets = seatOffsets;
+        this.availableSeats = availableSeats;
+        this.routeIndex = routeIndex;
+        this.routeOffsets = routeOffsets;
+        this.routeInstances = routeInstances;
+        this.flightNoIndex = flightNoIndex;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param scheduleList 航班计划列表
+     * @param from 销售窗口的开始日期（含）
+     * @param to 销售窗口的结束日期（不含）
+     * @param previous 旧索引，用于保留已售座位数；为空时，剩余座位数等于座位数
+     * @return 索引
+     * @throws IllegalArgumentException 同一航班号、同一日期存在多个航班计划时
+     */
+    public static FlightScheduleIndex build(List<FlightSchedule> scheduleList, LocalDate from, LocalDate to,
+                                            FlightScheduleIndex previous) {
+        FlightSchedule[] schedules = scheduleList.toArray(new FlightSchedule[0]);
+        // 1. 展开航班实例：第一遍计数，第二遍填充
+        int count = 0;
+        for (FlightSchedule schedule : schedules) {
+            count += countOperatingDays(schedule, from, to);
+        }
+        int[] instanceSchedules = new int[count];
+        int[] instanceDays = new int[count];
+        int[] seatOffsets = new int[count + 1];
+        int instance = 0;
+        for (int i = 0; i < schedules.length; i++) {
+            FlightSchedule schedule = schedules[i];
+            LocalDate end = min(schedule.getEndDate().plusDays(1), to);
+            for (LocalDate date = max(schedule.getStartDate(), from); date.isBefore(end); date = date.plusDays(1)) {
+                if (!schedule.isOperating(date)) {
+                    continue;
+                }
+                instanceSchedules[instance] = i;
+                instanceDays[instance] = (int) date.toEpochDay();
+                seatOffsets[instance + 1] = seatOffsets[instance] + schedule.getCabins().size();
+                instance++;
+            }
+        }
+
+        // 2. 航班号索引，并初始化剩余座位数
+        LongIntHashMap flightNoIndex = new LongIntHashMap(count);
+        AtomicIntegerArray availableSeats = new AtomicIntegerArray(seatOffsets[count]);
+        for (int i = 0; i < count; i++) {
+            FlightSchedule schedule = schedules[instanceSchedules[i]];
+            long key = flightKey(schedule.getFlightNo(), instanceDays[i]);
+            if (flightNoIndex.get(key) != LongIntHashMap.MISSING) {
+                throw new IllegalArgumentException(StrUtil.format("航班 {} 在 {} 存在多个航班计划",
+                        schedule.getFlightNo(), LocalDate.ofEpochDay(instanceDays[i])));
+            }
+            flightNoIndex.put(key, i);
+            int previousInstance = previous != null ? previous.find(schedule.getFlightNo(), LocalDate.ofEpochDay(instanceDays[i])) : NOT_FOUND;
+            for (int c = 0; c < schedule.getCabins().size(); c++) {
+                FlightSchedule.Cabin cabin = schedule.getCabins().get(c);
+                int seats = cabin.getSeats();
+                if (previousInstance != NOT_FOUND) {
+                    // 保留已售座位数，避免重新导入后超卖
+                    seats = Math.max(0, seats - previous.getSoldSeats(previousInstance, cabin.getCabinClass()));
+                }
+                availableSeats.set(seatOffsets[i] + c, seats);
+            }
+        }
+
+        // 3. 航线索引：按 (航线, 起飞时间) 排序后，连续的一段作为一个分组
+        long[] routeKeys = new long[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            FlightSchedule schedule = schedules[instanceSchedules[i]];
+            routeKeys[i] = routeKey(schedule.getDepartureAirportCode(), schedule.getArrivalAirportCode(), instanceDays[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> routeKeys[i])
+                .thenComparing(i -> schedules[instanceSchedules[i]].getDepartureTime()));
+        int[] routeInstances = new int[count];
+        int[] routeOffsets = new int[count + 1];
+        LongIntHashMap routeIndex = new LongIntHashMap(count);
+        int routeCount = 0;
+        for (int i = 0; i < count; i++) {
+            routeInstances[i] = order[i];
+            if (i == 0 || routeKeys[order[i]] != routeKeys[order[i - 1]]) {
+                routeOffsets[routeCount] = i;
+                routeIndex.put(routeKeys[order[i]], routeCount++);
+            }
+        }
+        routeOffsets[routeCount] = count;
+        return new FlightScheduleIndex(schedules, instanceSchedules, instanceDays, seatOffsets, availableSeats,
+                routeIndex, Arrays.copyOf(routeOffsets, routeCount + 1), routeInstances, flightNoIndex);
+    }
+
+    /**
+     * 搜索航线在指定日期的航班实例
+     *
+     * @param departureAirportCode 出发机场三字码
+     * @param arrivalAirportCode 到达机场三字码
+     * @param date 日期
+     * @return 航班实例编号，按起飞时间排序
+     */
+    public int[] search(String departureAirportCode, String arrivalAirportCode, LocalDate date) {
+        int route = routeIndex.get(routeKey(departureAirportCode, arrivalAirportCode, date.toEpochDay()));
+        if (route == LongIntHashMap.MISSING) {
+            return EMPTY_INSTANCES;
+        }
+        return Arrays.copyOfRange(routeInstances, routeOffsets[route], routeOffsets[route + 1]);
+    }
+
+    /**
+     * 查找航班号在指定日期的航班实例
+     *
+     * @param flightNo 航班号
+     * @param date 日期
+     * @return 航班实例编号；不存在时，返回 {@link #NOT_FOUND}
+     */
+    public int find(String flightNo, LocalDate date) {
+        return flightNoIndex.get(flightKey(flightNo, date.toEpochDay()));
+    }
+
+    public FlightSchedule getSchedule(int instance) {
+        return schedules[instanceSchedules[instance]];
+    }
+
+    public LocalDate getDate(int instance) {
+        return LocalDate.ofEpochDay(instanceDays[instance]);
+    }
+
+    /**
+     * 获得航班实例某个舱位的座位数
+     *
+     * @return 座位数；舱位不存在时，返回 -1
+     */
+    public int getSeats(int instance, String cabinClass) {
+        int cabin = getSchedule(instance).indexOfCabin(cabinClass);
+        return cabin >= 0 ? getSchedule(instance).getCabins().get(cabin).getSeats() : -1;
+    }
+
+    /**
+     * 获得航班实例某个舱位的剩余座位数
+     *
+     * @return 剩余座位数；舱位不存在时，返回 0
+     */
+    public int getAvailableSeats(int instance, String cabinClass) {
+        int slot = seatSlot(instance, cabinClass);
+        return slot >= 0 ? availableSeats.get(slot) : 0;
+    }
+
+    /**
+     * 获得航班实例所有舱位的剩余座位数之和
+     */
+    public int getAvailableSeats(int instance) {
+        int total = 0;
+        for (int slot = seatOffsets[instance]; slot < seatOffsets[instance + 1]; slot++) {
+            total += availableSeats.get(slot);
+        }
+        return total;
+    }
+
+    /**
+     * 原子扣减剩余座位数，不足时不扣减
+     *
+     * @param instance 航班实例编号
+     * @param cabinClass 舱位等级
+     * @param count 扣减数量
+     * @return 是否扣减成功
+     */
+    public boolean tryDecreaseAvailableSeats(int instance, String cabinClass, int count) {
+        int slot = seatSlot(instance, cabinClass);
+        if (slot < 0) {
+            return false;
+        }
+        while (true) {
+            int current = availableSeats.get(slot);
+            if (current < count) {
+                return false;
+            }
+            if (availableSeats.compareAndSet(slot, current, current - count)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 原子归还剩余座位数，最多归还到座位数
+     *
+     * @param instance 航班实例编号
+     * @param cabinClass 舱位等级
+     * @param count 归还数量
+     */
+    public void increaseAvailableSeats(int instance, String cabinClass, int count) {
+        int slot = seatSlot(instance, cabinClass);
+        if (slot < 0) {
+            return;
+        }
+        int capacity = getSchedule(instance).getCabins().get(slot - seatOffsets[instance]).getSeats();
+        availableSeats.getAndUpdate(slot, current -> Math.min(capacity, current + count));
+    }
+
+    /**
+     * 获得航班实例的数量
+     */
+    public int size() {
+        return instanceSchedules.length;
+    }
+
+    private int getSoldSeats(int instance, String cabinClass) {
+        int slot = seatSlot(instance, cabinClass);
+        if (slot < 0) {
+            return 0;
+        }
+        return getSchedule(instance).getCabins().get(slot - seatOffsets[instance]).getSeats() - availableSeats.get(slot);
+    }
+
+    private int seatSlot(int instance, String cabinClass) {
+        int cabin = getSchedule(instance).indexOfCabin(cabinClass);
+        return cabin >= 0 ? seatOffsets[instance] + cabin : -1;
+    }
+
+    // ========== 编码 ==========
+
+    /**
+     * 航线的 key：出发机场（16 位）| 到达机场（16 位）| epochDay（20 位）
+     *
+     * @return key；机场三字码不合法时，返回 0
+     */
+    private static long routeKey(String departureAirportCode, String arrivalAirportCode, long epochDay) {
+        if (!isValidDay(epochDay) || departureAirportCode == null || departureAirportCode.length() != 3
+                || arrivalAirportCode == null || arrivalAirportCode.length() != 3) {
+            return 0;
+        }
+        long departure = encode(departureAirportCode);
+        long arrival = encode(arrivalAirportCode);
+        if (departure == 0 || arrival == 0) {
+            return 0;
+        }
+        return (((departure << AIRPORT_BITS) | arrival) << DAY_BITS) | epochDay;
+    }
+
+    /**
+     * 航班号的 key：航班号（42 位）| epochDay（20 位）
+     *
+     * @return key；航班号不合法时，返回 0
+     */
+    private static long flightKey(String flightNo, long epochDay) {
+        if (!isValidDay(epochDay) || flightNo == null || flightNo.isEmpty() || flightNo.length() > MAX_FLIGHT_NO_LENGTH) {
+            return 0;
+        }
+        long code = encode(flightNo);
+        return code != 0 ? (code << DAY_BITS) | epochDay : 0;
+    }
+
+    private static boolean isValidDay(long epochDay) {
+        return epochDay >= 0 && epochDay < (1L << DAY_BITS);
+    }
+
+    /**
+     * 使用 base-37 编码字母、数字组成的代码，不区分大小写；0 保留给空值
+     *
+     * @return 编码；包含其它字符时，返回 0
+     */
+    private static long encode(String code) {
+        long value = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0' + 1;
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 11;
+            } else if (c >= 'a' && c <= 'z') {
+                digit = c - 'a' + 11;
+            } else {
+                return 0;
+            }
+            value = value * CODE_RADIX + digit;
+        }
+        return value;
+    }
+
+    private static int countOperatingDays(FlightSchedule schedule, LocalDate from, LocalDate to) {
+        int count = 0;
+        LocalDate end = min(schedule.getEndDate().plusDays(1), to);
+        for (LocalDate date = max(schedule.getStartDate(), from); date.isBefore(end); date = date.plusDays(1)) {
+            if (schedule.isOperating(date)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+}
@@ -0,0 +1,139 @@
+package cn.iocoder.yudao.module.travel.service.flight.schedule;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 航班计划文件的解析器
+ *
+ * 文件为 UTF-8 文本，每行一个航班计划，字段使用 | 分隔；空行、# 开头的行忽略：
+ * <pre>
+ * # 航司|航班号|出发机场|到达机场|起飞时间|到达时间|机型|班期|生效日期|失效日期|舱位
+ * MU|MU583|PVG|LAX|08:00|12:00|B777-300ER|1234567|2024-01-01|2027-12-31|BUSINESS:30:6200.00,ECONOMY:250:3800.00
+ * CA|CA981|PEK|JFK|13:00|14:30+1|B747-8|1.3.5.7|2024-01-01|2027-12-31|ECONOMY:300:5200.00
+ * </pre>
+ *
+ * 1. 到达时间可以带 +N 后缀，表示 N 天后到达
+ * 2. 班期为 1 ~ 7 的数字，分别表示周一 ~ 周日，其它字符作为占位忽略
+ * 3. 舱位为 舱位等级:座位数:票价，多个使用 , 分隔
+ *
+ * @author 芋道源码
+ */
+public class FlightScheduleParser {
+
+    private static final String COMMENT_PREFIX = "#";
+    private static final int FIELD_COUNT = 11;
+
+    private FlightScheduleParser() {
+    }
+
+    /**
+     * 解析航班计划文件
+     *
+     * @param reader 文件内容
+     * @return 航班计划列表
+     * @throws IllegalArgumentException 格式不正确时，异常信息包含行号
+     */
+    public static List<FlightSchedule> parse(Reader reader) throws IOException {
+        List<FlightSchedule> schedules = new ArrayList<>();
+        BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        int lineNo = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            try {
+                schedules.add(parseLine(line));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException(StrUtil.format("第 {} 行格式不正确：{}", lineNo, ex.getMessage()), ex);
+            }
+        }
+        return schedules;
+    }
+
+    private static FlightSchedule parseLine(String line) {
+        List<String> fields = StrUtil.split(line, '|', true, false);
+        if (fields.size() != FIELD_COUNT) {
+            throw new IllegalArgumentException(StrUtil.format("字段数为 {}，应为 {}", fields.size(), FIELD_COUNT));
+        }
+        FlightSchedule schedule = new FlightSchedule();
+        schedule.setAirlineCode(parseCode(fields.get(0), 2, 2, "航司"));
+        schedule.setFlightNo(parseCode(fields.get(1), 3, FlightScheduleIndex.MAX_FLIGHT_NO_LENGTH, "航班号"));
+        if (!schedule.getFlightNo().startsWith(schedule.getAirlineCode())) {
+            throw new IllegalArgumentException("航班号 " + schedule.getFlightNo() + " 与航司不匹配");
+        }
+        schedule.setDepartureAirportCode(parseCode(fields.get(2), 3, 3, "出发机场"));
+        schedule.setArrivalAirportCode(parseCode(fields.get(3), 3, 3, "到达机场"));
+        schedule.setDepartureTime(LocalTime.parse(fields.get(4)));
+        String arrivalTime = fields.get(5);
+        int plusIndex = arrivalTime.indexOf('+');
+        if (plusIndex >= 0) {
+            schedule.setArrivalDayOffset(Integer.parseInt(arrivalTime.substring(plusIndex + 1)));
+            arrivalTime = arrivalTime.substring(0, plusIndex);
+        }
+        schedule.setArrivalTime(LocalTime.parse(arrivalTime));
+        schedule.setAircraft(fields.get(6));
+        schedule.setDaysOfWeek(parseDaysOfWeek(fields.get(7)));
+        schedule.setStartDate(LocalDate.parse(fields.get(8)));
+        schedule.setEndDate(LocalDate.parse(fields.get(9)));
+        if (schedule.getEndDate().isBefore(schedule.getStartDate())) {
+            throw new IllegalArgumentException("失效日期早于生效日期");
+        }
+        schedule.setCabins(parseCabins(fields.get(10)));
+        return schedule;
+    }
+
+    private static String parseCode(String value, int minLength, int maxLength, String name) {
+        String code = value.toUpperCase();
+        if (code.length() < minLength || code.length() > maxLength || !StrUtil.isAllCharMatch(code,
+                c -> (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+            throw new IllegalArgumentException(name + " " + value + " 不合法");
+        }
+        return code;
+    }
+
+    private static int parseDaysOfWeek(String value) {
+        int daysOfWeek = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '1' && c <= '7') {
+                daysOfWeek |= 1 << (c - '1');
+            }
+        }
+        if (daysOfWeek == 0) {
+            throw new IllegalArgumentException("班期 " + value + " 不合法");
+        }
+        return daysOfWeek;
+    }
+
+    private static List<FlightSchedule.Cabin> parseCabins(String value) {
+        List<FlightSchedule.Cabin> cabins = new ArrayList<>();
+        for (String item : StrUtil.split(value, ',', true, true)) {
+            List<String> parts = StrUtil.split(item, ':', true, false);
+            if (parts.size() != 3) {
+                throw new IllegalArgumentException("舱位 " + item + " 不合法");
+            }
+            int seats = Integer.parseInt(parts.get(1));
+            if (seats < 0) {
+                throw new IllegalArgumentException("舱位 " + item + " 的座位数不能为负数");
+            }
+            cabins.add(new FlightSchedule.Cabin(parts.get(0).toUpperCase(), seats, new BigDecimal(parts.get(2))));
+        }
+        if (cabins.isEmpty()) {
+            throw new IllegalArgumentException("舱位不能为空");
+        }
+        return cabins;
+    }
+
+}
@@ -0,0 +1,87 @@
+package cn.iocoder.yudao.module.travel.service.flight.schedule;
+
+import java.util.Arrays;
+
+/**
+ * long -> int 的开放寻址哈希表，线性探测
+ *
+ * 相比 HashMap&lt;Long, Integer&gt;，没有装箱和 Entry 对象，key、value 各自连续存储在数组中。
+ * 只在构建 {@link FlightScheduleIndex} 时写入，构建完成后只读，因此不需要加锁
+ *
+ * 注意：key 不能为 0，0 用于表示空槽位
+ *
+ * @author 芋道源码
+ */
+class LongIntHashMap {
+
+    /**
+     * 不存在时，返回的值
+     */
+    static final int MISSING = -1;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        // 负载因子不超过 0.5，保证探测长度短
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(values, MISSING);
+    }
+
+    /**
+     * 写入，已存在时覆盖
+     */
+    void put(long key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key 不能为 0");
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) {
+            if (size + 1 > (mask + 1) / 2) {
+                throw new IllegalStateException("超过预估容量");
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * 读取
+     *
+     * @return 值；不存在时，返回 {@link #MISSING}
+     */
+    int get(long key) {
+        if (key == 0) {
+            return MISSING;
+        }
+        int slot = slot(key);
+        long current;
+        while ((current = keys[slot]) != 0) {
+            if (current == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // Fibonacci 哈希，打散编码后低位相近的 key
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+}
@@ -0,0 +1,88 @@
+package cn.iocoder.yudao.module.travel.service.no;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 基于号段的序号分配器
+ *
+ * 1. 每次从 Redis 等存储租用一个号段（step 个连续序号），在内存中通过 {@link AtomicLong} 无锁分配
+ * 2. 号段用完时，只有一个线程去租用新号段，其它线程等待后继续分配；每 step 个序号，只需要一次网络往返
+ * 3. 节点重启时，只丢弃当前号段未分配的序号，空洞不超过一个号段
+ *
+ * @author 芋道源码
+ */
+public class NoSegmentAllocator {
+
+    /**
+     * 号段大小
+     */
+    private final int step;
+    /**
+     * 租用号段，返回号段的最大序号，号段为 (返回值 - step, 返回值]
+     */
+    private final LongSupplier leaser;
+
+    /**
+     * 当前号段，初始为空号段，首次分配时租用
+     */
+    private volatile Segment segment = new Segment(1, 0);
+
+    public NoSegmentAllocator(int step, LongSupplier leaser) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("号段大小必须大于 0");
+        }
+        this.step = step;
+        this.leaser = leaser;
+    }
+
+    /**
+     * 分配下一个序号，集群内唯一
+     *
+     * @return 序号
+     */
+    public long next() {
+        while (true) {
+            Segment current = segment;
+            long value = current.cursor.getAndIncrement();
+            if (value <= current.max) {
+                return value;
+            }
+            // 号段已用完，租用新号段
+            refill(current);
+        }
+    }
+
+    private void refill(Segment exhausted) {
+        synchronized (this) {
+            // 其它线程已经租用了新号段
+            if (segment != exhausted) {
+                return;
+            }
+            long max = leaser.getAsLong();
+            segment = new Segment(max - step + 1, max);
+        }
+    }
+
+    /**
+     * 号段，序号范围为 [cursor 的初始值, max]
+     */
+    private static class Segment {
+
+        /**
+         * 下一个分配的序号。超过 max 后继续递增也无妨，表示号段已用完
+         */
+        private final AtomicLong cursor;
+        /**
+         * 号段的最大序号
+         */
+        private final long max;
+
+        private Segment(long min, long max) {
+            this.cursor = new AtomicLong(min);
+            this.max = max;
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package cn.iocoder.yudao.module.travel.service.no;
+
+/**
+ * 出行业务编号 Service 接口，生成集群内唯一的电子票号、订单号
+ *
+ * @author 芋道源码
+ */
+public interface TravelNoService {
+
+    /**
+     * 生成电子票号
+     *
+     * @return 13 位电子票号
+     */
+    String generateTicketNo();
+
+    /**
+     * 生成订单号
+     *
+     * @return 订单号
+     */
+    String generateOrderNo();
+
+}
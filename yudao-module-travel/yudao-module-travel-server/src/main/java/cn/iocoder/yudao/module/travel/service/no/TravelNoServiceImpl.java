@@ -0,0 +1,164 @@
+package cn.iocoder.yudao.module.travel.service.no;
+
+import cn.hutool.core.date.DatePattern;
+import cn.hutool.core.date.LocalDateTimeUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.travel.dal.dataobject.no.NoSegmentDO;
+import cn.iocoder.yudao.module.travel.dal.mysql.flightsegments.FlightSegmentsMapper;
+import cn.iocoder.yudao.module.travel.dal.mysql.no.NoSegmentMapper;
+import cn.iocoder.yudao.module.travel.dal.mysql.orders.OrdersMapper;
+import cn.iocoder.yudao.module.travel.dal.redis.no.NoSegmentRedisDAO;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 出行业务编号 Service 实现类
+ *
+ * 基于 {@link NoSegmentAllocator} 号段分配，号段从 Redis 租用，不会出现随机数碰撞导致的唯一键冲突。
+ *
+ * 1. 每个号段先写入 {@link NoSegmentDO} 的高水位，再分配；Redis 中不存在号段的 key 时，基于高水位初始化
+ * 2. 历史电子票号是 "781" + 10 位随机数，散布在整个序号空间，无法从中划出独立的区间；
+ *    所以租用号段时，查询号段内已被历史票号占用的序号，分配时跳过
+ *
+ * @author 芋道源码
+ */
+@Service
+public class TravelNoServiceImpl implements TravelNoService {
+
+    /**
+     * 电子票号的航司结算码前缀
+     */
+    private static final String TICKET_NO_PREFIX = "781";
+    /**
+     * 电子票号的序号上限，保证票号为 13 位
+     */
+    private static final long TICKET_NO_SEQUENCE_MAX = 10_000_000_000L;
+    /**
+     * 电子票号的长度
+     */
+    private static final int TICKET_NO_LENGTH = 13;
+
+    private static final String ORDER_NO_PREFIX = "ORD";
+    /**
+     * 订单号的序号长度
+     */
+    private static final int ORDER_NO_SEQUENCE_LENGTH = 8;
+    /**
+     * 订单号的长度：前缀 + yyyyMMdd + 序号
+     */
+    private static final int ORDER_NO_LENGTH = ORDER_NO_PREFIX.length()
+            + DatePattern.PURE_DATE_PATTERN.length() + ORDER_NO_SEQUENCE_LENGTH;
+
+    /**
+     * 号段大小。越大，租用号段的网络往返越少，但节点重启丢弃的序号越多
+     */
+    private static final int SEGMENT_STEP = 1000;
+
+    private static final String TICKET_NO_TYPE = "ticket";
+    private static final String ORDER_NO_TYPE = "order";
+
+    private final NoSegmentRedisDAO noSegmentRedisDAO;
+    private final NoSegmentMapper noSegmentMapper;
+    private final FlightSegmentsMapper flightSegmentsMapper;
+    private final OrdersMapper ordersMapper;
+
+    private final NoSegmentAllocator ticketNoAllocator;
+    private final NoSegmentAllocator orderNoAllocator;
+
+    /**
+     * 当前号段内，已被历史电子票号占用、需要跳过的序号
+     */
+    private final Set<Long> usedTicketNoSequences = ConcurrentHashMap.newKeySet();
+
+    public TravelNoServiceImpl(NoSegmentRedisDAO noSegmentRedisDAO, NoSegmentMapper noSegmentMapper,
+                               FlightSegmentsMapper flightSegmentsMapper, OrdersMapper ordersMapper) {
+        this.noSegmentRedisDAO = noSegmentRedisDAO;
+        this.noSegmentMapper = noSegmentMapper;
+        this.flightSegmentsMapper = flightSegmentsMapper;
+        this.ordersMapper = ordersMapper;
+        this.ticketNoAllocator = new NoSegmentAllocator(SEGMENT_STEP, this::leaseTicketNoSegment);
+        this.orderNoAllocator = new NoSegmentAllocator(SEGMENT_STEP, () -> leaseSegment(ORDER_NO_TYPE,
+                () -> Math.max(getMaxValue(ORDER_NO_TYPE), getMaxOrderNoSequence())));
+    }
+
+    @Override
+    public String generateTicketNo() {
+        long sequence;
+        do {
+            sequence = ticketNoAllocator.next();
+        } while (usedTicketNoSequences.remove(sequence));
+        if (sequence >= TICKET_NO_SEQUENCE_MAX) {
+            throw new IllegalStateException("电子票号的序号已用完");
+        }
+        return formatTicketNo(sequence);
+    }
+
+    @Override
+    public String generateOrderNo() {
+        // 序号全局递增、不按天重置，日期只用于可读性
+        return ORDER_NO_PREFIX + LocalDateTimeUtil.format(LocalDateTime.now(), DatePattern.PURE_DATE_PATTERN)
+                + String.format("%0" + ORDER_NO_SEQUENCE_LENGTH + "d", orderNoAllocator.next());
+    }
+
+    /**
+     * 租用电子票号的号段，并记录号段内已被历史电子票号占用的序号
+     *
+     * 由 {@link NoSegmentAllocator} 在切换号段前调用，所以号段开始分配时，占用的序号已经记录完成
+     */
+    private long leaseTicketNoSegment() {
+        long max = leaseSegment(TICKET_NO_TYPE, () -> getMaxValue(TICKET_NO_TYPE));
+        long min = max - SEGMENT_STEP + 1;
+        if (min >= TICKET_NO_SEQUENCE_MAX) {
+            return max;
+        }
+        List<String> usedTicketNos = TenantUtils.executeIgnore(() -> flightSegmentsMapper.selectTicketNoListBetween(
+                formatTicketNo(min), formatTicketNo(Math.min(max, TICKET_NO_SEQUENCE_MAX - 1)), TICKET_NO_LENGTH));
+        usedTicketNos.forEach(ticketNo -> usedTicketNoSequences.add(
+                parseSequence(StrUtil.removePrefix(ticketNo, TICKET_NO_PREFIX))));
+        return max;
+    }
+
+    /**
+     * 租用号段：先写入 DB 的高水位，再返回给 {@link NoSegmentAllocator} 分配
+     *
+     * @param type        序号类型
+     * @param initializer Redis 中不存在号段的 key 时，获取已使用的最大序号
+     * @return 号段的最大序号
+     */
+    private long leaseSegment(String type, LongSupplier initializer) {
+        long max = noSegmentRedisDAO.lease(type, SEGMENT_STEP, initializer);
+        TenantUtils.executeIgnore(() -> noSegmentMapper.upsertMaxValue(type, max));
+        return max;
+    }
+
+    /**
+     * 获得 DB 记录的已租用的最大序号。序号全局唯一，所以忽略租户
+     */
+    private long getMaxValue(String type) {
+        NoSegmentDO segment = TenantUtils.executeIgnore(() -> noSegmentMapper.selectById(type));
+        return segment != null ? segment.getMaxValue() : 0L;
+    }
+
+    /**
+     * 获得已使用的最大订单号序号，兼容高水位记录之前生成的订单号。序号全局唯一，所以忽略租户
+     */
+    private long getMaxOrderNoSequence() {
+        return parseSequence(TenantUtils.executeIgnore(() -> ordersMapper.selectMaxOrderNoSequence(
+                ORDER_NO_PREFIX, ORDER_NO_LENGTH, ORDER_NO_SEQUENCE_LENGTH)));
+    }
+
+    private static String formatTicketNo(long sequence) {
+        return TICKET_NO_PREFIX + String.format("%010d", sequence);
+    }
+
+    private static long parseSequence(String sequence) {
+        return StrUtil.isEmpty(sequence) ? 0L : Long.parseLong(sequence);
+    }
+
+}
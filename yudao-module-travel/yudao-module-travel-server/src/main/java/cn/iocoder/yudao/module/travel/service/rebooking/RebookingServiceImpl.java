@@ -12,9 +12,11 @@ import cn.iocoder.yudao.module.travel.dal.mysql.rebooking.RebookingApplicationMa
 import cn.iocoder.yudao.module.travel.dal.mysql.rebooking.RebookingOperationLogMapper;
 import cn.iocoder.yudao.module.travel.enums.rebooking.RebookingStatusEnum;
 //import cn.iocoder.yudao.module.travel.mq.producer.TravelMessageProducer;
+import cn.iocoder.yudao.module.travel.service.flight.FlightScheduleService;
 import cn.iocoder.yudao.module.travel.service.flightsegments.FlightSegmentsService;
 import cn.iocoder.yudao.module.travel.service.orders.OrdersService;
 import cn.iocoder.yudao.module.travel.service.passengers.PassengersService;
+import cn.iocoder.yudao.module.travel.service.seat.SeatInventoryService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -52,6 +54,12 @@ public class RebookingServiceImpl implements RebookingService {
     @Autowired
     private FlightSegmentsService flightSegmentsService;
 
+    @Autowired
+    private FlightScheduleService flightScheduleService;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
     @Override
     public RebookingInfoRespVO getRebookingInfo(Long orderId) {
         // 1. 获取订单信息
@@ -113,41 +121,8 @@ public class RebookingServiceImpl implements RebookingService {
 
     @Override
     public List<FlightSearchRespVO> searchFlights(FlightSearchReqVO reqVO) {
-        // 模拟航班搜索
-        List<FlightSearchRespVO> results = new ArrayList<>();
-        
-        // 这里应该调用第三方航班搜索API，现在先返回模拟数据
-        FlightSearchRespVO flight1 = new FlightSearchRespVO();
-        flight1.setFlightNo("MU585");
-        flight1.setAirlineCode("MU");
-        flight1.setAirlineName("中国东方航空");
-        flight1.setDepartureAirportCode(reqVO.getDepartureAirportCode());
-        flight1.setDepartureAirportName("上海浦东国际机场");
-        flight1.setArrivalAirportCode(reqVO.getArrivalAirportCode());
-        flight1.setArrivalAirportName("洛杉矶国际机场");
-        flight1.setDepartureTime(reqVO.getDepartureDate().atTime(10, 30));
-        flight1.setArrivalTime(reqVO.getDepartureDate().atTime(14, 45));
-        flight1.setCabinClass("BUSINESS");
-        flight1.setPrice(new BigDecimal("6200.00"));
-        flight1.setAvailableSeats(8);
-        results.add(flight1);
-
-        FlightSearchRespVO flight2 = new FlightSearchRespVO();
-        flight2.setFlightNo("CA987");
-        flight2.setAirlineCode("CA");
-        flight2.setAirlineName("中国国际航空");
-        flight2.setDepartureAirportCode(reqVO.getDepartureAirportCode());
-        flight2.setDepartureAirportName("上海浦东国际机场");
-        flight2.setArrivalAirportCode(reqVO.getArrivalAirportCode());
-        flight2.setArrivalAirportName("洛杉矶国际机场");
-        flight2.setDepartureTime(reqVO.getDepartureDate().atTime(16, 20));
-        flight2.setArrivalTime(reqVO.getDepartureDate().atTime(20, 35));
-        flight2.setCabinClass("ECONOMY");
-        flight2.setPrice(new BigDecimal("3800.00"));
-        flight2.setAvailableSeats(15);
-        results.add(flight2);
-
-        return results;
+        return flightScheduleService.searchFlights(reqVO.getDepartureAirportCode(), reqVO.getArrivalAirportCode(),
+                reqVO.getDepartureDate(), reqVO.getCabinClass());
     }
 
     @Override
@@ -208,10 +183,14 @@ public class RebookingServiceImpl implements RebookingService {
         application.setStatus(RebookingStatusEnum.PENDING.getStatus());
         rebookingApplicationMapper.insert(application);
 
-        // 2. 记录操作日志
+        // 2. 在新航班上占座，审核期间座位不会被他人售出
+        seatInventoryService.holdSeats(buildSeatHoldId(application.getId()), application.getNewFlightNo(),
+                application.getNewDepartureTime().toLocalDate(), application.getNewCabinClass(), 1);
+
+        // 3. 记录操作日志
         logOperation(application.getId(), "提交申请", "改签申请已提交，等待审核");
         
-        // 3. 发送异步消息
+        // 4. 发送异步消息
         sendRebookingAppliedMessages(application, createReqVO);
 
         return application.getId();
@@ -239,6 +218,9 @@ public class RebookingServiceImpl implements RebookingService {
         updateObj.setApproveTime(LocalDateTime.now());
         updateObj.setRemarks(reqVO.getRemarks());
         rebookingApplicationMapper.updateById(updateObj);
+        if (RebookingStatusEnum.REJECTED.getStatus().equals(reqVO.getStatus())) {
+            seatInventoryService.releaseHold(buildSeatHoldId(reqVO.getId()));
+        }
 
         // 4. 记录操作日志
         String statusName = reqVO.getStatus().equals(RebookingStatusEnum.APPROVED.getStatus()) ? "审核通过" : "审核拒绝";
@@ -259,25 +241,38 @@ public class RebookingServiceImpl implements RebookingService {
             throw exception(REBOOKING_APPLICATION_STATUS_ERROR);
         }
 
-        // 3. 更新原航段状态
+        // 3. 确认新航班的占座，并退回原航段的座位
+        seatInventoryService.confirmHold(buildSeatHoldId(id), application.getNewFlightNo(),
+                application.getNewDepartureTime().toLocalDate(), application.getNewCabinClass(), 1);
+        FlightSegmentsDO originalSegment = flightSegmentsService.getFlightSegments(application.getOriginalSegmentId());
+        if (originalSegment != null && originalSegment.getDepartureTime() != null) {
+            seatInventoryService.returnSeats(originalSegment.getFlightNo(), originalSegment.getDepartureTime().toLocalDate(),
+                    originalSegment.getCabinClass(), 1);
+        }
+
+        // 4. 更新原航段状态
         updateOriginalSegmentStatus(application.getOriginalSegmentId());
 
-        // 4. 创建新航段
+        // 5. 创建新航段
         createNewFlightSegment(application);
 
-        // 5. 更新申请状态
+        // 6. 更新申请状态
         RebookingApplicationDO updateObj = new RebookingApplicationDO();
         updateObj.setId(id);
         updateObj.setStatus(RebookingStatusEnum.COMPLETED.getStatus());
         rebookingApplicationMapper.updateById(updateObj);
 
-        // 6. 记录操作日志
+        // 7. 记录操作日志
         logOperation(id, "执行改签", "改签执行成功");
         
-        // 7. 发送异步消息
+        // 8. 发送异步消息
         sendRebookingCompletedMessages(application);
     }
 
+    private static String buildSeatHoldId(Long rebookingId) {
+        return "rebooking:" + rebookingId;
+    }
+
     /**
      * 更新原航段状态
      */
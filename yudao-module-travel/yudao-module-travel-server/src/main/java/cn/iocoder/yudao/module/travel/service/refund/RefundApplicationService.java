@@ -4,6 +4,7 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.travel.controller.admin.refund.vo.*;
 
 import jakarta.validation.Valid;
+import java.util.List;
 
 /**
  * 退票申请 Service 接口
@@ -49,6 +50,14 @@ public interface RefundApplicationService {
      */
     RefundFeeRespVO calculateRefundFee(@Valid RefundFeeCalculateReqVO calculateReqVO);
 
+    /**
+     * 批量计算订单的退票费用，一次性计算订单所有乘客、航段的退票费用
+     *
+     * @param calculateReqVO 计算信息
+     * @return 费用信息列表，每个航段（每个乘客）一条
+     */
+    List<RefundFeeRespVO> calculateRefundFeeBatch(@Valid RefundFeeBatchCalculateReqVO calculateReqVO);
+
     /**
      * 获得退票申请
      *
@@ -0,0 +1,94 @@
+package cn.iocoder.yudao.module.travel.service.refund;
+
+import cn.iocoder.yudao.module.travel.dal.dataobject.refund.RefundPolicyDO;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 退票政策的内存索引，不可变，刷新时整体替换
+ *
+ * 按照 (航司代码, 舱位等级, 退票类型) 分组，组内按照生效日期升序排列；
+ * 查询时二分查找最后一个生效日期 <= 指定日期的政策，再向前跳过已失效的政策，
+ * 与 RefundPolicyMapper#selectByAirlineAndCabinAndType 的 ORDER BY effective_date DESC LIMIT 1 语义一致
+ *
+ * @author 芋道源码
+ */
+public class RefundPolicyIndex {
+
+    public static final RefundPolicyIndex EMPTY = new RefundPolicyIndex(Collections.emptyList());
+
+    /**
+     * 分组后的退票政策
+     *
+     * key：{@link #buildKey(String, String, Integer)}
+     * value：按照生效日期升序排列的政策数组
+     */
+    private final Map<String, RefundPolicyDO[]> policies;
+
+    /**
+     * @param policies 启用状态的退票政策列表
+     */
+    public RefundPolicyIndex(Collection<RefundPolicyDO> policies) {
+        Map<String, List<RefundPolicyDO>> groups = new HashMap<>();
+        for (RefundPolicyDO policy : policies) {
+            if (policy.getEffectiveDate() == null) {
+                continue;
+            }
+            groups.computeIfAbsent(buildKey(policy.getAirlineCode(), policy.getCabinClass(), policy.getRefundType()),
+                    key -> new ArrayList<>()).add(policy);
+        }
+        Map<String, RefundPolicyDO[]> result = new HashMap<>(groups.size() * 4 / 3 + 1);
+        groups.forEach((key, list) -> {
+            list.sort(Comparator.comparing(RefundPolicyDO::getEffectiveDate));
+            result.put(key, list.toArray(new RefundPolicyDO[0]));
+        });
+        this.policies = result;
+    }
+
+    /**
+     * 获得指定日期生效的退票政策
+     *
+     * @param airlineCode 航司代码
+     * @param cabinClass  舱位等级
+     * @param refundType  退票类型
+     * @param date        日期
+     * @return 退票政策；不存在时，返回 null
+     */
+    public RefundPolicyDO get(String airlineCode, String cabinClass, Integer refundType, LocalDate date) {
+        RefundPolicyDO[] group = policies.get(buildKey(airlineCode, cabinClass, refundType));
+        if (group == null) {
+            return null;
+        }
+        // 二分查找最后一个生效日期 <= date 的位置
+        int low = 0;
+        int high = group.length - 1;
+        int index = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (group[mid].getEffectiveDate().isAfter(date)) {
+                high = mid - 1;
+            } else {
+                index = mid;
+                low = mid + 1;
+            }
+        }
+        // 从最近生效的政策开始，跳过已失效的政策
+        for (int i = index; i >= 0; i--) {
+            LocalDate expireDate = group[i].getExpireDate();
+            if (expireDate == null || !expireDate.isBefore(date)) {
+                return group[i];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return policies.values().stream().mapToInt(group -> group.length).sum();
+    }
+
+    private static String buildKey(String airlineCode, String cabinClass, Integer refundType) {
+        return airlineCode + ":" + cabinClass + ":" + refundType;
+    }
+
+}
@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.travel.service.refund;
+
+import cn.iocoder.yudao.module.travel.dal.dataobject.refund.RefundPolicyDO;
+
+import java.time.LocalDate;
+
+/**
+ * 退票政策 Service 接口
+ *
+ * @author 芋道源码
+ */
+public interface RefundPolicyService {
+
+    /**
+     * 获得指定日期生效的退票政策，从本地缓存中获取
+     *
+     * @param airlineCode 航司代码
+     * @param cabinClass  舱位等级
+     * @param refundType  退票类型
+     * @param date        日期
+     * @return 退票政策；不存在时，返回 null
+     */
+    RefundPolicyDO getRefundPolicy(String airlineCode, String cabinClass, Integer refundType, LocalDate date);
+
+    /**
+     * 立即刷新退票政策的本地缓存，在退票政策变更后调用
+     */
+    void refreshRefundPolicyCache();
+
+}
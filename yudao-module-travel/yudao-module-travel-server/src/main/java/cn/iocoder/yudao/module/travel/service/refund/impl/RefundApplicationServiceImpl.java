@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.travel.service.refund.impl;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
@@ -18,10 +19,11 @@ import cn.iocoder.yudao.module.travel.dal.mysql.orders.OrdersMapper;
 import cn.iocoder.yudao.module.travel.dal.mysql.passengers.PassengersMapper;
 import cn.iocoder.yudao.module.travel.dal.mysql.refund.RefundApplicationMapper;
 import cn.iocoder.yudao.module.travel.dal.mysql.refund.RefundOperationLogMapper;
-import cn.iocoder.yudao.module.travel.dal.mysql.refund.RefundPolicyMapper;
 import cn.iocoder.yudao.module.travel.enums.refund.RefundStatusEnum;
 import cn.iocoder.yudao.module.travel.enums.refund.RefundTypeEnum;
 import cn.iocoder.yudao.module.travel.service.refund.RefundApplicationService;
+import cn.iocoder.yudao.module.travel.service.refund.RefundPolicyService;
+import cn.iocoder.yudao.module.travel.service.seat.SeatInventoryService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -29,12 +31,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
 import static cn.iocoder.yudao.module.travel.enums.ErrorCodeConstants.*;
 
 /**
@@ -53,7 +59,7 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
     private RefundOperationLogMapper refundOperationLogMapper;
     
     @Autowired
-    private RefundPolicyMapper refundPolicyMapper;
+    private RefundPolicyService refundPolicyService;
     
     @Autowired
     private OrdersMapper ordersMapper;
@@ -67,6 +73,9 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
     @Autowired
     private OrderFeesMapper orderFeesMapper;
 
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long submitRefund(RefundApplicationCreateReqVO createReqVO) {
@@ -195,42 +204,78 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
             throw exception(REFUND_TYPE_INVALID);
         }
         
-        // 2. 获取退票政策
-        RefundPolicyDO policy = getRefundPolicy(calculateReqVO.getFlightNo(), 
-                calculateReqVO.getCabinClass(), calculateReqVO.getRefundType());
-        
+        // 2. 获取航段
+        FlightSegmentsDO segment = flightSegmentsMapper.selectById(calculateReqVO.getSegmentId());
+        if (segment == null) {
+            throw exception(REFUND_SEGMENT_NOT_EXISTS);
+        }
+
+        // 3. 获取退票政策，航司代码与批量计算一致
+        RefundPolicyDO policy = refundPolicyService.getRefundPolicy(resolveAirlineCode(segment),
+                calculateReqVO.getCabinClass(), calculateReqVO.getRefundType(), LocalDate.now());
         if (policy == null) {
             throw exception(REFUND_POLICY_NOT_FOUND);
         }
         
-        // 3. 获取原票价
-        BigDecimal originalPrice = getOriginalTicketPrice(calculateReqVO.getSegmentId(), 
-                calculateReqVO.getPassengerId());
-        
-        // 4. 计算退票费
-        BigDecimal refundFee = calculateRefundFeeAmount(originalPrice, policy);
-        
-        // 5. 计算实际退款金额
-        BigDecimal actualRefundAmount = originalPrice.subtract(refundFee);
-        
-        // 6. 构建响应
-        RefundFeeRespVO response = new RefundFeeRespVO();
-        response.setOriginalTicketPrice(originalPrice);
-        response.setRefundFee(refundFee);
-        response.setRefundAmount(actualRefundAmount);
-        response.setActualRefundAmount(actualRefundAmount);
-        response.setCurrency("CNY");
+        // 4. 获取原票价
+        BigDecimal originalPrice = getOriginalTicketPrice(segment, calculateReqVO.getPassengerId());
         
-        // 7. 构建费用明细
-        List<RefundFeeRespVO.FeeDetail> feeDetails = new ArrayList<>();
-        feeDetails.add(createFeeDetail("原票价", originalPrice, "票面价格"));
-        feeDetails.add(createFeeDetail("退票费", refundFee, getRefundFeeDescription(calculateReqVO.getRefundType())));
-        response.setFeeDetails(feeDetails);
+        // 5. 计算退票费，构建响应
+        RefundFeeRespVO response = buildRefundFee(originalPrice, policy, calculateReqVO.getRefundType());
+        response.setSegmentId(calculateReqVO.getSegmentId());
+        response.setPassengerId(calculateReqVO.getPassengerId());
         
-        log.info("退票费用计算完成：原票价={}, 退票费={}, 实际退款={}", originalPrice, refundFee, actualRefundAmount);
+        log.info("退票费用计算完成：原票价={}, 退票费={}, 实际退款={}", originalPrice, response.getRefundFee(),
+                response.getActualRefundAmount());
         return response;
     }
 
+    @Override
+    public List<RefundFeeRespVO> calculateRefundFeeBatch(RefundFeeBatchCalculateReqVO calculateReqVO) {
+        // 1.1 验证退票类型
+        if (RefundTypeEnum.valueOf(calculateReqVO.getRefundType()) == null) {
+            throw exception(REFUND_TYPE_INVALID);
+        }
+        // 1.2 验证订单存在
+        if (ordersMapper.selectById(calculateReqVO.getOrderId()) == null) {
+            throw exception(REFUND_ORDER_NOT_EXISTS);
+        }
+
+        // 2. 一次性获取订单的航段、票价。无论是否指定航段，都只计算可退票的航段
+        List<FlightSegmentsDO> segments = flightSegmentsMapper.selectList(
+                FlightSegmentsDO::getOrderId, calculateReqVO.getOrderId());
+        Set<Long> segmentIds = CollUtil.isNotEmpty(calculateReqVO.getSegmentIds())
+                ? CollUtil.newHashSet(calculateReqVO.getSegmentIds()) : null;
+        segments = filterList(segments, segment -> (segmentIds == null || segmentIds.contains(segment.getId()))
+                && isSegmentRefundable(segment));
+        // 每个乘客取第一条票价，与 getOriginalTicketPrice 一致
+        Map<Long, BigDecimal> ticketPrices = convertMap(
+                orderFeesMapper.selectListByOrderIdAndFeeType(calculateReqVO.getOrderId(), "TICKET_PRICE"),
+                OrderFeesDO::getPassengerId, OrderFeesDO::getAmount, (first, second) -> first);
+
+        // 3. 逐个航段计算退票费，退票政策从内存索引中获取
+        LocalDate today = LocalDate.now();
+        List<RefundFeeRespVO> responses = new ArrayList<>(segments.size());
+        for (FlightSegmentsDO segment : segments) {
+            RefundPolicyDO policy = refundPolicyService.getRefundPolicy(resolveAirlineCode(segment), segment.getCabinClass(),
+                    calculateReqVO.getRefundType(), today);
+            if (policy == null) {
+                throw exception(REFUND_POLICY_NOT_FOUND);
+            }
+            // 如果没有找到特定乘客的票价，使用默认票价
+            BigDecimal originalPrice = segment.getPassengerId() != null ? ticketPrices.get(segment.getPassengerId()) : null;
+            if (originalPrice == null) {
+                originalPrice = new BigDecimal("2000.00");
+            }
+            RefundFeeRespVO response = buildRefundFee(originalPrice, policy, calculateReqVO.getRefundType());
+            response.setSegmentId(segment.getId());
+            response.setPassengerId(segment.getPassengerId());
+            responses.add(response);
+        }
+        log.info("退票费用批量计算完成：orderId={}, 数量={}", calculateReqVO.getOrderId(), responses.size());
+        return responses;
+    }
+
     @Override
     public RefundApplicationRespVO getRefundApplication(Long id) {
         RefundApplicationDO refundApplication = getRefundApplicationById(id);
@@ -274,6 +319,7 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
         response.setOrderNo(order.getOrderNo());
         
         // 构建可退票航段
+        BigDecimal ticketPrice = getOrderTicketPrice(orderId);
         List<RefundInfoRespVO.RefundableSegment> refundableSegments = new ArrayList<>();
         for (FlightSegmentsDO segment : segments) {
             if (isSegmentRefundable(segment)) {
@@ -289,7 +335,7 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
                 refundableSegment.setDepartureTime(segment.getDepartureTime().toString());
                 refundableSegment.setArrivalTime(segment.getArrivalTime().toString());
                 refundableSegment.setCabinClass(segment.getCabinClass());
-                refundableSegment.setTicketPrice(getSegmentTicketPrice(segment.getId()));
+                refundableSegment.setTicketPrice(ticketPrice);
                 refundableSegment.setCanRefund(true);
                 
                 refundableSegments.add(refundableSegment);
@@ -399,12 +445,14 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
         return feeAmount;
     }
 
-    private RefundPolicyDO getRefundPolicy(String flightNo, String cabinClass, Integer refundType) {
-        // 从航班号提取航司代码
-        String airlineCode = extractAirlineCode(flightNo);
-        
-        // 查询退票政策
-        return refundPolicyMapper.selectByAirlineAndCabinAndType(airlineCode, cabinClass, refundType);
+    /**
+     * 获得航段的航司代码，用于匹配退票政策
+     *
+     * 优先使用航段上的航司代码；为空时，从航班号中提取
+     */
+    private String resolveAirlineCode(FlightSegmentsDO segment) {
+        return StrUtil.isNotBlank(segment.getAirlineCode()) ? segment.getAirlineCode()
+                : extractAirlineCode(segment.getFlightNo());
     }
 
     private String extractAirlineCode(String flightNo) {
@@ -415,33 +463,23 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
         return flightNo.substring(0, 2).toUpperCase();
     }
 
-    private BigDecimal getOriginalTicketPrice(Long segmentId, Long passengerId) {
+    private BigDecimal getOriginalTicketPrice(FlightSegmentsDO segment, Long passengerId) {
         // 从订单费用表中获取票价
-        FlightSegmentsDO segment = flightSegmentsMapper.selectById(segmentId);
-        if (segment == null) {
-            throw exception(REFUND_SEGMENT_NOT_EXISTS);
-        }
-        
-        List<OrderFeesDO> fees = orderFeesMapper.selectList(
-                OrderFeesDO::getOrderId, segment.getOrderId());
-        fees = fees.stream()
-                .filter(fee -> fee.getPassengerId() != null && fee.getPassengerId().equals(passengerId))
-                .filter(fee -> "TICKET_PRICE".equals(fee.getFeeType()))
-                .collect(Collectors.toList());
-        
-        if (fees.isEmpty()) {
+        OrderFeesDO fee = orderFeesMapper.selectFirstByOrderIdAndPassengerIdAndFeeType(
+                segment.getOrderId(), passengerId, "TICKET_PRICE");
+        if (fee == null) {
             // 如果没有找到特定乘客的票价，返回默认票价
             return new BigDecimal("2000.00");
         }
         
-        return fees.get(0).getAmount();
+        return fee.getAmount();
     }
 
     private void executeRefundBusiness(RefundApplicationDO refundApplication) {
         // 1. 调用支付系统退款
         executePaymentRefund(refundApplication);
         
-        // 2. 更新航段状态
+        // 2. 更新航段状态，并退回座位
         updateSegmentStatus(refundApplication.getSegmentId());
         
         // 3. 更新订单状态（如果所有航段都退票了）
@@ -461,10 +499,18 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
     }
 
     private void updateSegmentStatus(Long segmentId) {
+        FlightSegmentsDO originalSegment = flightSegmentsMapper.selectById(segmentId);
         FlightSegmentsDO segment = new FlightSegmentsDO();
         segment.setId(segmentId);
         segment.setStatus(30); // 30: 已退票
         flightSegmentsMapper.updateById(segment);
+
+        // 航段按乘客划分，退回一个座位；事务提交后才归还，已退票的航段不重复归还
+        if (originalSegment != null && !Integer.valueOf(30).equals(originalSegment.getStatus())
+                && originalSegment.getDepartureTime() != null) {
+            seatInventoryService.returnSeats(originalSegment.getFlightNo(), originalSegment.getDepartureTime().toLocalDate(),
+                    originalSegment.getCabinClass(), 1);
+        }
     }
 
     private void updateOrderStatusIfNeeded(Long orderId) {
@@ -514,6 +560,29 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
         refundOperationLogMapper.insert(log);
     }
 
+    private RefundFeeRespVO buildRefundFee(BigDecimal originalPrice, RefundPolicyDO policy, Integer refundType) {
+        // 1. 计算退票费
+        BigDecimal refundFee = calculateRefundFeeAmount(originalPrice, policy);
+        
+        // 2. 计算实际退款金额
+        BigDecimal actualRefundAmount = originalPrice.subtract(refundFee);
+        
+        // 3. 构建响应
+        RefundFeeRespVO response = new RefundFeeRespVO();
+        response.setOriginalTicketPrice(originalPrice);
+        response.setRefundFee(refundFee);
+        response.setRefundAmount(actualRefundAmount);
+        response.setActualRefundAmount(actualRefundAmount);
+        response.setCurrency("CNY");
+        
+        // 4. 构建费用明细
+        List<RefundFeeRespVO.FeeDetail> feeDetails = new ArrayList<>();
+        feeDetails.add(createFeeDetail("原票价", originalPrice, "票面价格"));
+        feeDetails.add(createFeeDetail("退票费", refundFee, getRefundFeeDescription(refundType)));
+        response.setFeeDetails(feeDetails);
+        return response;
+    }
+
     private RefundFeeRespVO.FeeDetail createFeeDetail(String type, BigDecimal amount, String description) {
         RefundFeeRespVO.FeeDetail detail = new RefundFeeRespVO.FeeDetail();
         detail.setType(type);
@@ -569,18 +638,8 @@ public class RefundApplicationServiceImpl implements RefundApplicationService {
         }
     }
 
-    private BigDecimal getSegmentTicketPrice(Long segmentId) {
-        FlightSegmentsDO segment = flightSegmentsMapper.selectById(segmentId);
-        if (segment == null) {
-            return BigDecimal.ZERO;
-        }
-        
-        List<OrderFeesDO> fees = orderFeesMapper.selectList(
-                OrderFeesDO::getOrderId, segment.getOrderId());
-        fees = fees.stream()
-                .filter(fee -> "TICKET_PRICE".equals(fee.getFeeType()))
-                .collect(Collectors.toList());
-        
+    private BigDecimal getOrderTicketPrice(Long orderId) {
+        List<OrderFeesDO> fees = orderFeesMapper.selectListByOrderIdAndFeeType(orderId, "TICKET_PRICE");
         return fees.isEmpty() ? new BigDecimal("2000.00") : fees.get(0).getAmount();
     }
 
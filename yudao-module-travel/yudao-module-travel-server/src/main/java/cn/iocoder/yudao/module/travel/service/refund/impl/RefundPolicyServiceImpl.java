@@ -0,0 +1,71 @@
+package cn.iocoder.yudao.module.travel.service.refund.impl;
+
+import cn.iocoder.yudao.framework.common.util.cache.CaffeineCacheUtils;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.travel.dal.dataobject.refund.RefundPolicyDO;
+import cn.iocoder.yudao.module.travel.dal.mysql.refund.RefundPolicyMapper;
+import cn.iocoder.yudao.module.travel.service.refund.RefundPolicyIndex;
+import cn.iocoder.yudao.module.travel.service.refund.RefundPolicyService;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 退票政策 Service 实现类
+ *
+ * 退票政策的数据量小、读多写少，因此全量加载到 {@link RefundPolicyIndex} 内存索引中：
+ * 1. 启动时加载，每分钟异步刷新一次；退票政策变更时，调用 {@link #refreshRefundPolicyCache()} 立即刷新
+ * 2. 退票政策是全局配置，与租户无关，因此忽略多租户
+ *
+ * @author 芋道源码
+ */
+@Service
+@Slf4j
+public class RefundPolicyServiceImpl implements RefundPolicyService {
+
+    /**
+     * 本地缓存的唯一 key
+     */
+    private static final String CACHE_KEY = "all";
+
+    @Resource
+    private RefundPolicyMapper refundPolicyMapper;
+
+    /**
+     * 退票政策的本地缓存
+     *
+     * key：{@link #CACHE_KEY}
+     * value：全部启用的退票政策的内存索引
+     */
+    private final LoadingCache<String, RefundPolicyIndex> refundPolicyCache = CaffeineCacheUtils.buildAsyncReloadingCache(
+            "travel.refundPolicy", Duration.ofMinutes(1L), key -> loadRefundPolicyIndex());
+
+    @PostConstruct
+    public void initLocalCache() {
+        RefundPolicyIndex index = refundPolicyCache.get(CACHE_KEY);
+        log.info("[initLocalCache][缓存退票政策，数量为:{}]", index.size());
+    }
+
+    @Override
+    public RefundPolicyDO getRefundPolicy(String airlineCode, String cabinClass, Integer refundType, LocalDate date) {
+        return refundPolicyCache.get(CACHE_KEY).get(airlineCode, cabinClass, refundType, date);
+    }
+
+    @Override
+    public void refreshRefundPolicyCache() {
+        refundPolicyCache.put(CACHE_KEY, loadRefundPolicyIndex());
+    }
+
+    private RefundPolicyIndex loadRefundPolicyIndex() {
+        List<RefundPolicyDO> policies = TenantUtils.executeIgnore(
+                () -> refundPolicyMapper.selectList(RefundPolicyDO::getStatus, 1)); // 启用状态
+        return new RefundPolicyIndex(policies);
+    }
+
+}
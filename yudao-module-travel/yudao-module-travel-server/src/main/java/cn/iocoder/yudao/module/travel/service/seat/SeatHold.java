@@ -0,0 +1,57 @@
+package cn.iocoder.yudao.module.travel.service.seat;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 座位占座
+ *
+ * 占座时扣减剩余座位数，确认后转为已售，释放或过期后归还
+ *
+ * @author 芋道源码
+ */
+@Getter
+public class SeatHold implements Delayed {
+
+    /**
+     * 占座编号，由业务方指定，例如说 rebooking:1024
+     */
+    private final String id;
+    private final String flightNo;
+    private final LocalDate departureDate;
+    private final String cabinClass;
+    /**
+     * 座位数量
+     */
+    private final int count;
+    /**
+     * 过期时间，基于 {@link System#nanoTime()}
+     */
+    private final long expireNanos;
+
+    public SeatHold(String id, String flightNo, LocalDate departureDate, String cabinClass, int count, long expireNanos) {
+        this.id = id;
+        this.flightNo = flightNo;
+        this.departureDate = departureDate;
+        this.cabinClass = cabinClass;
+        this.count = count;
+        this.expireNanos = expireNanos;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(expireNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof SeatHold) {
+            return Long.compare(expireNanos, ((SeatHold) other).expireNanos);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+}
@@ -0,0 +1,357 @@
+package cn.iocoder.yudao.module.travel.service.seat;
+
+import cn.iocoder.yudao.module.travel.service.flight.schedule.FlightScheduleIndex;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * 座位库存引擎
+ *
+ * 1. 剩余座位数使用 {@link FlightScheduleIndex} 中按 (航班, 日期, 舱位) 划分的原子计数器，CAS 扣减，不足时失败，不会超卖；
+ *    不同航班、舱位之间互不竞争，也不需要对数据库的行加锁
+ * 2. 占座保存在 {@link #holds} 中，并按过期时间放入 {@link #expireQueue}，由 {@link #expireHolds()} 定期归还过期的占座；
+ *    确认、释放、过期都通过 {@link Map#remove(Object)} 争抢，保证同一个占座的座位只会被确认或归还一次
+ * 3. 已售座位数的变化先累加在 {@link #pendingSoldSeats} 中，由 {@link #flushSoldSeats(SoldSeatsWriter)} 定期批量写入数据库
+ * 4. 扣减、归还座位时持有 {@link #seatLock}，避免航班计划重新导入、替换索引期间的扣减、归还丢失
+ * 5. 多节点部署时，各节点只知道自己的扣减，通过 {@link SeatCounter} 在集群共享的计数器上检查座位数上限，
+ *    保证整个集群不会超卖
+ *
+ * 不在航班计划中的航班、舱位（包括航班计划未加载时）无法扣减，避免没有库存上限地超卖；舱位等级忽略大小写，统一按照大写记录
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class SeatInventoryEngine {
+
+    /**
+     * 已售座位数的写入器
+     */
+    @FunctionalInterface
+    public interface SoldSeatsWriter {
+
+        /**
+         * 累加已售座位数
+         *
+         * @param flightNo 航班号
+         * @param departureDate 出发日期
+         * @param cabinClass 舱位等级
+         * @param delta 变化量，负数表示退回
+         */
+        void write(String flightNo, LocalDate departureDate, String cabinClass, int delta);
+
+    }
+
+    /**
+     * 集群共享的已占用座位数（已售 + 占座）计数器
+     */
+    public interface SeatCounter {
+
+        /**
+         * 单节点部署时使用，只依赖本节点的剩余座位数
+         */
+        SeatCounter LOCAL = new SeatCounter() {
+
+            @Override
+            public boolean tryIncrease(String flightNo, LocalDate departureDate, String cabinClass, int count, int seats) {
+                return true;
+            }
+
+            @Override
+            public void decrease(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+            }
+
+        };
+
+        /**
+         * 原子增加已占用座位数，超过座位数时不增加
+         *
+         * @param flightNo 航班号
+         * @param departureDate 出发日期
+         * @param cabinClass 舱位等级
+         * @param count 座位数量
+         * @param seats 舱位的座位数，即上限
+         * @return 是否成功
+         */
+        boolean tryIncrease(String flightNo, LocalDate departureDate, String cabinClass, int count, int seats);
+
+        /**
+         * 减少已占用座位数
+         *
+         * @param flightNo 航班号
+         * @param departureDate 出发日期
+         * @param cabinClass 舱位等级
+         * @param count 座位数量
+         */
+        void decrease(String flightNo, LocalDate departureDate, String cabinClass, int count);
+
+    }
+
+    private final Supplier<FlightScheduleIndex> indexSupplier;
+    /**
+     * 座位锁，即 {@link cn.iocoder.yudao.module.travel.service.flight.FlightScheduleService#getSeatLock()}
+     */
+    private final Lock seatLock;
+    private final SeatCounter seatCounter;
+
+    private final long holdTtlNanos;
+
+    /**
+     * 占座，key 为占座编号
+     */
+    private final Map<String, SeatHold> holds = new ConcurrentHashMap<>();
+    /**
+     * 按过期时间排序的占座；确认、释放后不从队列中删除，过期时发现已不在 {@link #holds} 中则忽略
+     */
+    private final DelayQueue<SeatHold> expireQueue = new DelayQueue<>();
+
+    /**
+     * 待写入数据库的已售座位数变化，key 为 航班号:日期:舱位
+     */
+    private final Map<String, PendingSoldSeats> pendingSoldSeats = new ConcurrentHashMap<>();
+
+    public SeatInventoryEngine(Supplier<FlightScheduleIndex> indexSupplier, Lock seatLock, Duration holdTtl) {
+        this(indexSupplier, seatLock, SeatCounter.LOCAL, holdTtl);
+    }
+
+    public SeatInventoryEngine(Supplier<FlightScheduleIndex> indexSupplier, Lock seatLock, SeatCounter seatCounter,
+                               Duration holdTtl) {
+        this.indexSupplier = indexSupplier;
+        this.seatLock = seatLock;
+        this.seatCounter = seatCounter;
+        this.holdTtlNanos = holdTtl.toNanos();
+    }
+
+    /**
+     * 占座
+     *
+     * 相同占座编号重复调用时，直接返回成功
+     *
+     * @param holdId 占座编号
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级
+     * @param count 座位数量
+     * @return 是否成功；航班、舱位不存在，或剩余座位数不足时，返回 false
+     */
+    public boolean hold(String holdId, String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        if (holds.containsKey(holdId)) {
+            return true;
+        }
+        cabinClass = normalizeCabinClass(cabinClass);
+        seatLock.lock();
+        try {
+            FlightScheduleIndex index = indexSupplier.get();
+            int instance = index.find(flightNo, departureDate);
+            if (!tryDecrease(index, instance, flightNo, departureDate, cabinClass, count)) {
+                return false;
+            }
+            SeatHold hold = new SeatHold(holdId, flightNo, departureDate, cabinClass, count, System.nanoTime() + holdTtlNanos);
+            if (holds.putIfAbsent(holdId, hold) != null) {
+                // 并发重复占座，归还本次扣减的座位
+                index.increaseAvailableSeats(instance, cabinClass, count);
+                seatCounter.decrease(flightNo, departureDate, cabinClass, count);
+                return true;
+            }
+            expireQueue.offer(hold);
+            return true;
+        } finally {
+            seatLock.unlock();
+        }
+    }
+
+    /**
+     * 确认占座，座位转为已售
+     *
+     * @param holdId 占座编号
+     * @return 占座；不存在（未占座、已过期、已释放）时，返回 null
+     */
+    public SeatHold confirm(String holdId) {
+        return holds.remove(holdId);
+    }
+
+    /**
+     * 释放占座，归还座位
+     *
+     * @param holdId 占座编号
+     * @return 占座；不存在时，返回 null
+     */
+    public SeatHold release(String holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold != null) {
+            increase(hold.getFlightNo(), hold.getDepartureDate(), hold.getCabinClass(), hold.getCount());
+        }
+        return hold;
+    }
+
+    /**
+     * 不经过占座，直接扣减座位
+     *
+     * @return 是否成功；航班、舱位不存在，或剩余座位数不足时，返回 false
+     */
+    public boolean reserve(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        cabinClass = normalizeCabinClass(cabinClass);
+        seatLock.lock();
+        try {
+            FlightScheduleIndex index = indexSupplier.get();
+            return tryDecrease(index, index.find(flightNo, departureDate), flightNo, departureDate, cabinClass, count);
+        } finally {
+            seatLock.unlock();
+        }
+    }
+
+    /**
+     * 扣减座位
+     *
+     * 单节点部署时，以本节点的剩余座位数为准；多节点部署时，以集群共享的已占用座位数为准，
+     * 本节点的剩余座位数只包含本节点的扣减、归还，尽力同步，不作为判断依据
+     */
+    private boolean tryDecrease(FlightScheduleIndex index, int instance,
+                                String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        if (!exists(index, instance, cabinClass)) {
+            return false;
+        }
+        if (seatCounter == SeatCounter.LOCAL) {
+            return index.tryDecreaseAvailableSeats(instance, cabinClass, count);
+        }
+        if (!seatCounter.tryIncrease(flightNo, departureDate, cabinClass, count, index.getSeats(instance, cabinClass))) {
+            return false;
+        }
+        index.tryDecreaseAvailableSeats(instance, cabinClass, count);
+        return true;
+    }
+
+    /**
+     * 判断航班计划中是否存在指定航班的舱位
+     *
+     * @return 是否存在；航班计划未加载时，返回 false
+     */
+    public boolean exists(String flightNo, LocalDate departureDate, String cabinClass) {
+        FlightScheduleIndex index = indexSupplier.get();
+        return exists(index, index.find(flightNo, departureDate), cabinClass);
+    }
+
+    /**
+     * 归还座位
+     */
+    public void increase(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        cabinClass = normalizeCabinClass(cabinClass);
+        seatLock.lock();
+        try {
+            FlightScheduleIndex index = indexSupplier.get();
+            int instance = index.find(flightNo, departureDate);
+            if (instance != FlightScheduleIndex.NOT_FOUND) {
+                index.increaseAvailableSeats(instance, cabinClass, count);
+            }
+            seatCounter.decrease(flightNo, departureDate, cabinClass, count);
+        } finally {
+            seatLock.unlock();
+        }
+    }
+
+    /**
+     * 归还所有已过期的占座
+     *
+     * @return 过期的占座数量
+     */
+    public int expireHolds() {
+        int count = 0;
+        SeatHold hold;
+        while ((hold = expireQueue.poll()) != null) {
+            // 只有仍在 holds 中的，才是未确认、未释放的占座
+            if (holds.remove(hold.getId(), hold)) {
+                increase(hold.getFlightNo(), hold.getDepartureDate(), hold.getCabinClass(), hold.getCount());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获得未过期的占座数量
+     */
+    public int getHoldCount() {
+        return holds.size();
+    }
+
+    // ========== 已售座位数的异步写入 ==========
+
+    /**
+     * 记录已售座位数的变化，等待 {@link #flushSoldSeats(SoldSeatsWriter)} 写入
+     *
+     * @param delta 变化量，负数表示退回
+     */
+    public void recordSoldSeats(String flightNo, LocalDate departureDate, String cabinClass, int delta) {
+        String normalizedCabinClass = normalizeCabinClass(cabinClass);
+        pendingSoldSeats.computeIfAbsent(flightNo + ':' + departureDate + ':' + normalizedCabinClass,
+                key -> new PendingSoldSeats(flightNo, departureDate, normalizedCabinClass)).getDelta().addAndGet(delta);
+    }
+
+    /**
+     * 写入累积的已售座位数变化
+     *
+     * 写入失败时，变化量加回，等待下次写入
+     *
+     * @param writer 写入器
+     * @return 写入的数量
+     */
+    public int flushSoldSeats(SoldSeatsWriter writer) {
+        int count = 0;
+        LocalDate today = LocalDate.now();
+        for (PendingSoldSeats pending : pendingSoldSeats.values()) {
+            int delta = pending.getDelta().getAndSet(0);
+            if (delta == 0) {
+                // 已起飞的航班不会再有变化，移除避免无限增长
+                if (pending.getDepartureDate().isBefore(today)) {
+                    pendingSoldSeats.remove(pending.getKey(), pending);
+                }
+                continue;
+            }
+            try {
+                writer.write(pending.getFlightNo(), pending.getDepartureDate(), pending.getCabinClass(), delta);
+                count++;
+            } catch (RuntimeException ex) {
+                pending.getDelta().addAndGet(delta);
+                log.error("[flushSoldSeats][航班({}) 写入已售座位数({}) 失败]", pending.getKey(), delta, ex);
+            }
+        }
+        return count;
+    }
+
+    private static boolean exists(FlightScheduleIndex index, int instance, String cabinClass) {
+        return instance != FlightScheduleIndex.NOT_FOUND && index.getSeats(instance, cabinClass) >= 0;
+    }
+
+    private static String normalizeCabinClass(String cabinClass) {
+        return cabinClass != null ? cabinClass.toUpperCase() : null;
+    }
+
+    @Getter
+    private static class PendingSoldSeats {
+
+        private final String flightNo;
+        private final LocalDate departureDate;
+        private final String cabinClass;
+        private final AtomicInteger delta = new AtomicInteger();
+
+        PendingSoldSeats(String flightNo, LocalDate departureDate, String cabinClass) {
+            this.flightNo = flightNo;
+            this.departureDate = departureDate;
+            this.cabinClass = cabinClass;
+        }
+
+        String getKey() {
+            return flightNo + ':' + departureDate + ':' + cabinClass;
+        }
+
+    }
+
+}
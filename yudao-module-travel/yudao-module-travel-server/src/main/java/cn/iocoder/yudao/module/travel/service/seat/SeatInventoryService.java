@@ -0,0 +1,71 @@
+package cn.iocoder.yudao.module.travel.service.seat;
+
+import java.time.LocalDate;
+
+/**
+ * 座位库存 Service 接口
+ *
+ * 在事务中调用时，事务回滚会自动归还本次扣减的座位；已售座位数在事务提交后才会写入数据库
+ * 航班计划中不存在的航班、舱位，以及航班计划未加载时，占座、售出都会失败
+ *
+ * @author 芋道源码
+ */
+public interface SeatInventoryService {
+
+    /**
+     * 占座，有效期内未确认则自动归还
+     *
+     * 相同占座编号重复调用时，直接返回
+     *
+     * @param holdId 占座编号，例如说 rebooking:1024
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级
+     * @param count 座位数量
+     * @throws cn.iocoder.yudao.framework.common.exception.ServiceException 航班、舱位不存在，或剩余座位数不足时
+     */
+    void holdSeats(String holdId, String flightNo, LocalDate departureDate, String cabinClass, int count);
+
+    /**
+     * 确认占座，座位转为已售
+     *
+     * 占座已过期时，重新扣减座位
+     *
+     * @param holdId 占座编号
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级
+     * @param count 座位数量
+     * @throws cn.iocoder.yudao.framework.common.exception.ServiceException 占座已过期，且剩余座位数不足时
+     */
+    void confirmHold(String holdId, String flightNo, LocalDate departureDate, String cabinClass, int count);
+
+    /**
+     * 释放占座，归还座位；占座不存在时忽略
+     *
+     * @param holdId 占座编号
+     */
+    void releaseHold(String holdId);
+
+    /**
+     * 不经过占座，直接售出座位
+     *
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级
+     * @param count 座位数量
+     * @throws cn.iocoder.yudao.framework.common.exception.ServiceException 航班、舱位不存在，或剩余座位数不足时
+     */
+    void sellSeats(String flightNo, LocalDate departureDate, String cabinClass, int count);
+
+    /**
+     * 退回已售的座位，例如说改签、退票后的原航段
+     *
+     * @param flightNo 航班号
+     * @param departureDate 出发日期
+     * @param cabinClass 舱位等级
+     * @param count 座位数量
+     */
+    void returnSeats(String flightNo, LocalDate departureDate, String cabinClass, int count);
+
+}
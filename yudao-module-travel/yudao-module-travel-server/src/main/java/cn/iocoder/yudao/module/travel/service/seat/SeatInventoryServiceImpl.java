@@ -0,0 +1,193 @@
+package cn.iocoder.yudao.module.travel.service.seat;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.travel.config.SeatInventoryProperties;
+import cn.iocoder.yudao.module.travel.dal.dataobject.seat.SeatInventoryDO;
+import cn.iocoder.yudao.module.travel.dal.mysql.seat.SeatInventoryMapper;
+import cn.iocoder.yudao.module.travel.dal.redis.seat.SeatInventoryRedisDAO;
+import cn.iocoder.yudao.module.travel.service.flight.FlightScheduleService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.mybatis.core.util.TransactionUtils.afterCommit;
+import static cn.iocoder.yudao.framework.mybatis.core.util.TransactionUtils.afterRollback;
+import static cn.iocoder.yudao.module.travel.enums.ErrorCodeConstants.*;
+
+/**
+ * 座位库存 Service 实现类
+ *
+ * 基于 {@link SeatInventoryEngine} 实现，扣减、占座都在内存中完成：
+ * 1. 启动时从 studio_seat_inventory 加载已售座位数，扣减到航班计划的剩余座位数中
+ * 2. 独立的线程定期归还过期的占座，并把已售座位数的变化批量写入 studio_seat_inventory
+ * 3. 座位库存与租户无关，因此读写数据库时忽略多租户
+ * 4. 扣减时通过 {@link SeatInventoryRedisDAO} 检查集群共享的已占用座位数，保证多节点部署时不会超卖。
+ *    本节点内存中的剩余座位数只包含本节点的扣减、归还，不作为超卖的判断依据
+ *
+ * @author 芋道源码
+ */
+@Service
+@Slf4j
+public class SeatInventoryServiceImpl implements SeatInventoryService {
+
+    @Resource
+    private SeatInventoryProperties seatInventoryProperties;
+
+    @Resource
+    private FlightScheduleService flightScheduleService;
+
+    @Resource
+    private SeatInventoryMapper seatInventoryMapper;
+
+    @Resource
+    private SeatInventoryRedisDAO seatInventoryRedisDAO;
+
+    private SeatInventoryEngine engine;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            ThreadFactoryBuilder.create().setNamePrefix("travel-seat-inventory-").setDaemon(true).build());
+
+    @PostConstruct
+    public void init() {
+        engine = new SeatInventoryEngine(flightScheduleService::getFlightScheduleIndex,
+                flightScheduleService.getSeatLock(), new RedisSeatCounter(), seatInventoryProperties.getHoldTtl());
+        // 加载已售座位数
+        List<SeatInventoryDO> inventories = TenantUtils.executeIgnore(
+                () -> seatInventoryMapper.selectListByDepartureDateGe(LocalDate.now()));
+        inventories.forEach(inventory -> {
+            int sold = Math.min(inventory.getSoldSeats(), flightScheduleService.getAvailableSeats(
+                    inventory.getFlightNo(), inventory.getDepartureDate(), inventory.getCabinClass()));
+            if (sold > 0) {
+                flightScheduleService.decreaseAvailableSeats(inventory.getFlightNo(), inventory.getDepartureDate(),
+                        inventory.getCabinClass(), sold);
+            }
+        });
+        log.info("[init][加载已售座位数，数量为:{}]", inventories.size());
+
+        Gauge.builder("yudao.travel.seat-inventory.holds", engine, SeatInventoryEngine::getHoldCount)
+                .description("未过期的占座数量").register(Metrics.globalRegistry);
+        long expireInterval = seatInventoryProperties.getExpireInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::expireHolds, expireInterval, expireInterval, TimeUnit.MILLISECONDS);
+        long flushInterval = seatInventoryProperties.getFlushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flushSoldSeats, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+        // 关闭前，写入剩余的已售座位数
+        flushSoldSeats();
+    }
+
+    @Override
+    public void holdSeats(String holdId, String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        if (!engine.hold(holdId, flightNo, departureDate, cabinClass, count)) {
+            throw buildSeatInventoryException(flightNo, departureDate, cabinClass);
+        }
+        afterRollback(() -> engine.release(holdId));
+    }
+
+    @Override
+    public void confirmHold(String holdId, String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        SeatHold hold = engine.confirm(holdId);
+        if (hold == null) {
+            // 占座已过期，重新扣减
+            sellSeats(flightNo, departureDate, cabinClass, count);
+            return;
+        }
+        afterRollback(() -> engine.increase(hold.getFlightNo(), hold.getDepartureDate(), hold.getCabinClass(), hold.getCount()));
+        afterCommit(() -> engine.recordSoldSeats(hold.getFlightNo(), hold.getDepartureDate(), hold.getCabinClass(), hold.getCount()));
+    }
+
+    @Override
+    public void releaseHold(String holdId) {
+        engine.release(holdId);
+    }
+
+    @Override
+    public void sellSeats(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        if (!engine.reserve(flightNo, departureDate, cabinClass, count)) {
+            throw buildSeatInventoryException(flightNo, departureDate, cabinClass);
+        }
+        afterRollback(() -> engine.increase(flightNo, departureDate, cabinClass, count));
+        afterCommit(() -> engine.recordSoldSeats(flightNo, departureDate, cabinClass, count));
+    }
+
+    @Override
+    public void returnSeats(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+        // 事务提交后再归还，避免回滚后座位已被他人售出
+        afterCommit(() -> {
+            engine.increase(flightNo, departureDate, cabinClass, count);
+            engine.recordSoldSeats(flightNo, departureDate, cabinClass, -count);
+        });
+    }
+
+    /**
+     * 扣减失败时，区分航班计划未加载、航班舱位不存在、剩余座位数不足
+     */
+    private ServiceException buildSeatInventoryException(String flightNo, LocalDate departureDate, String cabinClass) {
+        if (flightScheduleService.getFlightScheduleIndex().size() == 0) {
+            return exception(SEAT_INVENTORY_NOT_LOADED);
+        }
+        if (!engine.exists(flightNo, departureDate, cabinClass)) {
+            return exception(SEAT_INVENTORY_FLIGHT_NOT_EXISTS, flightNo, departureDate, cabinClass);
+        }
+        return exception(SEAT_INVENTORY_NOT_ENOUGH, flightNo, cabinClass);
+    }
+
+    private void expireHolds() {
+        try {
+            int count = engine.expireHolds();
+            if (count > 0) {
+                log.info("[expireHolds][归还过期的占座，数量为:{}]", count);
+            }
+        } catch (Throwable ex) {
+            // 兜底处理，避免异常导致定时任务终止
+            log.error("[expireHolds][归还过期的占座时，发生异常]", ex);
+        }
+    }
+
+    private void flushSoldSeats() {
+        try {
+            TenantUtils.executeIgnore(() -> engine.flushSoldSeats(seatInventoryMapper::upsertSoldSeats));
+        } catch (Throwable ex) {
+            // 兜底处理，避免异常导致定时任务终止
+            log.error("[flushSoldSeats][写入已售座位数时，发生异常]", ex);
+        }
+    }
+
+    /**
+     * 基于 {@link SeatInventoryRedisDAO} 的集群共享计数器
+     */
+    private class RedisSeatCounter implements SeatInventoryEngine.SeatCounter {
+
+        @Override
+        public boolean tryIncrease(String flightNo, LocalDate departureDate, String cabinClass, int count, int seats) {
+            return seatInventoryRedisDAO.tryIncrease(flightNo, departureDate, cabinClass, count, seats, () -> {
+                SeatInventoryDO inventory = TenantUtils.executeIgnore(
+                        () -> seatInventoryMapper.selectByFlight(flightNo, departureDate, cabinClass));
+                return inventory != null ? inventory.getSoldSeats() : 0;
+            });
+        }
+
+        @Override
+        public void decrease(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+            seatInventoryRedisDAO.decrease(flightNo, departureDate, cabinClass, count);
+        }
+
+    }
+
+}
@@ -3,6 +3,8 @@ package cn.iocoder.yudao.module.travel.service.ticket;
 import cn.iocoder.yudao.module.travel.controller.admin.ticket.vo.*;
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 /**
  * 出票 Service 接口
  *
@@ -18,4 +20,14 @@ public interface TicketService {
      */
     TicketIssueRespVO issueTicket(@Valid TicketIssueReqVO reqVO);
 
+    /**
+     * 批量执行订单出票操作
+     *
+     * 所有订单在同一个事务中出票，每张表只执行一次批量写入
+     *
+     * @param reqVO 批量出票请求信息
+     * @return 出票结果，顺序与请求的订单一致
+     */
+    List<TicketIssueRespVO> issueTicketBatch(@Valid TicketBatchIssueReqVO reqVO);
+
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package cn.iocoder.yudao.module.travel.service.ticket;
 
-import cn.hutool.core.util.RandomUtil;
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.module.travel.controller.admin.ticket.vo.*;
@@ -12,6 +12,8 @@ import cn.iocoder.yudao.module.travel.dal.mysql.orders.OrdersMapper;
 import cn.iocoder.yudao.module.travel.dal.mysql.passengers.PassengersMapper;
 import cn.iocoder.yudao.module.travel.dal.mysql.flightsegments.FlightSegmentsMapper;
 import cn.iocoder.yudao.module.travel.dal.mysql.orderfees.OrderFeesMapper;
+import cn.iocoder.yudao.module.travel.service.no.TravelNoService;
+import cn.iocoder.yudao.module.travel.service.seat.SeatInventoryService;
 import jakarta.annotation.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,9 +21,11 @@ import org.springframework.validation.annotation.Validated;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
+import static cn.iocoder.yudao.module.travel.enums.ErrorCodeConstants.*;
 
 /**
  * 出票 Service 实现类
@@ -44,154 +48,285 @@ public class TicketServiceImpl implements TicketService {
     @Resource
     private OrderFeesMapper orderFeesMapper;
 
+    @Resource
+    private TravelNoService travelNoService;
+
+    @Resource
+    private SeatInventoryService seatInventoryService;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public TicketIssueRespVO issueTicket(TicketIssueReqVO reqVO) {
-        // 1. 创建或更新订单
-        OrdersDO order = createOrUpdateOrder(reqVO);
-        
-        // 2. 创建或更新乘客信息
-        List<PassengersDO> passengers = createOrUpdatePassengers(reqVO, order.getId());
-        
-        // 3. 创建航段信息
-        List<FlightSegmentsDO> flightSegments = createFlightSegments(reqVO, order.getId(), passengers);
-        
-        // 4. 创建费用信息
-        createOrderFees(reqVO, order.getId(), passengers);
-        
-        // 5. 生成电子票号
-        List<String> ticketNos = generateTicketNumbers(passengers, flightSegments);
-        
-        // 6. 更新航段的电子票号
-        updateFlightSegmentsWithTicketNumbers(flightSegments, ticketNos);
-        
-        // 7. 更新订单状态为已出票
-        updateOrderStatus(order.getId(), 30); // 30: 已出票
-        
-        // 8. 构建响应
-        return buildTicketIssueResponse(order, ticketNos);
+        return issueTickets(Collections.singletonList(reqVO)).get(0);
     }
 
-    private OrdersDO createOrUpdateOrder(TicketIssueReqVO reqVO) {
-        OrdersDO order;
-        
-        if (reqVO.getOrderId() != null) {
-            // 更新现有订单
-            order = ordersMapper.selectById(reqVO.getOrderId());
-            if (order == null) {
-                throw new IllegalArgumentException("订单不存在");
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<TicketIssueRespVO> issueTicketBatch(TicketBatchIssueReqVO reqVO) {
+        return issueTickets(reqVO.getOrders());
+    }
+
+    /**
+     * 批量出票
+     *
+     * 先在内存中构建好所有记录、生成电子票号，再对每张表执行一次批量写入，
+     * 避免逐条 insert、updateById 导致事务内的语句数随乘客数 × 航段数增长，长时间持有行锁
+     *
+     * @param reqVOs 出票请求列表
+     * @return 出票结果列表
+     */
+    private List<TicketIssueRespVO> issueTickets(List<TicketIssueReqVO> reqVOs) {
+        // 0. 校验同一批次中，订单、乘客没有重复
+        validateTicketIssueReqs(reqVOs);
+
+        // 1. 扣减座位库存，不足时在写入数据库前失败
+        sellSeats(reqVOs);
+
+        // 2. 创建或更新订单，订单状态直接设置为已出票
+        List<OrdersDO> orders = createOrUpdateOrders(reqVOs);
+
+        // 3. 创建或更新乘客信息
+        List<List<PassengersDO>> passengersList = createOrUpdatePassengers(reqVOs, orders);
+
+        // 4. 创建航段信息，插入前生成好电子票号
+        List<List<String>> ticketNosList = createFlightSegments(reqVOs, orders, passengersList);
+
+        // 5. 创建费用信息
+        createOrderFees(reqVOs, orders, passengersList);
+
+        // 6. 构建响应
+        List<TicketIssueRespVO> responses = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            responses.add(buildTicketIssueResponse(orders.get(i), ticketNosList.get(i)));
+        }
+        return responses;
+    }
+
+    /**
+     * 校验同一批次中，订单、乘客没有重复
+     *
+     * 重复时，批量查询的结果会被同一个对象共用，导致重复扣减座位、重复生成航段
+     */
+    private void validateTicketIssueReqs(List<TicketIssueReqVO> reqVOs) {
+        Set<Object> orderKeys = new HashSet<>();
+        Set<Long> passengerIds = new HashSet<>();
+        for (TicketIssueReqVO reqVO : reqVOs) {
+            Object orderKey = reqVO.getOrderId() != null ? reqVO.getOrderId()
+                    : StrUtil.isNotBlank(reqVO.getOrderNo()) ? reqVO.getOrderNo() : null;
+            if (orderKey != null && !orderKeys.add(orderKey)) {
+                throw exception(TICKET_ORDER_DUPLICATE, orderKey);
             }
-            order.setTotalAmount(reqVO.getTotalAmount());
-            order.setCurrency(reqVO.getCurrency());
-            order.setRemark(reqVO.getRemark());
-            order.setUpdatedAt(LocalDateTime.now());
-            ordersMapper.updateById(order);
-        } else if (StrUtil.isNotBlank(reqVO.getOrderNo())) {
-            // 根据订单号查询订单
-            order = ordersMapper.selectByOrderNo(reqVO.getOrderNo());
-            if (order == null) {
-                throw new IllegalArgumentException("订单号不存在");
+            for (TicketIssueReqVO.PassengerInfo passengerInfo : reqVO.getPassengers()) {
+                if (passengerInfo.getId() != null && !passengerIds.add(passengerInfo.getId())) {
+                    throw exception(TICKET_PASSENGER_DUPLICATE, passengerInfo.getId());
+                }
             }
-        } else {
-            // 创建新订单
-            order = OrdersDO.builder()
-                    .orderNo(generateOrderNo())
-                    .userId(1L) // 默认用户ID，实际应从登录用户获取
-                    .totalAmount(reqVO.getTotalAmount())
-                    .currency(reqVO.getCurrency())
-                    .orderStatus(20) // 20: 已支付
-                    .paymentStatus(20) // 20: 已支付
-                    .bookingType("ONLINE")
-                    .contactName("系统用户") // 实际应从乘客信息或用户信息获取
-                    .contactPhone("13800138000") // 实际应从乘客信息或用户信息获取
-                    .contactEmail("system@example.com")
-                    .remark(reqVO.getRemark())
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-            ordersMapper.insert(order);
         }
-        
-        return order;
     }
 
-    private List<PassengersDO> createOrUpdatePassengers(TicketIssueReqVO reqVO, Long orderId) {
-        List<PassengersDO> passengers = new ArrayList<>();
-        
-        for (TicketIssueReqVO.PassengerInfo passengerInfo : reqVO.getPassengers()) {
-            PassengersDO passenger;
-            
-            if (passengerInfo.getId() != null) {
-                // 更新现有乘客
-                passenger = passengersMapper.selectById(passengerInfo.getId());
-                if (passenger == null) {
-                    throw new IllegalArgumentException("乘客不存在");
+    private void sellSeats(List<TicketIssueReqVO> reqVOs) {
+        // 每个乘客在每个航段上占用一个座位；事务回滚时，座位自动归还
+        for (TicketIssueReqVO reqVO : reqVOs) {
+            for (TicketIssueReqVO.FlightSegmentInfo segmentInfo : reqVO.getFlightSegments()) {
+                seatInventoryService.sellSeats(segmentInfo.getFlightNo(), segmentInfo.getDepartureTime().toLocalDate(),
+                        segmentInfo.getCabinClass(), reqVO.getPassengers().size());
+            }
+        }
+    }
+
+    private List<OrdersDO> createOrUpdateOrders(List<TicketIssueReqVO> reqVOs) {
+        // 批量查询已有订单
+        Set<Long> orderIds = convertSet(reqVOs, TicketIssueReqVO::getOrderId);
+        Map<Long, OrdersDO> orderMap = CollUtil.isEmpty(orderIds) ? Collections.emptyMap()
+                : convertMap(ordersMapper.selectByIds(orderIds), OrdersDO::getId);
+        Set<String> orderNos = convertSet(reqVOs, TicketIssueReqVO::getOrderNo,
+                reqVO -> reqVO.getOrderId() == null && StrUtil.isNotBlank(reqVO.getOrderNo()));
+        Map<String, OrdersDO> orderNoMap = CollUtil.isEmpty(orderNos) ? Collections.emptyMap()
+                : convertMap(ordersMapper.selectList(OrdersDO::getOrderNo, orderNos), OrdersDO::getOrderNo);
+
+        List<OrdersDO> orders = new ArrayList<>(reqVOs.size());
+        List<OrdersDO> createOrders = new ArrayList<>();
+        List<OrdersDO> updateOrders = new ArrayList<>();
+        for (TicketIssueReqVO reqVO : reqVOs) {
+            OrdersDO order;
+            if (reqVO.getOrderId() != null) {
+                // 更新现有订单
+                order = orderMap.get(reqVO.getOrderId());
+                if (order == null) {
+                    throw new IllegalArgumentException("订单不存在");
                 }
-                updatePassengerInfo(passenger, passengerInfo);
-                passengersMapper.updateById(passenger);
+                validateOrderNotIssued(order);
+                order.setTotalAmount(reqVO.getTotalAmount());
+                order.setCurrency(reqVO.getCurrency());
+                order.setRemark(reqVO.getRemark());
+                order.setOrderStatus(30); // 30: 已出票
+                order.setUpdatedAt(LocalDateTime.now());
+                updateOrders.add(order);
+            } else if (StrUtil.isNotBlank(reqVO.getOrderNo())) {
+                // 根据订单号查询订单
+                order = orderNoMap.get(reqVO.getOrderNo());
+                if (order == null) {
+                    throw new IllegalArgumentException("订单号不存在");
+                }
+                validateOrderNotIssued(order);
+                order.setOrderStatus(30); // 30: 已出票
+                order.setUpdatedAt(LocalDateTime.now());
+                updateOrders.add(order);
             } else {
-                // 创建新乘客
-                passenger = PassengersDO.builder()
-                        .orderId(orderId)
-                        .passengerType(passengerInfo.getPassengerType())
-                        .chineseName(buildChineseName(passengerInfo.getLastNameCn(), passengerInfo.getFirstNameCn()))
-                        .englishName(buildEnglishName(passengerInfo.getLastName(), passengerInfo.getFirstName()))
-                        .gender(passengerInfo.getGender() == 1 ? "MALE" : "FEMALE")
-                        .birthday(passengerInfo.getBirthday())
-                        .idType(convertDocumentType(passengerInfo.getDocumentType()))
-                        .idNumber(passengerInfo.getDocumentNo())
-                        .idExpiryDate(passengerInfo.getDocumentExpiry())
-                        .nationality(passengerInfo.getNationality())
-                        .phone(passengerInfo.getMobile())
-                        .email(passengerInfo.getEmail())
+                // 创建新订单
+                order = OrdersDO.builder()
+                        .orderNo(travelNoService.generateOrderNo())
+                        .userId(1L) // 默认用户ID，实际应从登录用户获取
+                        .totalAmount(reqVO.getTotalAmount())
+                        .currency(reqVO.getCurrency())
+                        .orderStatus(30) // 30: 已出票
+                        .paymentStatus(20) // 20: 已支付
+                        .bookingType("ONLINE")
+                        .contactName("系统用户") // 实际应从乘客信息或用户信息获取
+                        .contactPhone("13800138000") // 实际应从乘客信息或用户信息获取
+                        .contactEmail("system@example.com")
+                        .remark(reqVO.getRemark())
                         .createdAt(LocalDateTime.now())
                         .updatedAt(LocalDateTime.now())
                         .build();
-                passengersMapper.insert(passenger);
+                createOrders.add(order);
             }
-            
-            passengers.add(passenger);
+            orders.add(order);
         }
-        
-        return passengers;
+        // 批量插入新订单，插入后回填 id；批量更新已有订单
+        ordersMapper.insertBatch(createOrders);
+        if (CollUtil.isNotEmpty(updateOrders)) {
+            ordersMapper.updateBatch(updateOrders);
+        }
+        return orders;
+    }
+
+    private void validateOrderNotIssued(OrdersDO order) {
+        if (Objects.equals(order.getOrderStatus(), 30)) { // 30: 已出票
+            throw exception(TICKET_ALREADY_ISSUED);
+        }
+    }
+
+    private List<List<PassengersDO>> createOrUpdatePassengers(List<TicketIssueReqVO> reqVOs, List<OrdersDO> orders) {
+        // 批量查询已有乘客
+        Set<Long> passengerIds = convertSetByFlatMap(reqVOs, reqVO -> reqVO.getPassengers().stream()
+                .map(TicketIssueReqVO.PassengerInfo::getId));
+        Map<Long, PassengersDO> passengerMap = CollUtil.isEmpty(passengerIds) ? Collections.emptyMap()
+                : convertMap(passengersMapper.selectByIds(passengerIds), PassengersDO::getId);
+
+        List<List<PassengersDO>> passengersList = new ArrayList<>(reqVOs.size());
+        List<PassengersDO> createPassengers = new ArrayList<>();
+        List<PassengersDO> updatePassengers = new ArrayList<>();
+        for (int i = 0; i < reqVOs.size(); i++) {
+            Long orderId = orders.get(i).getId();
+            List<PassengersDO> passengers = new ArrayList<>();
+            for (TicketIssueReqVO.PassengerInfo passengerInfo : reqVOs.get(i).getPassengers()) {
+                PassengersDO passenger;
+
+                if (passengerInfo.getId() != null) {
+                    // 更新现有乘客
+                    passenger = passengerMap.get(passengerInfo.getId());
+                    if (passenger == null) {
+                        throw new IllegalArgumentException("乘客不存在");
+                    }
+                    updatePassengerInfo(passenger, passengerInfo);
+                    updatePassengers.add(passenger);
+                } else {
+                    // 创建新乘客
+                    passenger = PassengersDO.builder()
+                            .orderId(orderId)
+                            .passengerType(passengerInfo.getPassengerType())
+                            .chineseName(buildChineseName(passengerInfo.getLastNameCn(), passengerInfo.getFirstNameCn()))
+                            .englishName(buildEnglishName(passengerInfo.getLastName(), passengerInfo.getFirstName()))
+                            .gender(passengerInfo.getGender() == 1 ? "MALE" : "FEMALE")
+                            .birthday(passengerInfo.getBirthday())
+                            .idType(convertDocumentType(passengerInfo.getDocumentType()))
+                            .idNumber(passengerInfo.getDocumentNo())
+                            .idExpiryDate(passengerInfo.getDocumentExpiry())
+                            .nationality(passengerInfo.getNationality())
+                            .phone(passengerInfo.getMobile())
+                            .email(passengerInfo.getEmail())
+                            .createdAt(LocalDateTime.now())
+                            .updatedAt(LocalDateTime.now())
+                            .build();
+                    createPassengers.add(passenger);
+                }
+
+                passengers.add(passenger);
+            }
+            passengersList.add(passengers);
+        }
+        // 批量插入新乘客，插入后回填 id；批量更新已有乘客
+        passengersMapper.insertBatch(createPassengers);
+        if (CollUtil.isNotEmpty(updatePassengers)) {
+            passengersMapper.updateBatch(updatePassengers);
+        }
+        return passengersList;
     }
 
-    private List<FlightSegmentsDO> createFlightSegments(TicketIssueReqVO reqVO, Long orderId, List<PassengersDO> passengers) {
+    private List<List<String>> createFlightSegments(List<TicketIssueReqVO> reqVOs, List<OrdersDO> orders,
+                                                    List<List<PassengersDO>> passengersList) {
+        List<List<String>> ticketNosList = new ArrayList<>(reqVOs.size());
         List<FlightSegmentsDO> flightSegments = new ArrayList<>();
-        
-        for (TicketIssueReqVO.FlightSegmentInfo segmentInfo : reqVO.getFlightSegments()) {
-            for (PassengersDO passenger : passengers) {
-                FlightSegmentsDO segment = FlightSegmentsDO.builder()
-                        .orderId(orderId)
-                        .passengerId(passenger.getId())
-                        .segmentType(segmentInfo.getSegmentType())
-                        .airlineCode(segmentInfo.getAirlineCode())
-                        .flightNo(segmentInfo.getFlightNo())
-                        .departureAirportCode(segmentInfo.getDepartureAirportCode())
-                        .arrivalAirportCode(segmentInfo.getArrivalAirportCode())
-                        .departureTime(segmentInfo.getDepartureTime())
-                        .arrivalTime(segmentInfo.getArrivalTime())
-                        .cabinClass(segmentInfo.getCabinClass())
-                        .status(10) // 10: 正常
-                        .createdAt(LocalDateTime.now())
-                        .updatedAt(LocalDateTime.now())
-                        .build();
-                flightSegmentsMapper.insert(segment);
-                flightSegments.add(segment);
+        for (int i = 0; i < reqVOs.size(); i++) {
+            Long orderId = orders.get(i).getId();
+            List<String> ticketNos = new ArrayList<>();
+            for (TicketIssueReqVO.FlightSegmentInfo segmentInfo : reqVOs.get(i).getFlightSegments()) {
+                // 为每个乘客的每个航段生成一个电子票号
+                for (PassengersDO passenger : passengersList.get(i)) {
+                    String ticketNo = travelNoService.generateTicketNo();
+                    FlightSegmentsDO segment = FlightSegmentsDO.builder()
+                            .orderId(orderId)
+                            .passengerId(passenger.getId())
+                            .segmentType(segmentInfo.getSegmentType())
+                            .airlineCode(segmentInfo.getAirlineCode())
+                            .flightNo(segmentInfo.getFlightNo())
+                            .departureAirportCode(segmentInfo.getDepartureAirportCode())
+                            .arrivalAirportCode(segmentInfo.getArrivalAirportCode())
+                            .departureTime(segmentInfo.getDepartureTime())
+                            .arrivalTime(segmentInfo.getArrivalTime())
+                            .cabinClass(segmentInfo.getCabinClass())
+                            .ticketNo(ticketNo)
+                            .status(10) // 10: 正常
+                            .createdAt(LocalDateTime.now())
+                            .updatedAt(LocalDateTime.now())
+                            .build();
+                    flightSegments.add(segment);
+                    ticketNos.add(ticketNo);
+                }
             }
+            ticketNosList.add(ticketNos);
         }
-        
-        return flightSegments;
+        flightSegmentsMapper.insertBatch(flightSegments);
+
+        return ticketNosList;
     }
 
-    private void createOrderFees(TicketIssueReqVO reqVO, Long orderId, List<PassengersDO> passengers) {
-        for (TicketIssueReqVO.FeeInfo feeInfo : reqVO.getFees()) {
-            // 如果费用与特定乘客相关，为每个乘客创建费用记录
-            if (feeInfo.getFeeType().equals("TICKET_PRICE")) {
-                for (PassengersDO passenger : passengers) {
+    private void createOrderFees(List<TicketIssueReqVO> reqVOs, List<OrdersDO> orders,
+                                 List<List<PassengersDO>> passengersList) {
+        List<OrderFeesDO> fees = new ArrayList<>();
+        for (int i = 0; i < reqVOs.size(); i++) {
+            Long orderId = orders.get(i).getId();
+            for (TicketIssueReqVO.FeeInfo feeInfo : reqVOs.get(i).getFees()) {
+                // 如果费用与特定乘客相关，为每个乘客创建费用记录
+                if (feeInfo.getFeeType().equals("TICKET_PRICE")) {
+                    for (PassengersDO passenger : passengersList.get(i)) {
+                        OrderFeesDO fee = OrderFeesDO.builder()
+                                .orderId(orderId)
+                                .passengerId(passenger.getId())
+                                .feeType(feeInfo.getFeeType())
+                                .amount(feeInfo.getAmount())
+                                .currency(feeInfo.getCurrency())
+                                .description(feeInfo.getDescription())
+                                .createdAt(LocalDateTime.now())
+                                .updatedAt(LocalDateTime.now())
+                                .build();
+                        fees.add(fee);
+                    }
+                } else {
+                    // 其他费用只创建一条记录
                     OrderFeesDO fee = OrderFeesDO.builder()
                             .orderId(orderId)
-                            .passengerId(passenger.getId())
                             .feeType(feeInfo.getFeeType())
                             .amount(feeInfo.getAmount())
                             .currency(feeInfo.getCurrency())
@@ -199,50 +334,11 @@ public class TicketServiceImpl implements TicketService {
                             .createdAt(LocalDateTime.now())
                             .updatedAt(LocalDateTime.now())
                             .build();
-                    orderFeesMapper.insert(fee);
+                    fees.add(fee);
                 }
-            } else {
-                // 其他费用只创建一条记录
-                OrderFeesDO fee = OrderFeesDO.builder()
-                        .orderId(orderId)
-                        .feeType(feeInfo.getFeeType())
-                        .amount(feeInfo.getAmount())
-                        .currency(feeInfo.getCurrency())
-                        .description(feeInfo.getDescription())
-                        .createdAt(LocalDateTime.now())
-                        .updatedAt(LocalDateTime.now())
-                        .build();
-                orderFeesMapper.insert(fee);
             }
         }
-    }
-
-    private List<String> generateTicketNumbers(List<PassengersDO> passengers, List<FlightSegmentsDO> flightSegments) {
-        List<String> ticketNos = new ArrayList<>();
-        
-        // 为每个乘客的每个航段生成一个电子票号
-        for (int i = 0; i < flightSegments.size(); i++) {
-            String ticketNo = "781" + RandomUtil.randomNumbers(10); // 13位电子票号
-            ticketNos.add(ticketNo);
-        }
-        
-        return ticketNos;
-    }
-
-    private void updateFlightSegmentsWithTicketNumbers(List<FlightSegmentsDO> flightSegments, List<String> ticketNos) {
-        for (int i = 0; i < flightSegments.size() && i < ticketNos.size(); i++) {
-            FlightSegmentsDO segment = flightSegments.get(i);
-            segment.setTicketNo(ticketNos.get(i));
-            segment.setUpdatedAt(LocalDateTime.now());
-            flightSegmentsMapper.updateById(segment);
-        }
-    }
-
-    private void updateOrderStatus(Long orderId, Integer status) {
-        OrdersDO order = ordersMapper.selectById(orderId);
-        order.setOrderStatus(status);
-        order.setUpdatedAt(LocalDateTime.now());
-        ordersMapper.updateById(order);
+        orderFeesMapper.insertBatch(fees);
     }
 
     private TicketIssueRespVO buildTicketIssueResponse(OrdersDO order, List<String> ticketNos) {
@@ -260,11 +356,6 @@ public class TicketServiceImpl implements TicketService {
     }
 
     // 辅助方法
-    private String generateOrderNo() {
-        return "ORD" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
-               RandomUtil.randomNumbers(3);
-    }
-
     private String buildChineseName(String lastNameCn, String firstNameCn) {
         if (StrUtil.isNotBlank(lastNameCn) && StrUtil.isNotBlank(firstNameCn)) {
             return lastNameCn + firstNameCn;
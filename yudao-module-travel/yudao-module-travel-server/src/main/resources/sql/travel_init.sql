@@ -97,7 +97,8 @@ CREATE TABLE `studio_flight_segments` (
     `tenant_id` bigint NOT NULL DEFAULT 0 COMMENT '租户编号',
     PRIMARY KEY (`id`),
     KEY `idx_order_id` (`order_id`),
-    KEY `idx_passenger_id` (`passenger_id`)
+    KEY `idx_passenger_id` (`passenger_id`),
+    KEY `idx_ticket_no` (`ticket_no`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='航班航段表';
 
 -- 创建订单费用明细表
@@ -328,4 +329,35 @@ INSERT INTO `studio_refund_policy` (`airline_code`, `cabin_class`, `refund_type`
 ('CZ', 'Y', 1, 0.2000, 50.00, 24, '中国南方航空经济舱自愿退票政策', '2025-01-01'),
 ('CZ', 'Y', 2, 0.1000, 20.00, 2, '中国南方航空经济舱非自愿退票政策', '2025-01-01'),
 ('MU', 'C', 1, 0.1500, 100.00, 24, '中国东方航空商务舱自愿退票政策', '2025-01-01'),
-('MU', 'C', 2, 0.0500, 50.00, 2, '中国东方航空商务舱非自愿退票政策', '2025-01-01');
\ No newline at end of file
+('MU', 'C', 2, 0.0500, 50.00, 2, '中国东方航空商务舱非自愿退票政策', '2025-01-01');
+
+-- 创建座位库存表
+CREATE TABLE `studio_seat_inventory` (
+    `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `flight_no` varchar(8) NOT NULL COMMENT '航班号',
+    `departure_date` date NOT NULL COMMENT '出发日期',
+    `cabin_class` varchar(20) NOT NULL COMMENT '舱位等级',
+    `sold_seats` int NOT NULL DEFAULT 0 COMMENT '已售座位数',
+    `creator` varchar(64) DEFAULT '' COMMENT '创建者',
+    `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updater` varchar(64) DEFAULT '' COMMENT '更新者',
+    `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_flight_date_cabin` (`flight_no`, `departure_date`, `cabin_class`),
+    INDEX `idx_departure_date` (`departure_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='座位库存表';
+
+-- 创建序号号段表
+CREATE TABLE `studio_no_segment` (
+    `type` varchar(32) NOT NULL COMMENT '序号类型',
+    `max_value` bigint NOT NULL DEFAULT 0 COMMENT '已租用的最大序号',
+    `creator` varchar(64) DEFAULT '' COMMENT '创建者',
+    `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updater` varchar(64) DEFAULT '' COMMENT '更新者',
+    `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+
+    PRIMARY KEY (`type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='序号号段表';
@@ -0,0 +1,210 @@
+package cn.iocoder.yudao.module.travel.service.flight.schedule;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link FlightScheduleIndex} 与 {@link FlightScheduleParser} 的单元测试，包括并发扣减与查询耗时
+ *
+ * 查询耗时的压测标记为 benchmark，默认构建不运行
+ *
+ * @author 芋道源码
+ */
+public class FlightScheduleIndexTest {
+
+    /**
+     * 2025-01-06 是周一
+     */
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    private static final String FILE = "# 注释\n"
+            + "\n"
+            + "MU|MU585|PVG|LAX|10:30|14:45|B787-9|1.3.5.7|2025-01-01|2025-12-31|BUSINESS:2:6200.00,ECONOMY:10:3600.00\n"
+            + "MU|MU583|PVG|LAX|08:00|12:00|B777-300ER|1234567|2025-01-01|2025-12-31|ECONOMY:250:3800.00\n"
+            + "CA|CA982|JFK|PEK|15:30|18:15+1|B747-8|1234567|2025-01-01|2025-12-31|ECONOMY:300:5200.00\n";
+
+    @Test
+    public void testParse() throws IOException {
+        List<FlightSchedule> schedules = FlightScheduleParser.parse(new StringReader(FILE));
+
+        assertEquals(3, schedules.size());
+        FlightSchedule schedule = schedules.get(0);
+        assertEquals("MU", schedule.getAirlineCode());
+        assertEquals("MU585", schedule.getFlightNo());
+        assertEquals(LocalTime.of(10, 30), schedule.getDepartureTime());
+        assertEquals(0b1010101, schedule.getDaysOfWeek());
+        assertEquals(2, schedule.getCabins().size());
+        assertEquals("BUSINESS", schedule.getCabins().get(0).getCabinClass());
+        assertEquals(1, schedules.get(2).getArrivalDayOffset());
+    }
+
+    @Test
+    public void testParse_invalid() {
+        String file = "MU|MU583|PVG|LAX|08:00|12:00|B777-300ER|1234567|2025-01-01|2025-12-31|ECONOMY:250:3800.00\n"
+                + "MU|CA583|PVG|LAX|08:00|12:00|B777-300ER|1234567|2025-01-01|2025-12-31|ECONOMY:250:3800.00\n";
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> FlightScheduleParser.parse(new StringReader(file)));
+        assertTrue(ex.getMessage().startsWith("第 2 行"));
+    }
+
+    @Test
+    public void testSearch() throws IOException {
+        FlightScheduleIndex index = buildIndex(null);
+
+        // 周一：两个航班都执行，按起飞时间排序
+        int[] instances = index.search("PVG", "LAX", MONDAY);
+        assertEquals(2, instances.length);
+        assertEquals("MU583", index.getSchedule(instances[0]).getFlightNo());
+        assertEquals("MU585", index.getSchedule(instances[1]).getFlightNo());
+        assertEquals(MONDAY, index.getDate(instances[0]));
+        // 周二：MU585 不执行
+        assertEquals(1, index.search("pvg", "lax", MONDAY.plusDays(1)).length);
+        // 反方向、窗口外、非法代码
+        assertEquals(0, index.search("LAX", "PVG", MONDAY).length);
+        assertEquals(0, index.search("PVG", "LAX", MONDAY.plusDays(30)).length);
+        assertEquals(0, index.search("PV-", "LAX", MONDAY).length);
+    }
+
+    @Test
+    public void testFind() throws IOException {
+        FlightScheduleIndex index = buildIndex(null);
+
+        int instance = index.find("MU585", MONDAY);
+        assertNotEquals(FlightScheduleIndex.NOT_FOUND, instance);
+        assertEquals(12, index.getAvailableSeats(instance));
+        assertEquals(2, index.getAvailableSeats(instance, "BUSINESS"));
+        assertEquals(0, index.getAvailableSeats(instance, "FIRST"));
+        assertEquals(FlightScheduleIndex.NOT_FOUND, index.find("MU585", MONDAY.plusDays(1)));
+        assertEquals(FlightScheduleIndex.NOT_FOUND, index.find("MU999", MONDAY));
+    }
+
+    @Test
+    public void testBuild_duplicate() throws IOException {
+        List<FlightSchedule> schedules = FlightScheduleParser.parse(new StringReader(FILE + FILE));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> FlightScheduleIndex.build(schedules, MONDAY, MONDAY.plusDays(7), null));
+    }
+
+    @Test
+    public void testBuild_keepSoldSeats() throws IOException {
+        FlightScheduleIndex previous = buildIndex(null);
+        int instance = previous.find("MU585", MONDAY);
+        assertTrue(previous.tryDecreaseAvailableSeats(instance, "ECONOMY", 4));
+
+        FlightScheduleIndex index = buildIndex(previous);
+
+        assertEquals(6, index.getAvailableSeats(index.find("MU585", MONDAY), "ECONOMY"));
+        assertEquals(2, index.getAvailableSeats(index.find("MU585", MONDAY), "BUSINESS"));
+    }
+
+    @Test
+    public void testDecreaseAvailableSeats() throws IOException {
+        FlightScheduleIndex index = buildIndex(null);
+        int instance = index.find("MU585", MONDAY);
+
+        assertTrue(index.tryDecreaseAvailableSeats(instance, "BUSINESS", 2));
+        assertFalse(index.tryDecreaseAvailableSeats(instance, "BUSINESS", 1));
+        assertFalse(index.tryDecreaseAvailableSeats(instance, "FIRST", 1));
+        index.increaseAvailableSeats(instance, "BUSINESS", 5);
+        assertEquals(2, index.getAvailableSeats(instance, "BUSINESS"));
+    }
+
+    @Test
+    public void testDecreaseAvailableSeats_concurrent() throws Exception {
+        // 准备参数：16 个线程抢 250 个座位
+        FlightScheduleIndex index = buildIndex(null);
+        int instance = index.find("MU583", MONDAY);
+        int threads = 16;
+        AtomicInteger success = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                awaitQuietly(start);
+                for (int j = 0; j < 100; j++) {
+                    if (index.tryDecreaseAvailableSeats(instance, "ECONOMY", 1)) {
+                        success.incrementAndGet();
+                    }
+                }
+            });
+        }
+        tasks.forEach(executor::execute);
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // 断言：恰好售出全部座位，没有超卖
+        assertEquals(250, success.get());
+        assertEquals(0, index.getAvailableSeats(instance, "ECONOMY"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testSearch_latency(TestReporter reporter) throws IOException {
+        // 准备参数：1000 条航线，每条航线每天 5 个航班，展开 90 天，共 45 万个航班实例
+        StringBuilder file = new StringBuilder();
+        for (int route = 0; route < 1000; route++) {
+            String departure = airportCode(route);
+            String arrival = airportCode(route + 1000);
+            for (int flight = 0; flight < 5; flight++) {
+                file.append("MU|MU").append(route * 5 + flight).append('|').append(departure).append('|').append(arrival)
+                        .append('|').append(String.format("%02d:00", 6 + flight * 3)).append("|23:00|A320|1234567")
+                        .append("|2025-01-01|2025-12-31|BUSINESS:8:2000.00,ECONOMY:150:900.00\n");
+            }
+        }
+        FlightScheduleIndex index = FlightScheduleIndex.build(FlightScheduleParser.parse(new StringReader(file.toString())),
+                MONDAY, MONDAY.plusDays(90), null);
+        assertEquals(450_000, index.size());
+
+        int iterations = 1_000_000;
+        long found = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            int route = i % 1000;
+            int[] instances = index.search(airportCode(route), airportCode(route + 1000), MONDAY.plusDays(i % 90));
+            found += instances.length;
+            found += index.getAvailableSeats(instances[0], "ECONOMY");
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        assertEquals(iterations * (5L + 150L), found);
+        reporter.publishEntry("平均耗时（ns）", String.valueOf(elapsed / iterations));
+    }
+
+    private static FlightScheduleIndex buildIndex(FlightScheduleIndex previous) throws IOException {
+        return FlightScheduleIndex.build(FlightScheduleParser.parse(new StringReader(FILE)),
+                MONDAY, MONDAY.plusDays(7), previous);
+    }
+
+    private static String airportCode(int i) {
+        return "" + (char) ('A' + i / 676) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
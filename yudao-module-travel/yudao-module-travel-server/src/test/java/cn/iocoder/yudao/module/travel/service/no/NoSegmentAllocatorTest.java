@@ -0,0 +1,141 @@
+package cn.iocoder.yudao.module.travel.service.no;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link NoSegmentAllocator} 的单元测试，包括唯一性与吞吐量
+ *
+ * 租用号段使用 {@link AtomicLong} 模拟 Redis INCRBY，并模拟 200 微秒的网络往返。
+ * 吞吐量的压测标记为 benchmark，默认构建不运行，使用 mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark 运行
+ *
+ * @author 芋道源码
+ */
+public class NoSegmentAllocatorTest {
+
+    private static final int STEP = 1000;
+    private static final long LEASE_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Test
+    public void testNext_sequential() {
+        AtomicLong store = new AtomicLong();
+        NoSegmentAllocator allocator = new NoSegmentAllocator(10, () -> store.addAndGet(10));
+
+        for (long i = 1; i <= 25; i++) {
+            assertEquals(i, allocator.next());
+        }
+        assertEquals(30, store.get());
+    }
+
+    @Test
+    public void testNext_restart() {
+        // 模拟节点重启：新的分配器从下一个号段开始，空洞不超过一个号段
+        AtomicLong store = new AtomicLong();
+        NoSegmentAllocator allocator = new NoSegmentAllocator(10, () -> store.addAndGet(10));
+        allocator.next();
+        NoSegmentAllocator restarted = new NoSegmentAllocator(10, () -> store.addAndGet(10));
+
+        assertEquals(11, restarted.next());
+    }
+
+    @Test
+    public void testNext_multiNodeConcurrent() throws InterruptedException {
+        // 准备参数：两个节点共享同一个存储，并发分配
+        AtomicLong store = new AtomicLong();
+        List<NoSegmentAllocator> allocators = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            allocators.add(new NoSegmentAllocator(STEP, () -> lease(store)));
+        }
+        int threads = 16;
+        int perThread = 50_000;
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+
+        // 调用
+        run(threads, index -> {
+            NoSegmentAllocator allocator = allocators.get(index % allocators.size());
+            for (int i = 0; i < perThread; i++) {
+                values.add(allocator.next());
+            }
+        });
+
+        // 断言：全部唯一，并且空洞不超过每个节点一个号段
+        long total = (long) threads * perThread;
+        assertEquals(total, values.size());
+        assertTrue(store.get() - total <= (long) STEP * allocators.size());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testNext_throughput(TestReporter reporter) throws InterruptedException {
+        // 预热
+        AtomicLong store = new AtomicLong();
+        NoSegmentAllocator allocator = new NoSegmentAllocator(STEP, () -> lease(store));
+        for (int i = 0; i < 100_000; i++) {
+            allocator.next();
+        }
+
+        for (int threads : new int[]{1, 4, 16}) {
+            int perThread = 1_000_000;
+            long elapsed = run(threads, index -> {
+                for (int i = 0; i < perThread; i++) {
+                    allocator.next();
+                }
+            });
+            long total = (long) threads * perThread;
+            reporter.publishEntry(threads + " 线程的吞吐（ops/s）", String.format("%.0f", total * 1e9 / elapsed));
+        }
+    }
+
+    private static long lease(AtomicLong store) {
+        LockSupport.parkNanos(LEASE_LATENCY_NANOS);
+        return store.addAndGet(STEP);
+    }
+
+    private static long run(int threads, IndexedTask task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch end = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    task.run(index);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    end.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        end.await();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return elapsed;
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+
+        void run(int index) throws InterruptedException;
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package cn.iocoder.yudao.module.travel.service.refund;
+
+import cn.iocoder.yudao.module.travel.dal.dataobject.refund.RefundPolicyDO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link RefundPolicyIndex} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class RefundPolicyIndexTest {
+
+    private static final Integer REFUND_TYPE = 1;
+
+    @Test
+    public void testGet_beforeFirstPolicy() {
+        // 准备参数
+        RefundPolicyIndex index = new RefundPolicyIndex(Arrays.asList(
+                buildPolicy(1L, LocalDate.of(2025, 1, 1), null),
+                buildPolicy(2L, LocalDate.of(2025, 3, 1), null)));
+
+        // 调用，并断言：早于第一条政策的生效日期时，不存在政策
+        assertNull(index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2024, 12, 31)));
+        assertEquals(1L, index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 1, 1)).getId());
+    }
+
+    @Test
+    public void testGet_overlapping() {
+        // 准备参数：长期政策 1，期间叠加一条临时政策 2
+        RefundPolicyIndex index = new RefundPolicyIndex(Arrays.asList(
+                buildPolicy(2L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)),
+                buildPolicy(1L, LocalDate.of(2025, 1, 1), null)));
+
+        // 调用，并断言：取最近生效的政策
+        assertEquals(1L, index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 2, 28)).getId());
+        assertEquals(2L, index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 3, 1)).getId());
+        assertEquals(2L, index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 3, 31)).getId());
+        // 断言：临时政策失效后，回退到仍然有效的长期政策
+        assertEquals(1L, index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 4, 1)).getId());
+    }
+
+    @Test
+    public void testGet_expired() {
+        // 准备参数
+        RefundPolicyIndex index = new RefundPolicyIndex(Arrays.asList(
+                buildPolicy(1L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)),
+                buildPolicy(2L, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28))));
+
+        // 调用，并断言：失效日期当天仍然有效
+        assertEquals(1L, index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 1, 31)).getId());
+        assertEquals(2L, index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 2, 28)).getId());
+        // 断言：全部失效时，不存在政策
+        assertNull(index.get("MU", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 3, 1)));
+    }
+
+    @Test
+    public void testGet_notExists() {
+        // 准备参数：没有生效日期的政策不参与索引
+        RefundPolicyIndex index = new RefundPolicyIndex(Arrays.asList(
+                buildPolicy(1L, LocalDate.of(2025, 1, 1), null),
+                buildPolicy(2L, null, null)));
+
+        // 调用，并断言
+        assertEquals(1, index.size());
+        assertNull(index.get("CA", "ECONOMY", REFUND_TYPE, LocalDate.of(2025, 2, 1)));
+        assertNull(index.get("MU", "BUSINESS", REFUND_TYPE, LocalDate.of(2025, 2, 1)));
+        assertNull(index.get("MU", "ECONOMY", 2, LocalDate.of(2025, 2, 1)));
+    }
+
+    private static RefundPolicyDO buildPolicy(Long id, LocalDate effectiveDate, LocalDate expireDate) {
+        return new RefundPolicyDO().setId(id).setAirlineCode("MU").setCabinClass("ECONOMY").setRefundType(REFUND_TYPE)
+                .setEffectiveDate(effectiveDate).setExpireDate(expireDate);
+    }
+
+}
@@ -0,0 +1,358 @@
+package cn.iocoder.yudao.module.travel.service.seat;
+
+import cn.iocoder.yudao.module.travel.service.flight.schedule.FlightSchedule;
+import cn.iocoder.yudao.module.travel.service.flight.schedule.FlightScheduleIndex;
+import cn.iocoder.yudao.module.travel.service.flight.schedule.FlightScheduleParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link SeatInventoryEngine} 的单元测试，包括热门航班的并发正确性
+ *
+ * @author 芋道源码
+ */
+public class SeatInventoryEngineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 6);
+
+    private static final String FILE =
+            "MU|MU583|PVG|LAX|08:00|12:00|B777-300ER|1234567|2025-01-01|2025-12-31|BUSINESS:2:6200.00,ECONOMY:250:3800.00\n";
+
+    @Test
+    public void testHold_confirm() throws IOException {
+        FlightScheduleIndex index = buildIndex();
+        SeatInventoryEngine engine = new SeatInventoryEngine(() -> index, new ReentrantLock(), Duration.ofMinutes(1));
+
+        assertTrue(engine.hold("h1", "MU583", DATE, "BUSINESS", 2));
+        assertTrue(engine.hold("h1", "MU583", DATE, "BUSINESS", 2)); // 重复占座，不重复扣减
+        assertFalse(engine.hold("h2", "MU583", DATE, "BUSINESS", 1));
+        assertEquals(0, availableSeats(index, "BUSINESS"));
+
+        assertNotNull(engine.confirm("h1"));
+        assertNull(engine.confirm("h1"));
+        assertNull(engine.release("h1"));
+        assertEquals(0, availableSeats(index, "BUSINESS"));
+    }
+
+    @Test
+    public void testRelease() throws IOException {
+        FlightScheduleIndex index = buildIndex();
+        SeatInventoryEngine engine = new SeatInventoryEngine(() -> index, new ReentrantLock(), Duration.ofMinutes(1));
+        engine.hold("h1", "MU583", DATE, "BUSINESS", 2);
+
+        assertNotNull(engine.release("h1"));
+        assertNull(engine.release("h1"));
+        assertEquals(2, availableSeats(index, "BUSINESS"));
+        assertEquals(0, engine.getHoldCount());
+    }
+
+    @Test
+    public void testExpireHolds() throws Exception {
+        FlightScheduleIndex index = buildIndex();
+        SeatInventoryEngine engine = new SeatInventoryEngine(() -> index, new ReentrantLock(), Duration.ofMillis(20));
+        engine.hold("h1", "MU583", DATE, "ECONOMY", 3);
+        engine.hold("h2", "MU583", DATE, "ECONOMY", 4);
+        engine.confirm("h2");
+
+        assertEquals(0, engine.expireHolds());
+        Thread.sleep(50);
+
+        // 断言：只归还未确认的 h1
+        assertEquals(1, engine.expireHolds());
+        assertEquals(246, availableSeats(index, "ECONOMY"));
+        assertNull(engine.confirm("h1"));
+    }
+
+    @Test
+    public void testReserve_notExists() throws IOException {
+        FlightScheduleIndex index = buildIndex();
+        SeatInventoryEngine engine = new SeatInventoryEngine(() -> index, new ReentrantLock(), Duration.ofMinutes(1));
+
+        // 不在航班计划中的航班、舱位，无法扣减
+        assertFalse(engine.reserve("CA981", DATE, "ECONOMY", 1));
+        assertFalse(engine.reserve("MU583", DATE, "FIRST", 1));
+        assertFalse(engine.reserve("MU583", DATE.plusDays(1), "ECONOMY", 1));
+        assertFalse(engine.hold("h1", "MU583", DATE, "FIRST", 1));
+        assertFalse(engine.exists("MU583", DATE, "FIRST"));
+        // 舱位等级忽略大小写，共用同一个计数器
+        assertTrue(engine.exists("MU583", DATE, "economy"));
+        assertTrue(engine.reserve("MU583", DATE, "economy", 200));
+        assertTrue(engine.hold("h2", "MU583", DATE, "Economy", 50));
+        assertFalse(engine.reserve("MU583", DATE, "ECONOMY", 1));
+        assertEquals("ECONOMY", engine.release("h2").getCabinClass());
+        assertEquals(50, availableSeats(index, "ECONOMY"));
+    }
+
+    @Test
+    public void testReserve_notLoaded() {
+        SeatInventoryEngine engine = new SeatInventoryEngine(() -> FlightScheduleIndex.EMPTY, new ReentrantLock(), Duration.ofMinutes(1));
+
+        // 航班计划未加载时，不能当作没有库存上限
+        assertFalse(engine.reserve("MU583", DATE, "ECONOMY", 1));
+        assertFalse(engine.hold("h1", "MU583", DATE, "ECONOMY", 1));
+        assertEquals(0, engine.getHoldCount());
+    }
+
+    @Test
+    public void testFlushSoldSeats() throws IOException {
+        FlightScheduleIndex index = buildIndex();
+        SeatInventoryEngine engine = new SeatInventoryEngine(() -> index, new ReentrantLock(), Duration.ofMinutes(1));
+        engine.recordSoldSeats("MU583", DATE, "ECONOMY", 3);
+        engine.recordSoldSeats("MU583", DATE, "economy", -1);
+        engine.recordSoldSeats("MU583", DATE, "BUSINESS", 1);
+
+        // 写入失败时，变化量保留到下次
+        assertEquals(0, engine.flushSoldSeats((flightNo, date, cabinClass, delta) -> {
+            throw new IllegalStateException("模拟数据库异常");
+        }));
+        Map<String, Integer> written = new ConcurrentHashMap<>();
+        assertEquals(2, engine.flushSoldSeats((flightNo, date, cabinClass, delta) -> written.merge(cabinClass, delta, Integer::sum)));
+        assertEquals(2, (int) written.get("ECONOMY"));
+        assertEquals(1, (int) written.get("BUSINESS"));
+        assertEquals(0, engine.flushSoldSeats((flightNo, date, cabinClass, delta) -> fail("没有变化，不应写入")));
+    }
+
+    @Test
+    public void testReserve_reimportConcurrent() throws Exception {
+        // 准备参数：扣减的同时，不断重新导入航班计划、替换索引
+        AtomicReference<FlightScheduleIndex> index = new AtomicReference<>(buildIndex());
+        ReadWriteLock seatLock = new ReentrantReadWriteLock();
+        SeatInventoryEngine engine = new SeatInventoryEngine(index::get, seatLock.readLock(), Duration.ofMinutes(1));
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread reimport = new Thread(() -> {
+            while (running.get()) {
+                seatLock.writeLock().lock();
+                try {
+                    index.set(FlightScheduleIndex.build(parseQuietly(), DATE, DATE.plusDays(1), index.get()));
+                } finally {
+                    seatLock.writeLock().unlock();
+                }
+            }
+        });
+        reimport.start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 100; j++) {
+                    if (engine.reserve("MU583", DATE, "ECONOMY", 1)) {
+                        reserved.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        running.set(false);
+        reimport.join();
+
+        // 断言：替换索引期间的扣减没有丢失
+        assertEquals(250, reserved.get());
+        assertEquals(0, availableSeats(index.get(), "ECONOMY"));
+    }
+
+    @Test
+    public void testHotFlight_concurrent() throws Exception {
+        // 准备参数：热门航班开售后，64 个线程同时在一个航班上占座、确认、释放，并同时执行过期清理
+        FlightScheduleIndex index = buildIndex();
+        SeatInventoryEngine engine = new SeatInventoryEngine(() -> index, new ReentrantLock(), Duration.ofMillis(5));
+        int threads = 64;
+        int operations = 20_000;
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger holdSequence = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean negative = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        executor.execute(() -> {
+            while (running.get()) {
+                engine.expireHolds();
+                if (availableSeats(index, "ECONOMY") < 0) {
+                    negative.set(true);
+                }
+            }
+        });
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                awaitQuietly(start);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int j = 0; j < operations; j++) {
+                    String holdId = "h" + holdSequence.incrementAndGet();
+                    if (!engine.hold(holdId, "MU583", DATE, "ECONOMY", 1)) {
+                        continue;
+                    }
+                    // 大部分占座被放弃或过期，少量确认
+                    int action = random.nextInt(100);
+                    if (action < 2) {
+                        if (engine.confirm(holdId) != null) {
+                            confirmed.incrementAndGet();
+                        }
+                    } else if (action < 60) {
+                        engine.release(holdId);
+                    }
+                }
+            });
+        }
+
+        tasks.forEach(executor::execute);
+        start.countDown();
+        while (holdSequence.get() < threads * operations) {
+            Thread.sleep(10);
+        }
+        running.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        engine.expireHolds();
+
+        // 断言：没有超卖，未确认的占座全部归还
+        assertFalse(negative.get());
+        assertEquals(0, engine.getHoldCount());
+        assertTrue(confirmed.get() <= 250);
+        assertEquals(250 - confirmed.get(), availableSeats(index, "ECONOMY"));
+    }
+
+    @Test
+    public void testReserve_multiNode() throws Exception {
+        // 准备参数：两个节点各自加载航班计划，共享同一个已占用座位数的计数器
+        SharedSeatCounter counter = new SharedSeatCounter();
+        FlightScheduleIndex index1 = buildIndex();
+        FlightScheduleIndex index2 = buildIndex();
+        SeatInventoryEngine node1 = new SeatInventoryEngine(() -> index1, new ReentrantLock(), counter, Duration.ofMinutes(1));
+        SeatInventoryEngine node2 = new SeatInventoryEngine(() -> index2, new ReentrantLock(), counter, Duration.ofMinutes(1));
+        int threads = 16;
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            SeatInventoryEngine engine = i % 2 == 0 ? node1 : node2;
+            executor.execute(() -> {
+                awaitQuietly(start);
+                for (int j = 0; j < 100; j++) {
+                    if (engine.reserve("MU583", DATE, "ECONOMY", 1)) {
+                        reserved.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        // 调用
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        // 断言：两个节点合计不超过座位数；被共享计数器拒绝的扣减，不影响本节点的剩余座位数
+        assertEquals(250, reserved.get());
+        assertEquals(250, counter.get("MU583", DATE, "ECONOMY"));
+        assertEquals(250, availableSeats(index1, "ECONOMY") + availableSeats(index2, "ECONOMY"));
+
+        // 调用：一个节点归还后，另一个节点可以售出
+        node1.increase("MU583", DATE, "ECONOMY", 1);
+        assertTrue(node2.reserve("MU583", DATE, "ECONOMY", 1));
+        assertFalse(node1.hold("h1", "MU583", DATE, "ECONOMY", 1));
+        assertEquals(0, node1.getHoldCount());
+    }
+
+    @Test
+    public void testReserve_counterFailed() throws IOException {
+        // 准备参数：共享计数器不可用
+        FlightScheduleIndex index = buildIndex();
+        SeatInventoryEngine engine = new SeatInventoryEngine(() -> index, new ReentrantLock(), new SharedSeatCounter() {
+
+            @Override
+            public boolean tryIncrease(String flightNo, LocalDate departureDate, String cabinClass, int count, int seats) {
+                throw new IllegalStateException("Redis 不可用");
+            }
+
+        }, Duration.ofMinutes(1));
+
+        // 调用，并断言：异常抛出，本节点的剩余座位数不变
+        assertThrows(IllegalStateException.class, () -> engine.reserve("MU583", DATE, "ECONOMY", 1));
+        assertThrows(IllegalStateException.class, () -> engine.hold("h1", "MU583", DATE, "ECONOMY", 1));
+        assertEquals(250, availableSeats(index, "ECONOMY"));
+        assertEquals(0, engine.getHoldCount());
+    }
+
+    private static FlightScheduleIndex buildIndex() throws IOException {
+        return FlightScheduleIndex.build(FlightScheduleParser.parse(new StringReader(FILE)), DATE, DATE.plusDays(1), null);
+    }
+
+    private static List<FlightSchedule> parseQuietly() {
+        try {
+            return FlightScheduleParser.parse(new StringReader(FILE));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static int availableSeats(FlightScheduleIndex index, String cabinClass) {
+        return index.getAvailableSeats(index.find("MU583", DATE), cabinClass);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 模拟集群共享的计数器，例如说 Redis
+     */
+    private static class SharedSeatCounter implements SeatInventoryEngine.SeatCounter {
+
+        private final Map<String, Integer> occupied = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean tryIncrease(String flightNo, LocalDate departureDate, String cabinClass, int count, int seats) {
+            AtomicBoolean success = new AtomicBoolean();
+            occupied.compute(buildKey(flightNo, departureDate, cabinClass), (key, value) -> {
+                int current = value != null ? value : 0;
+                if (current + count > seats) {
+                    return current;
+                }
+                success.set(true);
+                return current + count;
+            });
+            return success.get();
+        }
+
+        @Override
+        public void decrease(String flightNo, LocalDate departureDate, String cabinClass, int count) {
+            occupied.computeIfPresent(buildKey(flightNo, departureDate, cabinClass),
+                    (key, value) -> Math.max(value - count, 0));
+        }
+
+        private int get(String flightNo, LocalDate departureDate, String cabinClass) {
+            return occupied.getOrDefault(buildKey(flightNo, departureDate, cabinClass), 0);
+        }
+
+        private static String buildKey(String flightNo, LocalDate departureDate, String cabinClass) {
+            return flightNo + ":" + departureDate + ":" + cabinClass;
+        }
+
+    }
+
+}